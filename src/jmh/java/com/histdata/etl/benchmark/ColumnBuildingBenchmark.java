@@ -0,0 +1,98 @@
+package com.histdata.etl.benchmark;
+
+import com.histdata.etl.loader.DolphinDbLoader;
+import com.histdata.etl.model.FutureQuoteRecord;
+import com.histdata.etl.model.XbondQuoteRecord;
+import com.histdata.etl.model.XbondTradeRecord;
+import com.histdata.etl.model.batch.FutureQuoteBatch;
+import com.histdata.etl.model.batch.XbondQuoteBatch;
+import com.histdata.etl.model.batch.XbondTradeBatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how DolphinDbLoader turns one synthetic day of transformed records into DolphinDB tables:
+ * records are appended to a columnar batch of {@link DolphinDbLoader#BATCH_SIZE} rows and each full batch
+ * is wrapped into a BasicTable, as the record-list load path does. No server is involved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ColumnBuildingBenchmark {
+
+    @Param({"" + SyntheticDay.QUOTE_SNAPSHOTS})
+    public int quoteSnapshots;
+
+    @Param({"" + SyntheticDay.TRADES})
+    public int trades;
+
+    @Param({"" + SyntheticDay.FUTURE_TICKS})
+    public int futureTicks;
+
+    private List<XbondQuoteRecord> quotes;
+    private List<XbondTradeRecord> tradeRecords;
+    private List<FutureQuoteRecord> futures;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        quotes = SyntheticDay.quoteRecords(quoteSnapshots, 1);
+        tradeRecords = SyntheticDay.tradeRecords(trades, 2);
+        futures = SyntheticDay.futureRecords(futureTicks, 3);
+    }
+
+    @Benchmark
+    public void xbondQuotes(Blackhole blackhole) {
+        XbondQuoteBatch batch = new XbondQuoteBatch(DolphinDbLoader.BATCH_SIZE);
+        for (XbondQuoteRecord record : quotes) {
+            batch.append(record);
+            if (batch.size() == DolphinDbLoader.BATCH_SIZE) {
+                blackhole.consume(DolphinDbLoader.toTable(batch));
+                batch = new XbondQuoteBatch(DolphinDbLoader.BATCH_SIZE);
+            }
+        }
+        blackhole.consume(DolphinDbLoader.toTable(batch));
+    }
+
+    @Benchmark
+    public void xbondTrades(Blackhole blackhole) {
+        XbondTradeBatch batch = new XbondTradeBatch(DolphinDbLoader.BATCH_SIZE);
+        for (XbondTradeRecord record : tradeRecords) {
+            batch.append(record);
+            if (batch.size() == DolphinDbLoader.BATCH_SIZE) {
+                blackhole.consume(DolphinDbLoader.toTable(batch));
+                batch = new XbondTradeBatch(DolphinDbLoader.BATCH_SIZE);
+            }
+        }
+        blackhole.consume(DolphinDbLoader.toTable(batch));
+    }
+
+    @Benchmark
+    public void futureQuotes(Blackhole blackhole) {
+        FutureQuoteBatch batch = new FutureQuoteBatch(DolphinDbLoader.BATCH_SIZE);
+        for (FutureQuoteRecord record : futures) {
+            batch.append(record);
+            if (batch.size() == DolphinDbLoader.BATCH_SIZE) {
+                blackhole.consume(DolphinDbLoader.toTable(batch));
+                batch = new FutureQuoteBatch(DolphinDbLoader.BATCH_SIZE);
+            }
+        }
+        blackhole.consume(DolphinDbLoader.toTable(batch));
+    }
+}
@@ -0,0 +1,107 @@
+package com.histdata.etl.benchmark;
+
+import com.histdata.etl.datasource.MappedCsvReader;
+import com.histdata.etl.transformer.XbondTradeTransformer;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the commons-csv parsing path with the memory-mapped tokenizer on a synthetic XbondCfetsDeal file.
+ * The "tokenize" benchmarks read every field; the "transform" benchmarks run the full trade transformation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CsvParsingBenchmark {
+
+    @Param({"500000"})
+    public int rows;
+
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void writeFile() throws IOException {
+        file = Files.createTempFile("xbond-deal-", ".csv");
+        SyntheticDay.writeTradeFile(file, rows, 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void tokenizeCommonsCsv(Blackhole blackhole) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+             CSVParser parser = CSVFormat.DEFAULT.withHeader().withIgnoreHeaderCase().withTrim().parse(reader)) {
+            for (CSVRecord record : parser) {
+                blackhole.consume(record.get("bond_key"));
+                blackhole.consume(Double.parseDouble(record.get("net_price")));
+                blackhole.consume(Long.parseLong(record.get("deal_size")));
+                blackhole.consume(record.get("deal_time"));
+            }
+        }
+    }
+
+    @Benchmark
+    public void tokenizeMapped(Blackhole blackhole) throws IOException {
+        try (MappedCsvReader reader = MappedCsvReader.open(file)) {
+            int bondKey = reader.requireColumn("bond_key");
+            int netPrice = reader.requireColumn("net_price");
+            int dealSize = reader.requireColumn("deal_size");
+            int dealTime = reader.requireColumn("deal_time");
+            while (reader.next()) {
+                blackhole.consume(reader.getString(bondKey));
+                blackhole.consume(reader.getDouble(netPrice));
+                blackhole.consume(reader.getLong(dealSize));
+                blackhole.consume(reader.getTimestampMillis(dealTime));
+            }
+        }
+    }
+
+    @Benchmark
+    public void transformCommonsCsv(Blackhole blackhole) throws Exception {
+        XbondTradeTransformer transformer = new XbondTradeTransformer();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+             CSVParser parser = CSVFormat.DEFAULT.withHeader().withIgnoreHeaderCase().withTrim().parse(reader)) {
+            for (CSVRecord record : parser) {
+                blackhole.consume(transformer.transform(record, SyntheticDay.BUSINESS_DATE));
+            }
+        }
+    }
+
+    @Benchmark
+    public void transformMapped(Blackhole blackhole) throws IOException {
+        XbondTradeTransformer transformer = new XbondTradeTransformer();
+        try (MappedCsvReader reader = MappedCsvReader.open(file)) {
+            while (reader.next()) {
+                blackhole.consume(transformer.transform(reader, SyntheticDay.BUSINESS_DATE));
+            }
+        }
+    }
+}
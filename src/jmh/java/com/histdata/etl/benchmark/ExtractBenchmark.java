@@ -0,0 +1,93 @@
+package com.histdata.etl.benchmark;
+
+import com.histdata.etl.config.CosConfig;
+import com.histdata.etl.datasource.LocalCosObjectStore;
+import com.histdata.etl.datasource.MappedCsvReader;
+import com.histdata.etl.datasource.XbondQuoteExtractor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures CosExtractor on a synthetic AllPriceDepth day split over several objects of a local bucket.
+ * Both benchmarks include fetching the objects into a temporary directory, as a run without cache_dir does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ExtractBenchmark {
+
+    @Param({"" + SyntheticDay.QUOTE_SNAPSHOTS})
+    public int snapshots;
+
+    @Param({"4"})
+    public int objects;
+
+    private Path bucket;
+    private XbondQuoteExtractor extractor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        bucket = Files.createTempDirectory("bench-bucket-");
+        Path day = Files.createDirectories(bucket.resolve("AllPriceDepth/20250107"));
+        for (int i = 0; i < objects; i++) {
+            SyntheticDay.writeQuoteFile(day.resolve("part-" + i + ".csv"), snapshots / objects, i);
+        }
+        extractor = new XbondQuoteExtractor(new CosConfig(), new LocalCosObjectStore(bucket));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        extractor.close();
+        try (Stream<Path> paths = Files.walk(bucket)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public int extractRecords() throws Exception {
+        return extractor.extract(SyntheticDay.BUSINESS_DATE).size();
+    }
+
+    @Benchmark
+    public long streamRows(Blackhole blackhole) throws Exception {
+        int[] columns = new int[4];
+        return extractor.streamRows(SyntheticDay.BUSINESS_DATE, row -> {
+            if (row.getRowNumber() == 1) {
+                bind(row, columns);
+            }
+            blackhole.consume(row.getLong(columns[0]));
+            blackhole.consume(row.getDouble(columns[1]));
+            blackhole.consume(row.getInt(columns[2]));
+            blackhole.consume(row.getTimestampMillis(columns[3]));
+        });
+    }
+
+    private static void bind(MappedCsvReader row, int[] columns) {
+        columns[0] = row.requireColumn("mq_offset");
+        columns[1] = row.requireColumn("underlying_md_entry_px");
+        columns[2] = row.requireColumn("underlying_md_price_level");
+        columns[3] = row.requireColumn("recv_time");
+    }
+}
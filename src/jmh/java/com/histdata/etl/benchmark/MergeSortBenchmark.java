@@ -0,0 +1,89 @@
+package com.histdata.etl.benchmark;
+
+import com.histdata.etl.model.TimestampedRecord;
+import com.histdata.etl.pipeline.SortedRunMerger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the receive-time ordering step of processSingleDay on one synthetic day of transformed records:
+ * the per-source sort plus k-way merge it uses now, against a single sort of all records combined.
+ * Both benchmarks copy the input lists first so every invocation sorts the same nearly-ordered data.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MergeSortBenchmark {
+
+    private static final Comparator<TimestampedRecord> BY_RECEIVE_TIME =
+            Comparator.comparingLong(TimestampedRecord::receiveTimeMillis);
+
+    @Param({"" + SyntheticDay.QUOTE_SNAPSHOTS})
+    public int quoteSnapshots;
+
+    @Param({"" + SyntheticDay.TRADES})
+    public int trades;
+
+    @Param({"" + SyntheticDay.FUTURE_TICKS})
+    public int futureTicks;
+
+    private List<TimestampedRecord> quotes;
+    private List<TimestampedRecord> tradeRecords;
+    private List<TimestampedRecord> futures;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        quotes = new ArrayList<>(SyntheticDay.quoteRecords(quoteSnapshots, 1));
+        tradeRecords = new ArrayList<>(SyntheticDay.tradeRecords(trades, 2));
+        futures = new ArrayList<>(SyntheticDay.futureRecords(futureTicks, 3));
+    }
+
+    @Benchmark
+    public void perSourceSortAndMerge(Blackhole blackhole) {
+        List<TimestampedRecord> quoteRun = new ArrayList<>(quotes);
+        List<TimestampedRecord> tradeRun = new ArrayList<>(tradeRecords);
+        List<TimestampedRecord> futureRun = new ArrayList<>(futures);
+        quoteRun.sort(BY_RECEIVE_TIME);
+        tradeRun.sort(BY_RECEIVE_TIME);
+        futureRun.sort(BY_RECEIVE_TIME);
+
+        List<Iterator<? extends TimestampedRecord>> runs = Arrays.asList(quoteRun.iterator(), tradeRun.iterator(), futureRun.iterator());
+        SortedRunMerger<TimestampedRecord> merged = new SortedRunMerger<>(runs, TimestampedRecord::receiveTimeMillis);
+        while (merged.hasNext()) {
+            blackhole.consume(merged.next());
+        }
+    }
+
+    @Benchmark
+    public void combinedSort(Blackhole blackhole) {
+        List<TimestampedRecord> all = new ArrayList<>(quotes.size() + tradeRecords.size() + futures.size());
+        all.addAll(quotes);
+        all.addAll(tradeRecords);
+        all.addAll(futures);
+        all.sort(BY_RECEIVE_TIME);
+        for (TimestampedRecord record : all) {
+            blackhole.consume(record);
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.histdata.etl.benchmark;
+
+import com.histdata.etl.model.FutureQuoteRecord;
+import com.histdata.etl.model.XbondQuoteRecord;
+import com.histdata.etl.model.XbondTradeRecord;
+import com.histdata.etl.transformer.FutureQuoteTransformer;
+import com.histdata.etl.transformer.XbondQuoteTransformer;
+import com.histdata.etl.transformer.XbondTradeTransformer;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Generates synthetic source data shaped like one trading day of the three sources.
+ * Events are spread evenly over a 09:00-17:00 session and receive times lag event times by up to
+ * 30 ms, so every source arrives nearly, but not strictly, in receive-time order.
+ * Output is deterministic for a given seed.
+ */
+public final class SyntheticDay {
+
+    /** Business date used for all generated rows. */
+    public static final LocalDate BUSINESS_DATE = LocalDate.of(2025, 1, 7);
+
+    /** AllPriceDepth snapshots (mq_offset groups) per day; each has 1-6 levels on both sides. */
+    public static final int QUOTE_SNAPSHOTS = 50_000;
+
+    /** XbondCfetsDeal trades per day. */
+    public static final int TRADES = 20_000;
+
+    /** fut_tick rows per day. */
+    public static final int FUTURE_TICKS = 200_000;
+
+    public static final String QUOTE_HEADER = "id,underlying_symbol,underlying_security_id,underlying_settlement_type,"
+            + "underlying_md_entry_type,underlying_trade_volume,underlying_md_entry_px,underlying_md_price_level,"
+            + "underlying_md_entry_size,underlying_un_match_qty,underlying_md_yield_type,underlying_md_yield,"
+            + "transact_time,mq_partition,mq_offset,recv_time";
+
+    public static final String TRADE_HEADER = "bond_key,net_price,set_days,yield,yield_type,deal_size,side,deal_time,recv_time";
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+    private static final LocalDateTime SESSION_START = BUSINESS_DATE.atTime(9, 0);
+    private static final long SESSION_MILLIS = 8 * 3600 * 1000L;
+    private static final int BONDS = 800;
+    private static final String[] SIDES = {"X", "Y", "Z", "D"};
+    private static final String[] FUTURES = {"T2503", "T2506", "TF2503", "TF2506", "TS2503", "TS2506", "TL2503", "TL2506"};
+
+    private SyntheticDay() {
+    }
+
+    /**
+     * Writes AllPriceDepth rows, one group of rows per snapshot.
+     */
+    public static void writeQuotes(Writer writer, int snapshots, long seed) throws IOException {
+        Random random = new Random(seed);
+        writer.write(QUOTE_HEADER);
+        writer.write('\n');
+        long id = 313_000_000L;
+        for (int i = 0; i < snapshots; i++) {
+            LocalDateTime transactTime = eventTime(i, snapshots);
+            String transact = TIMESTAMP.format(transactTime);
+            String recv = TIMESTAMP.format(transactTime.plusNanos(random.nextInt(30) * 1_000_000L));
+            int bond = 210_000 + random.nextInt(BONDS);
+            int settlementType = 1 + random.nextInt(2);
+            int levels = 1 + random.nextInt(6);
+            double mid = 95 + (bond % 100) / 10.0;
+            for (int level = 1; level <= levels; level++) {
+                for (int side = 0; side <= 1; side++) {
+                    double price = side == 0 ? mid - level * 0.0125 : mid + level * 0.0125;
+                    writer.write(String.format(Locale.ROOT, "%d,-,%d,%d,%d,,%.4f,%d,%d,,MATURITY,%.4f,%s,0,%d,%s\n",
+                            id++, bond, settlementType, side, price, level, (1 + random.nextInt(50)) * 1_000_000L,
+                            1.5 + random.nextDouble(), transact, 2_900_000 + i, recv));
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes XbondCfetsDeal rows.
+     */
+    public static void writeTrades(Writer writer, int trades, long seed) throws IOException {
+        Random random = new Random(seed);
+        writer.write(TRADE_HEADER);
+        writer.write('\n');
+        for (int i = 0; i < trades; i++) {
+            LocalDateTime dealTime = eventTime(i, trades);
+            writer.write(String.format(Locale.ROOT, "%d,%.4f,%s,%.4f,%d,%d,%s,%s,%s\n",
+                    210_000 + random.nextInt(BONDS),
+                    95 + random.nextDouble() * 10,
+                    random.nextBoolean() ? "T+0" : "T+1",
+                    1 + random.nextDouble() * 3,
+                    random.nextInt(2),
+                    (1 + random.nextInt(100)) * 100_000L,
+                    SIDES[random.nextInt(SIDES.length)],
+                    TIMESTAMP.format(dealTime),
+                    TIMESTAMP.format(dealTime.plusNanos(random.nextInt(30) * 1_000_000L))));
+        }
+    }
+
+    /**
+     * Writes AllPriceDepth rows into a file.
+     */
+    public static void writeQuoteFile(Path file, int snapshots, long seed) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writeQuotes(writer, snapshots, seed);
+        }
+    }
+
+    /**
+     * Writes XbondCfetsDeal rows into a file.
+     */
+    public static void writeTradeFile(Path file, int trades, long seed) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writeTrades(writer, trades, seed);
+        }
+    }
+
+    /**
+     * Generates fut_tick rows as MySqlFutureExtractor hands them to the transformer.
+     */
+    public static List<Map<String, Object>> futureTicks(int ticks, long seed) {
+        Random random = new Random(seed);
+        int actionDate = BUSINESS_DATE.getYear() * 10000 + BUSINESS_DATE.getMonthValue() * 100 + BUSINESS_DATE.getDayOfMonth();
+        List<Map<String, Object>> rows = new ArrayList<>(ticks);
+        for (int i = 0; i < ticks; i++) {
+            LocalDateTime actionTime = eventTime(i, ticks);
+            double price = 100 + random.nextInt(400) * 0.005;
+            double[] bidPrices = new double[5];
+            long[] bidQty = new long[5];
+            double[] askPrices = new double[5];
+            long[] askQty = new long[5];
+            for (int level = 0; level < 5; level++) {
+                bidPrices[level] = price - (level + 1) * 0.005;
+                askPrices[level] = price + (level + 1) * 0.005;
+                bidQty[level] = 1 + random.nextInt(500);
+                askQty[level] = 1 + random.nextInt(500);
+            }
+
+            Map<String, Object> row = new HashMap<>();
+            row.put("action_date", actionDate);
+            row.put("action_time", actionTime.getHour() * 10_000_000 + actionTime.getMinute() * 100_000
+                    + actionTime.getSecond() * 1000 + actionTime.getNano() / 1_000_000);
+            row.put("code", FUTURES[random.nextInt(FUTURES.length)]);
+            row.put("pre_close", 100.0);
+            row.put("pre_settle", 100.02);
+            row.put("pre_interest", 150_000L);
+            row.put("open", 100.1);
+            row.put("high", 101.5);
+            row.put("low", 99.5);
+            row.put("price", price);
+            row.put("settle_price", 0.0);
+            row.put("upper_limit", 102.0);
+            row.put("lower_limit", 98.0);
+            row.put("total_volume", (long) i * 3);
+            row.put("total_turnover", i * 3 * price * 10_000);
+            row.put("open_interest", 150_000L + random.nextInt(1000));
+            row.put("bid_prices", bidPrices);
+            row.put("bid_qty", bidQty);
+            row.put("ask_prices", askPrices);
+            row.put("ask_qty", askQty);
+            row.put("receive_time", TIMESTAMP.format(actionTime.plusNanos(random.nextInt(30) * 1_000_000L)));
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * Parses generated AllPriceDepth rows in file order, the shape the streaming quote assembler reads.
+     */
+    public static List<CSVRecord> quoteRows(int snapshots, long seed) throws IOException {
+        return parse(generateQuotes(snapshots, seed));
+    }
+
+    /**
+     * Parses generated AllPriceDepth rows and groups them by mq_offset and security, one single-entry map per
+     * snapshot, which is the shape XbondQuoteTransformer expects.
+     */
+    public static List<Map<String, List<CSVRecord>>> quoteGroups(int snapshots, long seed) throws IOException {
+        Map<String, List<CSVRecord>> grouped = new LinkedHashMap<>();
+        for (CSVRecord record : parse(generateQuotes(snapshots, seed))) {
+            String key = record.get("mq_offset") + "_" + record.get("underlying_security_id");
+            grouped.computeIfAbsent(key, k -> new ArrayList<>()).add(record);
+        }
+        List<Map<String, List<CSVRecord>>> groups = new ArrayList<>(grouped.size());
+        for (Map.Entry<String, List<CSVRecord>> entry : grouped.entrySet()) {
+            groups.add(Collections.singletonMap(entry.getKey(), entry.getValue()));
+        }
+        return groups;
+    }
+
+    /**
+     * Parses generated XbondCfetsDeal rows.
+     */
+    public static List<CSVRecord> tradeRows(int trades, long seed) throws IOException {
+        StringWriter writer = new StringWriter();
+        writeTrades(writer, trades, seed);
+        return parse(writer.toString());
+    }
+
+    /**
+     * Runs generated snapshots through XbondQuoteTransformer.
+     */
+    public static List<XbondQuoteRecord> quoteRecords(int snapshots, long seed) throws Exception {
+        XbondQuoteTransformer transformer = new XbondQuoteTransformer();
+        List<XbondQuoteRecord> records = new ArrayList<>(snapshots);
+        for (Map<String, List<CSVRecord>> group : quoteGroups(snapshots, seed)) {
+            records.add(transformer.transform(group, BUSINESS_DATE));
+        }
+        return records;
+    }
+
+    /**
+     * Runs generated trades through XbondTradeTransformer.
+     */
+    public static List<XbondTradeRecord> tradeRecords(int trades, long seed) throws Exception {
+        XbondTradeTransformer transformer = new XbondTradeTransformer();
+        List<XbondTradeRecord> records = new ArrayList<>(trades);
+        for (CSVRecord row : tradeRows(trades, seed)) {
+            records.add(transformer.transform(row, BUSINESS_DATE));
+        }
+        return records;
+    }
+
+    /**
+     * Runs generated ticks through FutureQuoteTransformer.
+     */
+    public static List<FutureQuoteRecord> futureRecords(int ticks, long seed) throws Exception {
+        FutureQuoteTransformer transformer = new FutureQuoteTransformer();
+        List<FutureQuoteRecord> records = new ArrayList<>(ticks);
+        for (Map<String, Object> row : futureTicks(ticks, seed)) {
+            records.add(transformer.transform(row, BUSINESS_DATE));
+        }
+        return records;
+    }
+
+    private static String generateQuotes(int snapshots, long seed) throws IOException {
+        StringWriter writer = new StringWriter();
+        writeQuotes(writer, snapshots, seed);
+        return writer.toString();
+    }
+
+    private static List<CSVRecord> parse(String csv) throws IOException {
+        try (CSVParser parser = CSVFormat.DEFAULT.withHeader().withIgnoreHeaderCase().withTrim()
+                .parse(new StringReader(csv))) {
+            return parser.getRecords();
+        }
+    }
+
+    private static LocalDateTime eventTime(int index, int count) {
+        return SESSION_START.plusNanos(SESSION_MILLIS * index / count * 1_000_000L);
+    }
+}
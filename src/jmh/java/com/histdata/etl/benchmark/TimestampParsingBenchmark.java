@@ -0,0 +1,90 @@
+package com.histdata.etl.benchmark;
+
+import com.histdata.etl.util.DateUtils;
+import com.histdata.etl.util.TimestampParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares per-row timestamp parsing: a new SimpleDateFormat per call (the previous DateUtils behaviour)
+ * against TimestampParser, for CSV timestamps and for the fut_tick action_date/action_time pair.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimestampParsingBenchmark {
+
+    private static final String FORMAT = "yyyy-MM-dd HH:mm:ss.SSS";
+
+    private String[] timestamps;
+    private int[] actionTimes;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        timestamps = new String[1024];
+        actionTimes = new int[1024];
+        for (int i = 0; i < timestamps.length; i++) {
+            int seconds = 9 * 3600 + i * 17;
+            int millis = (i * 37) % 1000;
+            timestamps[i] = String.format("2025-01-07 %02d:%02d:%02d.%03d",
+                    seconds / 3600, seconds / 60 % 60, seconds % 60, millis);
+            actionTimes[i] = (seconds / 3600) * 10000000 + (seconds / 60 % 60) * 100000 + (seconds % 60) * 1000 + millis;
+        }
+    }
+
+    @Benchmark
+    public long simpleDateFormat() throws ParseException {
+        SimpleDateFormat sdf = new SimpleDateFormat(FORMAT);
+        sdf.setLenient(false);
+        return sdf.parse(next()).getTime();
+    }
+
+    @Benchmark
+    public long timestampParser() {
+        return TimestampParser.parseMillis(next());
+    }
+
+    @Benchmark
+    public long dateUtilsMillis() throws ParseException {
+        return DateUtils.parseTimestampMillis(next());
+    }
+
+    @Benchmark
+    public long actionDateTimeFormatted() throws ParseException {
+        int actionTime = actionTimes[index++ & 1023];
+        String actionDateStr = String.format("%08d", 20250107);
+        String actionTimeStr = String.format("%09d", actionTime);
+        String text = String.format("%s-%s-%s %s:%s:%s.%s",
+                actionDateStr.substring(0, 4), actionDateStr.substring(4, 6), actionDateStr.substring(6, 8),
+                actionTimeStr.substring(0, 2), actionTimeStr.substring(2, 4), actionTimeStr.substring(4, 6),
+                actionTimeStr.substring(6));
+        SimpleDateFormat sdf = new SimpleDateFormat(FORMAT);
+        sdf.setLenient(false);
+        return sdf.parse(text).getTime();
+    }
+
+    @Benchmark
+    public long actionDateTimeParser() {
+        return TimestampParser.fromActionDateTime(20250107, actionTimes[index++ & 1023]);
+    }
+
+    private String next() {
+        return timestamps[index++ & 1023];
+    }
+}
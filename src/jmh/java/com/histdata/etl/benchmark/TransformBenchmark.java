@@ -0,0 +1,119 @@
+package com.histdata.etl.benchmark;
+
+import com.histdata.etl.model.XbondQuoteRecord;
+import com.histdata.etl.model.XbondTradeRecord;
+import com.histdata.etl.transformer.FutureQuoteTransformer;
+import com.histdata.etl.transformer.ParallelTransformer;
+import com.histdata.etl.transformer.XbondQuoteAssembler;
+import com.histdata.etl.transformer.XbondQuoteTransformer;
+import com.histdata.etl.transformer.XbondTradeTransformer;
+import org.apache.commons.csv.CSVRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-row transform of each source over one synthetic day of already extracted rows,
+ * into record objects and into records on a fork-join pool of all available cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TransformBenchmark {
+
+    @Param({"" + SyntheticDay.QUOTE_SNAPSHOTS})
+    public int quoteSnapshots;
+
+    @Param({"" + SyntheticDay.TRADES})
+    public int trades;
+
+    @Param({"" + SyntheticDay.FUTURE_TICKS})
+    public int futureTicks;
+
+    private List<Map<String, List<CSVRecord>>> quoteGroups;
+    private List<CSVRecord> quoteRows;
+    private List<CSVRecord> tradeRows;
+    private List<Map<String, Object>> futureRows;
+
+    private final XbondQuoteTransformer quoteTransformer = new XbondQuoteTransformer();
+    private final XbondTradeTransformer tradeTransformer = new XbondTradeTransformer();
+    private final FutureQuoteTransformer futureTransformer = new FutureQuoteTransformer();
+
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        quoteGroups = SyntheticDay.quoteGroups(quoteSnapshots, 1);
+        quoteRows = SyntheticDay.quoteRows(quoteSnapshots, 1);
+        tradeRows = SyntheticDay.tradeRows(trades, 2);
+        futureRows = SyntheticDay.futureTicks(futureTicks, 3);
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public void quoteRecords(Blackhole blackhole) throws Exception {
+        for (Map<String, List<CSVRecord>> group : quoteGroups) {
+            blackhole.consume(quoteTransformer.transform(group, SyntheticDay.BUSINESS_DATE));
+        }
+    }
+
+    @Benchmark
+    public void quoteAssembled(Blackhole blackhole) {
+        XbondQuoteAssembler assembler = new XbondQuoteAssembler(SyntheticDay.BUSINESS_DATE);
+        for (CSVRecord row : quoteRows) {
+            blackhole.consume(assembler.add(row));
+        }
+        blackhole.consume(assembler.finish());
+    }
+
+    @Benchmark
+    public List<XbondQuoteRecord> quoteParallel() {
+        return new ParallelTransformer<CSVRecord, XbondQuoteRecord>("quote", pool, XbondQuoteTransformer::new,
+                XbondQuoteAssembler::sameSnapshot, ParallelTransformer.DEFAULT_CHUNK_SIZE)
+                .transform(quoteRows, SyntheticDay.BUSINESS_DATE);
+    }
+
+    @Benchmark
+    public void tradeRecords(Blackhole blackhole) throws Exception {
+        for (CSVRecord row : tradeRows) {
+            blackhole.consume(tradeTransformer.transform(row, SyntheticDay.BUSINESS_DATE));
+        }
+    }
+
+    @Benchmark
+    public List<XbondTradeRecord> tradeParallel() {
+        return new ParallelTransformer<CSVRecord, XbondTradeRecord>("trade", pool, XbondTradeTransformer::new)
+                .transform(tradeRows, SyntheticDay.BUSINESS_DATE);
+    }
+
+    @Benchmark
+    public void futureRecords(Blackhole blackhole) throws Exception {
+        for (Map<String, Object> row : futureRows) {
+            blackhole.consume(futureTransformer.transform(row, SyntheticDay.BUSINESS_DATE));
+        }
+    }
+}
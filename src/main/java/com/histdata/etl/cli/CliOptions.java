@@ -0,0 +1,191 @@
+package com.histdata.etl.cli;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parsed command-line arguments for the ETL CLI tool.
+ * Positional arguments are START_DATE, END_DATE and an optional CONFIG_FILE;
+ * options start with "--" and may appear anywhere on the command line.
+ */
+public class CliOptions {
+
+    static final String USAGE = "Usage: java -jar etl-tool.jar <START_DATE> <END_DATE> [CONFIG_FILE] [OPTIONS]";
+
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private String configPath;
+    private boolean streaming;
+    private boolean cacheOnly;
+    private int parallelDays = 1;
+    private int transformThreads = 1;
+    private boolean resume;
+    private Path spillDir;
+    private int metricsPort;
+
+    /**
+     * Parses command-line arguments.
+     *
+     * @param args Raw command-line arguments
+     * @return Parsed options
+     * @throws IllegalArgumentException if arguments are missing or invalid
+     */
+    public static CliOptions parse(String[] args) {
+        CliOptions options = new CliOptions();
+        List<String> positional = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                positional.add(arg);
+                continue;
+            }
+            switch (arg) {
+                case "--streaming":
+                    options.streaming = true;
+                    break;
+                case "--cache-only":
+                    options.cacheOnly = true;
+                    break;
+                case "--resume":
+                    options.resume = true;
+                    break;
+                case "--parallel-days":
+                    if (i + 1 >= args.length) {
+                        throw new IllegalArgumentException("--parallel-days requires a value");
+                    }
+                    options.parallelDays = parsePositiveInt(arg, args[++i]);
+                    break;
+                case "--transform-threads":
+                    if (i + 1 >= args.length) {
+                        throw new IllegalArgumentException("--transform-threads requires a value");
+                    }
+                    options.transformThreads = parsePositiveInt(arg, args[++i]);
+                    break;
+                case "--spill-dir":
+                    if (i + 1 >= args.length) {
+                        throw new IllegalArgumentException("--spill-dir requires a value");
+                    }
+                    options.spillDir = Paths.get(args[++i]);
+                    break;
+                case "--metrics-port":
+                    if (i + 1 >= args.length) {
+                        throw new IllegalArgumentException("--metrics-port requires a value");
+                    }
+                    options.metricsPort = parsePositiveInt(arg, args[++i]);
+                    if (options.metricsPort > 65535) {
+                        throw new IllegalArgumentException("Invalid value for " + arg + ": " + options.metricsPort
+                                + ". Expected a port up to 65535.");
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+
+        if (positional.size() < 2) {
+            throw new IllegalArgumentException(USAGE);
+        }
+
+        String startDateStr = positional.get(0);
+        String endDateStr = positional.get(1);
+        options.configPath = positional.size() > 2 ? positional.get(2) : null;
+
+        try {
+            options.startDate = LocalDate.parse(startDateStr, DateTimeFormatter.BASIC_ISO_DATE);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid start date format: " + startDateStr + ". Expected YYYYMMDD format.");
+        }
+
+        try {
+            options.endDate = LocalDate.parse(endDateStr, DateTimeFormatter.BASIC_ISO_DATE);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid end date format: " + endDateStr + ". Expected YYYYMMDD format.");
+        }
+
+        if (options.startDate.isAfter(options.endDate)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+
+        return options;
+    }
+
+    private static int parsePositiveInt(String option, String value) {
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed >= 1) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException("Invalid value for " + option + ": " + value + ". Expected a positive integer.");
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public String getConfigPath() {
+        return configPath;
+    }
+
+    /**
+     * Returns true if the bounded streaming pipeline should be used instead of
+     * materializing each day in memory.
+     */
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    /**
+     * Returns true if COS sources must be read from the local cache without contacting COS.
+     */
+    public boolean isCacheOnly() {
+        return cacheOnly;
+    }
+
+    /**
+     * Returns the maximum number of business days processed concurrently, 1 unless --parallel-days is given.
+     */
+    public int getParallelDays() {
+        return parallelDays;
+    }
+
+    /**
+     * Returns the number of threads transforming the COS sources of an in-memory day, 1 unless --transform-threads is given.
+     */
+    public int getTransformThreads() {
+        return transformThreads;
+    }
+
+    /**
+     * Returns true if the run continues from the checkpoint journal of an interrupted run instead of starting over.
+     */
+    public boolean isResume() {
+        return resume;
+    }
+
+    /**
+     * Returns the directory in-memory days spill sorted runs to when the heap fills up, or null if --spill-dir is not given.
+     */
+    public Path getSpillDir() {
+        return spillDir;
+    }
+
+    /**
+     * Returns the port the Prometheus metrics endpoint listens on, or 0 if --metrics-port is not given.
+     */
+    public int getMetricsPort() {
+        return metricsPort;
+    }
+}
@@ -4,26 +4,48 @@ import com.histdata.etl.config.*;
 import com.histdata.etl.datasource.*;
 import com.histdata.etl.exception.*;
 import com.histdata.etl.loader.DolphinDbLoader;
+import com.histdata.etl.metrics.EtlMetrics;
+import com.histdata.etl.metrics.MetricsRegistry;
+import com.histdata.etl.metrics.MetricsServer;
 import com.histdata.etl.model.*;
+import com.histdata.etl.model.batch.SymbolDictionary;
+import com.histdata.etl.pipeline.DayScheduler;
+import com.histdata.etl.pipeline.ExternalSorter;
+import com.histdata.etl.pipeline.FutureQuoteCodec;
+import com.histdata.etl.pipeline.PipelineSource;
+import com.histdata.etl.pipeline.RecordCodec;
+import com.histdata.etl.pipeline.RecordSink;
+import com.histdata.etl.pipeline.SortedRunMerger;
+import com.histdata.etl.pipeline.StreamingPipeline;
+import com.histdata.etl.pipeline.XbondQuoteCodec;
+import com.histdata.etl.pipeline.XbondTradeCodec;
 import com.histdata.etl.transformer.*;
 import com.histdata.etl.util.*;
 import com.histdata.etl.loader.DataLoader;
+import org.apache.commons.csv.CSVRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.stream.Collectors;
-import org.apache.commons.csv.CSVRecord;
-import java.util.Map;
-import java.sql.Timestamp;
-import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Main entry point for the ETL CLI tool.
@@ -33,10 +55,16 @@ public class EtlCli {
     private static final Logger logger = LoggerFactory.getLogger(EtlCli.class);
     private static final String VERSION = "1.0.0";
     private static final String BUILD_DATE = "2025-01-06";
+    private static final double MEMORY_BUDGET_FRACTION = 0.9;
 
+    private CliOptions options;
     private EtlJobContext context;
     private ProgressMonitor progressMonitor;
     private FileLock fileLock;
+    private CheckpointJournal journal;
+    private ForkJoinPool transformPool;
+    private MemoryAdmissionController admission;
+    private final Map<LocalDate, Long> dayEstimates = new ConcurrentHashMap<>();
 
     public static void main(String[] args) {
         EtlCli cli = new EtlCli();
@@ -63,7 +91,7 @@ public class EtlCli {
 
     public void run(String[] args) throws Exception {
         if (args.length == 0) {
-            throw new IllegalArgumentException("Usage: java -jar etl-tool.jar <START_DATE> <END_DATE> [CONFIG_FILE]");
+            throw new IllegalArgumentException(CliOptions.USAGE);
         }
         
         if ("--help".equals(args[0])) {
@@ -76,42 +104,44 @@ public class EtlCli {
             return;
         }
 
-        if (args.length < 2) {
-            throw new IllegalArgumentException("Usage: java -jar etl-tool.jar <START_DATE> <END_DATE> [CONFIG_FILE]");
-        }
-
-        String startDateStr = args[0];
-        String endDateStr = args[1];
-        String configPath = args.length > 2 ? args[2] : null;
-
-        LocalDate startDate;
-        LocalDate endDate;
-        
-        try {
-            startDate = LocalDate.parse(startDateStr, DateTimeFormatter.BASIC_ISO_DATE);
-        } catch (java.time.format.DateTimeParseException e) {
-            throw new IllegalArgumentException("Invalid start date format: " + startDateStr + ". Expected YYYYMMDD format.");
-        }
-        
-        try {
-            endDate = LocalDate.parse(endDateStr, DateTimeFormatter.BASIC_ISO_DATE);
-        } catch (java.time.format.DateTimeParseException e) {
-            throw new IllegalArgumentException("Invalid end date format: " + endDateStr + ". Expected YYYYMMDD format.");
-        }
-
-        if (startDate.isAfter(endDate)) {
-            throw new IllegalArgumentException("Start date must not be after end date");
-        }
+        options = CliOptions.parse(args);
+        LocalDate startDate = options.getStartDate();
+        LocalDate endDate = options.getEndDate();
+        String configPath = options.getConfigPath();
 
         fileLock = FileLock.acquireLock();
 
         Config config = loadConfig(configPath);
+        if (options.isCacheOnly()) {
+            config.getCosConfig().setCacheOnly(true);
+            if (!config.getCosConfig().isCacheEnabled()) {
+                throw new ConfigurationException("--cache-only requires [xbond] cache_dir");
+            }
+        }
+        if (options.getParallelDays() > 1 && !config.getDolphinDbConfig().isDfsLoad()) {
+            // Days in flight would share the temporary tables, so only DFS loads run days in parallel
+            throw new ConfigurationException("--parallel-days above 1 requires [ddb] load_mode=dfs");
+        }
         context = new EtlJobContext(startDate, endDate, configPath, config, UUID.randomUUID().toString());
         progressMonitor = new ProgressMonitor(context);
 
-        checkMemory();
+        if (options.getSpillDir() != null) {
+            Files.createDirectories(options.getSpillDir());
+        }
 
-        processDateRange(startDate, endDate);
+        MetricsServer metricsServer = options.getMetricsPort() > 0
+                ? new MetricsServer(MetricsRegistry.getDefault(), options.getMetricsPort()) : null;
+
+        // Completed days are journaled so --resume can skip them when continuing an interrupted run
+        journal = CheckpointJournal.open(CheckpointJournal.nextTo(fileLock.getLockFile()), options.isResume());
+        try {
+            processDateRange(startDate, endDate);
+        } finally {
+            journal.close();
+            if (metricsServer != null) {
+                metricsServer.close();
+            }
+        }
 
         progressMonitor.displaySummary();
     }
@@ -129,193 +159,451 @@ public class EtlCli {
         }
     }
 
-    private void checkMemory() throws InsufficientMemoryException {
+    private static long usableMemory() {
         long availableMemory = Runtime.getRuntime().freeMemory();
         long totalMemory = Runtime.getRuntime().totalMemory();
         long maxMemory = Runtime.getRuntime().maxMemory();
-        long usableMemory = maxMemory - (totalMemory - availableMemory);
-
-        long daysToProcess = context.getEndDate().toEpochDay() - context.getStartDate().toEpochDay() + 1;
-        long estimatedMemoryRequirement = daysToProcess * 500 * 1024 * 1024; // 500MB per day
-
-        logger.info("Memory check: available={}MB, required={}MB", usableMemory / 1024 / 1024, estimatedMemoryRequirement / 1024 / 1024);
-
-        if (estimatedMemoryRequirement > usableMemory * 0.9) {
-            throw new InsufficientMemoryException(
-                    String.format("Insufficient memory: available %d MB, required %d MB. " +
-                                    "Please increase heap size using -Xmx option.",
-                            usableMemory / 1024 / 1024, estimatedMemoryRequirement / 1024 / 1024));
-        }
+        return maxMemory - (totalMemory - availableMemory);
     }
 
     private void processDateRange(LocalDate startDate, LocalDate endDate) throws Exception {
-        int totalDays = (int) ((endDate.toEpochDay() - startDate.toEpochDay()) + 1);
-        int currentDay = 0;
-
+        List<LocalDate> dates = new ArrayList<>();
         for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-            currentDay++;
-            logger.info("Processing day {}/{}: {}", currentDay, totalDays, date);
+            if (journal.isDayComplete(date)) {
+                logger.info("Skipping day {}, completed by an earlier run", date);
+                continue;
+            }
+            dates.add(date);
+        }
+        int totalDays = dates.size();
+        int parallelDays = Math.min(options.getParallelDays(), totalDays);
+        AtomicInteger currentDay = new AtomicInteger();
+
+        // Days reserve an estimate of their own footprint, and no further day starts while the live heap is
+        // under pressure, instead of the whole range being checked against the heap up front
+        admission = new MemoryAdmissionController((long) (usableMemory() * MEMORY_BUDGET_FRACTION));
+        logger.info("Memory budget: {} MB", admission.getBudget().getCapacityBytes() / 1024 / 1024);
+        if (parallelDays > 1) {
+            logger.info("Processing {} days with up to {} in parallel", totalDays, parallelDays);
+        }
 
-            context.setCurrentDate(date);
-            context.setJobStatus(JobStatus.EXTRACTING);
+        try (SharedResources resources = new SharedResources(context.getConfig(), parallelDays)) {
+            ResourcePool<DolphinDbLoader> loaders = resources.getDolphinDbLoaders();
+            DolphinDbLoader loader = loaders.borrow();
+            try {
+                loader.createTemporaryTables(options.isResume());
+            } finally {
+                loaders.release(loader);
+            }
 
-            processSingleDay(date);
+            if (!options.isStreaming() && options.getTransformThreads() > 1) {
+                transformPool = new ForkJoinPool(options.getTransformThreads());
+            }
+
+            // Pipeline threads only bump counters; the monitor's own thread reports rates and the ETA.
+            // Days may run in parallel, so their stages stay local; the shared context only sums the rows they load
+            context.setJobStatus(JobStatus.EXTRACTING);
+            progressMonitor.start(totalDays);
+            DayScheduler scheduler = new DayScheduler(parallelDays, admission.getBudget(),
+                    date -> estimateDay(date, resources, parallelDays));
+            scheduler.run(dates, date -> {
+                logger.info("Processing day {}/{}: {}", currentDay.incrementAndGet(), totalDays, date);
+                progressMonitor.startDay(date);
+
+                DolphinDbLoader dayLoader = loaders.borrow();
+                try {
+                    restartDay(date, journal, dayLoader);
+                } finally {
+                    loaders.release(dayLoader);
+                }
+                processSingleDay(date, resources);
+                long loaded = journal.getLoadedRecords(date);
+                journal.recordDayComplete(date, loaded);
+                progressMonitor.completeDay(date, loaded);
 
-            if (currentDay < totalDays) {
                 logger.info("Day {} completed successfully", date);
+            });
+
+            loader = loaders.borrow();
+            try {
+                loader.cleanup();
+            } finally {
+                loaders.release(loader);
             }
+        } finally {
+            if (transformPool != null) {
+                transformPool.shutdown();
+                transformPool = null;
+            }
+            progressMonitor.close();
+            admission.close();
         }
 
         context.setJobStatus(JobStatus.COMPLETED);
         logger.info("All {} days processed successfully", totalDays);
     }
 
-    private void processSingleDay(LocalDate date) throws Exception {
+    /**
+     * Clears the rows an earlier run loaded for a day that was not completed, so it is loaded again from its first
+     * record. Batches are acknowledged out of order and may be inserted only in part, so rows past the journaled
+     * prefix of an interrupted day can already be in the target tables; continuing after the prefix would load
+     * them twice.
+     */
+    static void restartDay(LocalDate date, CheckpointJournal journal, DolphinDbLoader loader) throws Exception {
+        loader.deleteDay(date);
+        if (journal.getLoadedRecords(date) > 0 || !journal.getSourceRows(date).isEmpty()) {
+            logger.info("Restarting day {}, partly loaded by an earlier run", date);
+            journal.restartDay(date);
+        }
+    }
+
+    /**
+     * Returns the heap a day reserves before it starts. Streaming days hold only bounded queues. A materialized
+     * day is estimated from the size of its COS objects and its fut_tick row count; with --spill-dir it needs at
+     * most its share of the budget, since it spills once the heap is under pressure.
+     */
+    private long estimateDay(LocalDate date, SharedResources resources, int parallelDays) {
+        if (options.isStreaming()) {
+            return 0;
+        }
+        long capacity = admission.getBudget().getCapacityBytes();
+        long estimate;
+        try {
+            long quoteBytes;
+            long tradeBytes;
+            XbondQuoteExtractor quoteExtractor = resources.newQuoteExtractor();
+            try {
+                quoteBytes = quoteExtractor.listedBytes(date);
+            } finally {
+                quoteExtractor.close();
+            }
+            XbondTradeExtractor tradeExtractor = resources.newTradeExtractor();
+            try {
+                tradeBytes = tradeExtractor.listedBytes(date);
+            } finally {
+                tradeExtractor.close();
+            }
+            long futureRows = new MySqlFutureExtractor(context.getConfig().getMySqlConfig(), resources.getMySqlConnections())
+                    .countRows(date);
+            estimate = MemoryAdmissionController.estimateDayBytes(quoteBytes, tradeBytes, futureRows);
+            logger.info("Estimated {} MB of heap for {} ({} MB of quotes, {} MB of trades, {} fut_tick rows)",
+                    estimate / 1024 / 1024, date, quoteBytes / 1024 / 1024, tradeBytes / 1024 / 1024, futureRows);
+        } catch (Exception e) {
+            logger.warn("Could not estimate the size of {}, reserving the whole memory budget: {}", date, e.getMessage());
+            estimate = capacity;
+        }
+        dayEstimates.put(date, estimate);
+        return options.getSpillDir() != null ? Math.min(estimate, capacity / parallelDays) : estimate;
+    }
+
+    private void processSingleDay(LocalDate date, SharedResources resources) throws Exception {
+        // Rows that cannot be transformed are counted and written to the day's reject file, not logged one by one
+        try (RejectLog rejects = new RejectLog(Paths.get(RejectLog.DEFAULT_DIRECTORY), date)) {
+            if (options.isStreaming()) {
+                processSingleDayStreaming(date, resources, rejects);
+            } else {
+                processSingleDayInMemory(date, resources, rejects);
+            }
+        }
+    }
+
+    private void processSingleDayInMemory(LocalDate date, SharedResources resources, RejectLog rejects) throws Exception {
+        String day = date.format(DateTimeFormatter.BASIC_ISO_DATE);
+        SymbolDictionary symbols = resources.getSymbols();
+
+        // A day estimated above the whole budget spills to a temporary directory rather than failing
+        Path spillDir = options.getSpillDir();
+        Path tempSpillDir = null;
+        long estimate = dayEstimates.getOrDefault(date, 0L);
+        if (spillDir == null && estimate > admission.getBudget().getCapacityBytes()) {
+            tempSpillDir = Files.createTempDirectory("etl-spill-");
+            spillDir = tempSpillDir;
+            logger.warn("Day {} is estimated at {} MB, above the {} MB memory budget; spilling sorted runs to {}",
+                    date, estimate / 1024 / 1024, admission.getBudget().getCapacityBytes() / 1024 / 1024, spillDir);
+        }
+        try (ExternalSorter<XbondQuoteRecord> quotes = newSorter("quote-" + day, new XbondQuoteCodec(symbols), spillDir);
+             ExternalSorter<XbondTradeRecord> trades = newSorter("trade-" + day, new XbondTradeCodec(symbols), spillDir);
+             ExternalSorter<FutureQuoteRecord> futures = newSorter("future-" + day, new FutureQuoteCodec(symbols), spillDir)) {
+            loadSorted(date, resources, rejects, quotes, trades, futures);
+        } finally {
+            if (tempSpillDir != null) {
+                Files.deleteIfExists(tempSpillDir);
+            }
+        }
+    }
+
+    /**
+     * Returns the sorter of one source of an in-memory day; with a spill directory it spills under heap pressure.
+     */
+    private <T extends TimestampedRecord> ExternalSorter<T> newSorter(String name, RecordCodec<T> codec, Path spillDir) {
+        return spillDir == null ? new ExternalSorter<>(name)
+                : new ExternalSorter<>(name, codec, spillDir, admission::isUnderPressure);
+    }
+
+    private void loadSorted(LocalDate date, SharedResources resources, RejectLog rejects,
+                            ExternalSorter<XbondQuoteRecord> quotes, ExternalSorter<XbondTradeRecord> trades,
+                            ExternalSorter<FutureQuoteRecord> futures) throws Exception {
+
         ExecutorService executorService = Executors.newFixedThreadPool(3);
 
-        CompletableFuture<List<XbondQuoteRecord>> quoteFuture = CompletableFuture.supplyAsync(() -> {
+        CompletableFuture<Void> quoteFuture = CompletableFuture.runAsync(() -> {
             try {
-                return extractAndTransformQuotes(date);
+                long started = System.nanoTime();
+                extractAndTransformQuotes(date, resources, rejects,
+                        counting(quotes, progressMonitor.counter(ProgressMonitor.QUOTE)));
+                EtlMetrics.STAGE_SECONDS.labels("extract_quote").observeSince(started);
             } catch (Exception e) {
                 throw new RuntimeException("Failed to extract quotes", e);
             }
         }, executorService);
 
-        CompletableFuture<List<XbondTradeRecord>> tradeFuture = CompletableFuture.supplyAsync(() -> {
+        CompletableFuture<Void> tradeFuture = CompletableFuture.runAsync(() -> {
             try {
-                return extractAndTransformTrades(date);
+                long started = System.nanoTime();
+                extractAndTransformTrades(date, resources, rejects,
+                        counting(trades, progressMonitor.counter(ProgressMonitor.TRADE)));
+                EtlMetrics.STAGE_SECONDS.labels("extract_trade").observeSince(started);
             } catch (Exception e) {
                 throw new RuntimeException("Failed to extract trades", e);
             }
         }, executorService);
 
-        CompletableFuture<List<FutureQuoteRecord>> futureFuture = CompletableFuture.supplyAsync(() -> {
+        CompletableFuture<Void> futureFuture = CompletableFuture.runAsync(() -> {
             try {
-                return extractAndTransformFutures(date);
+                long started = System.nanoTime();
+                extractAndTransformFutures(date, resources, rejects,
+                        counting(futures, progressMonitor.counter(ProgressMonitor.FUTURE)));
+                EtlMetrics.STAGE_SECONDS.labels("extract_future").observeSince(started);
             } catch (Exception e) {
                 throw new RuntimeException("Failed to extract futures", e);
             }
         }, executorService);
 
-        CompletableFuture.allOf(quoteFuture, tradeFuture, futureFuture).join();
+        try {
+            CompletableFuture.allOf(quoteFuture, tradeFuture, futureFuture).join();
+        } finally {
+            executorService.shutdown();
+        }
 
-        List<XbondQuoteRecord> quotes = quoteFuture.get();
-        List<XbondTradeRecord> trades = tradeFuture.get();
-        List<FutureQuoteRecord> futures = futureFuture.get();
+        logger.info("Extracted {} quotes, {} trades, {} futures", quotes.size(), trades.size(), futures.size());
+        int spilledRuns = quotes.getSpilledRuns() + trades.getSpilledRuns() + futures.getSpilledRuns();
+        if (spilledRuns > 0) {
+            logger.info("Spilled {} sorted runs to disk", spilledRuns);
+        }
 
-        executorService.shutdown();
+        Map<String, Long> sourceRows = new LinkedHashMap<>();
+        sourceRows.put("quote", quotes.size());
+        sourceRows.put("trade", trades.size());
+        sourceRows.put("future", futures.size());
+        recordSourceRows(date, sourceRows);
 
-        context.setJobStatus(JobStatus.TRANSFORMING);
-        logger.info("Extracted {} quotes, {} trades, {} futures", quotes.size(), trades.size(), futures.size());
+        // Each source is sorted on its own (MySQL rows arrive ordered by action_time and COS files are
+        // nearly time-ordered, so these sorts are close to linear), then merged in O(N log k).
+        // Spilled runs are merged into their source's order as the loader pulls records.
+        List<Iterator<? extends TimestampedRecord>> runs = Arrays.asList(quotes.sorted(), trades.sorted(), futures.sorted());
+        SortedRunMerger<TimestampedRecord> merged = new SortedRunMerger<>(runs, TimestampedRecord::receiveTimeMillis);
 
-        List<Object> allRecords = new ArrayList<>();
-        allRecords.addAll(quotes);
-        allRecords.addAll(trades);
-        allRecords.addAll(futures);
-
-        allRecords.sort((r1, r2) -> {
-            Timestamp t1 = null;
-            Timestamp t2 = null;
-            if (r1 instanceof XbondQuoteRecord) {
-                t1 = ((XbondQuoteRecord) r1).getReceiveTime();
-            } else if (r1 instanceof XbondTradeRecord) {
-                t1 = ((XbondTradeRecord) r1).getReceiveTime();
-            } else if (r1 instanceof FutureQuoteRecord) {
-                t1 = ((FutureQuoteRecord) r1).getReceiveTime();
-            }
+        logger.info("Merging {} records by receive_time", quotes.size() + trades.size() + futures.size());
 
-            if (r2 instanceof XbondQuoteRecord) {
-                t2 = ((XbondQuoteRecord) r2).getReceiveTime();
-            } else if (r2 instanceof XbondTradeRecord) {
-                t2 = ((XbondTradeRecord) r2).getReceiveTime();
-            } else if (r2 instanceof FutureQuoteRecord) {
-                t2 = ((FutureQuoteRecord) r2).getReceiveTime();
-            }
+        long loaded;
+        long loadStarted = System.nanoTime();
+        DolphinDbLoader loader = resources.getDolphinDbLoaders().borrow();
+        try {
+            // Merging and reading spilled runs happen as the loader pulls records, so they count as loading
+            loaded = loader.load(merged, DolphinDbLoader.BATCH_SIZE, progressMonitor.tracking(journal.checkpoint(date)));
+        } finally {
+            resources.getDolphinDbLoaders().release(loader);
+        }
+        EtlMetrics.STAGE_SECONDS.labels("load").observeSince(loadStarted);
 
-            return t1.compareTo(t2);
-        });
+        logger.info("Loaded {} records into DolphinDB", loaded);
 
-        logger.info("Sorted {} records by receive_time", allRecords.size());
+        context.addLoadedRecords(loaded);
+    }
 
-        context.setJobStatus(JobStatus.LOADING);
+    private void processSingleDayStreaming(LocalDate date, SharedResources resources, RejectLog rejects) throws Exception {
+        long loaded;
 
-        DolphinDbLoader loader = new DolphinDbLoader(context.getConfig().getDolphinDbConfig());
+        ResourcePool<DolphinDbLoader> loaders = resources.getDolphinDbLoaders();
+        DolphinDbLoader loader = loaders.borrow();
         try {
-            loader.initialize();
-            loader.createTemporaryTables();
-            loader.load(allRecords);
-            loader.cleanup();
+            List<PipelineSource<?>> sources = Arrays.asList(
+                    new PipelineSource<>("quote", resources.newQuoteExtractor().mappedRows(),
+                            withSymbols(new XbondQuoteTransformer(), resources), rejects),
+                    new PipelineSource<>("trade", resources.newTradeExtractor().mappedRows(),
+                            withSymbols(new XbondTradeTransformer(), resources), rejects),
+                    // fut_tick rows are transformed while the cursor is positioned on them, so they arrive as records
+                    new PipelineSource<>("future",
+                            new MySqlFutureExtractor(context.getConfig().getMySqlConfig(), resources.getMySqlConnections())
+                                    .mappedRows(futureRows(date, resources, rejects)),
+                            (record, day) -> record, rejects));
+            StreamingPipeline pipeline = new StreamingPipeline(loader);
+            for (PipelineSource<?> source : sources) {
+                source.setProgressCounter(progressMonitor.counter(source.getName()));
+                pipeline.addSource(source);
+            }
+
+            long started = System.nanoTime();
+            loaded = pipeline.run(date, progressMonitor.tracking(journal.checkpoint(date)));
+            EtlMetrics.STAGE_SECONDS.labels("stream").observeSince(started);
+
+            // Source sizes are only known once the day has streamed; a mismatch keeps the day from being marked complete
+            Map<String, Long> sourceRows = new LinkedHashMap<>();
+            for (PipelineSource<?> source : sources) {
+                sourceRows.put(source.getName(), source.getTransformed());
+            }
+            recordSourceRows(date, sourceRows);
         } finally {
-            loader.close();
+            loaders.release(loader);
+        }
+
+        logger.info("Loaded {} records into DolphinDB", loaded);
+
+        context.addLoadedRecords(loaded);
+    }
+
+    /**
+     * Journals the rows each source produced for the day.
+     */
+    private void recordSourceRows(LocalDate date, Map<String, Long> sourceRows) throws Exception {
+        for (Map.Entry<String, Long> source : sourceRows.entrySet()) {
+            journal.recordSource(date, source.getKey(), source.getValue());
         }
+    }
 
-        logger.info("Loaded {} records into DolphinDB", allRecords.size());
+    /**
+     * Counts the records passed to a sink for progress reporting.
+     */
+    private static <T> RecordSink<T> counting(RecordSink<T> sink, LongAdder counter) {
+        return record -> {
+            sink.accept(record);
+            counter.increment();
+        };
+    }
 
-        context.getProgressStatus().setLoadedRecords(allRecords.size());
+    /**
+     * Makes a transformer intern its symbol values in the job's dictionary, which the loaders encode with.
+     */
+    private static <T extends DataTransformer<?>> T withSymbols(T transformer, SharedResources resources) {
+        transformer.setSymbolDictionary(resources.getSymbols());
+        return transformer;
     }
 
-    private List<XbondQuoteRecord> extractAndTransformQuotes(LocalDate date) throws Exception {
-        XbondQuoteExtractor extractor = new XbondQuoteExtractor(context.getConfig().getCosConfig());
-        XbondQuoteTransformer transformer = new XbondQuoteTransformer();
-
-        List<CSVRecord> rawRecords = extractor.extract(date);
-
-        return rawRecords.stream()
-                .map(record -> {
-                    try {
-                        return transformer.transform(record, date);
-                    } catch (Exception e) {
-                        logger.warn("Failed to transform quote record: {}", e.getMessage());
-                        return null;
-                    }
-                })
-                .filter(record -> record != null)
-                .collect(Collectors.toList());
+    private void extractAndTransformQuotes(LocalDate date, SharedResources resources, RejectSink rejects,
+                                           RecordSink<? super XbondQuoteRecord> sink) throws Exception {
+        XbondQuoteExtractor extractor = resources.newQuoteExtractor();
+        if (transformPool != null) {
+            // Rows are extracted first and then assembled on the pool in chunks that never split a snapshot.
+            // Pool threads need rows detached from the mapped file, so this path keeps parsing CSVRecords
+            List<CSVRecord> rows;
+            try {
+                rows = extractor.extract(date);
+            } finally {
+                extractor.close();
+            }
+            ParallelTransformer<CSVRecord, XbondQuoteRecord> transformer = new ParallelTransformer<>("quote", transformPool,
+                    XbondQuoteTransformer::new, XbondQuoteAssembler::sameSnapshot, ParallelTransformer.DEFAULT_CHUNK_SIZE);
+            transformer.setRejectSink(rejects);
+            transformer.setSymbolDictionary(resources.getSymbols());
+            for (XbondQuoteRecord record : transformer.transform(rows, date)) {
+                sink.accept(record);
+            }
+            return;
+        }
+        XbondQuoteTransformer transformer = withSymbols(new XbondQuoteTransformer(), resources);
+        transformer.setRejectSink(rejects);
+
+        // Depth rows are assembled into books straight from the memory-mapped files as they stream past,
+        // one snapshot at a time
+        try {
+            extractor.streamRows(date, row -> {
+                XbondQuoteRecord record = transformer.transform(row, date);
+                if (record != null) {
+                    sink.accept(record);
+                }
+            });
+        } finally {
+            extractor.close();
+        }
+        XbondQuoteRecord last = transformer.finish(date);
+        if (last != null) {
+            sink.accept(last);
+        }
     }
 
-    private List<XbondTradeRecord> extractAndTransformTrades(LocalDate date) throws Exception {
-        XbondTradeExtractor extractor = new XbondTradeExtractor(context.getConfig().getCosConfig());
-        XbondTradeTransformer transformer = new XbondTradeTransformer();
-
-        List<CSVRecord> rawRecords = extractor.extract(date);
-
-        return rawRecords.stream()
-                .map(record -> {
-                    try {
-                        return transformer.transform(record, date);
-                    } catch (Exception e) {
-                        logger.warn("Failed to transform trade record: {}", e.getMessage());
-                        return null;
-                    }
-                })
-                .filter(record -> record != null)
-                .collect(Collectors.toList());
+    private void extractAndTransformTrades(LocalDate date, SharedResources resources, RejectSink rejects,
+                                           RecordSink<? super XbondTradeRecord> sink) throws Exception {
+        XbondTradeExtractor extractor = resources.newTradeExtractor();
+        if (transformPool != null) {
+            // As for quotes, chunks transformed on the pool are materialized as CSVRecords
+            List<CSVRecord> rows;
+            try {
+                rows = extractor.extract(date);
+            } finally {
+                extractor.close();
+            }
+            ParallelTransformer<CSVRecord, XbondTradeRecord> transformer =
+                    new ParallelTransformer<>("trade", transformPool, XbondTradeTransformer::new);
+            transformer.setRejectSink(rejects);
+            transformer.setSymbolDictionary(resources.getSymbols());
+            for (XbondTradeRecord record : transformer.transform(rows, date)) {
+                sink.accept(record);
+            }
+            return;
+        }
+        XbondTradeTransformer transformer = withSymbols(new XbondTradeTransformer(), resources);
+        transformer.setRejectSink(rejects);
+
+        // Trade rows are transformed straight from the memory-mapped files, without CSVRecord objects
+        try {
+            extractor.streamRows(date, row -> {
+                XbondTradeRecord record;
+                try {
+                    record = transformer.transform(row, date);
+                } catch (RuntimeException e) {
+                    rejects.reject("trade", RejectSink.reason(e), row);
+                    return;
+                }
+                if (record != null) {
+                    sink.accept(record);
+                }
+            });
+        } finally {
+            extractor.close();
+        }
+    }
+
+    private void extractAndTransformFutures(LocalDate date, SharedResources resources, RejectSink rejects,
+                                            RecordSink<? super FutureQuoteRecord> sink) throws Exception {
+        MySqlFutureExtractor extractor = new MySqlFutureExtractor(
+                context.getConfig().getMySqlConfig(), resources.getMySqlConnections());
+        extractor.streamMapped(date, futureRows(date, resources, rejects), sink);
     }
 
-    private List<FutureQuoteRecord> extractAndTransformFutures(LocalDate date) throws Exception {
-        MySqlFutureExtractor extractor = new MySqlFutureExtractor(context.getConfig().getMySqlConfig());
-        FutureQuoteTransformer transformer = new FutureQuoteTransformer();
-
-        List<Map<String, Object>> rawRecords = extractor.extract(date);
-
-        return rawRecords.stream()
-                .map(record -> {
-                    try {
-                        return transformer.transform(record, date);
-                    } catch (Exception e) {
-                        logger.warn("Failed to transform future record: {}", e.getMessage());
-                        return null;
-                    }
-                })
-                .filter(record -> record != null)
-                .collect(Collectors.toList());
+    /**
+     * Returns the mapper transforming fut_tick rows as the cursor delivers them, read by index from the projected
+     * columns; with [future] partitions above 1 the action_time windows are read and transformed concurrently.
+     * Rows that fail to transform are reported to the reject sink and skipped.
+     */
+    private static ResultSetRowMapper<FutureQuoteRecord> futureRows(LocalDate date, SharedResources resources,
+                                                                    RejectSink rejects) {
+        FutureQuoteTransformer transformer = withSymbols(new FutureQuoteTransformer(), resources);
+        transformer.setRejectSink(rejects);
+        return row -> {
+            try {
+                return transformer.transform(row, date);
+            } catch (Exception e) {
+                rejects.reject("future", RejectSink.reason(e), row);
+                return null;
+            }
+        };
     }
 
     private void printHelp() {
         System.out.println("ETL CLI Tool - Historical Financial Data ETL");
         System.out.println();
         System.out.println("Usage:");
-        System.out.println("  java -jar etl-tool.jar <START_DATE> <END_DATE> [CONFIG_FILE]");
+        System.out.println("  java -jar etl-tool.jar <START_DATE> <END_DATE> [CONFIG_FILE] [OPTIONS]");
         System.out.println();
         System.out.println("Arguments:");
         System.out.println("  START_DATE    Start date in YYYYMMDD format");
@@ -325,6 +613,13 @@ public class EtlCli {
         System.out.println("Options:");
         System.out.println("  --help        Display this help message");
         System.out.println("  --version     Display version information");
+        System.out.println("  --streaming   Stream records through bounded queues instead of loading each day into memory");
+        System.out.println("  --cache-only  Read COS sources from the local cache only, never contacting COS");
+        System.out.println("  --parallel-days N  Process up to N business days concurrently (default 1, load_mode=dfs only)");
+        System.out.println("  --transform-threads N  Transform COS sources of a day on N threads (default 1)");
+        System.out.println("  --resume      Continue an interrupted run, skipping the days it completed");
+        System.out.println("  --spill-dir DIR  Spill sorted runs of in-memory days to DIR when the heap fills up");
+        System.out.println("  --metrics-port PORT  Serve Prometheus metrics at http://HOST:PORT/metrics during the run");
         System.out.println();
         System.out.println("Examples:");
         System.out.println("  java -jar etl-tool.jar 20250101 20250101 config.ini");
@@ -0,0 +1,111 @@
+package com.histdata.etl.cli;
+
+import com.histdata.etl.config.Config;
+import com.histdata.etl.config.CosConfig;
+import com.histdata.etl.datasource.CosExtractor;
+import com.histdata.etl.datasource.CosObjectCache;
+import com.histdata.etl.datasource.CosObjectStore;
+import com.histdata.etl.datasource.MySqlFutureExtractor;
+import com.histdata.etl.datasource.XbondQuoteExtractor;
+import com.histdata.etl.datasource.XbondTradeExtractor;
+import com.histdata.etl.loader.DolphinDbLoader;
+import com.histdata.etl.model.batch.SymbolDictionary;
+import com.histdata.etl.util.ResourcePool;
+
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Clients and connections shared by all business days of a job.
+ * One COS object store, download pool and cache serve every day; DolphinDB loaders are pooled,
+ * one per concurrently processed day, and MySQL connections one per fut_tick partition of such a day plus
+ * one for row counts, all reused across days. Pooled connections are health-checked when borrowed and reopened if broken,
+ * so a session dropped between days does not fail the next one. One symbol dictionary encodes the SYMBOL
+ * values of every transformer and loader of the job.
+ */
+class SharedResources implements AutoCloseable {
+    private static final long MB = 1024L * 1024L;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+    private final CosConfig cosConfig;
+    private final CosObjectStore cosStore;
+    private final ExecutorService downloadExecutor;
+    private final CosObjectCache cosCache;
+    private final ResourcePool<Connection> mySqlConnections;
+    private final ResourcePool<DolphinDbLoader> dolphinDbLoaders;
+    private final SymbolDictionary symbols = new SymbolDictionary();
+
+    /**
+     * Opens the shared COS client; pooled connections are opened on first use.
+     *
+     * @param config Job configuration
+     * @param poolSize Number of days processed at once
+     */
+    SharedResources(Config config, int poolSize) {
+        this.cosConfig = config.getCosConfig();
+        this.cosStore = cosConfig.isCacheOnly() ? null : CosExtractor.openObjectStore(cosConfig);
+        this.downloadExecutor = cosConfig.isCacheOnly() ? null : CosExtractor.newDownloadExecutor(cosConfig.getDownloadThreads());
+        this.cosCache = cosConfig.isCacheEnabled()
+                ? new CosObjectCache(Paths.get(cosConfig.getCacheDir().trim()), cosConfig.getCacheMaxSizeMb() * MB)
+                : null;
+        // Every day in flight may hold one connection per window while a row count borrows another; the spare
+        // connection lets that count run even when all windows of all days are open
+        this.mySqlConnections = new ResourcePool<>("mysql", poolSize * config.getMySqlConfig().getPartitions() + 1,
+                () -> MySqlFutureExtractor.openConnection(config.getMySqlConfig()), Connection::close,
+                connection -> connection.isValid(VALIDATION_TIMEOUT_SECONDS));
+        this.dolphinDbLoaders = new ResourcePool<>("dolphindb", poolSize, () -> {
+            DolphinDbLoader loader = new DolphinDbLoader(config.getDolphinDbConfig());
+            loader.setSymbolDictionary(symbols);
+            loader.initialize();
+            return loader;
+        }, DolphinDbLoader::close, DolphinDbLoader::isHealthy);
+    }
+
+    /**
+     * Creates a quote extractor on the shared COS resources.
+     */
+    XbondQuoteExtractor newQuoteExtractor() {
+        return new XbondQuoteExtractor(cosConfig, cosStore, downloadExecutor, cosCache);
+    }
+
+    /**
+     * Creates a trade extractor on the shared COS resources.
+     */
+    XbondTradeExtractor newTradeExtractor() {
+        return new XbondTradeExtractor(cosConfig, cosStore, downloadExecutor, cosCache);
+    }
+
+    /**
+     * Returns the pool of MySQL connections.
+     */
+    ResourcePool<Connection> getMySqlConnections() {
+        return mySqlConnections;
+    }
+
+    /**
+     * Returns the pool of initialized DolphinDB loaders.
+     */
+    ResourcePool<DolphinDbLoader> getDolphinDbLoaders() {
+        return dolphinDbLoaders;
+    }
+
+    /**
+     * Returns the job's symbol dictionary.
+     */
+    SymbolDictionary getSymbols() {
+        return symbols;
+    }
+
+    @Override
+    public void close() {
+        dolphinDbLoaders.close();
+        mySqlConnections.close();
+        if (downloadExecutor != null) {
+            downloadExecutor.shutdownNow();
+        }
+        if (cosStore != null) {
+            cosStore.close();
+        }
+    }
+}
@@ -15,6 +15,17 @@ public class CosConfig {
     private String secretId;
     private String secretKey;
     private String trustKey;
+    private int downloadThreads;
+    private int partSizeMb;
+    private int connectTimeoutMs;
+    private int socketTimeoutMs;
+    // Optional local directory mirroring the bucket, used instead of COS when set
+    private String localRoot;
+    // Optional local cache of downloaded objects, disabled when empty
+    private String cacheDir;
+    private int cacheMaxSizeMb;
+    // Set from the --cache-only command-line option
+    private boolean cacheOnly;
 
     /**
      * Creates default CosConfig with empty values.
@@ -23,6 +34,11 @@ public class CosConfig {
         this.domain = "";
         this.region = "";
         this.bucket = "";
+        this.downloadThreads = 4;
+        this.partSizeMb = 16;
+        this.connectTimeoutMs = 10000;
+        this.socketTimeoutMs = 60000;
+        this.cacheMaxSizeMb = 20480;
     }
 
     /**
@@ -31,6 +47,34 @@ public class CosConfig {
      * @throws ConfigurationException if validation fails
      */
     public void validate() throws ConfigurationException {
+        if (downloadThreads <= 0) {
+            throw new ConfigurationException("[xbond] download_threads must be positive");
+        }
+
+        if (partSizeMb <= 0) {
+            throw new ConfigurationException("[xbond] part_size_mb must be positive");
+        }
+
+        if (connectTimeoutMs <= 0) {
+            throw new ConfigurationException("[xbond] connect_timeout_ms must be positive");
+        }
+
+        if (socketTimeoutMs <= 0) {
+            throw new ConfigurationException("[xbond] socket_timeout_ms must be positive");
+        }
+
+        if (cacheMaxSizeMb <= 0) {
+            throw new ConfigurationException("[xbond] cache_max_size_mb must be positive");
+        }
+
+        if (cacheOnly && !isCacheEnabled()) {
+            throw new ConfigurationException("--cache-only requires [xbond] cache_dir");
+        }
+
+        if (localRoot != null && !localRoot.trim().isEmpty()) {
+            return;
+        }
+
         if (domain == null || domain.trim().isEmpty()) {
             throw new ConfigurationException("[xbond] domain is required");
         }
@@ -97,4 +141,75 @@ public class CosConfig {
     public void setTrustKey(String trustKey) {
         this.trustKey = trustKey;
     }
+
+    public int getDownloadThreads() {
+        return downloadThreads;
+    }
+
+    public void setDownloadThreads(int downloadThreads) {
+        this.downloadThreads = downloadThreads;
+    }
+
+    public int getPartSizeMb() {
+        return partSizeMb;
+    }
+
+    public void setPartSizeMb(int partSizeMb) {
+        this.partSizeMb = partSizeMb;
+    }
+
+    public int getConnectTimeoutMs() {
+        return connectTimeoutMs;
+    }
+
+    public void setConnectTimeoutMs(int connectTimeoutMs) {
+        this.connectTimeoutMs = connectTimeoutMs;
+    }
+
+    public int getSocketTimeoutMs() {
+        return socketTimeoutMs;
+    }
+
+    public void setSocketTimeoutMs(int socketTimeoutMs) {
+        this.socketTimeoutMs = socketTimeoutMs;
+    }
+
+    public String getLocalRoot() {
+        return localRoot;
+    }
+
+    public void setLocalRoot(String localRoot) {
+        this.localRoot = localRoot;
+    }
+
+    public String getCacheDir() {
+        return cacheDir;
+    }
+
+    public void setCacheDir(String cacheDir) {
+        this.cacheDir = cacheDir;
+    }
+
+    /**
+     * Returns true if a local cache directory is configured.
+     */
+    public boolean isCacheEnabled() {
+        return cacheDir != null && !cacheDir.trim().isEmpty();
+    }
+
+    public int getCacheMaxSizeMb() {
+        return cacheMaxSizeMb;
+    }
+
+    public void setCacheMaxSizeMb(int cacheMaxSizeMb) {
+        this.cacheMaxSizeMb = cacheMaxSizeMb;
+    }
+
+    public boolean isCacheOnly() {
+        return cacheOnly;
+    }
+
+    public void setCacheOnly(boolean cacheOnly) {
+        this.cacheOnly = cacheOnly;
+    }
 }
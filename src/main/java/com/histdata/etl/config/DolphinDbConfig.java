@@ -8,11 +8,24 @@ import com.histdata.etl.exception.ConfigurationException;
  */
 public class DolphinDbConfig {
 
+    public static final String LOAD_MODE_TEMP = "temp";
+    public static final String LOAD_MODE_DFS = "dfs";
+    public static final String WRITER_SESSION = "session";
+    public static final String WRITER_MTW = "mtw";
+
     private String host;
     private int port = 8848; // Default DolphinDB port
     private String username;
     private String password;
     private String database = "dfs://Zing_MDS"; // Default database path
+    private int writerConnections = 3; // One per target table
+    private int maxInFlightBatches = 6; // Two per target table
+    private String loadMode = LOAD_MODE_TEMP; // Shared temporary tables, or the DFS database directly
+    private int dfsConnections = 4; // Sessions writing partitions in parallel in dfs mode
+    private String partitionColumn = "exchProductId"; // Column DFS appends are routed by
+    private String writerBackend = WRITER_SESSION; // Background sessions, or multithreaded table writers
+    private int mtwThreads = 4; // Sender threads per target table in mtw mode
+    private int mtwMaxPendingRows = 200000; // Unsent rows per target table before writes wait
 
     /**
      * Creates default DolphinDbConfig.
@@ -48,6 +61,42 @@ public class DolphinDbConfig {
         if (database == null || database.trim().isEmpty()) {
             throw new ConfigurationException("[ddb] database is required");
         }
+
+        if (writerConnections < 1) {
+            throw new ConfigurationException("[ddb] writer_connections must be positive");
+        }
+
+        if (maxInFlightBatches < 1) {
+            throw new ConfigurationException("[ddb] max_in_flight_batches must be positive");
+        }
+
+        if (!LOAD_MODE_TEMP.equals(loadMode) && !LOAD_MODE_DFS.equals(loadMode)) {
+            throw new ConfigurationException(
+                    String.format("[ddb] load_mode must be %s or %s, got: %s", LOAD_MODE_TEMP, LOAD_MODE_DFS, loadMode)
+            );
+        }
+
+        if (dfsConnections < 1) {
+            throw new ConfigurationException("[ddb] dfs_connections must be positive");
+        }
+
+        if (partitionColumn == null || partitionColumn.trim().isEmpty()) {
+            throw new ConfigurationException("[ddb] partition_column is required");
+        }
+
+        if (!WRITER_SESSION.equals(writerBackend) && !WRITER_MTW.equals(writerBackend)) {
+            throw new ConfigurationException(
+                    String.format("[ddb] writer_backend must be %s or %s, got: %s", WRITER_SESSION, WRITER_MTW, writerBackend)
+            );
+        }
+
+        if (mtwThreads < 1) {
+            throw new ConfigurationException("[ddb] mtw_threads must be positive");
+        }
+
+        if (mtwMaxPendingRows < 1) {
+            throw new ConfigurationException("[ddb] mtw_max_pending_rows must be positive");
+        }
     }
 
     // Getters and setters
@@ -90,4 +139,82 @@ public class DolphinDbConfig {
     public void setDatabase(String database) {
         this.database = database;
     }
+
+    public int getWriterConnections() {
+        return writerConnections;
+    }
+
+    public void setWriterConnections(int writerConnections) {
+        this.writerConnections = writerConnections;
+    }
+
+    public int getMaxInFlightBatches() {
+        return maxInFlightBatches;
+    }
+
+    public void setMaxInFlightBatches(int maxInFlightBatches) {
+        this.maxInFlightBatches = maxInFlightBatches;
+    }
+
+    public String getLoadMode() {
+        return loadMode;
+    }
+
+    public void setLoadMode(String loadMode) {
+        this.loadMode = loadMode;
+    }
+
+    /**
+     * Returns true if records are appended straight into the DFS database instead of the temporary tables.
+     */
+    public boolean isDfsLoad() {
+        return LOAD_MODE_DFS.equals(loadMode);
+    }
+
+    public int getDfsConnections() {
+        return dfsConnections;
+    }
+
+    public void setDfsConnections(int dfsConnections) {
+        this.dfsConnections = dfsConnections;
+    }
+
+    public String getPartitionColumn() {
+        return partitionColumn;
+    }
+
+    public void setPartitionColumn(String partitionColumn) {
+        this.partitionColumn = partitionColumn;
+    }
+
+    public String getWriterBackend() {
+        return writerBackend;
+    }
+
+    public void setWriterBackend(String writerBackend) {
+        this.writerBackend = writerBackend;
+    }
+
+    /**
+     * Returns true if batches are written through multithreaded table writers instead of background sessions.
+     */
+    public boolean isMtwWriter() {
+        return WRITER_MTW.equals(writerBackend);
+    }
+
+    public int getMtwThreads() {
+        return mtwThreads;
+    }
+
+    public void setMtwThreads(int mtwThreads) {
+        this.mtwThreads = mtwThreads;
+    }
+
+    public int getMtwMaxPendingRows() {
+        return mtwMaxPendingRows;
+    }
+
+    public void setMtwMaxPendingRows(int mtwMaxPendingRows) {
+        this.mtwMaxPendingRows = mtwMaxPendingRows;
+    }
 }
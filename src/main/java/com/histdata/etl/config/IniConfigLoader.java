@@ -105,6 +105,13 @@ public class IniConfigLoader {
         cosConfig.setDomain(config.getString("xbond.domain", ""));
         cosConfig.setRegion(config.getString("xbond.region", ""));
         cosConfig.setBucket(config.getString("xbond.bucket", ""));
+        cosConfig.setDownloadThreads(config.getInt("xbond.download_threads", 4));
+        cosConfig.setPartSizeMb(config.getInt("xbond.part_size_mb", 16));
+        cosConfig.setConnectTimeoutMs(config.getInt("xbond.connect_timeout_ms", 10000));
+        cosConfig.setSocketTimeoutMs(config.getInt("xbond.socket_timeout_ms", 60000));
+        cosConfig.setLocalRoot(config.getString("xbond.local_root", null));
+        cosConfig.setCacheDir(config.getString("xbond.cache_dir", null));
+        cosConfig.setCacheMaxSizeMb(config.getInt("xbond.cache_max_size_mb", 20480));
         return cosConfig;
     }
 
@@ -118,6 +125,9 @@ public class IniConfigLoader {
         mySqlConfig.setDatabase(config.getString("future.database", ""));
         mySqlConfig.setUsername(config.getString("future.username", ""));
         mySqlConfig.setPassword(config.getString("future.password", ""));
+        mySqlConfig.setFetchSize(config.getInt("future.fetch_size", 10000));
+        mySqlConfig.setPartitions(config.getInt("future.partitions", 1));
+        mySqlConfig.setTieBreaker(config.getString("future.tie_breaker", "code"));
         return mySqlConfig;
     }
 
@@ -131,6 +141,14 @@ public class IniConfigLoader {
         dolphinDbConfig.setUsername(config.getString("ddb.username", ""));
         dolphinDbConfig.setPassword(config.getString("ddb.password", ""));
         dolphinDbConfig.setDatabase(config.getString("ddb.database", "dfs://Zing_MDS"));
+        dolphinDbConfig.setWriterConnections(config.getInt("ddb.writer_connections", 3));
+        dolphinDbConfig.setMaxInFlightBatches(config.getInt("ddb.max_in_flight_batches", 6));
+        dolphinDbConfig.setLoadMode(config.getString("ddb.load_mode", DolphinDbConfig.LOAD_MODE_TEMP));
+        dolphinDbConfig.setDfsConnections(config.getInt("ddb.dfs_connections", 4));
+        dolphinDbConfig.setPartitionColumn(config.getString("ddb.partition_column", "exchProductId"));
+        dolphinDbConfig.setWriterBackend(config.getString("ddb.writer_backend", DolphinDbConfig.WRITER_SESSION));
+        dolphinDbConfig.setMtwThreads(config.getInt("ddb.mtw_threads", 4));
+        dolphinDbConfig.setMtwMaxPendingRows(config.getInt("ddb.mtw_max_pending_rows", 200000));
         return dolphinDbConfig;
     }
 
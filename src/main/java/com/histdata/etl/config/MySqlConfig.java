@@ -13,6 +13,9 @@ public class MySqlConfig {
     private String database;
     private String username;
     private String password;
+    private int fetchSize = 10000; // Rows per server-side cursor fetch
+    private int partitions = 1; // Concurrent action_time windows per day
+    private String tieBreaker = "code"; // Columns ordering fut_tick rows of equal action_time
 
     /**
      * Creates default MySqlConfig.
@@ -49,6 +52,24 @@ public class MySqlConfig {
         if (password == null || password.trim().isEmpty()) {
             throw new ConfigurationException("[future] password is required");
         }
+
+        if (fetchSize < 1) {
+            throw new ConfigurationException(
+                    String.format("[future] fetch_size must be positive, got: %d", fetchSize)
+            );
+        }
+
+        if (partitions < 1) {
+            throw new ConfigurationException(
+                    String.format("[future] partitions must be positive, got: %d", partitions)
+            );
+        }
+
+        if (tieBreaker == null || !tieBreaker.trim().matches("\\w+(\\s*,\\s*\\w+)*")) {
+            throw new ConfigurationException(
+                    String.format("[future] tie_breaker must be a comma-separated list of columns, got: %s", tieBreaker)
+            );
+        }
     }
 
     // Getters and setters
@@ -91,4 +112,28 @@ public class MySqlConfig {
     public void setPassword(String password) {
         this.password = password;
     }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    public void setPartitions(int partitions) {
+        this.partitions = partitions;
+    }
+
+    public String getTieBreaker() {
+        return tieBreaker;
+    }
+
+    public void setTieBreaker(String tieBreaker) {
+        this.tieBreaker = tieBreaker;
+    }
 }
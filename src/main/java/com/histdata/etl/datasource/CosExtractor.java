@@ -1,78 +1,307 @@
 package com.histdata.etl.datasource;
 
 import com.histdata.etl.config.CosConfig;
+import com.histdata.etl.exception.ExtractionException;
+import com.histdata.etl.metrics.Counter;
+import com.histdata.etl.metrics.EtlMetrics;
+import com.histdata.etl.metrics.Histogram;
+import com.histdata.etl.pipeline.RecordSink;
 import com.qcloud.cos.COSClient;
 import com.qcloud.cos.ClientConfig;
 import com.qcloud.cos.auth.BasicCOSCredentials;
 import com.qcloud.cos.auth.COSCredentials;
-import com.qcloud.cos.model.*;
+import com.qcloud.cos.model.COSObjectSummary;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 /**
  * Base extractor for COS (Cloud Object Storage) CSV files.
+ * Lists every object of the business date and downloads them concurrently, splitting
+ * large objects into ranged GETs; files are parsed in key order as soon as each one completes.
+ * When a cache directory is configured, unchanged objects are read from disk instead of being downloaded.
  */
 public abstract class CosExtractor implements DataSourceExtractor<CSVRecord> {
     private static final Logger logger = LoggerFactory.getLogger(CosExtractor.class);
 
+    private static final long MB = 1024L * 1024L;
+    // Listing requests run on the day threads, outside the download pool
+    private static final int LISTING_CONNECTIONS = 8;
+
     protected COSClient cosClient;
     protected CosConfig config;
+    private CosObjectStore objectStore;
+    private ExecutorService downloadExecutor;
+    private boolean ownsDownloadExecutor;
+    private CosObjectCache cache;
 
     public CosExtractor(CosConfig config) {
         this.config = config;
     }
 
-    @Override
-    public void initialize() {
+    /**
+     * Creates an extractor reading from the given store instead of the COS SDK client.
+     *
+     * @param config COS configuration
+     * @param objectStore Object store to read from
+     */
+    public CosExtractor(CosConfig config, CosObjectStore objectStore) {
+        this.config = config;
+        this.objectStore = objectStore;
+    }
+
+    /**
+     * Creates an extractor sharing the object store, download pool and cache of a job, so that
+     * concurrently processed days do not each open their own. None of them is closed by {@link #close()}.
+     *
+     * @param config COS configuration
+     * @param objectStore Shared object store, or null in cache-only mode
+     * @param downloadExecutor Shared download pool, or null in cache-only mode
+     * @param cache Shared cache, or null when caching is disabled
+     */
+    public CosExtractor(CosConfig config, CosObjectStore objectStore, ExecutorService downloadExecutor, CosObjectCache cache) {
+        this.config = config;
+        this.objectStore = objectStore;
+        this.downloadExecutor = downloadExecutor;
+        this.cache = cache;
+    }
+
+    /**
+     * Opens the object store described by the configuration: a local mirror when local_root is set,
+     * otherwise the COS bucket through the SDK client.
+     *
+     * @param config COS configuration
+     * @return Object store, to be closed by the caller
+     */
+    public static CosObjectStore openObjectStore(CosConfig config) {
+        String localRoot = config.getLocalRoot();
+        if (localRoot != null && !localRoot.trim().isEmpty()) {
+            logger.info("Reading COS objects from local mirror: {}", localRoot);
+            return new LocalCosObjectStore(Paths.get(localRoot.trim()));
+        }
+
         COSCredentials cred = new BasicCOSCredentials(config.getSecretId(), config.getSecretKey());
         ClientConfig clientConfig = new ClientConfig(new com.qcloud.cos.region.Region(config.getRegion()));
-        cosClient = new COSClient(cred, clientConfig);
-        logger.info("COS client initialized for bucket: {}", config.getBucket());
+        // One pooled HTTP connection per download thread plus headroom for listings, kept alive across days
+        clientConfig.setMaxConnectionsCount(config.getDownloadThreads() + LISTING_CONNECTIONS);
+        clientConfig.setConnectionTimeout(config.getConnectTimeoutMs());
+        clientConfig.setSocketTimeout(config.getSocketTimeoutMs());
+        clientConfig.setConnectionRequestTimeout(config.getSocketTimeoutMs());
+        logger.info("COS client initialized for bucket: {} ({} pooled connections)",
+                config.getBucket(), clientConfig.getMaxConnectionsCount());
+        return new SdkCosObjectStore(new COSClient(cred, clientConfig), config.getBucket());
+    }
+
+    /**
+     * Creates a pool of daemon threads for ranged downloads.
+     *
+     * @param threads Number of download threads
+     * @return Download pool, to be shut down by the caller
+     */
+    public static ExecutorService newDownloadExecutor(int threads) {
+        return Executors.newFixedThreadPool(threads, new DownloadThreadFactory());
+    }
+
+    @Override
+    public void initialize() {
+        if (cache == null && config.isCacheEnabled()) {
+            cache = new CosObjectCache(Paths.get(config.getCacheDir().trim()), config.getCacheMaxSizeMb() * MB);
+        }
+
+        if (config.isCacheOnly()) {
+            logger.info("Cache-only mode, COS will not be contacted");
+            return;
+        }
+
+        if (objectStore == null) {
+            objectStore = openObjectStore(config);
+            if (objectStore instanceof SdkCosObjectStore) {
+                cosClient = ((SdkCosObjectStore) objectStore).getCosClient();
+            }
+        }
+
+        if (downloadExecutor == null) {
+            downloadExecutor = newDownloadExecutor(config.getDownloadThreads());
+            ownsDownloadExecutor = true;
+        }
     }
 
     @Override
     public List<CSVRecord> extract(LocalDate businessDate) throws Exception {
-        if (cosClient == null) {
+        List<CSVRecord> records = new ArrayList<>();
+        stream(businessDate, records::add);
+        return records;
+    }
+
+    @Override
+    public long stream(LocalDate businessDate, RecordSink<? super CSVRecord> sink) throws Exception {
+        return forEachFile(businessDate, file -> parseFile(file, businessDate, sink));
+    }
+
+    /**
+     * Streams the rows of the business date through the memory-mapped tokenizer.
+     * The handler receives the reader positioned on each row and must not keep it after returning.
+     * Rows are not filtered by {@link #matchesBusinessDate}, so this is meant for sources stored per business date.
+     *
+     * @param businessDate Business date to extract
+     * @param handler Row handler
+     * @return Number of rows handled
+     * @throws Exception if download, parsing or the handler fails
+     */
+    public long streamRows(LocalDate businessDate, CsvRowHandler handler) throws Exception {
+        return forEachFile(businessDate, file -> {
+            long count = 0;
+            try (MappedCsvReader reader = MappedCsvReader.open(file)) {
+                while (reader.next()) {
+                    handler.accept(reader);
+                    count++;
+                }
+            }
+            return count;
+        });
+    }
+
+    /**
+     * Returns a view of this extractor whose {@link DataSourceExtractor#stream} hands out the memory-mapped reader
+     * positioned on each row, as {@link #streamRows} does, for stages that transform rows as they pass such as the
+     * streaming pipeline. The view cannot {@link DataSourceExtractor#extract extract} a list, since the reader is a
+     * cursor; closing it closes this extractor.
+     *
+     * @return Row view of this extractor
+     */
+    public DataSourceExtractor<MappedCsvReader> mappedRows() {
+        return new DataSourceExtractor<MappedCsvReader>() {
+            @Override
+            public List<MappedCsvReader> extract(LocalDate businessDate) {
+                throw new UnsupportedOperationException("Mapped CSV rows are only valid while streamed");
+            }
+
+            @Override
+            public long stream(LocalDate businessDate, RecordSink<? super MappedCsvReader> sink) throws Exception {
+                return streamRows(businessDate, sink::accept);
+            }
+
+            @Override
+            public void close() throws Exception {
+                CosExtractor.this.close();
+            }
+        };
+    }
+
+    /**
+     * Returns the total size of the business date's objects from the listing, without downloading them.
+     * Used to estimate the heap a day will need before it is admitted.
+     *
+     * @param businessDate Business date to size
+     * @return Total object size in bytes
+     * @throws Exception if the objects cannot be listed
+     */
+    public long listedBytes(LocalDate businessDate) throws Exception {
+        initializeIfNeeded();
+        List<COSObjectSummary> objects = listMatchingObjects(getFilePath(businessDate), businessDate, getSourceName(businessDate));
+        return objects.stream().mapToLong(COSObjectSummary::getSize).sum();
+    }
+
+    private void initializeIfNeeded() {
+        if (config.isCacheOnly() ? cache == null : objectStore == null || downloadExecutor == null) {
             initialize();
         }
+    }
 
-        String key = getFilePath(businessDate);
-        logger.info("Extracting from COS: {}", key);
+    private long forEachFile(LocalDate businessDate, FileParser parser) throws Exception {
+        initializeIfNeeded();
 
-        GetObjectRequest request = new GetObjectRequest(config.getBucket(), key);
-        COSObject cosObject = cosClient.getObject(request);
+        String pattern = getFilePath(businessDate);
+        String sourceName = getSourceName(businessDate);
+        List<COSObjectSummary> objects = listMatchingObjects(pattern, businessDate, sourceName);
+        long totalBytes = objects.stream().mapToLong(COSObjectSummary::getSize).sum();
+        logger.info("Extracting {} objects ({} bytes) from COS: {}", objects.size(), totalBytes, pattern);
+        Counter.Child rowsParsed = EtlMetrics.ROWS_PARSED.labels(sourceName);
+        Histogram.Child parseSeconds = EtlMetrics.PARSE_SECONDS.labels(sourceName);
 
-        List<CSVRecord> records = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(cosObject.getObjectContent()));
-             CSVParser parser = CSVFormat.DEFAULT.withHeader().withIgnoreHeaderCase().withTrim().parse(reader)) {
+        Path downloadDir = cache == null ? Files.createTempDirectory("etl-cos-") : null;
+        ParallelCosDownloader downloader = config.isCacheOnly() ? null : newDownloader();
+        List<CompletableFuture<Path>> downloads = new ArrayList<>(objects.size());
+        Set<Path> files = new HashSet<>();
+        long count = 0;
+        boolean completed = false;
+        try {
+            for (int i = 0; i < objects.size(); i++) {
+                downloads.add(fetch(downloader, objects.get(i), businessDate, sourceName, downloadDir, i));
+            }
 
-            for (CSVRecord record : parser) {
-                if (matchesBusinessDate(record, businessDate)) {
-                    records.add(record);
+            for (int i = 0; i < objects.size(); i++) {
+                Path file = awaitDownload(downloads.get(i), objects.get(i).getKey());
+                files.add(file);
+                long parseStarted = System.nanoTime();
+                long parsed = parser.parse(file);
+                parseSeconds.observeSince(parseStarted);
+                rowsParsed.inc(parsed);
+                count += parsed;
+                if (cache == null) {
+                    Files.deleteIfExists(file);
                 }
             }
+            completed = true;
         } finally {
-            cosObject.close();
+            if (!completed && downloader != null) {
+                // Stop the remaining ranged parts before their files are deleted
+                downloader.cancel();
+            }
+            for (CompletableFuture<Path> download : downloads) {
+                if (!download.cancel(true) && !download.isCompletedExceptionally() && cache != null) {
+                    files.add(download.join());
+                }
+            }
+            if (downloadDir != null) {
+                deleteDirectory(downloadDir);
+            }
+            if (cache != null) {
+                if (completed && !config.isCacheOnly()) {
+                    cache.evict(files);
+                }
+                cache.unpin(files);
+            }
         }
 
-        logger.info("Extracted {} records from {}", records.size(), key);
-        return records;
+        logger.info("Extracted {} records from {}", count, pattern);
+        return count;
     }
 
     @Override
     public void close() {
+        if (downloadExecutor != null && ownsDownloadExecutor) {
+            downloadExecutor.shutdownNow();
+            downloadExecutor = null;
+            ownsDownloadExecutor = false;
+        }
         if (cosClient != null) {
             cosClient.shutdown();
             cosClient = null;
+            objectStore = null;
             logger.info("COS client closed");
         }
     }
@@ -80,4 +309,146 @@ public abstract class CosExtractor implements DataSourceExtractor<CSVRecord> {
     protected abstract String getFilePath(LocalDate businessDate);
 
     protected abstract boolean matchesBusinessDate(CSVRecord record, LocalDate businessDate);
+
+    /**
+     * Returns the source name used as cache sub-directory, by default the first segment of the file path.
+     *
+     * @param businessDate Business date
+     * @return Source name, e.g. AllPriceDepth
+     */
+    protected String getSourceName(LocalDate businessDate) {
+        String path = getFilePath(businessDate);
+        while (path.startsWith("/")) {
+            path = path.substring(1);
+        }
+        int slash = path.indexOf('/');
+        return slash < 0 ? path : path.substring(0, slash);
+    }
+
+    /**
+     * Returns a future for the local file of an object: an existing cache entry, or a download
+     * into the cache or into the temporary directory when caching is disabled.
+     */
+    private CompletableFuture<Path> fetch(ParallelCosDownloader downloader, COSObjectSummary object,
+                                          LocalDate businessDate, String sourceName, Path downloadDir, int index) {
+        if (cache == null) {
+            return downloader.download(object, downloadDir.resolve(index + ".csv"));
+        }
+
+        Path cached = config.isCacheOnly()
+                ? cache.directory(businessDate, sourceName).resolve(object.getKey().substring(object.getKey().lastIndexOf('/') + 1))
+                : cache.lookup(businessDate, sourceName, object);
+        if (cached != null) {
+            logger.debug("Using cached copy of {}", object.getKey());
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        Path partFile = cache.partFile(businessDate, sourceName, object);
+        return downloader.download(object, partFile).thenApply(downloaded -> {
+            try {
+                return cache.commit(businessDate, sourceName, object, downloaded);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private ParallelCosDownloader newDownloader() {
+        return new ParallelCosDownloader(objectStore, downloadExecutor, config.getPartSizeMb() * MB);
+    }
+
+    /**
+     * Lists the objects matching a file pattern such as "/AllPriceDepth/20250107/*.csv".
+     * The directory part is used as listing prefix and the file part as a "*"-suffix glob.
+     * In cache-only mode the cache entries stand in for the listing.
+     */
+    private List<COSObjectSummary> listMatchingObjects(String pattern, LocalDate businessDate, String sourceName)
+            throws IOException {
+        int slash = pattern.lastIndexOf('/');
+        String prefix = pattern.substring(0, slash + 1);
+        while (prefix.startsWith("/")) {
+            prefix = prefix.substring(1);
+        }
+        String fileGlob = pattern.substring(slash + 1);
+
+        List<COSObjectSummary> listing;
+        if (config.isCacheOnly()) {
+            listing = cache.listCached(businessDate, sourceName);
+            if (listing.isEmpty()) {
+                throw new ExtractionException("No cached objects for " + pattern + " in " + cache.directory(businessDate, sourceName));
+            }
+        } else {
+            listing = objectStore.listObjects(prefix);
+        }
+
+        List<COSObjectSummary> matching = new ArrayList<>();
+        for (COSObjectSummary summary : listing) {
+            if (!summary.getKey().startsWith(prefix)) {
+                continue;
+            }
+            String fileName = summary.getKey().substring(prefix.length());
+            if (fileName.indexOf('/') < 0 && matchesGlob(fileName, fileGlob)) {
+                matching.add(summary);
+            }
+        }
+        matching.sort(Comparator.comparing(COSObjectSummary::getKey));
+        return matching;
+    }
+
+    private static boolean matchesGlob(String fileName, String glob) {
+        if (glob.startsWith("*")) {
+            return fileName.endsWith(glob.substring(1));
+        }
+        return fileName.equals(glob);
+    }
+
+    private long parseFile(Path file, LocalDate businessDate, RecordSink<? super CSVRecord> sink) throws Exception {
+        long count = 0;
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+             CSVParser parser = CSVFormat.DEFAULT.withHeader().withIgnoreHeaderCase().withTrim().parse(reader)) {
+
+            for (CSVRecord record : parser) {
+                if (matchesBusinessDate(record, businessDate)) {
+                    sink.accept(record);
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static Path awaitDownload(CompletableFuture<Path> download, String key) throws InterruptedException {
+        try {
+            return download.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof UncheckedIOException ? e.getCause().getCause() : e.getCause();
+            throw new ExtractionException("Failed to download COS object " + key + ": " + cause.getMessage(), cause);
+        }
+    }
+
+    private static void deleteDirectory(Path dir) {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            logger.warn("Failed to delete download directory {}: {}", dir, e.getMessage());
+        }
+    }
+
+    @FunctionalInterface
+    private interface FileParser {
+        long parse(Path file) throws Exception;
+    }
+
+    private static final class DownloadThreadFactory implements ThreadFactory {
+        private static final AtomicInteger POOL_COUNTER = new AtomicInteger();
+        private final int pool = POOL_COUNTER.incrementAndGet();
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "cos-download-" + pool + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
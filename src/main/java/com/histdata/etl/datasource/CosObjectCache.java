@@ -0,0 +1,275 @@
+package com.histdata.etl.datasource;
+
+import com.qcloud.cos.model.COSObjectSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Local on-disk cache of downloaded COS objects, laid out as {BUSINESS_DATE}/{SOURCE_NAME}/.
+ * Each cached file has a ".meta" sidecar holding the object key, ETag and size; an entry is reused
+ * only while both still match the listing. Least recently used files are evicted once the cache
+ * grows beyond its size bound.
+ * <p>
+ * One instance may be shared by extractors running concurrently: files handed out by {@link #lookup}
+ * and {@link #commit} stay pinned until {@link #unpin}, so one run never evicts a file another is reading.
+ */
+public class CosObjectCache {
+    private static final Logger logger = LoggerFactory.getLogger(CosObjectCache.class);
+
+    private static final String META_SUFFIX = ".meta";
+    private static final String PART_SUFFIX = ".part";
+
+    private final Path root;
+    private final long maxBytes;
+    private final Map<Path, Integer> pins = new HashMap<>();
+
+    /**
+     * Creates a cache.
+     *
+     * @param root Cache root directory
+     * @param maxBytes Size bound enforced by {@link #evict(Set)}
+     */
+    public CosObjectCache(Path root, long maxBytes) {
+        this.root = root;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the directory holding the objects of a source for a business date.
+     */
+    public Path directory(LocalDate businessDate, String sourceName) {
+        return root.resolve(businessDate.toString().replace("-", "")).resolve(sourceName);
+    }
+
+    /**
+     * Looks up a cached copy of an object.
+     *
+     * @param businessDate Business date
+     * @param sourceName Source name, e.g. AllPriceDepth
+     * @param object Object summary from the current listing
+     * @return Cached file, pinned until {@link #unpin}, or null if absent or stale
+     */
+    public synchronized Path lookup(LocalDate businessDate, String sourceName, COSObjectSummary object) {
+        Path file = directory(businessDate, sourceName).resolve(fileName(object.getKey()));
+        Properties meta = readMeta(file);
+        if (meta == null) {
+            return null;
+        }
+
+        try {
+            boolean valid = object.getKey().equals(meta.getProperty("key"))
+                    && String.valueOf(object.getSize()).equals(meta.getProperty("size"))
+                    && (object.getETag() == null || object.getETag().equals(meta.getProperty("etag")))
+                    && Files.size(file) == object.getSize();
+            if (!valid) {
+                logger.info("Cached copy of {} is stale", object.getKey());
+                return null;
+            }
+            touch(file);
+            pin(file);
+            return file;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the temporary path an object should be downloaded to before {@link #commit}.
+     */
+    public Path partFile(LocalDate businessDate, String sourceName, COSObjectSummary object) {
+        return directory(businessDate, sourceName).resolve(fileName(object.getKey()) + PART_SUFFIX);
+    }
+
+    /**
+     * Publishes a completed download as a cache entry.
+     *
+     * @param businessDate Business date
+     * @param sourceName Source name
+     * @param object Object summary the download was made from
+     * @param partFile Downloaded file returned by {@link #partFile}
+     * @return Cached file, pinned until {@link #unpin}
+     * @throws IOException if the entry cannot be written
+     */
+    public synchronized Path commit(LocalDate businessDate, String sourceName, COSObjectSummary object, Path partFile) throws IOException {
+        Path file = directory(businessDate, sourceName).resolve(fileName(object.getKey()));
+        Files.deleteIfExists(metaFile(file));
+        Files.move(partFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        Properties meta = new Properties();
+        meta.setProperty("key", object.getKey());
+        meta.setProperty("size", String.valueOf(object.getSize()));
+        if (object.getETag() != null) {
+            meta.setProperty("etag", object.getETag());
+        }
+        try (OutputStream out = Files.newOutputStream(metaFile(file))) {
+            meta.store(out, null);
+        }
+        pin(file);
+        return file;
+    }
+
+    /**
+     * Lists the cached objects of a source for a business date, for runs without COS access.
+     *
+     * @param businessDate Business date
+     * @param sourceName Source name
+     * @return Object summaries rebuilt from the entry metadata, sorted by key
+     * @throws IOException if the cache directory cannot be read
+     */
+    public List<COSObjectSummary> listCached(LocalDate businessDate, String sourceName) throws IOException {
+        List<COSObjectSummary> objects = new ArrayList<>();
+        Path dir = directory(businessDate, sourceName);
+        if (!Files.isDirectory(dir)) {
+            return objects;
+        }
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + META_SUFFIX)) {
+            for (Path metaFile : files) {
+                String name = metaFile.getFileName().toString();
+                Path file = dir.resolve(name.substring(0, name.length() - META_SUFFIX.length()));
+                Properties meta = readMeta(file);
+                if (meta == null || Files.size(file) != Long.parseLong(meta.getProperty("size", "-1"))) {
+                    continue;
+                }
+                COSObjectSummary object = new COSObjectSummary();
+                object.setKey(meta.getProperty("key"));
+                object.setSize(Files.size(file));
+                object.setETag(meta.getProperty("etag"));
+                objects.add(object);
+                touch(file);
+            }
+        }
+
+        objects.sort(Comparator.comparing(COSObjectSummary::getKey));
+        return objects;
+    }
+
+    /**
+     * Evicts least recently used entries until the cache fits its size bound.
+     *
+     * @param pinned Files in use by the current run, never evicted
+     */
+    public synchronized void evict(Set<Path> pinned) {
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+
+        List<CacheEntry> entries = new ArrayList<>();
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.filter(path -> Files.isRegularFile(path) && Files.exists(metaFile(path)))
+                    .forEach(path -> entries.add(new CacheEntry(path)));
+        } catch (IOException | UncheckedIOException e) {
+            logger.warn("Failed to scan COS cache {}: {}", root, e.getMessage());
+            return;
+        }
+
+        long total = 0;
+        for (CacheEntry entry : entries) {
+            total += entry.size;
+        }
+        if (total <= maxBytes) {
+            return;
+        }
+
+        entries.sort(Comparator.comparingLong(entry -> entry.lastModified));
+        for (CacheEntry entry : entries) {
+            if (total <= maxBytes) {
+                break;
+            }
+            if (pinned.contains(entry.path) || pins.containsKey(entry.path)) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(metaFile(entry.path));
+                Files.deleteIfExists(entry.path);
+                total -= entry.size;
+                logger.debug("Evicted {} ({} bytes) from COS cache", entry.path, entry.size);
+            } catch (IOException e) {
+                logger.warn("Failed to evict {}: {}", entry.path, e.getMessage());
+            }
+        }
+        logger.info("COS cache size after eviction: {} bytes (limit {})", total, maxBytes);
+    }
+
+    /**
+     * Releases files handed out by {@link #lookup} or {@link #commit} once a run no longer reads them.
+     * Files that are not pinned are ignored.
+     *
+     * @param files Files to release
+     */
+    public synchronized void unpin(Collection<Path> files) {
+        for (Path file : files) {
+            pins.computeIfPresent(file, (path, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    private void pin(Path file) {
+        pins.merge(file, 1, Integer::sum);
+    }
+
+    private static String fileName(String key) {
+        return key.substring(key.lastIndexOf('/') + 1);
+    }
+
+    private static Path metaFile(Path file) {
+        return file.resolveSibling(file.getFileName() + META_SUFFIX);
+    }
+
+    private static Properties readMeta(Path file) {
+        Path metaFile = metaFile(file);
+        if (!Files.isRegularFile(file) || !Files.isRegularFile(metaFile)) {
+            return null;
+        }
+        Properties meta = new Properties();
+        try (InputStream in = Files.newInputStream(metaFile)) {
+            meta.load(in);
+            return meta;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            logger.debug("Failed to update access time of {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static final class CacheEntry {
+        private final Path path;
+        private final long size;
+        private final long lastModified;
+
+        CacheEntry(Path path) {
+            this.path = path;
+            try {
+                this.size = Files.size(path);
+                this.lastModified = Files.getLastModifiedTime(path).toMillis();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.histdata.etl.datasource;
+
+import com.qcloud.cos.model.COSObjectSummary;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Minimal object storage operations used by the COS extractors.
+ * Implemented by the COS SDK client and by a local filesystem stand-in for offline runs and tests.
+ */
+public interface CosObjectStore extends Closeable {
+
+    /**
+     * Lists all objects whose key starts with the given prefix.
+     *
+     * @param prefix Key prefix, without leading slash
+     * @return Object summaries (key, size, ETag) sorted by key
+     * @throws IOException if listing fails
+     */
+    List<COSObjectSummary> listObjects(String prefix) throws IOException;
+
+    /**
+     * Opens a byte range of an object.
+     *
+     * @param key Object key
+     * @param start First byte offset (inclusive)
+     * @param end Last byte offset (inclusive)
+     * @return Stream over the requested range; the caller must close it
+     * @throws IOException if the object cannot be read
+     */
+    InputStream getObject(String key, long start, long end) throws IOException;
+
+    @Override
+    void close();
+}
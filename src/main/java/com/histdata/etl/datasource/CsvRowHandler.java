@@ -0,0 +1,16 @@
+package com.histdata.etl.datasource;
+
+/**
+ * Receives CSV rows from a {@link MappedCsvReader} positioned on the current row.
+ */
+@FunctionalInterface
+public interface CsvRowHandler {
+
+    /**
+     * Handles the current row. The reader is only valid for the duration of the call.
+     *
+     * @param row Reader positioned on the row
+     * @throws Exception if the row cannot be handled
+     */
+    void accept(MappedCsvReader row) throws Exception;
+}
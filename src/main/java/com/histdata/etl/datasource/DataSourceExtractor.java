@@ -1,5 +1,7 @@
 package com.histdata.etl.datasource;
 
+import com.histdata.etl.pipeline.RecordSink;
+
 import java.time.LocalDate;
 import java.util.List;
 
@@ -17,6 +19,25 @@ public interface DataSourceExtractor<T> {
      */
     List<T> extract(LocalDate businessDate) throws Exception;
 
+    /**
+     * Stream data for a given business date into a sink, one record at a time.
+     * The default implementation materializes {@link #extract(LocalDate)} first;
+     * extractors that can read incrementally override it.
+     *
+     * @param businessDate the business date to extract data for
+     * @param sink receiver for raw data records
+     * @return number of records emitted
+     * @throws Exception if extraction fails
+     */
+    default long stream(LocalDate businessDate, RecordSink<? super T> sink) throws Exception {
+        long count = 0;
+        for (T record : extract(businessDate)) {
+            sink.accept(record);
+            count++;
+        }
+        return count;
+    }
+
     /**
      * Initialize the extractor with configuration.
      *
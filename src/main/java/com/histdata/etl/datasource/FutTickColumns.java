@@ -0,0 +1,39 @@
+package com.histdata.etl.datasource;
+
+/**
+ * Columns of fut_tick read by the typed row path, in projection order.
+ * The constants are the 1-based JDBC indices of each column in {@link #SELECT_LIST}, so rows are read
+ * by position without resolving names per row.
+ */
+public final class FutTickColumns {
+
+    /** Projection used by {@link MySqlFutureExtractor#streamRows}. */
+    public static final String SELECT_LIST = "code, pre_close, pre_settle, pre_interest, open, high, low, price, "
+            + "settle_price, upper_limit, lower_limit, total_volume, total_turnover, open_interest, "
+            + "bid_prices, bid_qty, ask_prices, ask_qty, action_date, action_time, receive_time";
+
+    public static final int CODE = 1;
+    public static final int PRE_CLOSE = 2;
+    public static final int PRE_SETTLE = 3;
+    public static final int PRE_INTEREST = 4;
+    public static final int OPEN = 5;
+    public static final int HIGH = 6;
+    public static final int LOW = 7;
+    public static final int PRICE = 8;
+    public static final int SETTLE_PRICE = 9;
+    public static final int UPPER_LIMIT = 10;
+    public static final int LOWER_LIMIT = 11;
+    public static final int TOTAL_VOLUME = 12;
+    public static final int TOTAL_TURNOVER = 13;
+    public static final int OPEN_INTEREST = 14;
+    public static final int BID_PRICES = 15;
+    public static final int BID_QTY = 16;
+    public static final int ASK_PRICES = 17;
+    public static final int ASK_QTY = 18;
+    public static final int ACTION_DATE = 19;
+    public static final int ACTION_TIME = 20;
+    public static final int RECEIVE_TIME = 21;
+
+    private FutTickColumns() {
+    }
+}
@@ -0,0 +1,136 @@
+package com.histdata.etl.datasource;
+
+import com.qcloud.cos.model.COSObjectSummary;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Filesystem-backed {@link CosObjectStore}.
+ * Object keys are paths relative to the root directory, so a bucket can be mirrored locally
+ * to run the COS extractors offline.
+ */
+public class LocalCosObjectStore implements CosObjectStore {
+
+    private final Path root;
+
+    public LocalCosObjectStore(Path root) {
+        this.root = root;
+    }
+
+    @Override
+    public List<COSObjectSummary> listObjects(String prefix) throws IOException {
+        List<COSObjectSummary> summaries = new ArrayList<>();
+        if (!Files.isDirectory(root)) {
+            return summaries;
+        }
+
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.filter(Files::isRegularFile).forEach(path -> {
+                String key = toKey(path);
+                if (key.startsWith(prefix)) {
+                    summaries.add(summarize(path, key));
+                }
+            });
+        }
+
+        summaries.sort(Comparator.comparing(COSObjectSummary::getKey));
+        return summaries;
+    }
+
+    @Override
+    public InputStream getObject(String key, long start, long end) throws IOException {
+        Path path = root.resolve(key);
+        if (!Files.isRegularFile(path)) {
+            throw new IOException("No such object: " + key);
+        }
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        channel.position(start);
+        return new RangeInputStream(Channels.newInputStream(channel), end - start + 1);
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release
+    }
+
+    private String toKey(Path path) {
+        return root.relativize(path).toString().replace('\\', '/');
+    }
+
+    private static COSObjectSummary summarize(Path path, String key) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            COSObjectSummary summary = new COSObjectSummary();
+            summary.setKey(key);
+            summary.setSize(attributes.size());
+            summary.setETag(Long.toHexString(attributes.lastModifiedTime().toMillis()) + "-" + Long.toHexString(attributes.size()));
+            summary.setLastModified(new Date(attributes.lastModifiedTime().toMillis()));
+            return summary;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Stream limited to a fixed number of bytes, mirroring an HTTP range response.
+     */
+    private static final class RangeInputStream extends FilterInputStream {
+        private long remaining;
+
+        RangeInputStream(InputStream in, long length) {
+            super(in);
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = super.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int n = super.read(b, off, (int) Math.min(len, remaining));
+            if (n > 0) {
+                remaining -= n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(Math.min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(super.available(), remaining);
+        }
+    }
+}
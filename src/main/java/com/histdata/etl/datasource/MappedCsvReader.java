@@ -0,0 +1,449 @@
+package com.histdata.etl.datasource;
+
+import com.histdata.etl.util.DateUtils;
+import com.histdata.etl.util.TimestampParser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.util.Arrays;
+
+/**
+ * Zero-copy CSV tokenizer over a memory-mapped file.
+ * Rows are scanned in place and only field offsets are recorded, so numbers and timestamps are parsed
+ * straight from the mapped bytes; Strings are created only when a caller asks for one.
+ * Accepts the same input as the commons-csv DEFAULT format with header, trimming and ignored empty lines.
+ * The reader is a cursor: field accessors refer to the current row until {@link #next()} is called again.
+ * Files larger than the mapping window are mapped piecewise.
+ */
+public final class MappedCsvReader implements Closeable {
+
+    static final long DEFAULT_WINDOW_SIZE = 1L << 30;
+
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final long windowSize;
+    private final String[] header;
+
+    private MappedByteBuffer buffer;
+    private long windowStart;
+    private int position;
+
+    private int fieldCount;
+    private int[] starts = new int[32];
+    private int[] ends = new int[32];
+    private boolean[] escaped = new boolean[32];
+    private long rowNumber;
+    private boolean blankLine;
+
+    /**
+     * Opens a CSV file and reads its header row.
+     *
+     * @param file CSV file with a header row
+     * @return Reader positioned before the first data row
+     * @throws IOException if the file cannot be mapped or has no header
+     */
+    public static MappedCsvReader open(Path file) throws IOException {
+        return new MappedCsvReader(file, DEFAULT_WINDOW_SIZE);
+    }
+
+    MappedCsvReader(Path file, long windowSize) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.windowSize = windowSize;
+        try {
+            map(0);
+            if (!next()) {
+                this.header = new String[0];
+            } else {
+                this.header = new String[fieldCount];
+                for (int i = 0; i < fieldCount; i++) {
+                    header[i] = getString(i);
+                }
+                rowNumber = 0;
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the index of a header column, ignoring case.
+     *
+     * @param name Column name
+     * @return Column index, or -1 if the header has no such column
+     */
+    public int columnIndex(String name) {
+        for (int i = 0; i < header.length; i++) {
+            if (header[i].equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of a required header column, ignoring case.
+     *
+     * @param name Column name
+     * @return Column index
+     * @throws IllegalArgumentException if the header has no such column
+     */
+    public int requireColumn(String name) {
+        int index = columnIndex(name);
+        if (index < 0) {
+            throw new IllegalArgumentException("Mapping for " + name + " not found, expected one of " + Arrays.toString(header));
+        }
+        return index;
+    }
+
+    /**
+     * Advances to the next non-empty row.
+     *
+     * @return false at end of file
+     * @throws IOException if the file cannot be mapped or a quoted field is not terminated
+     */
+    public boolean next() throws IOException {
+        while (windowStart + position < fileSize) {
+            int end = scanRow(position);
+            if (end < 0) {
+                if (position == 0) {
+                    throw new IOException("CSV row at byte " + windowStart + " exceeds the mapping window of " + windowSize + " bytes");
+                }
+                map(windowStart + position);
+                continue;
+            }
+            position = end;
+            if (blankLine) {
+                continue;
+            }
+            rowNumber++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the 1-based number of the current data row, not counting the header.
+     */
+    public long getRowNumber() {
+        return rowNumber;
+    }
+
+    /**
+     * Returns the number of fields in the current row.
+     */
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Returns true if the field is missing from the current row or has no content after trimming.
+     */
+    public boolean isEmpty(int column) {
+        return column < 0 || column >= fieldCount || starts[column] == ends[column];
+    }
+
+    /**
+     * Returns the field as a String; this allocates.
+     *
+     * @param column Column index
+     * @return Field value
+     */
+    public String getString(int column) {
+        checkColumn(column);
+        int start = starts[column];
+        int length = ends[column] - start;
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+        String value = new String(bytes, StandardCharsets.UTF_8);
+        return escaped[column] ? value.replace("\"\"", "\"") : value;
+    }
+
+    /**
+     * Compares the field with an ASCII string without allocating.
+     */
+    public boolean fieldEquals(int column, String ascii) {
+        checkColumn(column);
+        int start = starts[column];
+        int length = ends[column] - start;
+        if (escaped[column]) {
+            return getString(column).equals(ascii);
+        }
+        if (length != ascii.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(start + i) != ascii.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses the field as a long.
+     *
+     * @throws NumberFormatException if the field is not a valid long
+     */
+    public long getLong(int column) {
+        checkColumn(column);
+        int i = starts[column];
+        int end = ends[column];
+        if (i == end) {
+            throw new NumberFormatException("Empty value in column " + column + " of row " + rowNumber);
+        }
+        boolean negative = false;
+        byte first = buffer.get(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+            if (i == end) {
+                throw numberFormat(column);
+            }
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int d = buffer.get(i) - '0';
+            if (d < 0 || d > 9) {
+                throw numberFormat(column);
+            }
+            if (value < (Long.MIN_VALUE + d) / 10) {
+                throw numberFormat(column);
+            }
+            value = value * 10 - d;
+        }
+        if (!negative) {
+            if (value == Long.MIN_VALUE) {
+                throw numberFormat(column);
+            }
+            return -value;
+        }
+        return value;
+    }
+
+    /**
+     * Parses the field as an int.
+     *
+     * @throws NumberFormatException if the field is not a valid int
+     */
+    public int getInt(int column) {
+        long value = getLong(column);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw numberFormat(column);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Parses the field as a double.
+     * Plain decimals whose digits fit in 53 bits are computed exactly from the bytes;
+     * anything else falls back to {@link Double#parseDouble(String)}.
+     *
+     * @throws NumberFormatException if the field is not a valid double
+     */
+    public double getDouble(int column) {
+        checkColumn(column);
+        int i = starts[column];
+        int end = ends[column];
+        if (i == end) {
+            throw new NumberFormatException("Empty value in column " + column + " of row " + rowNumber);
+        }
+
+        boolean negative = false;
+        byte first = buffer.get(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int fractionDigits = 0;
+        int digits = 0;
+        boolean seenPoint = false;
+        for (; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b == '.' && !seenPoint) {
+                seenPoint = true;
+                continue;
+            }
+            int d = b - '0';
+            if (d < 0 || d > 9 || mantissa > (MAX_EXACT_MANTISSA - d) / 10) {
+                // Exponent, special value or too many digits for the exact path
+                return Double.parseDouble(getString(column));
+            }
+            mantissa = mantissa * 10 + d;
+            digits++;
+            if (seenPoint) {
+                fractionDigits++;
+            }
+        }
+        if (digits == 0 || fractionDigits >= POWERS_OF_TEN.length) {
+            return Double.parseDouble(getString(column));
+        }
+
+        // Both operands are exact doubles, so the single division is correctly rounded
+        double value = mantissa / POWERS_OF_TEN[fractionDigits];
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parses a "yyyy-MM-dd HH:mm:ss.SSS" field to epoch milliseconds in the default time zone.
+     *
+     * @throws IllegalArgumentException if the field is not a valid timestamp
+     */
+    public long getTimestampMillis(int column) {
+        checkColumn(column);
+        int length = ends[column] - starts[column];
+        if (length != TimestampParser.LENGTH) {
+            // Shortened fractions such as ".5" are rare; let DateUtils handle them as before
+            try {
+                return DateUtils.parseTimestampMillis(getString(column));
+            } catch (ParseException e) {
+                throw new IllegalArgumentException("Unparseable timestamp: \"" + getString(column) + "\"", e);
+            }
+        }
+        return TimestampParser.parseMillis(buffer, starts[column], length);
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer = null;
+        channel.close();
+    }
+
+    private void map(long start) throws IOException {
+        windowStart = start;
+        position = 0;
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(windowSize, fileSize - start));
+    }
+
+    /**
+     * Scans one row starting at the given buffer position and records its field bounds.
+     *
+     * @return Position after the row terminator, or -1 if the row continues beyond the mapped window
+     */
+    private int scanRow(int p) throws IOException {
+        int limit = buffer.limit();
+        boolean lastWindow = windowStart + limit >= fileSize;
+        fieldCount = 0;
+        blankLine = buffer.get(p) == '\n' || buffer.get(p) == '\r';
+
+        while (true) {
+            while (p < limit && isTrimmable(buffer.get(p))) {
+                p++;
+            }
+
+            int start;
+            int end;
+            boolean quoted = p < limit && buffer.get(p) == '"';
+            boolean hasEscapes = false;
+            if (quoted) {
+                start = ++p;
+                while (true) {
+                    if (p >= limit) {
+                        if (lastWindow) {
+                            throw new IOException("Unterminated quoted field at byte " + (windowStart + start));
+                        }
+                        return -1;
+                    }
+                    if (buffer.get(p) == '"') {
+                        if (p + 1 < limit && buffer.get(p + 1) == '"') {
+                            hasEscapes = true;
+                            p += 2;
+                            continue;
+                        }
+                        if (p + 1 >= limit && !lastWindow) {
+                            return -1;
+                        }
+                        break;
+                    }
+                    p++;
+                }
+                end = p++;
+                while (p < limit && isTrimmable(buffer.get(p))) {
+                    p++;
+                }
+            } else {
+                start = p;
+                while (p < limit) {
+                    byte b = buffer.get(p);
+                    if (b == ',' || b == '\n' || b == '\r') {
+                        break;
+                    }
+                    p++;
+                }
+                end = p;
+                while (end > start && isTrimmable(buffer.get(end - 1))) {
+                    end--;
+                }
+            }
+
+            addField(start, end, hasEscapes);
+
+            if (p >= limit) {
+                return lastWindow ? p : -1;
+            }
+            byte b = buffer.get(p);
+            if (b == ',') {
+                p++;
+                continue;
+            }
+            if (b == '\r') {
+                if (p + 1 >= limit && !lastWindow) {
+                    return -1;
+                }
+                p++;
+                if (p < limit && buffer.get(p) == '\n') {
+                    p++;
+                }
+                return p;
+            }
+            if (b == '\n') {
+                return p + 1;
+            }
+            throw new IOException("Unexpected character after quoted field at byte " + (windowStart + p));
+        }
+    }
+
+    private void addField(int start, int end, boolean hasEscapes) {
+        if (fieldCount == starts.length) {
+            starts = Arrays.copyOf(starts, fieldCount * 2);
+            ends = Arrays.copyOf(ends, fieldCount * 2);
+            escaped = Arrays.copyOf(escaped, fieldCount * 2);
+        }
+        starts[fieldCount] = start;
+        ends[fieldCount] = end;
+        escaped[fieldCount] = hasEscapes;
+        fieldCount++;
+    }
+
+    private void checkColumn(int column) {
+        if (column < 0 || column >= fieldCount) {
+            throw new IllegalArgumentException("Column " + column + " not present in row " + rowNumber
+                    + " with " + fieldCount + " fields");
+        }
+    }
+
+    private NumberFormatException numberFormat(int column) {
+        return new NumberFormatException("For input string: \"" + getString(column) + "\"");
+    }
+
+    private static boolean isTrimmable(byte b) {
+        return b == ' ' || b == '\t';
+    }
+}
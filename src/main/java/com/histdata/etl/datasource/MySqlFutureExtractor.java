@@ -1,75 +1,464 @@
 package com.histdata.etl.datasource;
 
 import com.histdata.etl.config.MySqlConfig;
+import com.histdata.etl.metrics.Counter;
+import com.histdata.etl.metrics.EtlMetrics;
+import com.histdata.etl.pipeline.BoundedRecordQueue;
+import com.histdata.etl.pipeline.RecordSink;
+import com.histdata.etl.pipeline.SortedRunMerger;
+import com.histdata.etl.util.ResourcePool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Extractor for Bond Future L2 Quote records from MySQL fut_tick table.
+ * Rows are read through a server-side cursor, {@code fetch_size} rows per round trip, so
+ * {@link #stream} holds only one fetch in memory regardless of how many ticks the day has.
+ * <p>
+ * When created over a connection pool and {@code partitions} is above 1, a day is split into that many
+ * action_time windows that are queried concurrently, each on its own pooled connection. Each window is
+ * read into a bounded queue and the windows are merged back into action_time order as they stream in.
+ * <p>
+ * Rows of equal action_time are ordered by the {@code tie_breaker} columns, so a day yields the same
+ * sequence on every run.
  */
 public class MySqlFutureExtractor implements DataSourceExtractor<Map<String, Object>> {
     private static final Logger logger = LoggerFactory.getLogger(MySqlFutureExtractor.class);
 
+    private static final String ACTION_TIME_COLUMN = "action_time";
+    private static final Counter.Child ROWS_PARSED = EtlMetrics.ROWS_PARSED.labels("fut_tick");
+
     private Connection connection;
     private MySqlConfig config;
+    private boolean sharedConnection;
+    private ResourcePool<Connection> connectionPool;
 
     public MySqlFutureExtractor(MySqlConfig config) {
         this.config = config;
     }
 
-    @Override
-    public void initialize() throws SQLException {
-        String url = String.format("jdbc:mysql://%s:%d/%s?useSSL=false&serverTimezone=UTC",
+    /**
+     * Creates an extractor that reads through a connection borrowed from a pool.
+     * The connection is not closed by {@link #close()}.
+     *
+     * @param config MySQL configuration
+     * @param connection Open connection owned by the caller
+     */
+    public MySqlFutureExtractor(MySqlConfig config, Connection connection) {
+        this.config = config;
+        this.connection = connection;
+        this.sharedConnection = true;
+    }
+
+    /**
+     * Creates an extractor that borrows connections from a pool for each query, one per
+     * action_time window when the day is partitioned. The pool is not closed by {@link #close()}.
+     *
+     * @param config MySQL configuration
+     * @param connectionPool Pool of open connections owned by the caller
+     */
+    public MySqlFutureExtractor(MySqlConfig config, ResourcePool<Connection> connectionPool) {
+        this.config = config;
+        this.connectionPool = connectionPool;
+        this.sharedConnection = true;
+    }
+
+    /**
+     * Opens a connection to the configured fut_tick database.
+     * Cursor fetch is enabled so that statements with a fetch size read their results incrementally.
+     *
+     * @param config MySQL configuration
+     * @return Open connection
+     * @throws SQLException if the connection cannot be established
+     */
+    public static Connection openConnection(MySqlConfig config) throws SQLException {
+        String url = String.format("jdbc:mysql://%s:%d/%s?useSSL=false&serverTimezone=UTC&useCursorFetch=true",
                 config.getHost(), config.getPort(), config.getDatabase());
-        connection = DriverManager.getConnection(url, config.getUsername(), config.getPassword());
+        Connection connection = DriverManager.getConnection(url, config.getUsername(), config.getPassword());
         logger.info("MySQL connection established to {}:{}", config.getHost(), config.getPort());
+        return connection;
+    }
+
+    @Override
+    public void initialize() throws SQLException {
+        connection = openConnection(config);
+        sharedConnection = false;
     }
 
+    /**
+     * Extracts all fut_tick rows of the date into a list. Prefer {@link #stream} for full days,
+     * which hands each row to the sink as it is fetched.
+     */
     @Override
     public List<Map<String, Object>> extract(LocalDate businessDate) throws Exception {
-        if (connection == null) {
-            initialize();
+        List<Map<String, Object>> records = new ArrayList<>();
+        stream(businessDate, records::add);
+        return records;
+    }
+
+    @Override
+    public long stream(LocalDate businessDate, RecordSink<? super Map<String, Object>> sink) throws Exception {
+        return stream(businessDate, "*", rs -> {
+            String[] names = columnNames(rs.getMetaData());
+            int capacity = (int) (names.length / 0.75f) + 1;
+            return row -> {
+                Map<String, Object> record = new HashMap<>(capacity);
+                for (int i = 0; i < names.length; i++) {
+                    record.put(names[i], row.getObject(i + 1));
+                }
+                return record;
+            };
+        }, sink);
+    }
+
+    /**
+     * Streams only the {@link FutTickColumns} projection of the date's rows, handing the handler the
+     * positioned result set instead of a map per row. Values are read by index with the typed getters.
+     * The day is always read with a single query.
+     *
+     * @param businessDate Business date to extract
+     * @param handler Receives each row while the result set is positioned on it
+     * @return Number of rows handled
+     * @throws Exception if the query fails or the handler throws
+     */
+    public long streamRows(LocalDate businessDate, ResultSetRowHandler handler) throws Exception {
+        String sql = "SELECT " + FutTickColumns.SELECT_LIST
+                + " FROM bond.fut_tick WHERE action_date = ? ORDER BY " + orderBy();
+        int actionDate = actionDate(businessDate);
+        logger.info("Executing query: {}", sql);
+        long count = withConnection(c -> query(c, sql, new int[]{actionDate}, handler));
+        logger.info("Extracted {} records from fut_tick for date {}", count, businessDate);
+        return count;
+    }
+
+    /**
+     * Streams the {@link FutTickColumns} projection of the date's rows through a mapper, in action_time order.
+     * When the day is partitioned the mapper runs on the window reader threads, so the sink receives
+     * already mapped values and mapping proceeds in parallel.
+     *
+     * @param businessDate Business date to extract
+     * @param mapper Maps each row; rows mapped to null are skipped
+     * @param sink Receives the mapped values on the calling thread
+     * @return Number of values passed to the sink
+     * @throws Exception if a query fails, the mapper or the sink throws
+     */
+    public <T> long streamMapped(LocalDate businessDate, ResultSetRowMapper<T> mapper,
+                                 RecordSink<? super T> sink) throws Exception {
+        return stream(businessDate, FutTickColumns.SELECT_LIST, rs -> mapper, sink);
+    }
+
+    /**
+     * Returns a view of the date's rows mapped by {@link #streamMapped}, for stages that take a
+     * {@link DataSourceExtractor}. Closing the view closes this extractor.
+     *
+     * @param mapper Maps each row while the result set is positioned on it; rows mapped to null are skipped
+     * @return Extractor of the mapped values
+     */
+    public <T> DataSourceExtractor<T> mappedRows(ResultSetRowMapper<T> mapper) {
+        return new DataSourceExtractor<T>() {
+            @Override
+            public List<T> extract(LocalDate businessDate) throws Exception {
+                List<T> values = new ArrayList<>();
+                streamMapped(businessDate, mapper, values::add);
+                return values;
+            }
+
+            @Override
+            public long stream(LocalDate businessDate, RecordSink<? super T> sink) throws Exception {
+                return streamMapped(businessDate, mapper, sink);
+            }
+
+            @Override
+            public void close() throws Exception {
+                MySqlFutureExtractor.this.close();
+            }
+        };
+    }
+
+    /**
+     * Returns the number of fut_tick rows of the business date, used to estimate the heap a day will need
+     * before it is admitted.
+     *
+     * @param businessDate Business date to count
+     * @return Number of rows
+     * @throws Exception if the query fails
+     */
+    public long countRows(LocalDate businessDate) throws Exception {
+        int actionDate = actionDate(businessDate);
+        return withConnection(c -> countRows(c, actionDate));
+    }
+
+    private <T> long stream(LocalDate businessDate, String selectList, RowBinder<T> binder,
+                            RecordSink<? super T> sink) throws Exception {
+        int partitions = connectionPool == null ? 1 : config.getPartitions();
+        if (partitions > 1) {
+            return streamPartitioned(businessDate, selectList, binder, sink, partitions);
         }
 
-        String sql = "SELECT * FROM bond.fut_tick WHERE action_date = ? ORDER BY action_time";
+        String sql = "SELECT " + selectList + " FROM bond.fut_tick WHERE action_date = ? ORDER BY " + orderBy();
+        int actionDate = actionDate(businessDate);
         logger.info("Executing query: {}", sql);
+        long[] emitted = new long[1];
+        withConnection(c -> {
+            List<ResultSetRowMapper<T>> bound = new ArrayList<>(1);
+            return query(c, sql, new int[]{actionDate}, rs -> {
+                if (bound.isEmpty()) {
+                    bound.add(binder.bind(rs));
+                }
+                T value = bound.get(0).map(rs);
+                if (value != null) {
+                    sink.accept(value);
+                    emitted[0]++;
+                }
+            });
+        });
+        logger.info("Extracted {} records from fut_tick for date {}", emitted[0], businessDate);
+        return emitted[0];
+    }
 
-        List<Map<String, Object>> records = new ArrayList<>();
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setInt(1, Integer.parseInt(businessDate.toString().replace("-", "")));
-            ResultSet rs = stmt.executeQuery();
-
-            ResultSetMetaData metaData = rs.getMetaData();
-            int columnCount = metaData.getColumnCount();
-
-            while (rs.next()) {
-                Map<String, Object> record = new HashMap<>();
-                for (int i = 1; i <= columnCount; i++) {
-                    String columnName = metaData.getColumnName(i);
-                    Object value = rs.getObject(i);
-                    record.put(columnName, value);
+    private <T> long streamPartitioned(LocalDate businessDate, String selectList, RowBinder<T> binder,
+                                       RecordSink<? super T> sink, int partitions) throws Exception {
+        int actionDate = actionDate(businessDate);
+        int[] range = withConnection(c -> actionTimeRange(c, actionDate));
+        if (range == null) {
+            logger.info("Extracted 0 records from fut_tick for date {}", businessDate);
+            return 0;
+        }
+
+        int[] bounds = windowBounds(range[0], range[1], partitions);
+        int windows = bounds.length - 1;
+        String sql = "SELECT " + selectList + " FROM bond.fut_tick"
+                + " WHERE action_date = ? AND action_time >= ? AND action_time < ? ORDER BY " + orderBy();
+        logger.info("Executing query over {} action_time windows: {}", windows, sql);
+
+        int capacity = Math.max(1, config.getFetchSize());
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(windows, r -> {
+            Thread thread = new Thread(r, "fut-tick-window-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Iterator<Keyed<T>>> runs = new ArrayList<>(windows);
+            for (int i = 0; i < windows; i++) {
+                int[] params = {actionDate, bounds[i], bounds[i + 1]};
+                BoundedRecordQueue<Keyed<T>> queue = new BoundedRecordQueue<>(
+                        "fut_tick[" + bounds[i] + "," + bounds[i + 1] + ")", capacity);
+                runs.add(queue.iterator());
+                executor.submit(() -> {
+                    try {
+                        withConnection(c -> readWindow(c, sql, params, binder, queue));
+                        queue.close();
+                    } catch (InterruptedException e) {
+                        queue.fail(e);
+                        Thread.currentThread().interrupt();
+                    } catch (Throwable t) {
+                        queue.fail(t);
+                    }
+                });
+            }
+            executor.shutdown();
+
+            long count = 0;
+            // Windows cover disjoint action_time ranges, so equal keys come from one window and keep its order
+            SortedRunMerger<Keyed<T>> merged = new SortedRunMerger<>(runs, keyed -> keyed.key);
+            while (merged.hasNext()) {
+                sink.accept(merged.next().value);
+                count++;
+            }
+            logger.info("Extracted {} records from fut_tick for date {} over {} windows", count, businessDate, windows);
+            return count;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the ORDER BY list: action_time, then the configured tie-breaker columns.
+     */
+    private String orderBy() {
+        String tieBreaker = config.getTieBreaker();
+        return tieBreaker == null || tieBreaker.trim().isEmpty()
+                ? ACTION_TIME_COLUMN
+                : ACTION_TIME_COLUMN + ", " + tieBreaker.trim();
+    }
+
+    private <T> long readWindow(Connection c, String sql, int[] params, RowBinder<T> binder,
+                                BoundedRecordQueue<Keyed<T>> queue) throws Exception {
+        List<ResultSetRowMapper<T>> bound = new ArrayList<>(1);
+        int[] keyColumn = new int[1];
+        return query(c, sql, params, rs -> {
+            if (bound.isEmpty()) {
+                bound.add(binder.bind(rs));
+                keyColumn[0] = rs.findColumn(ACTION_TIME_COLUMN);
+            }
+            T value = bound.get(0).map(rs);
+            if (value != null) {
+                queue.accept(new Keyed<>(rs.getInt(keyColumn[0]), value));
+            }
+        });
+    }
+
+    private long query(Connection c, String sql, int[] params, ResultSetRowHandler handler) throws Exception {
+        logger.debug("Executing query: {} with {}", sql, Arrays.toString(params));
+
+        long count = 0;
+        try (PreparedStatement stmt = c.prepareStatement(sql)) {
+            if (config.getFetchSize() > 0) {
+                stmt.setFetchSize(config.getFetchSize());
+            }
+            for (int i = 0; i < params.length; i++) {
+                stmt.setInt(i + 1, params[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    handler.accept(rs);
+                    count++;
                 }
-                records.add(record);
             }
         }
+        ROWS_PARSED.inc(count);
+        return count;
+    }
 
-        logger.info("Extracted {} records from fut_tick for date {}", records.size(), businessDate);
-        return records;
+    private static long countRows(Connection c, int actionDate) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM bond.fut_tick WHERE action_date = ?";
+        try (PreparedStatement stmt = c.prepareStatement(sql)) {
+            stmt.setInt(1, actionDate);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    private static int[] actionTimeRange(Connection c, int actionDate) throws SQLException {
+        String sql = "SELECT MIN(action_time), MAX(action_time) FROM bond.fut_tick WHERE action_date = ?";
+        try (PreparedStatement stmt = c.prepareStatement(sql)) {
+            stmt.setInt(1, actionDate);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                int min = rs.getInt(1);
+                if (rs.wasNull()) {
+                    return null;
+                }
+                return new int[]{min, rs.getInt(2)};
+            }
+        }
+    }
+
+    /**
+     * Splits [minActionTime, maxActionTime] into up to {@code partitions} windows of equal duration.
+     * Bounds are HHmmssSSS action_time values; window i is [bounds[i], bounds[i + 1]). Windows that
+     * would be empty because the range is shorter than the partition count are dropped.
+     *
+     * @param minActionTime Earliest action_time of the day
+     * @param maxActionTime Latest action_time of the day
+     * @param partitions Requested number of windows
+     * @return Ascending window bounds, at least two
+     */
+    static int[] windowBounds(int minActionTime, int maxActionTime, int partitions) {
+        long from = millisOfDay(minActionTime);
+        long to = millisOfDay(maxActionTime) + 1;
+        int[] bounds = new int[partitions + 1];
+        int count = 0;
+        for (int i = 0; i <= partitions; i++) {
+            int bound = actionTime(from + (to - from) * i / partitions);
+            if (count == 0 || bound > bounds[count - 1]) {
+                bounds[count++] = bound;
+            }
+        }
+        return Arrays.copyOf(bounds, count);
+    }
+
+    private static long millisOfDay(int actionTime) {
+        return actionTime / 10000000 * 3600000L
+                + actionTime / 100000 % 100 * 60000L
+                + actionTime / 1000 % 100 * 1000L
+                + actionTime % 1000;
+    }
+
+    private static int actionTime(long millisOfDay) {
+        return (int) (millisOfDay / 3600000 * 10000000
+                + millisOfDay / 60000 % 60 * 100000
+                + millisOfDay / 1000 % 60 * 1000
+                + millisOfDay % 1000);
+    }
+
+    private static int actionDate(LocalDate businessDate) {
+        return businessDate.getYear() * 10000 + businessDate.getMonthValue() * 100 + businessDate.getDayOfMonth();
+    }
+
+    private <R> R withConnection(ConnectionWork<R> work) throws Exception {
+        if (connectionPool != null) {
+            Connection c = connectionPool.borrow();
+            try {
+                return work.run(c);
+            } finally {
+                connectionPool.release(c);
+            }
+        }
+        if (connection == null) {
+            initialize();
+        }
+        return work.run(connection);
+    }
+
+    private static String[] columnNames(ResultSetMetaData metaData) throws SQLException {
+        String[] names = new String[metaData.getColumnCount()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = metaData.getColumnName(i + 1);
+        }
+        return names;
     }
 
     @Override
     public void close() throws SQLException {
+        if (sharedConnection) {
+            connection = null;
+            return;
+        }
         if (connection != null && !connection.isClosed()) {
             connection.close();
             connection = null;
             logger.info("MySQL connection closed");
         }
     }
+
+    /**
+     * Binds a row mapper to the columns of a result set, once per query.
+     */
+    private interface RowBinder<T> {
+        ResultSetRowMapper<T> bind(ResultSet rs) throws SQLException;
+    }
+
+    private interface ConnectionWork<R> {
+        R run(Connection connection) throws Exception;
+    }
+
+    /**
+     * Mapped row tagged with its action_time, the merge key across windows.
+     */
+    private static final class Keyed<T> {
+        private final long key;
+        private final T value;
+
+        Keyed(long key, T value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
 }
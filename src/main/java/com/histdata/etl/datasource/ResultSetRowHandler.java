@@ -0,0 +1,18 @@
+package com.histdata.etl.datasource;
+
+import java.sql.ResultSet;
+
+/**
+ * Receives rows from a JDBC result set positioned on the current row.
+ */
+@FunctionalInterface
+public interface ResultSetRowHandler {
+
+    /**
+     * Handles the current row. The result set must not be advanced or retained after the call.
+     *
+     * @param row Result set positioned on the row
+     * @throws Exception if the row cannot be handled
+     */
+    void accept(ResultSet row) throws Exception;
+}
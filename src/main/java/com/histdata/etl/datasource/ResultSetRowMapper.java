@@ -0,0 +1,22 @@
+package com.histdata.etl.datasource;
+
+import java.sql.ResultSet;
+
+/**
+ * Maps the current row of a JDBC result set to a value that outlives the row.
+ * With partitioned extraction the mapper runs on several reader threads at once, so it must be thread-safe.
+ *
+ * @param <T> Mapped value type
+ */
+@FunctionalInterface
+public interface ResultSetRowMapper<T> {
+
+    /**
+     * Maps the current row.
+     *
+     * @param row Result set positioned on the row
+     * @return Mapped value, or null to skip the row
+     * @throws Exception if the row cannot be mapped
+     */
+    T map(ResultSet row) throws Exception;
+}
@@ -0,0 +1,77 @@
+package com.histdata.etl.datasource;
+
+import com.qcloud.cos.COSClient;
+import com.qcloud.cos.exception.CosClientException;
+import com.qcloud.cos.model.COSObject;
+import com.qcloud.cos.model.COSObjectSummary;
+import com.qcloud.cos.model.GetObjectRequest;
+import com.qcloud.cos.model.ListObjectsRequest;
+import com.qcloud.cos.model.ObjectListing;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * {@link CosObjectStore} backed by the Tencent COS SDK client.
+ */
+public class SdkCosObjectStore implements CosObjectStore {
+    private static final int MAX_KEYS = 1000;
+
+    private final COSClient cosClient;
+    private final String bucket;
+
+    public SdkCosObjectStore(COSClient cosClient, String bucket) {
+        this.cosClient = cosClient;
+        this.bucket = bucket;
+    }
+
+    @Override
+    public List<COSObjectSummary> listObjects(String prefix) throws IOException {
+        List<COSObjectSummary> summaries = new ArrayList<>();
+        ListObjectsRequest request = new ListObjectsRequest();
+        request.setBucketName(bucket);
+        request.setPrefix(prefix);
+        request.setMaxKeys(MAX_KEYS);
+
+        try {
+            ObjectListing listing;
+            do {
+                listing = cosClient.listObjects(request);
+                summaries.addAll(listing.getObjectSummaries());
+                request.setMarker(listing.getNextMarker());
+            } while (listing.isTruncated());
+        } catch (CosClientException e) {
+            throw new IOException("Failed to list COS objects under " + prefix + ": " + e.getMessage(), e);
+        }
+
+        summaries.sort(Comparator.comparing(COSObjectSummary::getKey));
+        return summaries;
+    }
+
+    @Override
+    public InputStream getObject(String key, long start, long end) throws IOException {
+        GetObjectRequest request = new GetObjectRequest(bucket, key);
+        request.setRange(start, end);
+        try {
+            COSObject cosObject = cosClient.getObject(request);
+            return cosObject.getObjectContent();
+        } catch (CosClientException e) {
+            throw new IOException("Failed to get COS object " + key + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns the SDK client this store reads through.
+     */
+    public COSClient getCosClient() {
+        return cosClient;
+    }
+
+    @Override
+    public void close() {
+        cosClient.shutdown();
+    }
+}
@@ -4,6 +4,7 @@ import com.histdata.etl.config.CosConfig;
 import org.apache.commons.csv.CSVRecord;
 
 import java.time.LocalDate;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Extractor for XBond Market Quote (AllPriceDepth) CSV files from COS.
@@ -15,6 +16,14 @@ public class XbondQuoteExtractor extends CosExtractor {
         super(config);
     }
 
+    public XbondQuoteExtractor(CosConfig config, CosObjectStore objectStore) {
+        super(config, objectStore);
+    }
+
+    public XbondQuoteExtractor(CosConfig config, CosObjectStore objectStore, ExecutorService downloadExecutor, CosObjectCache cache) {
+        super(config, objectStore, downloadExecutor, cache);
+    }
+
     @Override
     protected String getFilePath(LocalDate businessDate) {
         return FILE_PATTERN.replace("YYYYMMDD", businessDate.toString().replace("-", ""));
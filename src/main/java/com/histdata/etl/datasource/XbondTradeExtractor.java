@@ -4,6 +4,7 @@ import com.histdata.etl.config.CosConfig;
 import org.apache.commons.csv.CSVRecord;
 
 import java.time.LocalDate;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Extractor for XBond Trade (XbondCfetsDeal) CSV files from COS.
@@ -15,6 +16,14 @@ public class XbondTradeExtractor extends CosExtractor {
         super(config);
     }
 
+    public XbondTradeExtractor(CosConfig config, CosObjectStore objectStore) {
+        super(config, objectStore);
+    }
+
+    public XbondTradeExtractor(CosConfig config, CosObjectStore objectStore, ExecutorService downloadExecutor, CosObjectCache cache) {
+        super(config, objectStore, downloadExecutor, cache);
+    }
+
     @Override
     protected String getFilePath(LocalDate businessDate) {
         return FILE_PATTERN.replace("YYYY-MM-DD", businessDate.toString());
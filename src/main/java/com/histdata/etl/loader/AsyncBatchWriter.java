@@ -0,0 +1,255 @@
+package com.histdata.etl.loader;
+
+import com.histdata.etl.exception.LoadingException;
+import com.histdata.etl.metrics.EtlMetrics;
+import com.histdata.etl.metrics.Gauge;
+import com.xxdb.DBConnection;
+import com.xxdb.data.BasicTable;
+import com.xxdb.data.Entity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Writes tables to DolphinDB in the background so that the next batch can be built while earlier ones are in flight.
+ * Each connection has its own writer thread. A target table is bound to one connection, so batches
+ * of the same table are inserted in the order they were written, while different tables proceed in parallel.
+ * At most a fixed number of batches are in flight; {@link #write} blocks once that limit is reached.
+ * <p>
+ * A failed insert is reported by the next call to {@link #write} or {@link #flush}.
+ */
+public class AsyncBatchWriter implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(AsyncBatchWriter.class);
+
+    private final List<DBConnection> connections;
+    private final List<ExecutorService> lanes;
+    private final Map<String, Integer> tableLanes = new HashMap<>();
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong rows = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    private long firstWriteNanos;
+
+    private final Gauge.Child inFlightGauge = EtlMetrics.QUEUE_DEPTH.labels("insert");
+    private final LongSupplier inFlightBatches;
+
+    /**
+     * Creates a writer over connected DBConnections; the writer takes ownership of them.
+     *
+     * @param connections Connected sessions, one writer thread each
+     * @param maxInFlight Maximum number of batches queued or being inserted
+     */
+    public AsyncBatchWriter(List<DBConnection> connections, int maxInFlight) {
+        if (connections.isEmpty()) {
+            throw new IllegalArgumentException("At least one connection is required");
+        }
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be positive: " + maxInFlight);
+        }
+        this.connections = new ArrayList<>(connections);
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.lanes = new ArrayList<>(connections.size());
+        AtomicInteger threads = new AtomicInteger();
+        for (int i = 0; i < connections.size(); i++) {
+            lanes.add(Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "ddb-writer-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }));
+        }
+        this.inFlightBatches = () -> maxInFlight - inFlight.availablePermits();
+        inFlightGauge.track(inFlightBatches);
+    }
+
+    /**
+     * Queues a table for insertion into the target table, waiting while the in-flight limit is reached.
+     * The table's vectors must not be modified afterwards.
+     *
+     * @param tableName Target table
+     * @param table Rows to insert
+     * @throws InterruptedException if interrupted while waiting for a free slot
+     * @throws LoadingException if an earlier insert failed
+     */
+    public void write(String tableName, BasicTable table) throws InterruptedException {
+        write(tableName, table, null);
+    }
+
+    /**
+     * Queues a table like {@link #write(String, BasicTable)} and runs a callback on the writer thread once
+     * the insert has succeeded. The callback is not run if the insert fails.
+     *
+     * @param tableName Target table
+     * @param table Rows to insert
+     * @param onInserted Callback run after the insert, or null
+     * @throws InterruptedException if interrupted while waiting for a free slot
+     * @throws LoadingException if an earlier insert failed
+     */
+    public void write(String tableName, BasicTable table, Runnable onInserted) throws InterruptedException {
+        checkFailure();
+        inFlight.acquire();
+        if (failure.get() != null) {
+            inFlight.release();
+            checkFailure();
+        }
+
+        int lane = laneOf(tableName);
+        DBConnection connection = connections.get(lane);
+        int size = table.rows();
+        long queued = System.nanoTime();
+        synchronized (this) {
+            if (firstWriteNanos == 0) {
+                firstWriteNanos = queued;
+            }
+        }
+
+        lanes.get(lane).execute(() -> {
+            try {
+                if (failure.get() != null) {
+                    return;
+                }
+                long start = System.nanoTime();
+                List<Entity> args = Collections.singletonList(table);
+                connection.run("tableInsert{" + tableName + "}", args);
+                long latency = System.nanoTime() - start;
+                record(size, latency);
+                EtlMetrics.INSERT_SECONDS.labels(tableName).observe(latency / 1e9);
+                if (onInserted != null) {
+                    onInserted.run();
+                }
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Inserted {} rows into {} in {} ms ({} rows/s, queued {} ms)", size, tableName,
+                            TimeUnit.NANOSECONDS.toMillis(latency), ratePerSecond(size, latency),
+                            TimeUnit.NANOSECONDS.toMillis(start - queued));
+                }
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+                logger.error("Insert of {} rows into {} failed: {}", size, tableName, t.getMessage());
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    /**
+     * Waits until every queued batch has been inserted and logs throughput since the first write.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     * @throws LoadingException if any insert failed
+     */
+    public void flush() throws InterruptedException {
+        inFlight.acquire(maxInFlight);
+        inFlight.release(maxInFlight);
+        checkFailure();
+
+        long wall;
+        synchronized (this) {
+            wall = firstWriteNanos == 0 ? 0 : System.nanoTime() - firstWriteNanos;
+            firstWriteNanos = 0;
+        }
+        long batchCount = batches.get();
+        if (batchCount > 0) {
+            logger.info("DolphinDB writer: {} rows in {} batches, avg {} ms/batch, max {} ms, {} rows/s",
+                    rows.get(), batchCount, TimeUnit.NANOSECONDS.toMillis(totalLatencyNanos.get() / batchCount),
+                    TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get()), ratePerSecond(rows.get(), wall));
+        }
+    }
+
+    /**
+     * Returns true if no insert has failed and every writer session is still connected.
+     */
+    public boolean isHealthy() {
+        if (failure.get() != null) {
+            return false;
+        }
+        for (DBConnection connection : connections) {
+            if (!connection.isConnected()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of batches inserted so far.
+     */
+    public long getBatchCount() {
+        return batches.get();
+    }
+
+    /**
+     * Returns the number of rows inserted so far.
+     */
+    public long getRowCount() {
+        return rows.get();
+    }
+
+    /**
+     * Returns the longest single insert so far, in milliseconds.
+     */
+    public long getMaxLatencyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get());
+    }
+
+    /**
+     * Stops the writer threads and closes the connections. Batches not yet inserted are discarded;
+     * call {@link #flush} first to wait for them.
+     */
+    @Override
+    public void close() {
+        inFlightGauge.untrack(inFlightBatches);
+        for (ExecutorService lane : lanes) {
+            lane.shutdownNow();
+        }
+        for (ExecutorService lane : lanes) {
+            try {
+                lane.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        for (DBConnection connection : connections) {
+            connection.close();
+        }
+    }
+
+    private synchronized int laneOf(String tableName) {
+        return tableLanes.computeIfAbsent(tableName, name -> tableLanes.size() % lanes.size());
+    }
+
+    private void record(int size, long latencyNanos) {
+        batches.incrementAndGet();
+        rows.addAndGet(size);
+        totalLatencyNanos.addAndGet(latencyNanos);
+        maxLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+    }
+
+    private void checkFailure() {
+        Throwable t = failure.get();
+        if (t != null) {
+            throw new LoadingException("DolphinDB insert failed: " + t.getMessage(), t);
+        }
+    }
+
+    private static long ratePerSecond(long count, long nanos) {
+        return nanos <= 0 ? 0 : count * TimeUnit.SECONDS.toNanos(1) / nanos;
+    }
+}
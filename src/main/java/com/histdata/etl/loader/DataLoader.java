@@ -1,5 +1,7 @@
 package com.histdata.etl.loader;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -15,6 +17,74 @@ public interface DataLoader {
      */
     void load(List<?> records) throws Exception;
 
+    /**
+     * Load records from an iterator in batches of at most {@code batchSize},
+     * so loading starts before the iterator is exhausted.
+     *
+     * @param records records to load, in load order
+     * @param batchSize maximum number of records per batch
+     * @return number of records loaded
+     * @throws Exception if loading fails
+     */
+    default long load(Iterator<?> records, int batchSize) throws Exception {
+        List<Object> batch = new ArrayList<>(batchSize);
+        long loaded = 0;
+        while (records.hasNext()) {
+            batch.add(records.next());
+            if (batch.size() >= batchSize) {
+                load(batch);
+                loaded += batch.size();
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            load(batch);
+            loaded += batch.size();
+        }
+        return loaded;
+    }
+
+    /**
+     * Load records from an iterator in batches of at most {@code batchSize}, resuming from a checkpoint.
+     * The records the checkpoint reports as loaded are skipped, and the checkpoint is advanced after
+     * each batch is loaded.
+     *
+     * @param records records to load, in the same order as in the run that wrote the checkpoint
+     * @param batchSize maximum number of records per batch
+     * @param checkpoint load progress of this record stream
+     * @return number of records loaded by this call, excluding skipped ones
+     * @throws Exception if loading fails
+     */
+    default long load(Iterator<?> records, int batchSize, LoadCheckpoint checkpoint) throws Exception {
+        long done = skip(records, checkpoint.getLoadedRecords());
+        List<Object> batch = new ArrayList<>(batchSize);
+        long loaded = 0;
+        while (records.hasNext()) {
+            batch.add(records.next());
+            if (batch.size() >= batchSize || !records.hasNext()) {
+                load(batch);
+                loaded += batch.size();
+                checkpoint.recordLoaded(done + loaded);
+                batch.clear();
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Advances the iterator past records loaded by an earlier run.
+     *
+     * @return number of records skipped
+     */
+    static long skip(Iterator<?> records, long count) {
+        long skipped = 0;
+        while (skipped < count && records.hasNext()) {
+            records.next();
+            skipped++;
+        }
+        return skipped;
+    }
+
     /**
      * Initialize the loader with configuration.
      *
@@ -0,0 +1,200 @@
+package com.histdata.etl.loader;
+
+import com.histdata.etl.config.DolphinDbConfig;
+import com.histdata.etl.exception.LoadingException;
+import com.histdata.etl.metrics.EtlMetrics;
+import com.histdata.etl.metrics.Gauge;
+import com.xxdb.DBConnectionPool;
+import com.xxdb.ExclusiveDBConnectionPool;
+import com.xxdb.data.BasicTable;
+import com.xxdb.route.PartitionedTableAppender;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Appends tables straight into the partitioned tables of the configured DFS database.
+ * Each append is split by the partition scheme of the target table on {@code partitionColumn}, and the
+ * partitions are written in parallel over a pool of sessions, so the data nodes owning them ingest concurrently.
+ * <p>
+ * {@link #write} appends in the background like {@link AsyncBatchWriter}: each target table has its own writer
+ * thread, so batches of a table are appended in order while the next batch is built and other tables proceed
+ * in parallel, and at most {@code max_in_flight_batches} batches are in flight. A failed append is reported by
+ * the next call to {@link #write} or {@link #flush}. Not thread-safe; each loader owns one appender.
+ */
+public class DfsAppender implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(DfsAppender.class);
+
+    private final DBConnectionPool pool;
+    private final String database;
+    private final String partitionColumn;
+    private final Map<String, PartitionedTableAppender> appenders = new HashMap<>();
+    private final Map<String, ExecutorService> lanes = new HashMap<>();
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    private final Gauge.Child inFlightGauge = EtlMetrics.QUEUE_DEPTH.labels("insert");
+    private final LongSupplier inFlightBatches;
+
+    DfsAppender(DBConnectionPool pool, String database, String partitionColumn, int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be positive: " + maxInFlight);
+        }
+        this.pool = pool;
+        this.database = database;
+        this.partitionColumn = partitionColumn;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.inFlightBatches = () -> maxInFlight - inFlight.availablePermits();
+        inFlightGauge.track(inFlightBatches);
+    }
+
+    /**
+     * Opens a pool of {@code dfs_connections} sessions to the configured server.
+     *
+     * @param config DolphinDB configuration
+     * @return Open appender
+     * @throws IOException if the sessions cannot be opened
+     */
+    public static DfsAppender open(DolphinDbConfig config) throws IOException {
+        DBConnectionPool pool = new ExclusiveDBConnectionPool(config.getHost(), config.getPort(),
+                config.getUsername(), config.getPassword(), config.getDfsConnections(), false, false);
+        logger.info("DFS appender opened {} sessions to {}, partitioning on {}, up to {} batches in flight",
+                config.getDfsConnections(), config.getDatabase(), config.getPartitionColumn(),
+                config.getMaxInFlightBatches());
+        return new DfsAppender(pool, config.getDatabase(), config.getPartitionColumn(), config.getMaxInFlightBatches());
+    }
+
+    /**
+     * Appends rows to a DFS table and returns once every partition is written; their column order must match
+     * the table schema.
+     *
+     * @param tableName Table in the configured database
+     * @param table Rows to append
+     * @return Number of rows appended
+     * @throws Exception if the table cannot be resolved or a partition write fails
+     */
+    public int append(String tableName, BasicTable table) throws Exception {
+        return appender(tableName).append(table);
+    }
+
+    /**
+     * Queues rows for appending to a DFS table, waiting while the in-flight limit is reached, and runs a
+     * callback on the table's writer thread once the append has succeeded. The table's vectors must not be
+     * modified afterwards.
+     *
+     * @param tableName Table in the configured database
+     * @param table Rows to append
+     * @param onAppended Callback run after the append, or null
+     * @throws Exception if the table cannot be resolved or an earlier append failed
+     */
+    public void write(String tableName, BasicTable table, Runnable onAppended) throws Exception {
+        checkFailure();
+        PartitionedTableAppender appender = appender(tableName);
+        inFlight.acquire();
+        if (failure.get() != null) {
+            inFlight.release();
+            checkFailure();
+        }
+
+        int size = table.rows();
+        lanes.computeIfAbsent(tableName, DfsAppender::newLane).execute(() -> {
+            try {
+                if (failure.get() != null) {
+                    return;
+                }
+                long started = System.nanoTime();
+                int appended = appender.append(table);
+                EtlMetrics.INSERT_SECONDS.labels(tableName).observeSince(started);
+                logger.debug("Appended {} rows to {}/{}", appended, database, tableName);
+                if (onAppended != null) {
+                    onAppended.run();
+                }
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+                logger.error("Append of {} rows to {}/{} failed: {}", size, database, tableName, t.getMessage());
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    /**
+     * Waits until every queued batch has been appended.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     * @throws LoadingException if any append failed
+     */
+    public void flush() throws InterruptedException {
+        inFlight.acquire(maxInFlight);
+        inFlight.release(maxInFlight);
+        checkFailure();
+    }
+
+    /**
+     * Returns true if no background append has failed.
+     */
+    public boolean isHealthy() {
+        return failure.get() == null;
+    }
+
+    private PartitionedTableAppender appender(String tableName) throws Exception {
+        PartitionedTableAppender appender = appenders.get(tableName);
+        if (appender == null) {
+            // Resolving an appender fetches the table's partition scheme, so it is done once per table
+            appender = newAppender(tableName);
+            appenders.put(tableName, appender);
+        }
+        return appender;
+    }
+
+    PartitionedTableAppender newAppender(String tableName) throws Exception {
+        return new PartitionedTableAppender(database, tableName, partitionColumn, pool);
+    }
+
+    /**
+     * Stops the writer threads and shuts the sessions down. Batches not yet appended are discarded;
+     * call {@link #flush} first to wait for them.
+     */
+    @Override
+    public void close() {
+        inFlightGauge.untrack(inFlightBatches);
+        for (ExecutorService lane : lanes.values()) {
+            lane.shutdownNow();
+        }
+        for (ExecutorService lane : lanes.values()) {
+            try {
+                lane.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        pool.shutdown();
+    }
+
+    private static ExecutorService newLane(String tableName) {
+        return Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "dfs-appender-" + tableName);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private void checkFailure() {
+        Throwable t = failure.get();
+        if (t != null) {
+            throw new LoadingException("DolphinDB DFS append failed: " + t.getMessage(), t);
+        }
+    }
+}
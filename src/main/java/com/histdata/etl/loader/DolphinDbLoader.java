@@ -1,37 +1,77 @@
 package com.histdata.etl.loader;
 
 import com.histdata.etl.config.DolphinDbConfig;
+import com.histdata.etl.exception.LoadingException;
+import com.histdata.etl.metrics.EtlMetrics;
 import com.histdata.etl.model.FutureQuoteRecord;
 import com.histdata.etl.model.XbondQuoteRecord;
 import com.histdata.etl.model.XbondTradeRecord;
+import com.histdata.etl.model.batch.BatchSymbolBase;
+import com.histdata.etl.model.batch.Column;
+import com.histdata.etl.model.batch.ColumnBatch;
+import com.histdata.etl.model.batch.DoubleColumn;
+import com.histdata.etl.model.batch.FutureQuoteBatch;
+import com.histdata.etl.model.batch.IntColumn;
+import com.histdata.etl.model.batch.LongColumn;
+import com.histdata.etl.model.batch.StringColumn;
+import com.histdata.etl.model.batch.SymbolColumn;
+import com.histdata.etl.model.batch.SymbolDictionary;
+import com.histdata.etl.model.batch.XbondQuoteBatch;
+import com.histdata.etl.model.batch.XbondTradeBatch;
 import com.xxdb.DBConnection;
+import com.xxdb.data.BasicBoolean;
 import com.xxdb.data.BasicDateVector;
 import com.xxdb.data.BasicDoubleVector;
 import com.xxdb.data.BasicIntVector;
 import com.xxdb.data.BasicLongVector;
 import com.xxdb.data.BasicStringVector;
+import com.xxdb.data.BasicSymbolVector;
 import com.xxdb.data.BasicTable;
 import com.xxdb.data.Entity;
+import com.xxdb.data.Utils;
 import com.xxdb.data.Vector;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Loader for inserting records into DolphinDB database.
+ * Tables are built on the calling thread and inserted by an {@link AsyncBatchWriter} over separate sessions,
+ * so building the next batch overlaps with inserting the previous ones. Every load method returns only
+ * after its rows are inserted.
+ * <p>
+ * With {@code load_mode=dfs} no temporary tables are used: rows are appended straight into the tables of the
+ * configured DFS database in the background by a {@link DfsAppender}, named like the temporary tables without the
+ * {@code _stream_temp} suffix, with the record's businessDate as the first column.
+ * With {@code writer_backend=mtw} a {@link MultithreadedBatchWriter} writes to the tables of either mode instead.
  */
 public class DolphinDbLoader implements DataLoader {
     private static final Logger logger = LoggerFactory.getLogger(DolphinDbLoader.class);
 
     private DBConnection connection;
     private DolphinDbConfig config;
-    private static final int BATCH_SIZE = 10000;
+    private AsyncBatchWriter writer;
+    private DfsAppender dfsAppender;
+    private MultithreadedBatchWriter mtwWriter;
+    private SymbolDictionary symbols = new SymbolDictionary();
+    public static final int BATCH_SIZE = 10000;
+
+    private static final String XBOND_QUOTE_TABLE = "xbond_quote_stream_temp";
+    private static final String XBOND_TRADE_TABLE = "xbond_trade_stream_temp";
+    private static final String FUTURE_QUOTE_TABLE = "fut_market_price_stream_temp";
+    private static final String LOCAL_SUFFIX = "_local";
+    private static final String TEMP_SUFFIX = "_stream_temp";
+    private static final DateTimeFormatter DDB_DATE = DateTimeFormatter.ofPattern("yyyy.MM.dd");
 
     public DolphinDbLoader(DolphinDbConfig config) {
         this.config = config;
@@ -42,10 +82,62 @@ public class DolphinDbLoader implements DataLoader {
         connection = new DBConnection();
         connection.connect(config.getHost(), config.getPort(), config.getUsername(), config.getPassword());
         logger.info("DolphinDB connection established to {}:{}", config.getHost(), config.getPort());
+
+        if (config.isMtwWriter()) {
+            mtwWriter = new MultithreadedBatchWriter(config, config.isDfsLoad() ? config.getDatabase() : "");
+            return;
+        }
+        if (config.isDfsLoad()) {
+            // Partitions are written in parallel by the appender's own sessions
+            dfsAppender = DfsAppender.open(config);
+            return;
+        }
+
+        List<DBConnection> writerConnections = new ArrayList<>();
+        try {
+            for (int i = 0; i < config.getWriterConnections(); i++) {
+                DBConnection writerConnection = new DBConnection();
+                writerConnection.connect(config.getHost(), config.getPort(), config.getUsername(), config.getPassword());
+                writerConnections.add(writerConnection);
+            }
+        } catch (Exception e) {
+            for (DBConnection writerConnection : writerConnections) {
+                writerConnection.close();
+            }
+            throw e;
+        }
+        if (!writerConnections.isEmpty()) {
+            writer = new AsyncBatchWriter(writerConnections, config.getMaxInFlightBatches());
+            logger.info("DolphinDB writer started with {} sessions and up to {} batches in flight",
+                    writerConnections.size(), config.getMaxInFlightBatches());
+        }
+    }
+
+    /**
+     * Sets the dictionary the SYMBOL columns of the loader's batches are encoded with, normally the one
+     * shared by all loaders and transformers of a job.
+     */
+    public void setSymbolDictionary(SymbolDictionary symbols) {
+        this.symbols = symbols;
     }
 
     @Override
     public void createTemporaryTables() throws Exception {
+        createTemporaryTables(false);
+    }
+
+    /**
+     * Creates the shared temporary tables.
+     *
+     * @param keepExisting if true, tables still shared by an interrupted earlier run are kept with their rows,
+     *                     so a resumed run appends to them
+     * @throws Exception if table creation fails
+     */
+    public void createTemporaryTables(boolean keepExisting) throws Exception {
+        if (config.isDfsLoad()) {
+            logger.info("Loading directly into {}, no temporary tables needed", config.getDatabase());
+            return;
+        }
         String[] createTableScripts = {
                 "create table xbond_quote_stream_temp (businessDate DATE, exchProductId SYMBOL, productType SYMBOL, " +
                         "exchange SYMBOL, source SYMBOL, settleSpeed INT, level SYMBOL, status SYMBOL, " +
@@ -68,7 +160,7 @@ public class DolphinDbLoader implements DataLoader {
                 "create table xbond_trade_stream_temp (businessDate DATE, exchProductId SYMBOL, productType SYMBOL, " +
                         "exchange SYMBOL, source SYMBOL, settleSpeed INT, lastTradePrice DOUBLE, lastTradeYield DOUBLE, " +
                         "lastTradeYieldType SYMBOL, lastTradeVolume LONG, lastTradeTurnover DOUBLE, lastTradeInterest DOUBLE, " +
-                        "lastTradeSide SYMBOL, eventTime TIMESTAMP, receiveTime_TIMESTAMP)",
+                        "lastTradeSide SYMBOL, eventTime TIMESTAMP, receiveTime TIMESTAMP)",
 
                 "create table market_price_stream_temp (businessDate DATE, exchProductId SYMBOL, productType SYMBOL, " +
                         "exchange SYMBOL, source SYMBOL, settleSpeed INT, level SYMBOL, status SYMBOL, " +
@@ -80,7 +172,7 @@ public class DolphinDbLoader implements DataLoader {
                         "bid2Price DOUBLE, bid2TradableVolume LONG, bid2Volume LONG, offer2Price DOUBLE, offer2TradableVolume LONG, offer2Volume LONG, " +
                         "bid3Price DOUBLE, bid3TradableVolume LONG, bid3Volume LONG, offer3Price DOUBLE, offer3TradableVolume LONG, offer3Volume LONG, " +
                         "bid4Price DOUBLE, bid4TradableVolume LONG, bid4Volume LONG, offer4Price DOUBLE, offer4TradableVolume LONG, offer4Volume LONG, " +
-                        "eventTime TIMESTAMP, receiveTime_TIMESTAMP)",
+                        "eventTime TIMESTAMP, receiveTime TIMESTAMP)",
 
                 "create table fut_market_price_stream_temp (businessDate DATE, exchProductId SYMBOL, productType SYMBOL, " +
                         "exchange SYMBOL, source SYMBOL, settleSpeed INT, level SYMBOL, status SYMBOL, " +
@@ -92,16 +184,31 @@ public class DolphinDbLoader implements DataLoader {
                         "bid2Price DOUBLE, bid2TradableVolume LONG, bid2Volume LONG, offer2Price DOUBLE, offer2TradableVolume LONG, offer2Volume LONG, " +
                         "bid3Price DOUBLE, bid3TradableVolume LONG, bid3Volume LONG, offer3Price DOUBLE, offer3TradableVolume LONG, offer3Volume LONG, " +
                         "bid4Price DOUBLE, bid4TradableVolume LONG, bid4Volume LONG, offer4Price DOUBLE, offer4TradableVolume LONG, offer4Volume LONG, " +
-                        "eventTime TIMESTAMP, receiveTime_TIMESTAMP)"
+                        "eventTime TIMESTAMP, receiveTime TIMESTAMP)"
         };
 
         for (String script : createTableScripts) {
-            connection.run(script);
-            logger.debug("Created temporary table: {}", script.split(" ")[3]);
+            String tableName = script.split(" ")[2];
+            String localName = tableName + LOCAL_SUFFIX;
+            if (keepExisting && isShared(tableName)) {
+                logger.info("Keeping temporary table {} of an earlier run", tableName);
+                continue;
+            }
+            // Tables left behind by a crashed run would make the create or share fail
+            dropTemporaryTable(tableName);
+            connection.run(script.replaceFirst(" " + tableName + " ", " " + localName + " "));
+            // Writer sessions and the loaders of concurrently processed days insert into the same table
+            connection.run("share " + localName + " as " + tableName);
+            logger.debug("Created temporary table: {}", tableName);
         }
         logger.info("DolphinDB temporary tables created");
     }
 
+    private boolean isShared(String tableName) throws Exception {
+        Entity defined = connection.run("defined(`" + tableName + ", SHARED)");
+        return defined instanceof BasicBoolean && ((BasicBoolean) defined).getBoolean();
+    }
+
     @Override
     public void load(List<?> records) throws Exception {
         logger.info("Loading {} records into DolphinDB", records.size());
@@ -113,10 +220,83 @@ public class DolphinDbLoader implements DataLoader {
             logger.debug("Loaded batch {}-{}", i, end);
         }
 
+        flush();
         logger.info("Completed loading {} records into DolphinDB", records.size());
     }
 
+    /**
+     * Loads records in batches of at most {@code batchSize}. Each batch is handed to the writer as soon
+     * as it is built, and the method returns once all of them are inserted.
+     */
+    @Override
+    public long load(Iterator<?> records, int batchSize) throws Exception {
+        List<Object> batch = new ArrayList<>(batchSize);
+        long loaded = 0;
+        while (records.hasNext()) {
+            batch.add(records.next());
+            if (batch.size() >= batchSize) {
+                loadBatch(batch);
+                loaded += batch.size();
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            loadBatch(batch);
+            loaded += batch.size();
+        }
+        flush();
+        return loaded;
+    }
+
+    /**
+     * Loads records like {@link #load(Iterator, int)}, skipping the records the checkpoint reports as loaded.
+     * A batch is split into one insert per target table and the inserts complete out of order, so the
+     * checkpoint is advanced only past batches whose inserts, and those of every earlier batch, are acknowledged.
+     */
+    @Override
+    public long load(Iterator<?> records, int batchSize, LoadCheckpoint checkpoint) throws Exception {
+        long skipped = DataLoader.skip(records, checkpoint.getLoadedRecords());
+        AcknowledgedPrefix acknowledged = new AcknowledgedPrefix(checkpoint, skipped);
+        List<Object> batch = new ArrayList<>(batchSize);
+        long loaded = 0;
+        while (records.hasNext()) {
+            batch.add(records.next());
+            if (batch.size() >= batchSize) {
+                loadBatch(batch, acknowledged);
+                loaded += batch.size();
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            loadBatch(batch, acknowledged);
+            loaded += batch.size();
+        }
+        flush();
+        return loaded;
+    }
+
+    /**
+     * Waits until every batch handed to the writer is inserted.
+     *
+     * @throws Exception if an insert failed
+     */
+    public void flush() throws Exception {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (dfsAppender != null) {
+            dfsAppender.flush();
+        }
+        if (mtwWriter != null) {
+            mtwWriter.flush();
+        }
+    }
+
     private void loadBatch(List<?> records) throws Exception {
+        loadBatch(records, null);
+    }
+
+    private void loadBatch(List<?> records, AcknowledgedPrefix acknowledged) throws Exception {
         List<Object> xbondQuotes = new ArrayList<>();
         List<Object> xbondTrades = new ArrayList<>();
         List<Object> futures = new ArrayList<>();
@@ -131,573 +311,314 @@ public class DolphinDbLoader implements DataLoader {
             }
         }
 
+        Runnable onInserted = null;
+        if (acknowledged != null) {
+            int inserts = (xbondQuotes.isEmpty() ? 0 : 1) + (xbondTrades.isEmpty() ? 0 : 1) + (futures.isEmpty() ? 0 : 1);
+            onInserted = acknowledged.add(records.size(), inserts);
+        }
+
         if (!xbondQuotes.isEmpty()) {
-            loadXbondQuotes(xbondQuotes);
+            loadXbondQuotes(xbondQuotes, onInserted);
         }
         if (!xbondTrades.isEmpty()) {
-            loadXbondTrades(xbondTrades);
+            loadXbondTrades(xbondTrades, onInserted);
         }
         if (!futures.isEmpty()) {
-            loadFutures(futures);
+            loadFutures(futures, onInserted);
         }
     }
 
-    private void loadXbondQuotes(List<Object> quotes) throws Exception {
+    private void loadXbondQuotes(List<Object> quotes, Runnable onInserted) throws Exception {
         logger.debug("Loading {} xbond quotes", quotes.size());
 
-        int size = quotes.size();
-        List<String> exchProductIds = new ArrayList<>(size);
-        List<String> productTypes = new ArrayList<>(size);
-        List<String> exchanges = new ArrayList<>(size);
-        List<String> sources = new ArrayList<>(size);
-        List<Integer> settleSpeeds = new ArrayList<>(size);
-        List<String> levels = new ArrayList<>(size);
-        List<String> statuses = new ArrayList<>(size);
-        List<Double> preClosePrices = new ArrayList<>(size);
-        List<Double> preSettlePrices = new ArrayList<>(size);
-        List<Double> preInterests = new ArrayList<>(size);
-        List<Double> openPrices = new ArrayList<>(size);
-        List<Double> highPrices = new ArrayList<>(size);
-        List<Double> lowPrices = new ArrayList<>(size);
-        List<Double> closePrices = new ArrayList<>(size);
-        List<Double> settlePrices = new ArrayList<>(size);
-        List<Double> upperLimits = new ArrayList<>(size);
-        List<Double> lowerLimits = new ArrayList<>(size);
-        List<Long> totalVolumes = new ArrayList<>(size);
-        List<Double> totalTurnovers = new ArrayList<>(size);
-        List<Long> openInterests = new ArrayList<>(size);
-        List<Double> bid0Prices = new ArrayList<>(size);
-        List<Double> bid0Yields = new ArrayList<>(size);
-        List<String> bid0YieldTypes = new ArrayList<>(size);
-        List<Long> bid0TradableVolumes = new ArrayList<>(size);
-        List<Long> bid0Volumes = new ArrayList<>(size);
-        List<Double> offer0Prices = new ArrayList<>(size);
-        List<Double> offer0Yields = new ArrayList<>(size);
-        List<String> offer0YieldTypes = new ArrayList<>(size);
-        List<Long> offer0TradableVolumes = new ArrayList<>(size);
-        List<Long> offer0Volumes = new ArrayList<>(size);
-        List<Double> bid1Prices = new ArrayList<>(size);
-        List<Double> bid1Yields = new ArrayList<>(size);
-        List<String> bid1YieldTypes = new ArrayList<>(size);
-        List<Long> bid1TradableVolumes = new ArrayList<>(size);
-        List<Long> bid1Volumes = new ArrayList<>(size);
-        List<Double> offer1Prices = new ArrayList<>(size);
-        List<Double> offer1Yields = new ArrayList<>(size);
-        List<String> offer1YieldTypes = new ArrayList<>(size);
-        List<Long> offer1TradableVolumes = new ArrayList<>(size);
-        List<Long> offer1Volumes = new ArrayList<>(size);
-        List<Double> bid2Prices = new ArrayList<>(size);
-        List<Double> bid2Yields = new ArrayList<>(size);
-        List<String> bid2YieldTypes = new ArrayList<>(size);
-        List<Long> bid2TradableVolumes = new ArrayList<>(size);
-        List<Long> bid2Volumes = new ArrayList<>(size);
-        List<Double> offer2Prices = new ArrayList<>(size);
-        List<Double> offer2Yields = new ArrayList<>(size);
-        List<String> offer2YieldTypes = new ArrayList<>(size);
-        List<Long> offer2TradableVolumes = new ArrayList<>(size);
-        List<Long> offer2Volumes = new ArrayList<>(size);
-        List<Double> bid3Prices = new ArrayList<>(size);
-        List<Double> bid3Yields = new ArrayList<>(size);
-        List<String> bid3YieldTypes = new ArrayList<>(size);
-        List<Long> bid3TradableVolumes = new ArrayList<>(size);
-        List<Long> bid3Volumes = new ArrayList<>(size);
-        List<Double> offer3Prices = new ArrayList<>(size);
-        List<Double> offer3Yields = new ArrayList<>(size);
-        List<String> offer3YieldTypes = new ArrayList<>(size);
-        List<Long> offer3TradableVolumes = new ArrayList<>(size);
-        List<Long> offer3Volumes = new ArrayList<>(size);
-        List<Double> bid4Prices = new ArrayList<>(size);
-        List<Double> bid4Yields = new ArrayList<>(size);
-        List<String> bid4YieldTypes = new ArrayList<>(size);
-        List<Long> bid4TradableVolumes = new ArrayList<>(size);
-        List<Long> bid4Volumes = new ArrayList<>(size);
-        List<Double> offer4Prices = new ArrayList<>(size);
-        List<Double> offer4Yields = new ArrayList<>(size);
-        List<String> offer4YieldTypes = new ArrayList<>(size);
-        List<Long> offer4TradableVolumes = new ArrayList<>(size);
-        List<Long> offer4Volumes = new ArrayList<>(size);
-        List<Double> bid5Prices = new ArrayList<>(size);
-        List<Double> bid5Yields = new ArrayList<>(size);
-        List<String> bid5YieldTypes = new ArrayList<>(size);
-        List<Long> bid5TradableVolumes = new ArrayList<>(size);
-        List<Long> bid5Volumes = new ArrayList<>(size);
-        List<Double> offer5Prices = new ArrayList<>(size);
-        List<Double> offer5Yields = new ArrayList<>(size);
-        List<String> offer5YieldTypes = new ArrayList<>(size);
-        List<Long> offer5TradableVolumes = new ArrayList<>(size);
-        List<Long> offer5Volumes = new ArrayList<>(size);
-        List<Long> eventTimes = new ArrayList<>(size);
-        List<Long> receiveTimes = new ArrayList<>(size);
-
+        XbondQuoteBatch batch = new XbondQuoteBatch(quotes.size(), symbols);
         for (Object obj : quotes) {
-            XbondQuoteRecord record = (XbondQuoteRecord) obj;
-            exchProductIds.add(record.getExchProductId());
-            productTypes.add(record.getProductType());
-            exchanges.add(record.getExchange());
-            sources.add(record.getSource());
-            settleSpeeds.add(record.getSettleSpeed());
-            levels.add(record.getLevel());
-            statuses.add(record.getStatus());
-            preClosePrices.add(record.getPreClosePrice());
-            preSettlePrices.add(record.getPreSettlePrice());
-            preInterests.add(record.getPreInterest());
-            openPrices.add(record.getOpenPrice());
-            highPrices.add(record.getHighPrice());
-            lowPrices.add(record.getLowPrice());
-            closePrices.add(record.getClosePrice());
-            settlePrices.add(record.getSettlePrice());
-            upperLimits.add(record.getUpperLimit());
-            lowerLimits.add(record.getLowerLimit());
-            totalVolumes.add(record.getTotalVolume());
-            totalTurnovers.add(record.getTotalTurnover());
-            openInterests.add(record.getOpenInterest());
-            bid0Prices.add(record.getBid0Price());
-            bid0Yields.add(record.getBid0Yield());
-            bid0YieldTypes.add(record.getBid0YieldType());
-            bid0TradableVolumes.add(record.getBid0TradableVolume());
-            bid0Volumes.add(record.getBid0Volume());
-            offer0Prices.add(record.getOffer0Price());
-            offer0Yields.add(record.getOffer0Yield());
-            offer0YieldTypes.add(record.getOffer0YieldType());
-            offer0TradableVolumes.add(record.getOffer0TradableVolume());
-            offer0Volumes.add(record.getOffer0Volume());
-            bid1Prices.add(record.getBid1Price());
-            bid1Yields.add(record.getBid1Yield());
-            bid1YieldTypes.add(record.getBid1YieldType());
-            bid1TradableVolumes.add(record.getBid1TradableVolume());
-            bid1Volumes.add(record.getBid1Volume());
-            offer1Prices.add(record.getOffer1Price());
-            offer1Yields.add(record.getOffer1Yield());
-            offer1YieldTypes.add(record.getOffer1YieldType());
-            offer1TradableVolumes.add(record.getOffer1TradableVolume());
-            offer1Volumes.add(record.getOffer1Volume());
-            bid2Prices.add(record.getBid2Price());
-            bid2Yields.add(record.getBid2Yield());
-            bid2YieldTypes.add(record.getBid2YieldType());
-            bid2TradableVolumes.add(record.getBid2TradableVolume());
-            bid2Volumes.add(record.getBid2Volume());
-            offer2Prices.add(record.getOffer2Price());
-            offer2Yields.add(record.getOffer2Yield());
-            offer2YieldTypes.add(record.getOffer2YieldType());
-            offer2TradableVolumes.add(record.getOffer2TradableVolume());
-            offer2Volumes.add(record.getOffer2Volume());
-            bid3Prices.add(record.getBid3Price());
-            bid3Yields.add(record.getBid3Yield());
-            bid3YieldTypes.add(record.getBid3YieldType());
-            bid3TradableVolumes.add(record.getBid3TradableVolume());
-            bid3Volumes.add(record.getBid3Volume());
-            offer3Prices.add(record.getOffer3Price());
-            offer3Yields.add(record.getOffer3Yield());
-            offer3YieldTypes.add(record.getOffer3YieldType());
-            offer3TradableVolumes.add(record.getOffer3TradableVolume());
-            offer3Volumes.add(record.getOffer3Volume());
-            bid4Prices.add(record.getBid4Price());
-            bid4Yields.add(record.getBid4Yield());
-            bid4YieldTypes.add(record.getBid4YieldType());
-            bid4TradableVolumes.add(record.getBid4TradableVolume());
-            bid4Volumes.add(record.getBid4Volume());
-            offer4Prices.add(record.getOffer4Price());
-            offer4Yields.add(record.getOffer4Yield());
-            offer4YieldTypes.add(record.getOffer4YieldType());
-            offer4TradableVolumes.add(record.getOffer4TradableVolume());
-            offer4Volumes.add(record.getOffer4Volume());
-            bid5Prices.add(record.getBid5Price());
-            bid5Yields.add(record.getBid5Yield());
-            bid5YieldTypes.add(record.getBid5YieldType());
-            bid5TradableVolumes.add(record.getBid5TradableVolume());
-            bid5Volumes.add(record.getBid5Volume());
-            offer5Prices.add(record.getOffer5Price());
-            offer5Yields.add(record.getOffer5Yield());
-            offer5YieldTypes.add(record.getOffer5YieldType());
-            offer5TradableVolumes.add(record.getOffer5TradableVolume());
-            offer5Volumes.add(record.getOffer5Volume());
-            eventTimes.add(record.getEventTime() != null ? record.getEventTime().getTime() : null);
-            receiveTimes.add(record.getReceiveTime().getTime());
-        }
-
-        BasicTable table = new BasicTable(
-            Arrays.asList("exchProductId", "productType", "exchange", "source", "settleSpeed", "level", "status",
-                        "preClosePrice", "preSettlePrice", "preInterest", "openPrice", "highPrice", "lowPrice", "closePrice",
-                        "settlePrice", "upperLimit", "lowerLimit", "totalVolume", "totalTurnover", "openInterest",
-                        "bid0Price", "bid0Yield", "bid0YieldType", "bid0TradableVolume", "bid0Volume",
-                        "offer0Price", "offer0Yield", "offer0YieldType", "offer0TradableVolume", "offer0Volume",
-                        "bid1Price", "bid1Yield", "bid1YieldType", "bid1TradableVolume", "bid1Volume",
-                        "offer1Price", "offer1Yield", "offer1YieldType", "offer1TradableVolume", "offer1Volume",
-                        "bid2Price", "bid2Yield", "bid2YieldType", "bid2TradableVolume", "bid2Volume",
-                        "offer2Price", "offer2Yield", "offer2YieldType", "offer2TradableVolume", "offer2Volume",
-                        "bid3Price", "bid3Yield", "bid3YieldType", "bid3TradableVolume", "bid3Volume",
-                        "offer3Price", "offer3Yield", "offer3YieldType", "offer3TradableVolume", "offer3Volume",
-                        "bid4Price", "bid4Yield", "bid4YieldType", "bid4TradableVolume", "bid4Volume",
-                        "offer4Price", "offer4Yield", "offer4YieldType", "offer4TradableVolume", "offer4Volume",
-                        "bid5Price", "bid5Yield", "bid5YieldType", "bid5TradableVolume", "bid5Volume",
-                        "offer5Price", "offer5Yield", "offer5YieldType", "offer5TradableVolume", "offer5Volume",
-                        "eventTime", "receiveTime"),
-            Arrays.asList(
-                new BasicStringVector(exchProductIds),
-                new BasicStringVector(productTypes),
-                new BasicStringVector(exchanges),
-                new BasicStringVector(sources),
-                new BasicIntVector(settleSpeeds),
-                new BasicStringVector(levels),
-                new BasicStringVector(statuses),
-                new BasicDoubleVector(preClosePrices),
-                new BasicDoubleVector(preSettlePrices),
-                new BasicDoubleVector(preInterests),
-                new BasicDoubleVector(openPrices),
-                new BasicDoubleVector(highPrices),
-                new BasicDoubleVector(lowPrices),
-                new BasicDoubleVector(closePrices),
-                new BasicDoubleVector(settlePrices),
-                new BasicDoubleVector(upperLimits),
-                new BasicDoubleVector(lowerLimits),
-                new BasicLongVector(totalVolumes),
-                new BasicDoubleVector(totalTurnovers),
-                new BasicLongVector(openInterests),
-                new BasicDoubleVector(bid0Prices),
-                new BasicDoubleVector(bid0Yields),
-                new BasicStringVector(bid0YieldTypes),
-                new BasicLongVector(bid0TradableVolumes),
-                new BasicLongVector(bid0Volumes),
-                new BasicDoubleVector(offer0Prices),
-                new BasicDoubleVector(offer0Yields),
-                new BasicStringVector(offer0YieldTypes),
-                new BasicLongVector(offer0TradableVolumes),
-                new BasicLongVector(offer0Volumes),
-                new BasicDoubleVector(bid1Prices),
-                new BasicDoubleVector(bid1Yields),
-                new BasicStringVector(bid1YieldTypes),
-                new BasicLongVector(bid1TradableVolumes),
-                new BasicLongVector(bid1Volumes),
-                new BasicDoubleVector(offer1Prices),
-                new BasicDoubleVector(offer1Yields),
-                new BasicStringVector(offer1YieldTypes),
-                new BasicLongVector(offer1TradableVolumes),
-                new BasicLongVector(offer1Volumes),
-                new BasicDoubleVector(bid2Prices),
-                new BasicDoubleVector(bid2Yields),
-                new BasicStringVector(bid2YieldTypes),
-                new BasicLongVector(bid2TradableVolumes),
-                new BasicLongVector(bid2Volumes),
-                new BasicDoubleVector(offer2Prices),
-                new BasicDoubleVector(offer2Yields),
-                new BasicStringVector(offer2YieldTypes),
-                new BasicLongVector(offer2TradableVolumes),
-                new BasicLongVector(offer2Volumes),
-                new BasicDoubleVector(bid3Prices),
-                new BasicDoubleVector(bid3Yields),
-                new BasicStringVector(bid3YieldTypes),
-                new BasicLongVector(bid3TradableVolumes),
-                new BasicLongVector(bid3Volumes),
-                new BasicDoubleVector(offer3Prices),
-                new BasicDoubleVector(offer3Yields),
-                new BasicStringVector(offer3YieldTypes),
-                new BasicLongVector(offer3TradableVolumes),
-                new BasicLongVector(offer3Volumes),
-                new BasicDoubleVector(bid4Prices),
-                new BasicDoubleVector(bid4Yields),
-                new BasicStringVector(bid4YieldTypes),
-                new BasicLongVector(bid4TradableVolumes),
-                new BasicLongVector(bid4Volumes),
-                new BasicDoubleVector(offer4Prices),
-                new BasicDoubleVector(offer4Yields),
-                new BasicStringVector(offer4YieldTypes),
-                new BasicLongVector(offer4TradableVolumes),
-                new BasicLongVector(offer4Volumes),
-                new BasicDoubleVector(bid5Prices),
-                new BasicDoubleVector(bid5Yields),
-                new BasicStringVector(bid5YieldTypes),
-                new BasicLongVector(bid5TradableVolumes),
-                new BasicLongVector(bid5Volumes),
-                new BasicDoubleVector(offer5Prices),
-                new BasicDoubleVector(offer5Yields),
-                new BasicStringVector(offer5YieldTypes),
-                new BasicLongVector(offer5TradableVolumes),
-                new BasicLongVector(offer5Volumes),
-                new BasicLongVector(eventTimes),
-                new BasicLongVector(receiveTimes)
-            ));
-
-        List<Entity> args = new ArrayList<>();
-        args.add(table);
-        connection.run("tableInsert{xbond_quote_stream_temp}", args);
-        logger.info("Successfully loaded {} xbond quotes", size);
+            batch.append((XbondQuoteRecord) obj);
+        }
+        insert(XBOND_QUOTE_TABLE, batch, quotes, onInserted);
     }
 
-    private void loadXbondTrades(List<Object> trades) throws Exception {
+    private void loadXbondTrades(List<Object> trades, Runnable onInserted) throws Exception {
         logger.debug("Loading {} xbond trades", trades.size());
 
-        int size = trades.size();
-        List<String> exchProductIds = new ArrayList<>(size);
-        List<String> productTypes = new ArrayList<>(size);
-        List<String> exchanges = new ArrayList<>(size);
-        List<String> sources = new ArrayList<>(size);
-        List<Integer> settleSpeeds = new ArrayList<>(size);
-        List<Double> lastTradePrices = new ArrayList<>(size);
-        List<Double> lastTradeYields = new ArrayList<>(size);
-        List<String> lastTradeYieldTypes = new ArrayList<>(size);
-        List<Long> lastTradeVolumes = new ArrayList<>(size);
-        List<Double> lastTradeTurnovers = new ArrayList<>(size);
-        List<Double> lastTradeInterests = new ArrayList<>(size);
-        List<String> lastTradeSides = new ArrayList<>(size);
-        List<Long> eventTimes = new ArrayList<>(size);
-        List<Long> receiveTimes = new ArrayList<>(size);
-
+        XbondTradeBatch batch = new XbondTradeBatch(trades.size(), symbols);
         for (Object obj : trades) {
-            XbondTradeRecord record = (XbondTradeRecord) obj;
-            exchProductIds.add(record.getExchProductId());
-            productTypes.add(record.getProductType());
-            exchanges.add(record.getExchange());
-            sources.add(record.getSource());
-            settleSpeeds.add(record.getSettleSpeed());
-            lastTradePrices.add(record.getLastTradePrice());
-            lastTradeYields.add(record.getLastTradeYield());
-            lastTradeYieldTypes.add(record.getLastTradeYieldType());
-            lastTradeVolumes.add(record.getLastTradeVolume());
-            lastTradeTurnovers.add(record.getLastTradeTurnover());
-            lastTradeInterests.add(record.getLastTradeInterest());
-            lastTradeSides.add(record.getLastTradeSide());
-            eventTimes.add(record.getEventTime() != null ? record.getEventTime().getTime() : null);
-            receiveTimes.add(record.getReceiveTime().getTime());
-        }
-
-        BasicTable table = new BasicTable(
-            Arrays.asList("exchProductId", "productType", "exchange", "source", "settleSpeed",
-                        "lastTradePrice", "lastTradeYield", "lastTradeYieldType", "lastTradeVolume",
-                        "lastTradeTurnover", "lastTradeInterest", "lastTradeSide",
-                        "eventTime", "receiveTime"),
-            Arrays.asList(
-                new BasicStringVector(exchProductIds),
-                new BasicStringVector(productTypes),
-                new BasicStringVector(exchanges),
-                new BasicStringVector(sources),
-                new BasicIntVector(settleSpeeds),
-                new BasicDoubleVector(lastTradePrices),
-                new BasicDoubleVector(lastTradeYields),
-                new BasicStringVector(lastTradeYieldTypes),
-                new BasicLongVector(lastTradeVolumes),
-                new BasicDoubleVector(lastTradeTurnovers),
-                new BasicDoubleVector(lastTradeInterests),
-                new BasicStringVector(lastTradeSides),
-                new BasicLongVector(eventTimes),
-                new BasicLongVector(receiveTimes)
-            ));
-
-        List<Entity> args = new ArrayList<>();
-        args.add(table);
-        connection.run("tableInsert{xbond_trade_stream_temp}", args);
-        logger.info("Successfully loaded {} xbond trades", size);
+            batch.append((XbondTradeRecord) obj);
+        }
+        insert(XBOND_TRADE_TABLE, batch, trades, onInserted);
     }
 
-    private void loadFutures(List<Object> futures) throws Exception {
+    private void loadFutures(List<Object> futures, Runnable onInserted) throws Exception {
         logger.debug("Loading {} future quotes", futures.size());
 
-        int size = futures.size();
-        List<String> exchProductIds = new ArrayList<>(size);
-        List<String> productTypes = new ArrayList<>(size);
-        List<String> exchanges = new ArrayList<>(size);
-        List<String> sources = new ArrayList<>(size);
-        List<Integer> settleSpeeds = new ArrayList<>(size);
-        List<String> levels = new ArrayList<>(size);
-        List<String> statuses = new ArrayList<>(size);
-        List<Double> preClosePrices = new ArrayList<>(size);
-        List<Double> preSettlePrices = new ArrayList<>(size);
-        List<Long> preInterests = new ArrayList<>(size);
-        List<Double> openPrices = new ArrayList<>(size);
-        List<Double> highPrices = new ArrayList<>(size);
-        List<Double> lowPrices = new ArrayList<>(size);
-        List<Double> closePrices = new ArrayList<>(size);
-        List<Double> settlePrices = new ArrayList<>(size);
-        List<Double> upperLimits = new ArrayList<>(size);
-        List<Double> lowerLimits = new ArrayList<>(size);
-        List<Long> totalVolumes = new ArrayList<>(size);
-        List<Double> totalTurnovers = new ArrayList<>(size);
-        List<Long> openInterests = new ArrayList<>(size);
-        List<Double> bid0Prices = new ArrayList<>(size);
-        List<Long> bid0TradableVolumes = new ArrayList<>(size);
-        List<Long> bid0Volumes = new ArrayList<>(size);
-        List<Double> bid1Prices = new ArrayList<>(size);
-        List<Long> bid1TradableVolumes = new ArrayList<>(size);
-        List<Long> bid1Volumes = new ArrayList<>(size);
-        List<Double> bid2Prices = new ArrayList<>(size);
-        List<Long> bid2TradableVolumes = new ArrayList<>(size);
-        List<Long> bid2Volumes = new ArrayList<>(size);
-        List<Double> bid3Prices = new ArrayList<>(size);
-        List<Long> bid3TradableVolumes = new ArrayList<>(size);
-        List<Long> bid3Volumes = new ArrayList<>(size);
-        List<Double> bid4Prices = new ArrayList<>(size);
-        List<Long> bid4TradableVolumes = new ArrayList<>(size);
-        List<Long> bid4Volumes = new ArrayList<>(size);
-        List<Double> offer0Prices = new ArrayList<>(size);
-        List<Long> offer0TradableVolumes = new ArrayList<>(size);
-        List<Long> offer0Volumes = new ArrayList<>(size);
-        List<Double> offer1Prices = new ArrayList<>(size);
-        List<Long> offer1TradableVolumes = new ArrayList<>(size);
-        List<Long> offer1Volumes = new ArrayList<>(size);
-        List<Double> offer2Prices = new ArrayList<>(size);
-        List<Long> offer2TradableVolumes = new ArrayList<>(size);
-        List<Long> offer2Volumes = new ArrayList<>(size);
-        List<Double> offer3Prices = new ArrayList<>(size);
-        List<Long> offer3TradableVolumes = new ArrayList<>(size);
-        List<Long> offer3Volumes = new ArrayList<>(size);
-        List<Double> offer4Prices = new ArrayList<>(size);
-        List<Long> offer4TradableVolumes = new ArrayList<>(size);
-        List<Long> offer4Volumes = new ArrayList<>(size);
-        List<Long> eventTimes = new ArrayList<>(size);
-        List<Long> receiveTimes = new ArrayList<>(size);
-
+        FutureQuoteBatch batch = new FutureQuoteBatch(futures.size(), symbols);
         for (Object obj : futures) {
-            FutureQuoteRecord record = (FutureQuoteRecord) obj;
-            exchProductIds.add(record.getExchProductId());
-            productTypes.add(record.getProductType());
-            exchanges.add(record.getExchange());
-            sources.add(record.getSource());
-            settleSpeeds.add(record.getSettleSpeed());
-            levels.add(record.getLevel());
-            statuses.add(record.getStatus());
-            preClosePrices.add(record.getPreClosePrice());
-            preSettlePrices.add(record.getPreSettlePrice());
-            preInterests.add(record.getPreInterest());
-            openPrices.add(record.getOpenPrice());
-            highPrices.add(record.getHighPrice());
-            lowPrices.add(record.getLowPrice());
-            closePrices.add(record.getClosePrice());
-            settlePrices.add(record.getSettlePrice());
-            upperLimits.add(record.getUpperLimit());
-            lowerLimits.add(record.getLowerLimit());
-            totalVolumes.add(record.getTotalVolume());
-            totalTurnovers.add(record.getTotalTurnover());
-            openInterests.add(record.getOpenInterest());
-            bid0Prices.add(record.getBid0Price());
-            bid0TradableVolumes.add(record.getBid0TradableVolume());
-            bid0Volumes.add(record.getBid0Volume());
-            bid1Prices.add(record.getBid1Price());
-            bid1TradableVolumes.add(record.getBid1TradableVolume());
-            bid1Volumes.add(record.getBid1Volume());
-            bid2Prices.add(record.getBid2Price());
-            bid2TradableVolumes.add(record.getBid2TradableVolume());
-            bid2Volumes.add(record.getBid2Volume());
-            bid3Prices.add(record.getBid3Price());
-            bid3TradableVolumes.add(record.getBid3TradableVolume());
-            bid3Volumes.add(record.getBid3Volume());
-            bid4Prices.add(record.getBid4Price());
-            bid4TradableVolumes.add(record.getBid4TradableVolume());
-            bid4Volumes.add(record.getBid4Volume());
-            offer0Prices.add(record.getOffer0Price());
-            offer0TradableVolumes.add(record.getOffer0TradableVolume());
-            offer0Volumes.add(record.getOffer0Volume());
-            offer1Prices.add(record.getOffer1Price());
-            offer1TradableVolumes.add(record.getOffer1TradableVolume());
-            offer1Volumes.add(record.getOffer1Volume());
-            offer2Prices.add(record.getOffer2Price());
-            offer2TradableVolumes.add(record.getOffer2TradableVolume());
-            offer2Volumes.add(record.getOffer2Volume());
-            offer3Prices.add(record.getOffer3Price());
-            offer3TradableVolumes.add(record.getOffer3TradableVolume());
-            offer3Volumes.add(record.getOffer3Volume());
-            offer4Prices.add(record.getOffer4Price());
-            offer4TradableVolumes.add(record.getOffer4TradableVolume());
-            offer4Volumes.add(record.getOffer4Volume());
-            eventTimes.add(record.getEventTime() != null ? record.getEventTime().getTime() : null);
-            receiveTimes.add(record.getReceiveTime().getTime());
-        }
-
-        BasicTable table = new BasicTable(
-            Arrays.asList("exchProductId", "productType", "exchange", "source", "settleSpeed", "level", "status",
-                        "preClosePrice", "preSettlePrice", "preInterest", "openPrice", "highPrice", "lowPrice", "closePrice",
-                        "settlePrice", "upperLimit", "lowerLimit", "totalVolume", "totalTurnover", "openInterest",
-                        "bid0Price", "bid0TradableVolume", "bid0Volume",
-                        "bid1Price", "bid1TradableVolume", "bid1Volume",
-                        "bid2Price", "bid2TradableVolume", "bid2Volume",
-                        "bid3Price", "bid3TradableVolume", "bid3Volume",
-                        "bid4Price", "bid4TradableVolume", "bid4Volume",
-                        "offer0Price", "offer0TradableVolume", "offer0Volume",
-                        "offer1Price", "offer1TradableVolume", "offer1Volume",
-                        "offer2Price", "offer2TradableVolume", "offer2Volume",
-                        "offer3Price", "offer3TradableVolume", "offer3Volume",
-                        "offer4Price", "offer4TradableVolume", "offer4Volume",
-                        "eventTime", "receiveTime"),
-            Arrays.asList(
-                new BasicStringVector(exchProductIds),
-                new BasicStringVector(productTypes),
-                new BasicStringVector(exchanges),
-                new BasicStringVector(sources),
-                new BasicIntVector(settleSpeeds),
-                new BasicStringVector(levels),
-                new BasicStringVector(statuses),
-                new BasicDoubleVector(preClosePrices),
-                new BasicDoubleVector(preSettlePrices),
-                new BasicLongVector(preInterests),
-                new BasicDoubleVector(openPrices),
-                new BasicDoubleVector(highPrices),
-                new BasicDoubleVector(lowPrices),
-                new BasicDoubleVector(closePrices),
-                new BasicDoubleVector(settlePrices),
-                new BasicDoubleVector(upperLimits),
-                new BasicDoubleVector(lowerLimits),
-                new BasicLongVector(totalVolumes),
-                new BasicDoubleVector(totalTurnovers),
-                new BasicLongVector(openInterests),
-                new BasicDoubleVector(bid0Prices),
-                new BasicLongVector(bid0TradableVolumes),
-                new BasicLongVector(bid0Volumes),
-                new BasicDoubleVector(bid1Prices),
-                new BasicLongVector(bid1TradableVolumes),
-                new BasicLongVector(bid1Volumes),
-                new BasicDoubleVector(bid2Prices),
-                new BasicLongVector(bid2TradableVolumes),
-                new BasicLongVector(bid2Volumes),
-                new BasicDoubleVector(bid3Prices),
-                new BasicLongVector(bid3TradableVolumes),
-                new BasicLongVector(bid3Volumes),
-                new BasicDoubleVector(bid4Prices),
-                new BasicLongVector(bid4TradableVolumes),
-                new BasicLongVector(bid4Volumes),
-                new BasicDoubleVector(offer0Prices),
-                new BasicLongVector(offer0TradableVolumes),
-                new BasicLongVector(offer0Volumes),
-                new BasicDoubleVector(offer1Prices),
-                new BasicLongVector(offer1TradableVolumes),
-                new BasicLongVector(offer1Volumes),
-                new BasicDoubleVector(offer2Prices),
-                new BasicLongVector(offer2TradableVolumes),
-                new BasicLongVector(offer2Volumes),
-                new BasicDoubleVector(offer3Prices),
-                new BasicLongVector(offer3TradableVolumes),
-                new BasicLongVector(offer3Volumes),
-                new BasicDoubleVector(offer4Prices),
-                new BasicLongVector(offer4TradableVolumes),
-                new BasicLongVector(offer4Volumes),
-                new BasicLongVector(eventTimes),
-                new BasicLongVector(receiveTimes)
-            ));
+            batch.append((FutureQuoteRecord) obj);
+        }
+        insert(FUTURE_QUOTE_TABLE, batch, futures, onInserted);
+    }
 
+    private void insert(String tableName, ColumnBatch batch, List<Object> records, Runnable onInserted) throws Exception {
+        EtlMetrics.BATCH_ROWS.labels(tableName).observe(batch.size());
+        // Temporary and DFS tables alike start with businessDate, so every insert carries the day of its rows
+        BasicTable table = toDatedTable(batch, records);
+        if (mtwWriter != null) {
+            mtwWriter.write(config.isDfsLoad() ? dfsTableName(tableName) : tableName, table, onInserted);
+            return;
+        }
+        if (dfsAppender != null) {
+            dfsAppender.write(dfsTableName(tableName), table, onInserted);
+            return;
+        }
+        if (writer != null) {
+            writer.write(tableName, table, onInserted);
+            return;
+        }
         List<Entity> args = new ArrayList<>();
         args.add(table);
-        connection.run("tableInsert{fut_market_price_stream_temp}", args);
-        logger.info("Successfully loaded {} future quotes", size);
+        long started = System.nanoTime();
+        connection.run("tableInsert{" + tableName + "}", args);
+        EtlMetrics.INSERT_SECONDS.labels(tableName).observeSince(started);
+        logger.info("Successfully loaded {} rows into {}", batch.size(), tableName);
+        if (onInserted != null) {
+            onInserted.run();
+        }
+    }
+
+    /**
+     * Wraps the columns of a batch into a DolphinDB table.
+     * Full batches hand their backing arrays over without copying.
+     *
+     * @param batch Batch to convert
+     * @return Table with one vector per batch column
+     */
+    public static BasicTable toTable(ColumnBatch batch) {
+        List<Vector> vectors = new ArrayList<>(batch.getColumns().size());
+        addVectors(batch, vectors);
+        return new BasicTable(batch.getColumnNames(), vectors);
+    }
+
+    private static String dfsTableName(String tableName) {
+        return tableName.substring(0, tableName.length() - TEMP_SUFFIX.length());
+    }
+
+    /**
+     * Wraps a batch into a table for insertion, adding the businessDate column that the temporary tables start with
+     * and the DFS tables are partitioned on.
+     *
+     * @param batch Batch to convert
+     * @param records Records the batch was built from, in row order
+     * @return Table with businessDate followed by the batch columns
+     */
+    static BasicTable toDatedTable(ColumnBatch batch, List<Object> records) {
+        int[] days = new int[records.size()];
+        Date lastDate = null;
+        int lastDays = 0;
+        for (int i = 0; i < days.length; i++) {
+            // Records of a batch nearly always share one day, so the conversion is cached
+            Date date = businessDate(records.get(i));
+            if (!date.equals(lastDate)) {
+                lastDate = date;
+                lastDays = Utils.countDays(date.toLocalDate());
+            }
+            days[i] = lastDays;
+        }
+        List<String> names = new ArrayList<>(batch.getColumnNames().size() + 1);
+        names.add("businessDate");
+        names.addAll(batch.getColumnNames());
+        List<Vector> vectors = new ArrayList<>(names.size());
+        vectors.add(new BasicDateVector(days));
+        addVectors(batch, vectors);
+        return new BasicTable(names, vectors);
+    }
+
+    private static Date businessDate(Object record) {
+        if (record instanceof XbondQuoteRecord) {
+            return ((XbondQuoteRecord) record).getBusinessDate();
+        } else if (record instanceof XbondTradeRecord) {
+            return ((XbondTradeRecord) record).getBusinessDate();
+        } else if (record instanceof FutureQuoteRecord) {
+            return ((FutureQuoteRecord) record).getBusinessDate();
+        }
+        throw new IllegalArgumentException("Unsupported record type: " + record.getClass().getName());
+    }
+
+    private static void addVectors(ColumnBatch batch, List<Vector> vectors) {
+        int size = batch.size();
+        BatchSymbolBase symbols = null;
+        for (Column column : batch.getColumns()) {
+            if (column instanceof SymbolColumn) {
+                // Codes go over the wire with a base of just the values this batch uses, shared by its SYMBOL columns
+                SymbolColumn symbolColumn = (SymbolColumn) column;
+                if (symbols == null) {
+                    symbols = new BatchSymbolBase(symbolColumn.getDictionary());
+                }
+                vectors.add(new BasicSymbolVector(symbols.getSymbolBase(), symbols.remap(symbolColumn, size), false));
+            } else {
+                vectors.add(toVector(column, size));
+            }
+        }
+    }
+
+    private static Vector toVector(Column column, int size) {
+        if (column instanceof DoubleColumn) {
+            return new BasicDoubleVector(((DoubleColumn) column).toArray(size), false);
+        } else if (column instanceof LongColumn) {
+            return new BasicLongVector(((LongColumn) column).toArray(size));
+        } else if (column instanceof IntColumn) {
+            return new BasicIntVector(((IntColumn) column).toArray(size), false);
+        } else if (column instanceof StringColumn) {
+            return new BasicStringVector(((StringColumn) column).toArray(size), false, false);
+        }
+        throw new IllegalArgumentException("Unsupported column type: " + column.getClass().getName());
+    }
+
+    /**
+     * Deletes the rows of a business date from the target tables, so a day loaded again from its start,
+     * such as a rerun or a day resumed after it was partly loaded, does not leave the rows of the earlier run behind.
+     * With {@code load_mode=dfs} the rows are deleted from the DFS tables; otherwise from the temporary tables.
+     *
+     * @param businessDate Business date to delete
+     * @throws Exception if a delete fails
+     */
+    public void deleteDay(LocalDate businessDate) throws Exception {
+        String date = businessDate.format(DDB_DATE);
+        for (String tableName : new String[]{XBOND_QUOTE_TABLE, XBOND_TRADE_TABLE, FUTURE_QUOTE_TABLE}) {
+            String target = config.isDfsLoad()
+                    ? "loadTable(\"" + config.getDatabase() + "\", `" + dfsTableName(tableName) + ")"
+                    : tableName;
+            connection.run("delete from " + target + " where businessDate = " + date);
+        }
+        logger.info("Cleared rows of {} from the target tables before loading", businessDate);
     }
 
     @Override
     public void cleanup() throws Exception {
-        String[] cleanupScripts = {
-                "drop table if exists xbond_quote_stream_temp",
-                "drop table if exists xbond_trade_stream_temp",
-                "drop table if exists market_price_stream_temp",
-                "drop table if exists fut_market_price_stream_temp"
+        if (config.isDfsLoad()) {
+            return;
+        }
+        String[] tableNames = {
+                "xbond_quote_stream_temp",
+                "xbond_trade_stream_temp",
+                "market_price_stream_temp",
+                "fut_market_price_stream_temp"
         };
 
-        for (String script : cleanupScripts) {
-            connection.run(script);
-            logger.debug("Dropped temporary table: {}", script.split(" ")[4]);
+        for (String tableName : tableNames) {
+            dropTemporaryTable(tableName);
+            logger.debug("Dropped temporary table: {}", tableName);
         }
         logger.info("DolphinDB temporary tables cleaned up");
     }
 
+    private void dropTemporaryTable(String tableName) throws Exception {
+        connection.run("if (defined(`" + tableName + ", SHARED)) undef(`" + tableName + ", SHARED)");
+        connection.run("drop table if exists " + tableName + LOCAL_SUFFIX);
+    }
+
+    /**
+     * Checks that the session answers a trivial script and that no background insert has failed,
+     * so a pooled loader with a dropped session is replaced instead of reused.
+     *
+     * @return true if the loader can be used for another day
+     */
+    public boolean isHealthy() {
+        if (connection == null || !connection.isConnected()) {
+            return false;
+        }
+        if (writer != null && !writer.isHealthy()) {
+            return false;
+        }
+        if (dfsAppender != null && !dfsAppender.isHealthy()) {
+            return false;
+        }
+        if (mtwWriter != null && !mtwWriter.isHealthy()) {
+            return false;
+        }
+        try {
+            connection.run("1");
+            return true;
+        } catch (Exception e) {
+            logger.warn("DolphinDB health check failed: {}", e.getMessage());
+            return false;
+        }
+    }
+
     @Override
     public void close() throws Exception {
+        if (mtwWriter != null) {
+            mtwWriter.close();
+            mtwWriter = null;
+        }
+        if (dfsAppender != null) {
+            dfsAppender.close();
+            dfsAppender = null;
+        }
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
         if (connection != null && connection.isConnected()) {
             connection.close();
             logger.info("DolphinDB connection closed");
         }
     }
+
+    /**
+     * Tracks which batches of a checkpointed load are fully inserted and advances the checkpoint
+     * over the longest run of completed batches from the start.
+     */
+    private static final class AcknowledgedPrefix {
+        private final LoadCheckpoint checkpoint;
+        private final Deque<PendingBatch> pending = new ArrayDeque<>();
+        private long end;
+
+        AcknowledgedPrefix(LoadCheckpoint checkpoint, long start) {
+            this.checkpoint = checkpoint;
+            this.end = start;
+        }
+
+        /**
+         * Registers the next batch and returns the callback each of its inserts runs once acknowledged.
+         */
+        synchronized Runnable add(int records, int inserts) {
+            end += records;
+            PendingBatch batch = new PendingBatch(end, inserts);
+            pending.addLast(batch);
+            if (inserts == 0) {
+                advance();
+            }
+            return () -> {
+                if (batch.remaining.decrementAndGet() == 0) {
+                    synchronized (this) {
+                        advance();
+                    }
+                }
+            };
+        }
+
+        private void advance() {
+            long loaded = -1;
+            while (!pending.isEmpty() && pending.peekFirst().remaining.get() == 0) {
+                loaded = pending.removeFirst().end;
+            }
+            if (loaded >= 0) {
+                try {
+                    checkpoint.recordLoaded(loaded);
+                } catch (Exception e) {
+                    throw new LoadingException("Failed to record load checkpoint: " + e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    private static final class PendingBatch {
+        private final long end;
+        private final AtomicInteger remaining;
+
+        PendingBatch(long end, int inserts) {
+            this.end = end;
+            this.remaining = new AtomicInteger(inserts);
+        }
+    }
 }
@@ -0,0 +1,22 @@
+package com.histdata.etl.loader;
+
+/**
+ * Progress of loading one ordered record stream, kept across runs.
+ * A checkpointed load skips the records an earlier run already loaded and reports each
+ * further batch once DolphinDB has acknowledged it and every batch before it.
+ */
+public interface LoadCheckpoint {
+
+    /**
+     * Returns the number of leading records loaded by an earlier run, which are skipped.
+     */
+    long getLoadedRecords();
+
+    /**
+     * Records that the first {@code loadedRecords} records of the stream are loaded.
+     *
+     * @param loadedRecords Records loaded so far, including those skipped
+     * @throws Exception if the progress cannot be persisted
+     */
+    void recordLoaded(long loadedRecords) throws Exception;
+}
@@ -0,0 +1,223 @@
+package com.histdata.etl.loader;
+
+import com.histdata.etl.config.DolphinDbConfig;
+import com.histdata.etl.exception.LoadingException;
+import com.xxdb.comm.ErrorCodeInfo;
+import com.xxdb.data.BasicTable;
+import com.xxdb.data.Entity;
+import com.xxdb.data.Vector;
+import com.xxdb.multithreadedtablewriter.MultithreadedTableWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes tables to DolphinDB through the API's {@link MultithreadedTableWriter}, one per target table.
+ * Each table writer runs {@code mtw_threads} sender threads and routes a row to a thread by the hash of its
+ * {@code exchProductId}, so the rows of one security keep their order while different securities are sent
+ * over separate sessions. Rows are enqueued asynchronously; {@link #write} waits while more than
+ * {@code mtw_max_pending_rows} rows of the table are still unsent. The table writer only accepts rows, so each
+ * row is handed over as the scalars of the batch's vectors, which the writer appends to its own column buffers.
+ * <p>
+ * The table writers only report how many rows they sent, not which, so the callback of a written batch runs on the
+ * first {@link #write} or {@link #flush} that proves its rows sent: the sent count reaching the batch's last row
+ * with a single sender thread, every enqueued row of the table sent with several. A failed send or a stopped
+ * table writer is reported by the next call to {@link #write} or {@link #flush}. Not thread-safe; each loader
+ * owns one writer.
+ */
+public class MultithreadedBatchWriter implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(MultithreadedBatchWriter.class);
+
+    static final String ROUTING_COLUMN = "exchProductId";
+    private static final long POLL_MILLIS = 1;
+    private static final float THROTTLE_SECONDS = 0.1f;
+
+    private final DolphinDbConfig config;
+    private final String database;
+    private final Map<String, MultithreadedTableWriter> writers = new HashMap<>();
+    private final Map<String, Long> enqueuedRows = new HashMap<>();
+    private final Map<String, Deque<PendingCallback>> pendingCallbacks = new HashMap<>();
+
+    /**
+     * Creates a writer; the table writers are opened on the first write to each table.
+     *
+     * @param config DolphinDB configuration
+     * @param database DFS database of the target tables, or an empty string for shared in-memory tables
+     */
+    public MultithreadedBatchWriter(DolphinDbConfig config, String database) {
+        this.config = config;
+        this.database = database;
+    }
+
+    /**
+     * Enqueues the rows of a table, waiting while too many rows of the target table are unsent.
+     * The column order must match the target table.
+     *
+     * @param tableName Target table
+     * @param table Rows to insert
+     * @param onInserted Callback run by a later {@link #write} or {@link #flush} once the rows are sent, or null
+     * @throws Exception if the table writer cannot be opened or interrupted while waiting
+     * @throws LoadingException if a row is rejected, an earlier send failed or the table writer stopped
+     */
+    public void write(String tableName, BasicTable table, Runnable onInserted) throws Exception {
+        MultithreadedTableWriter writer = writerFor(tableName);
+        long enqueued = enqueuedRows.getOrDefault(tableName, 0L);
+        MultithreadedTableWriter.Status status = writer.getStatus();
+        while (status.unsentRows > config.getMtwMaxPendingRows()) {
+            checkFailure(tableName, status);
+            Thread.sleep(POLL_MILLIS);
+            status = writer.getStatus();
+        }
+        checkFailure(tableName, status);
+        runSentCallbacks(tableName, status.sentRows, enqueued);
+
+        ErrorCodeInfo result = writer.insertUnwrittenData(rows(table));
+        if (result.hasError()) {
+            throw new LoadingException(String.format("Rows rejected by the %s writer: %s", tableName, result.getErrorInfo()));
+        }
+        enqueued += table.rows();
+        enqueuedRows.put(tableName, enqueued);
+        if (onInserted != null) {
+            pendingCallbacks.computeIfAbsent(tableName, name -> new ArrayDeque<>())
+                    .add(new PendingCallback(enqueued, onInserted));
+        }
+    }
+
+    /**
+     * Waits until every enqueued row has been sent, then runs the callbacks of the written batches.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     * @throws LoadingException if any send failed or a table writer stopped before sending every row
+     */
+    public void flush() throws InterruptedException {
+        for (Map.Entry<String, MultithreadedTableWriter> entry : writers.entrySet()) {
+            long enqueued = enqueuedRows.getOrDefault(entry.getKey(), 0L);
+            MultithreadedTableWriter.Status status = entry.getValue().getStatus();
+            while (status.sentRows < enqueued) {
+                checkFailure(entry.getKey(), status);
+                Thread.sleep(POLL_MILLIS);
+                status = entry.getValue().getStatus();
+            }
+            checkFailure(entry.getKey(), status);
+        }
+        for (Map.Entry<String, Deque<PendingCallback>> entry : pendingCallbacks.entrySet()) {
+            for (PendingCallback pending : entry.getValue()) {
+                pending.callback.run();
+            }
+            entry.getValue().clear();
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Multithreaded writer sent {} rows", enqueuedRows);
+        }
+    }
+
+    /**
+     * Returns true if no table writer has failed or stopped.
+     */
+    public boolean isHealthy() {
+        for (MultithreadedTableWriter writer : writers.values()) {
+            MultithreadedTableWriter.Status status = writer.getStatus();
+            if (status.hasError() || status.sendFailedRows > 0 || status.isExiting) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stops the table writers after they have sent their queued rows.
+     */
+    @Override
+    public void close() {
+        for (Map.Entry<String, MultithreadedTableWriter> entry : writers.entrySet()) {
+            try {
+                entry.getValue().waitForThreadCompletion();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.warn("Interrupted while stopping the {} writer", entry.getKey());
+                break;
+            }
+        }
+        writers.clear();
+    }
+
+    MultithreadedTableWriter newWriter(String tableName) throws Exception {
+        return new MultithreadedTableWriter(config.getHost(), config.getPort(), config.getUsername(), config.getPassword(),
+                database, tableName, false, false, null, DolphinDbLoader.BATCH_SIZE, THROTTLE_SECONDS,
+                config.getMtwThreads(), ROUTING_COLUMN);
+    }
+
+    private MultithreadedTableWriter writerFor(String tableName) throws Exception {
+        MultithreadedTableWriter writer = writers.get(tableName);
+        if (writer == null) {
+            writer = newWriter(tableName);
+            writers.put(tableName, writer);
+            logger.info("Multithreaded writer for {} started with {} threads routed by {}", tableName,
+                    config.getMtwThreads(), ROUTING_COLUMN);
+        }
+        return writer;
+    }
+
+    /**
+     * Runs the callbacks of the table whose rows the sent count proves sent. Sender threads progress independently,
+     * so with more than one the count only covers a batch once every row enqueued so far is sent.
+     */
+    private void runSentCallbacks(String tableName, long sentRows, long enqueued) {
+        Deque<PendingCallback> pending = pendingCallbacks.get(tableName);
+        if (pending == null) {
+            return;
+        }
+        boolean allSent = sentRows >= enqueued;
+        boolean ordered = config.getMtwThreads() <= 1;
+        while (!pending.isEmpty() && (allSent || ordered && sentRows >= pending.peek().lastRow)) {
+            pending.poll().callback.run();
+        }
+    }
+
+    private static void checkFailure(String tableName, MultithreadedTableWriter.Status status) {
+        if (status.hasError() || status.sendFailedRows > 0) {
+            throw new LoadingException(String.format("DolphinDB insert into %s failed (%d rows): %s",
+                    tableName, status.sendFailedRows, status.getErrorInfo()));
+        }
+        if (status.isExiting) {
+            throw new LoadingException(String.format("DolphinDB writer for %s stopped with %d rows unsent",
+                    tableName, status.unsentRows));
+        }
+    }
+
+    /**
+     * Returns the rows of a table as the scalars of its vectors, in the form the table writer buffers them.
+     */
+    static List<List<Entity>> rows(BasicTable table) {
+        int columns = table.columns();
+        Vector[] vectors = new Vector[columns];
+        for (int c = 0; c < columns; c++) {
+            vectors[c] = table.getColumn(c);
+        }
+        List<List<Entity>> rows = new ArrayList<>(table.rows());
+        for (int i = 0; i < table.rows(); i++) {
+            List<Entity> row = new ArrayList<>(columns);
+            for (Vector vector : vectors) {
+                row.add(vector.get(i));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static final class PendingCallback {
+        private final long lastRow;
+        private final Runnable callback;
+
+        PendingCallback(long lastRow, Runnable callback) {
+            this.lastRow = lastRow;
+            this.callback = callback;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.histdata.etl.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monotonically increasing count, such as rows parsed or bytes downloaded.
+ */
+public class Counter extends Metric<Counter.Child> {
+
+    Counter(String name, String help, String... labelNames) {
+        super(name, help, labelNames);
+    }
+
+    @Override
+    protected String type() {
+        return "counter";
+    }
+
+    @Override
+    protected Child newChild() {
+        return new Child();
+    }
+
+    @Override
+    protected void writeSamples(StringBuilder out, String labels, Child child) {
+        sample(out, "", labels, null, Long.toString(child.get()));
+    }
+
+    /**
+     * Count of one label combination. Increments do not contend across threads.
+     */
+    public static class Child {
+        private final LongAdder count = new LongAdder();
+
+        public void inc() {
+            count.increment();
+        }
+
+        /**
+         * Adds to the count.
+         *
+         * @param amount Non-negative amount
+         */
+        public void inc(long amount) {
+            if (amount < 0) {
+                throw new IllegalArgumentException("Counters only increase: " + amount);
+            }
+            count.add(amount);
+        }
+
+        public long get() {
+            return count.sum();
+        }
+    }
+}
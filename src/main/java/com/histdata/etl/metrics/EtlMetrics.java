@@ -0,0 +1,56 @@
+package com.histdata.etl.metrics;
+
+/**
+ * Metrics of the ETL stages, registered in the default registry.
+ * Counters and histograms are updated on the stage threads; queue depths are read when scraped.
+ * Hot paths look their label children up once and update them per file, chunk or batch rather than per row.
+ */
+public final class EtlMetrics {
+
+    private static final MetricsRegistry REGISTRY = MetricsRegistry.getDefault();
+
+    /** Rows per DolphinDB insert, around the default batch size of 10,000. */
+    static final double[] BATCH_ROWS_BUCKETS = {100, 1000, 2500, 5000, 10000, 25000, 50000, 100000};
+
+    public static final Counter COS_DOWNLOADED_BYTES = REGISTRY.counter("etl_cos_downloaded_bytes_total",
+            "Bytes downloaded from COS");
+
+    public static final Histogram COS_DOWNLOAD_SECONDS = REGISTRY.timer("etl_cos_download_seconds",
+            "Time to download one COS object, over all its ranged parts");
+
+    public static final Counter ROWS_PARSED = REGISTRY.counter("etl_rows_parsed_total",
+            "Source rows parsed, by COS source directory or MySQL table", "source");
+
+    public static final Histogram PARSE_SECONDS = REGISTRY.timer("etl_parse_seconds",
+            "Time to parse one COS file, including the transform of rows that are transformed as they stream", "source");
+
+    public static final Histogram TRANSFORM_SECONDS = REGISTRY.timer("etl_transform_seconds",
+            "Time to transform one chunk of rows on the transform pool", "source");
+
+    public static final Counter REJECTED_ROWS = REGISTRY.counter("etl_rejected_rows_total",
+            "Rows that could not be transformed and were written to the reject file", "source");
+
+    public static final Histogram SORT_SECONDS = REGISTRY.timer("etl_sort_seconds",
+            "Time to sort the buffered records of a source, in memory or into a spilled run", "phase");
+
+    public static final Counter SPILLED_RECORDS = REGISTRY.counter("etl_spilled_records_total",
+            "Records written to sorted runs on disk");
+
+    public static final Histogram STAGE_SECONDS = REGISTRY.timer("etl_stage_seconds",
+            "Time one business day spends in a stage", "stage");
+
+    public static final Histogram BATCH_ROWS = REGISTRY.histogram("etl_batch_rows",
+            "Rows per DolphinDB insert", BATCH_ROWS_BUCKETS, "table");
+
+    public static final Histogram INSERT_SECONDS = REGISTRY.timer("etl_insert_seconds",
+            "Latency of one DolphinDB insert, from sending the batch to its acknowledgement", "table");
+
+    public static final Counter LATE_RECORDS = REGISTRY.counter("etl_late_records_total",
+            "Streamed records displaced beyond the reorder window and loaded out of receive-time order", "source");
+
+    public static final Gauge QUEUE_DEPTH = REGISTRY.gauge("etl_queue_depth",
+            "Records waiting in a streaming source queue, or batches in flight to DolphinDB", "queue");
+
+    private EtlMetrics() {
+    }
+}
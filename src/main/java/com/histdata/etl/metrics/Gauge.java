@@ -0,0 +1,64 @@
+package com.histdata.etl.metrics;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongSupplier;
+
+/**
+ * Current value read at scrape time, such as the depth of a queue.
+ * A child sums the suppliers tracked under its labels, so queues of days processed in parallel add up.
+ */
+public class Gauge extends Metric<Gauge.Child> {
+
+    Gauge(String name, String help, String... labelNames) {
+        super(name, help, labelNames);
+    }
+
+    @Override
+    protected String type() {
+        return "gauge";
+    }
+
+    @Override
+    protected Child newChild() {
+        return new Child();
+    }
+
+    @Override
+    protected void writeSamples(StringBuilder out, String labels, Child child) {
+        sample(out, "", labels, null, Long.toString(child.get()));
+    }
+
+    /**
+     * Value of one label combination.
+     */
+    public static class Child {
+        private final List<LongSupplier> suppliers = new CopyOnWriteArrayList<>();
+
+        /**
+         * Adds a supplier to the value until it is untracked.
+         *
+         * @param supplier Supplier read at scrape time
+         */
+        public void track(LongSupplier supplier) {
+            suppliers.add(supplier);
+        }
+
+        /**
+         * Removes a supplier added by {@link #track}.
+         *
+         * @param supplier Supplier to remove
+         */
+        public void untrack(LongSupplier supplier) {
+            suppliers.remove(supplier);
+        }
+
+        public long get() {
+            long value = 0;
+            for (LongSupplier supplier : suppliers) {
+                value += supplier.getAsLong();
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.histdata.etl.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Distribution of observed values over fixed buckets, such as batch sizes or insert latencies.
+ * Timers are histograms of seconds.
+ */
+public class Histogram extends Metric<Histogram.Child> {
+
+    /** Buckets of durations in seconds, from 1 ms for an insert to an hour for a day's stage. */
+    static final double[] SECONDS_BUCKETS = {
+            0.001, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60, 120, 300, 600, 1800, 3600};
+
+    private final double[] buckets;
+
+    Histogram(String name, String help, double[] buckets, String... labelNames) {
+        super(name, help, labelNames);
+        if (buckets.length == 0) {
+            throw new IllegalArgumentException("Histogram " + name + " needs at least one bucket");
+        }
+        for (int i = 1; i < buckets.length; i++) {
+            if (buckets[i] <= buckets[i - 1]) {
+                throw new IllegalArgumentException("Buckets of " + name + " must increase: " + Arrays.toString(buckets));
+            }
+        }
+        this.buckets = buckets.clone();
+    }
+
+    @Override
+    protected String type() {
+        return "histogram";
+    }
+
+    @Override
+    protected Child newChild() {
+        return new Child(buckets);
+    }
+
+    @Override
+    protected void writeSamples(StringBuilder out, String labels, Child child) {
+        long cumulative = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            cumulative += child.counts[i].sum();
+            sample(out, "_bucket", labels, "le=\"" + formatDouble(buckets[i]) + "\"", Long.toString(cumulative));
+        }
+        cumulative += child.counts[buckets.length].sum();
+        sample(out, "_bucket", labels, "le=\"+Inf\"", Long.toString(cumulative));
+        sample(out, "_sum", labels, null, formatDouble(child.sum.sum()));
+        sample(out, "_count", labels, null, Long.toString(cumulative));
+    }
+
+    /**
+     * Distribution of one label combination. Observations do not contend across threads.
+     */
+    public static class Child {
+        private final double[] buckets;
+        // One count per bucket plus the overflow; made cumulative when written
+        private final LongAdder[] counts;
+        private final DoubleAdder sum = new DoubleAdder();
+
+        Child(double[] buckets) {
+            this.buckets = buckets;
+            this.counts = new LongAdder[buckets.length + 1];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = new LongAdder();
+            }
+        }
+
+        /**
+         * Records one value.
+         *
+         * @param value Observed value
+         */
+        public void observe(double value) {
+            int bucket = 0;
+            while (bucket < buckets.length && value > buckets[bucket]) {
+                bucket++;
+            }
+            counts[bucket].increment();
+            sum.add(value);
+        }
+
+        /**
+         * Records the seconds elapsed since a {@link System#nanoTime} reading.
+         *
+         * @param startNanos Reading taken when the timed work started
+         */
+        public void observeSince(long startNanos) {
+            observe((System.nanoTime() - startNanos) / 1e9);
+        }
+
+        public long getCount() {
+            long count = 0;
+            for (LongAdder bucket : counts) {
+                count += bucket.sum();
+            }
+            return count;
+        }
+
+        public double getSum() {
+            return sum.sum();
+        }
+    }
+}
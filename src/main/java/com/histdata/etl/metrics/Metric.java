@@ -0,0 +1,143 @@
+package com.histdata.etl.metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * A named metric family with one child per combination of label values.
+ * Children are created on first use and kept for the life of the registry, so callers on hot paths should
+ * look a child up once and keep it.
+ *
+ * @param <C> Child type
+ */
+public abstract class Metric<C> {
+    private static final Pattern NAME = Pattern.compile("[a-zA-Z_:][a-zA-Z0-9_:]*");
+
+    private final String name;
+    private final String help;
+    private final List<String> labelNames;
+    private final Map<List<String>, C> children = new ConcurrentHashMap<>();
+
+    protected Metric(String name, String help, String... labelNames) {
+        if (!NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid metric name: " + name);
+        }
+        for (String labelName : labelNames) {
+            if (!NAME.matcher(labelName).matches() || labelName.startsWith("__")) {
+                throw new IllegalArgumentException("Invalid label name for " + name + ": " + labelName);
+            }
+        }
+        this.name = name;
+        this.help = help;
+        this.labelNames = Collections.unmodifiableList(Arrays.asList(labelNames.clone()));
+    }
+
+    /**
+     * Returns the child for the given label values, creating it on first use.
+     *
+     * @param labelValues One value per label name, in order
+     * @return Child metric
+     */
+    public C labels(String... labelValues) {
+        if (labelValues.length != labelNames.size()) {
+            throw new IllegalArgumentException(String.format("%s expects %d label values, got %d",
+                    name, labelNames.size(), labelValues.length));
+        }
+        List<String> key = Arrays.asList(labelValues.clone());
+        C child = children.get(key);
+        return child != null ? child : children.computeIfAbsent(key, k -> newChild());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getHelp() {
+        return help;
+    }
+
+    public List<String> getLabelNames() {
+        return labelNames;
+    }
+
+    /**
+     * Returns the Prometheus type of the family: counter, gauge or histogram.
+     */
+    protected abstract String type();
+
+    protected abstract C newChild();
+
+    /**
+     * Appends the samples of one child.
+     *
+     * @param out Output
+     * @param labels Rendered labels of the child, without braces; empty if the family has no labels
+     * @param child Child to write
+     */
+    protected abstract void writeSamples(StringBuilder out, String labels, C child);
+
+    /**
+     * Appends the family in the Prometheus text exposition format.
+     */
+    void write(StringBuilder out) {
+        out.append("# HELP ").append(name).append(' ').append(escapeHelp(help)).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type()).append('\n');
+        List<Map.Entry<List<String>, C>> entries = new ArrayList<>(children.entrySet());
+        entries.sort((a, b) -> String.join("\u0000", a.getKey()).compareTo(String.join("\u0000", b.getKey())));
+        for (Map.Entry<List<String>, C> entry : entries) {
+            writeSamples(out, renderLabels(entry.getKey()), entry.getValue());
+        }
+    }
+
+    /**
+     * Appends one sample line.
+     */
+    protected void sample(StringBuilder out, String suffix, String labels, String extraLabel, String value) {
+        out.append(name).append(suffix);
+        if (!labels.isEmpty() || extraLabel != null) {
+            out.append('{').append(labels);
+            if (extraLabel != null) {
+                out.append(labels.isEmpty() ? "" : ",").append(extraLabel);
+            }
+            out.append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+
+    private String renderLabels(List<String> values) {
+        StringBuilder labels = new StringBuilder();
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                labels.append(',');
+            }
+            labels.append(labelNames.get(i)).append("=\"").append(escapeLabelValue(values.get(i))).append('"');
+        }
+        return labels.toString();
+    }
+
+    static String escapeLabelValue(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String escapeHelp(String value) {
+        return value.replace("\\", "\\\\").replace("\n", "\\n");
+    }
+
+    static String formatDouble(double value) {
+        if (value == Double.POSITIVE_INFINITY) {
+            return "+Inf";
+        }
+        if (value == Double.NEGATIVE_INFINITY) {
+            return "-Inf";
+        }
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+}
@@ -0,0 +1,95 @@
+package com.histdata.etl.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Named metric families of the process, rendered in the Prometheus text exposition format.
+ * The stages register their metrics in {@link #getDefault()} through {@link EtlMetrics}; separate registries
+ * are for tests.
+ */
+public class MetricsRegistry {
+
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+    private final Map<String, Metric<?>> metrics = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the registry shared by the whole process.
+     */
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Registers a counter, or returns the one already registered under the name.
+     *
+     * @param name Metric name, by convention ending in _total
+     * @param help Description
+     * @param labelNames Label names
+     */
+    public Counter counter(String name, String help, String... labelNames) {
+        return register(new Counter(name, help, labelNames), Counter.class);
+    }
+
+    /**
+     * Registers a gauge, or returns the one already registered under the name.
+     *
+     * @param name Metric name
+     * @param help Description
+     * @param labelNames Label names
+     */
+    public Gauge gauge(String name, String help, String... labelNames) {
+        return register(new Gauge(name, help, labelNames), Gauge.class);
+    }
+
+    /**
+     * Registers a histogram, or returns the one already registered under the name.
+     *
+     * @param name Metric name
+     * @param help Description
+     * @param buckets Increasing upper bounds; the +Inf bucket is implicit
+     * @param labelNames Label names
+     */
+    public Histogram histogram(String name, String help, double[] buckets, String... labelNames) {
+        return register(new Histogram(name, help, buckets, labelNames), Histogram.class);
+    }
+
+    /**
+     * Registers a timer: a histogram of seconds over {@link Histogram#SECONDS_BUCKETS}.
+     *
+     * @param name Metric name, by convention ending in _seconds
+     * @param help Description
+     * @param labelNames Label names
+     */
+    public Histogram timer(String name, String help, String... labelNames) {
+        return histogram(name, help, Histogram.SECONDS_BUCKETS, labelNames);
+    }
+
+    /**
+     * Renders every family, sorted by name, in the Prometheus text exposition format (version 0.0.4).
+     */
+    public String scrape() {
+        List<String> names = new ArrayList<>(metrics.keySet());
+        names.sort(null);
+        StringBuilder out = new StringBuilder(4096);
+        for (String name : names) {
+            metrics.get(name).write(out);
+        }
+        return out.toString();
+    }
+
+    private <M extends Metric<?>> M register(M metric, Class<M> type) {
+        Metric<?> existing = metrics.putIfAbsent(metric.getName(), metric);
+        if (existing == null) {
+            return metric;
+        }
+        if (!type.isInstance(existing) || !existing.getLabelNames().equals(metric.getLabelNames())) {
+            throw new IllegalArgumentException("Metric " + metric.getName() + " is already registered as "
+                    + existing.type() + " with labels " + existing.getLabelNames());
+        }
+        return type.cast(existing);
+    }
+}
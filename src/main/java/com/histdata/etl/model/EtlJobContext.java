@@ -4,10 +4,13 @@ import com.histdata.etl.config.Config;
 import com.histdata.etl.exception.ConcurrentExecutionException;
 import java.time.LocalDate;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Context representing a single execution of the ETL tool.
  * Manages lifecycle of connections, data extraction, transformation, and loading.
+ * Days processed in parallel share one context, so it holds only job-wide state: the status is set by the
+ * thread running the job and loaded records are summed over all days.
  */
 public class EtlJobContext {
 
@@ -18,8 +21,9 @@ public class EtlJobContext {
     private final long startTime;
 
     private Config config;
-    private JobStatus status;
-    private LocalDate currentDate;
+    private volatile JobStatus status;
+    private volatile LocalDate currentDate;
+    private final AtomicLong loadedRecords = new AtomicLong();
 
     /**
      * Creates EtlJobContext for specified parameters.
@@ -204,12 +208,30 @@ public class EtlJobContext {
     }
 
     /**
-     * Gets the progress status.
+     * Adds the records a finished day loaded to the job total. Safe to call from concurrently processed days.
+     *
+     * @param count Number of records loaded into DolphinDB
+     */
+    public void addLoadedRecords(long count) {
+        loadedRecords.addAndGet(count);
+    }
+
+    /**
+     * Returns the records loaded by all finished days.
+     */
+    public long getLoadedRecords() {
+        return loadedRecords.get();
+    }
+
+    /**
+     * Gets a snapshot of the progress status, with the records loaded so far.
      *
      * @return Progress status
      */
     public ProgressStatus getProgressStatus() {
-        return new ProgressStatus(startDate, endDate);
+        ProgressStatus progress = new ProgressStatus(startDate, endDate);
+        progress.setLoadedRecords(loadedRecords.get());
+        return progress;
     }
 
     /**
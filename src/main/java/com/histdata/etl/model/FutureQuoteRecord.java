@@ -6,7 +6,13 @@ import java.sql.Timestamp;
 /**
  * Represents a transformed Bond Future L2 Quote record ready for loading into DolphinDB.
  */
-public class FutureQuoteRecord {
+public class FutureQuoteRecord implements TimestampedRecord {
+    public static final String DEFAULT_PRODUCT_TYPE = "BOND_FUT";
+    public static final String DEFAULT_EXCHANGE = "CFFEX";
+    public static final String DEFAULT_SOURCE = "CFFEX";
+    public static final String DEFAULT_LEVEL = "L1";
+    public static final String DEFAULT_STATUS = "Normal";
+
     private Date businessDate;
     private String exchProductId;
     private String productType;
@@ -64,12 +70,12 @@ public class FutureQuoteRecord {
     public FutureQuoteRecord(Date businessDate, String exchProductId) {
         this.businessDate = businessDate;
         this.exchProductId = exchProductId;
-        this.productType = "BOND_FUT";
-        this.exchange = "CFFEX";
-        this.source = "CFFEX";
+        this.productType = DEFAULT_PRODUCT_TYPE;
+        this.exchange = DEFAULT_EXCHANGE;
+        this.source = DEFAULT_SOURCE;
         this.settleSpeed = 0;
-        this.level = "L1";
-        this.status = "Normal";
+        this.level = DEFAULT_LEVEL;
+        this.status = DEFAULT_STATUS;
     }
 
     public Date getBusinessDate() {
@@ -527,6 +533,7 @@ public class FutureQuoteRecord {
         this.eventTime = eventTime;
     }
 
+    @Override
     public Timestamp getReceiveTime() {
         return receiveTime;
     }
@@ -0,0 +1,26 @@
+package com.histdata.etl.model;
+
+import java.sql.Timestamp;
+
+/**
+ * Common view of transformed market data records that carry a receive time.
+ * Records are loaded into DolphinDB in receive-time order.
+ */
+public interface TimestampedRecord {
+
+    /**
+     * Returns the time the source system received the record.
+     */
+    Timestamp getReceiveTime();
+
+    /**
+     * Returns the receive time of a transformed record as epoch milliseconds.
+     * Used as the ordering key when merging per-source runs.
+     *
+     * @param record Transformed record implementing TimestampedRecord
+     * @return Receive time in epoch milliseconds
+     */
+    static long receiveTimeMillis(Object record) {
+        return ((TimestampedRecord) record).getReceiveTime().getTime();
+    }
+}
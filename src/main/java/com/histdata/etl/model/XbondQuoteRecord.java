@@ -6,7 +6,13 @@ import java.sql.Timestamp;
 /**
  * Represents a transformed XBond Market Quote record ready for loading into DolphinDB.
  */
-public class XbondQuoteRecord {
+public class XbondQuoteRecord implements TimestampedRecord {
+    public static final String DEFAULT_PRODUCT_TYPE = "BOND";
+    public static final String DEFAULT_EXCHANGE = "CFETS";
+    public static final String DEFAULT_SOURCE = "XBOND";
+    public static final String DEFAULT_LEVEL = "L2";
+    public static final String DEFAULT_STATUS = "Normal";
+
     private Date businessDate;
     private String exchProductId;
     private String productType;
@@ -94,11 +100,11 @@ public class XbondQuoteRecord {
     public XbondQuoteRecord(Date businessDate, String exchProductId) {
         this.businessDate = businessDate;
         this.exchProductId = exchProductId;
-        this.productType = "BOND";
-        this.exchange = "CFETS";
-        this.source = "XBOND";
-        this.level = "L2";
-        this.status = "Normal";
+        this.productType = DEFAULT_PRODUCT_TYPE;
+        this.exchange = DEFAULT_EXCHANGE;
+        this.source = DEFAULT_SOURCE;
+        this.level = DEFAULT_LEVEL;
+        this.status = DEFAULT_STATUS;
     }
 
     public Date getBusinessDate() {
@@ -868,6 +874,7 @@ public class XbondQuoteRecord {
         this.eventTime = eventTime;
     }
 
+    @Override
     public Timestamp getReceiveTime() {
         return receiveTime;
     }
@@ -6,7 +6,11 @@ import java.sql.Timestamp;
 /**
  * Represents a transformed XBond Trade record ready for loading into DolphinDB.
  */
-public class XbondTradeRecord {
+public class XbondTradeRecord implements TimestampedRecord {
+    public static final String DEFAULT_PRODUCT_TYPE = "BOND";
+    public static final String DEFAULT_EXCHANGE = "CFETS";
+    public static final String DEFAULT_SOURCE = "XBOND";
+
     private Date businessDate;
     private String exchProductId;
     private String productType;
@@ -26,9 +30,9 @@ public class XbondTradeRecord {
     public XbondTradeRecord(Date businessDate, String exchProductId) {
         this.businessDate = businessDate;
         this.exchProductId = exchProductId;
-        this.productType = "BOND";
-        this.exchange = "CFETS";
-        this.source = "XBOND";
+        this.productType = DEFAULT_PRODUCT_TYPE;
+        this.exchange = DEFAULT_EXCHANGE;
+        this.source = DEFAULT_SOURCE;
     }
 
     public Date getBusinessDate() {
@@ -159,6 +163,7 @@ public class XbondTradeRecord {
         this.eventTime = eventTime;
     }
 
+    @Override
     public Timestamp getReceiveTime() {
         return receiveTime;
     }
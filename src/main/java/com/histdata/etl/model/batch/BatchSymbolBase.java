@@ -0,0 +1,76 @@
+package com.histdata.etl.model.batch;
+
+import com.xxdb.data.SymbolBase;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DolphinDB symbol base of a single batch, holding only the values its SYMBOL columns use.
+ * Codes of the job's {@link SymbolDictionary} are remapped to indexes of this base, so each insert carries the
+ * distinct values of its own rows instead of every value the job has seen. The SYMBOL columns of a batch share
+ * one base, which is serialized once per table.
+ * Not thread-safe; a batch is converted by a single thread.
+ */
+public class BatchSymbolBase {
+
+    private static final AtomicInteger SYMBOL_BASE_IDS = new AtomicInteger();
+
+    private final SymbolDictionary dictionary;
+    private final SymbolBase base = new SymbolBase(SYMBOL_BASE_IDS.incrementAndGet());
+    // Index in the base by dictionary code; 0 until the code is first used, as the null code always maps to 0
+    private int[] indexes;
+
+    public BatchSymbolBase(SymbolDictionary dictionary) {
+        this.dictionary = dictionary;
+        this.indexes = new int[dictionary.size()];
+        base.find(StringColumn.NULL_VALUE, true);
+    }
+
+    /**
+     * Returns the first {@code size} rows of a column as indexes of this base, adding the values they use.
+     *
+     * @param column Column encoded with this base's dictionary
+     * @param size Number of rows
+     */
+    public int[] remap(SymbolColumn column, int size) {
+        if (column.getDictionary() != dictionary) {
+            throw new IllegalArgumentException("Column " + column.getName() + " is encoded with another dictionary");
+        }
+        int[] codes = column.toArray(size);
+        int[] remapped = new int[size];
+        for (int row = 0; row < size; row++) {
+            int code = codes[row];
+            if (code != 0) {
+                remapped[row] = index(code);
+            }
+        }
+        return remapped;
+    }
+
+    /**
+     * Returns the symbol base the remapped indexes refer to.
+     */
+    public SymbolBase getSymbolBase() {
+        return base;
+    }
+
+    /**
+     * Returns the number of values in the base, including the null symbol.
+     */
+    public int size() {
+        return base.size();
+    }
+
+    private int index(int code) {
+        if (code >= indexes.length) {
+            indexes = Arrays.copyOf(indexes, Math.max(code + 1, indexes.length * 2));
+        }
+        int index = indexes[code];
+        if (index == 0) {
+            index = base.find(dictionary.decode(code), true);
+            indexes[code] = index;
+        }
+        return index;
+    }
+}
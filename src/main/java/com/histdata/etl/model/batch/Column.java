@@ -0,0 +1,65 @@
+package com.histdata.etl.model.batch;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-capacity primitive column of a {@link ColumnBatch}.
+ * Null values are tracked in a bitmap and the slot holds the DolphinDB null sentinel,
+ * so the backing array can be shipped to DolphinDB as is.
+ */
+public abstract class Column {
+
+    private final String name;
+    private final long[] nullBits;
+    protected final int capacity;
+
+    protected Column(String name, int capacity) {
+        this.name = name;
+        this.capacity = capacity;
+        this.nullBits = new long[(capacity + 63) >>> 6];
+        Arrays.fill(nullBits, -1L);
+    }
+
+    /**
+     * Returns the target column name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns true if the value at the given row is null.
+     *
+     * @param row Row index
+     */
+    public boolean isNull(int row) {
+        return (nullBits[row >>> 6] & (1L << row)) != 0;
+    }
+
+    /**
+     * Sets the value at the given row to null.
+     *
+     * @param row Row index
+     */
+    public void setNull(int row) {
+        nullBits[row >>> 6] |= 1L << row;
+        fillNull(row, row + 1);
+    }
+
+    /**
+     * Resets every row to null.
+     */
+    void reset() {
+        Arrays.fill(nullBits, -1L);
+        fillNull(0, capacity);
+    }
+
+    protected void markPresent(int row) {
+        nullBits[row >>> 6] &= ~(1L << row);
+    }
+
+    /**
+     * Writes the null sentinel into rows [from, to).
+     */
+    protected abstract void fillNull(int from, int to);
+}
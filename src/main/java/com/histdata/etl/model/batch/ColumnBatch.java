@@ -0,0 +1,135 @@
+package com.histdata.etl.model.batch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Fixed-capacity columnar batch of rows destined for one DolphinDB table.
+ * Columns are primitive arrays with null bitmaps, so a batch holds no per-row objects
+ * and can be wrapped into DolphinDB vectors without boxing. Columns are kept in target table order.
+ * <p>
+ * Batches are filled by the loader from transformed records, not by the transformers: a day's records are
+ * sorted per source, may be spilled to disk and are merged by receive time before they are loaded, and each
+ * of those stages works on records.
+ */
+public abstract class ColumnBatch {
+
+    private final int capacity;
+    private final SymbolDictionary symbols;
+    private final List<Column> columns = new ArrayList<>();
+    private int size;
+
+    protected ColumnBatch(int capacity) {
+        this(capacity, new SymbolDictionary());
+    }
+
+    /**
+     * Creates a batch whose SYMBOL columns encode values with the given dictionary.
+     *
+     * @param capacity Maximum number of rows
+     * @param symbols Dictionary shared by the batches of a job
+     */
+    protected ColumnBatch(int capacity, SymbolDictionary symbols) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Batch capacity must be positive, got: " + capacity);
+        }
+        this.capacity = capacity;
+        this.symbols = symbols;
+    }
+
+    /**
+     * Appends an empty row with all columns null.
+     *
+     * @return Index of the new row
+     * @throws IllegalStateException if the batch is full
+     */
+    public int addRow() {
+        if (size >= capacity) {
+            throw new IllegalStateException("Batch is full (" + capacity + " rows)");
+        }
+        return size++;
+    }
+
+    /**
+     * Discards the last row, e.g. after a transformation failed half way through it.
+     */
+    public void discardLastRow() {
+        if (size == 0) {
+            return;
+        }
+        size--;
+        for (Column column : columns) {
+            column.setNull(size);
+        }
+    }
+
+    /**
+     * Removes all rows so the batch can be reused.
+     */
+    public void clear() {
+        size = 0;
+        for (Column column : columns) {
+            column.reset();
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean isFull() {
+        return size >= capacity;
+    }
+
+    /**
+     * Returns the columns in target table order.
+     */
+    public List<Column> getColumns() {
+        return Collections.unmodifiableList(columns);
+    }
+
+    /**
+     * Returns the column names in target table order.
+     */
+    public List<String> getColumnNames() {
+        List<String> names = new ArrayList<>(columns.size());
+        for (Column column : columns) {
+            names.add(column.getName());
+        }
+        return names;
+    }
+
+    protected StringColumn stringColumn(String name) {
+        return register(new StringColumn(name, capacity));
+    }
+
+    protected SymbolColumn symbolColumn(String name) {
+        return register(new SymbolColumn(name, capacity, symbols));
+    }
+
+    protected IntColumn intColumn(String name) {
+        return register(new IntColumn(name, capacity));
+    }
+
+    protected LongColumn longColumn(String name) {
+        return register(new LongColumn(name, capacity));
+    }
+
+    protected DoubleColumn doubleColumn(String name) {
+        return register(new DoubleColumn(name, capacity));
+    }
+
+    private <C extends Column> C register(C column) {
+        columns.add(column);
+        return column;
+    }
+}
@@ -0,0 +1,51 @@
+package com.histdata.etl.model.batch;
+
+import java.util.Arrays;
+
+/**
+ * Column of DOUBLE values backed by a {@code double[]}.
+ */
+public class DoubleColumn extends Column {
+
+    /** DolphinDB DOUBLE null sentinel. */
+    public static final double NULL_VALUE = -Double.MAX_VALUE;
+
+    private final double[] values;
+
+    public DoubleColumn(String name, int capacity) {
+        super(name, capacity);
+        this.values = new double[capacity];
+        fillNull(0, capacity);
+    }
+
+    public void set(int row, double value) {
+        values[row] = value;
+        markPresent(row);
+    }
+
+    public void set(int row, Double value) {
+        if (value == null) {
+            setNull(row);
+        } else {
+            set(row, value.doubleValue());
+        }
+    }
+
+    public double get(int row) {
+        return values[row];
+    }
+
+    /**
+     * Returns the first {@code size} values; the backing array itself when the batch is full.
+     *
+     * @param size Number of rows
+     */
+    public double[] toArray(int size) {
+        return size == capacity ? values : Arrays.copyOf(values, size);
+    }
+
+    @Override
+    protected void fillNull(int from, int to) {
+        Arrays.fill(values, from, to, NULL_VALUE);
+    }
+}
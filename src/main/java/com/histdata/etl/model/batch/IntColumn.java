@@ -0,0 +1,51 @@
+package com.histdata.etl.model.batch;
+
+import java.util.Arrays;
+
+/**
+ * Column of INT values backed by a {@code int[]}.
+ */
+public class IntColumn extends Column {
+
+    /** DolphinDB INT null sentinel. */
+    public static final int NULL_VALUE = Integer.MIN_VALUE;
+
+    private final int[] values;
+
+    public IntColumn(String name, int capacity) {
+        super(name, capacity);
+        this.values = new int[capacity];
+        fillNull(0, capacity);
+    }
+
+    public void set(int row, int value) {
+        values[row] = value;
+        markPresent(row);
+    }
+
+    public void set(int row, Integer value) {
+        if (value == null) {
+            setNull(row);
+        } else {
+            set(row, value.intValue());
+        }
+    }
+
+    public int get(int row) {
+        return values[row];
+    }
+
+    /**
+     * Returns the first {@code size} values; the backing array itself when the batch is full.
+     *
+     * @param size Number of rows
+     */
+    public int[] toArray(int size) {
+        return size == capacity ? values : Arrays.copyOf(values, size);
+    }
+
+    @Override
+    protected void fillNull(int from, int to) {
+        Arrays.fill(values, from, to, NULL_VALUE);
+    }
+}
@@ -0,0 +1,51 @@
+package com.histdata.etl.model.batch;
+
+import java.util.Arrays;
+
+/**
+ * Column of LONG values backed by a {@code long[]}.
+ */
+public class LongColumn extends Column {
+
+    /** DolphinDB LONG null sentinel. */
+    public static final long NULL_VALUE = Long.MIN_VALUE;
+
+    private final long[] values;
+
+    public LongColumn(String name, int capacity) {
+        super(name, capacity);
+        this.values = new long[capacity];
+        fillNull(0, capacity);
+    }
+
+    public void set(int row, long value) {
+        values[row] = value;
+        markPresent(row);
+    }
+
+    public void set(int row, Long value) {
+        if (value == null) {
+            setNull(row);
+        } else {
+            set(row, value.longValue());
+        }
+    }
+
+    public long get(int row) {
+        return values[row];
+    }
+
+    /**
+     * Returns the first {@code size} values; the backing array itself when the batch is full.
+     *
+     * @param size Number of rows
+     */
+    public long[] toArray(int size) {
+        return size == capacity ? values : Arrays.copyOf(values, size);
+    }
+
+    @Override
+    protected void fillNull(int from, int to) {
+        Arrays.fill(values, from, to, NULL_VALUE);
+    }
+}
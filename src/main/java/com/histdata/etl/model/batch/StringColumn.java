@@ -0,0 +1,47 @@
+package com.histdata.etl.model.batch;
+
+import java.util.Arrays;
+
+/**
+ * Column of STRING/SYMBOL values backed by a {@code String[]}.
+ * Nulls are stored as the empty string, which DolphinDB treats as a null string.
+ */
+public class StringColumn extends Column {
+
+    public static final String NULL_VALUE = "";
+
+    private final String[] values;
+
+    public StringColumn(String name, int capacity) {
+        super(name, capacity);
+        this.values = new String[capacity];
+        fillNull(0, capacity);
+    }
+
+    public void set(int row, String value) {
+        if (value == null) {
+            setNull(row);
+        } else {
+            values[row] = value;
+            markPresent(row);
+        }
+    }
+
+    public String get(int row) {
+        return isNull(row) ? null : values[row];
+    }
+
+    /**
+     * Returns the first {@code size} values; the backing array itself when the batch is full.
+     *
+     * @param size Number of rows
+     */
+    public String[] toArray(int size) {
+        return size == capacity ? values : Arrays.copyOf(values, size);
+    }
+
+    @Override
+    protected void fillNull(int from, int to) {
+        Arrays.fill(values, from, to, NULL_VALUE);
+    }
+}
@@ -0,0 +1,54 @@
+package com.histdata.etl.model.batch;
+
+import java.util.Arrays;
+
+/**
+ * Column of SYMBOL values stored as {@code int} codes of a {@link SymbolDictionary}.
+ * A batch holds one int per row instead of a String reference, and the codes are shipped to DolphinDB
+ * as a symbol vector over a {@link BatchSymbolBase} of the batch's values. Nulls are stored as code 0.
+ */
+public class SymbolColumn extends Column {
+
+    private final int[] codes;
+    private final SymbolDictionary dictionary;
+
+    public SymbolColumn(String name, int capacity, SymbolDictionary dictionary) {
+        super(name, capacity);
+        this.codes = new int[capacity];
+        this.dictionary = dictionary;
+    }
+
+    public void set(int row, String value) {
+        if (value == null) {
+            setNull(row);
+        } else {
+            codes[row] = dictionary.encode(value);
+            markPresent(row);
+        }
+    }
+
+    public String get(int row) {
+        return isNull(row) ? null : dictionary.decode(codes[row]);
+    }
+
+    /**
+     * Returns the dictionary the codes refer to.
+     */
+    public SymbolDictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Returns the first {@code size} codes; the backing array itself when the batch is full.
+     *
+     * @param size Number of rows
+     */
+    public int[] toArray(int size) {
+        return size == capacity ? codes : Arrays.copyOf(codes, size);
+    }
+
+    @Override
+    protected void fillNull(int from, int to) {
+        Arrays.fill(codes, from, to, 0);
+    }
+}
@@ -0,0 +1,79 @@
+package com.histdata.etl.model.batch;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionary of the SYMBOL values seen by a job, mapping each distinct string to a stable int code.
+ * Code 0 is the null (empty) symbol and codes are assigned in first-seen order. Each batch is shipped with a
+ * {@link BatchSymbolBase} of only the codes it uses. Transformers use {@link #intern} so that rows share one
+ * String per distinct value.
+ * Safe for use by concurrent transformers and loaders.
+ */
+public class SymbolDictionary {
+
+    private final ConcurrentHashMap<String, Integer> codes = new ConcurrentHashMap<>();
+    private volatile String[] symbols = new String[16];
+    private volatile int size = 1;
+
+    public SymbolDictionary() {
+        symbols[0] = StringColumn.NULL_VALUE;
+    }
+
+    /**
+     * Returns the code of a value, adding it if it is new; null and the empty string map to 0.
+     *
+     * @param value Symbol value
+     */
+    public int encode(String value) {
+        if (value == null || value.isEmpty()) {
+            return 0;
+        }
+        Integer code = codes.get(value);
+        return code != null ? code : add(value);
+    }
+
+    /**
+     * Returns the value of a code, or null for code 0.
+     *
+     * @param code Code returned by {@link #encode}
+     */
+    public String decode(int code) {
+        return code == 0 ? null : symbols[code];
+    }
+
+    /**
+     * Returns the dictionary's instance of a value, adding it if it is new.
+     *
+     * @param value Symbol value, may be null
+     */
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        return value.isEmpty() ? value : symbols[encode(value)];
+    }
+
+    /**
+     * Returns the number of codes, including the null code.
+     */
+    public int size() {
+        return size;
+    }
+
+    private synchronized int add(String value) {
+        Integer existing = codes.get(value);
+        if (existing != null) {
+            return existing;
+        }
+        int code = size;
+        if (code == symbols.length) {
+            symbols = Arrays.copyOf(symbols, code * 2);
+        }
+        // The symbol is published before its code, so any thread that reads the code can decode it
+        symbols[code] = value;
+        size = code + 1;
+        codes.put(value, code);
+        return code;
+    }
+}
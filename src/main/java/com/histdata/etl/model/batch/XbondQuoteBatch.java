@@ -0,0 +1,323 @@
+package com.histdata.etl.model.batch;
+
+import com.histdata.etl.model.XbondQuoteRecord;
+
+import java.sql.Timestamp;
+
+/**
+ * Columnar batch of XBond Market Quote rows for the xbond_quote_stream_temp table.
+ * Holds primitive columns instead of boxed {@link XbondQuoteRecord} fields.
+ */
+public class XbondQuoteBatch extends ColumnBatch {
+
+    /** Number of depth levels per side. */
+    public static final int LEVELS = 6;
+
+    private final SymbolColumn exchProductId;
+    private final SymbolColumn productType;
+    private final SymbolColumn exchange;
+    private final SymbolColumn source;
+    private final IntColumn settleSpeed;
+    private final SymbolColumn level;
+    private final SymbolColumn status;
+    private final DoubleColumn preClosePrice;
+    private final DoubleColumn preSettlePrice;
+    private final DoubleColumn preInterest;
+    private final DoubleColumn openPrice;
+    private final DoubleColumn highPrice;
+    private final DoubleColumn lowPrice;
+    private final DoubleColumn closePrice;
+    private final DoubleColumn settlePrice;
+    private final DoubleColumn upperLimit;
+    private final DoubleColumn lowerLimit;
+    private final LongColumn totalVolume;
+    private final DoubleColumn totalTurnover;
+    private final LongColumn openInterest;
+    private final DoubleColumn[] bidPrice = new DoubleColumn[LEVELS];
+    private final DoubleColumn[] bidYield = new DoubleColumn[LEVELS];
+    private final SymbolColumn[] bidYieldType = new SymbolColumn[LEVELS];
+    private final LongColumn[] bidTradableVolume = new LongColumn[LEVELS];
+    private final LongColumn[] bidVolume = new LongColumn[LEVELS];
+    private final DoubleColumn[] offerPrice = new DoubleColumn[LEVELS];
+    private final DoubleColumn[] offerYield = new DoubleColumn[LEVELS];
+    private final SymbolColumn[] offerYieldType = new SymbolColumn[LEVELS];
+    private final LongColumn[] offerTradableVolume = new LongColumn[LEVELS];
+    private final LongColumn[] offerVolume = new LongColumn[LEVELS];
+    private final LongColumn eventTime;
+    private final LongColumn receiveTime;
+
+    public XbondQuoteBatch(int capacity) {
+        this(capacity, new SymbolDictionary());
+    }
+
+    /**
+     * Creates a batch whose SYMBOL columns encode values with the given dictionary.
+     *
+     * @param capacity Maximum number of rows
+     * @param symbols Dictionary shared by the batches of a job
+     */
+    public XbondQuoteBatch(int capacity, SymbolDictionary symbols) {
+        super(capacity, symbols);
+        exchProductId = symbolColumn("exchProductId");
+        productType = symbolColumn("productType");
+        exchange = symbolColumn("exchange");
+        source = symbolColumn("source");
+        settleSpeed = intColumn("settleSpeed");
+        level = symbolColumn("level");
+        status = symbolColumn("status");
+        preClosePrice = doubleColumn("preClosePrice");
+        preSettlePrice = doubleColumn("preSettlePrice");
+        preInterest = doubleColumn("preInterest");
+        openPrice = doubleColumn("openPrice");
+        highPrice = doubleColumn("highPrice");
+        lowPrice = doubleColumn("lowPrice");
+        closePrice = doubleColumn("closePrice");
+        settlePrice = doubleColumn("settlePrice");
+        upperLimit = doubleColumn("upperLimit");
+        lowerLimit = doubleColumn("lowerLimit");
+        totalVolume = longColumn("totalVolume");
+        totalTurnover = doubleColumn("totalTurnover");
+        openInterest = longColumn("openInterest");
+        for (int i = 0; i < LEVELS; i++) {
+            bidPrice[i] = doubleColumn("bid" + i + "Price");
+            bidYield[i] = doubleColumn("bid" + i + "Yield");
+            bidYieldType[i] = symbolColumn("bid" + i + "YieldType");
+            bidTradableVolume[i] = longColumn("bid" + i + "TradableVolume");
+            bidVolume[i] = longColumn("bid" + i + "Volume");
+            offerPrice[i] = doubleColumn("offer" + i + "Price");
+            offerYield[i] = doubleColumn("offer" + i + "Yield");
+            offerYieldType[i] = symbolColumn("offer" + i + "YieldType");
+            offerTradableVolume[i] = longColumn("offer" + i + "TradableVolume");
+            offerVolume[i] = longColumn("offer" + i + "Volume");
+        }
+        eventTime = longColumn("eventTime");
+        receiveTime = longColumn("receiveTime");
+    }
+
+    /**
+     * Appends a row for the given product with the same defaults as {@link XbondQuoteRecord}.
+     *
+     * @param exchProductId Exchange product ID
+     * @return Index of the new row
+     */
+    public int addRow(String exchProductId) {
+        int row = addRow();
+        this.exchProductId.set(row, exchProductId);
+        productType.set(row, XbondQuoteRecord.DEFAULT_PRODUCT_TYPE);
+        exchange.set(row, XbondQuoteRecord.DEFAULT_EXCHANGE);
+        source.set(row, XbondQuoteRecord.DEFAULT_SOURCE);
+        level.set(row, XbondQuoteRecord.DEFAULT_LEVEL);
+        status.set(row, XbondQuoteRecord.DEFAULT_STATUS);
+        settleSpeed.set(row, 0);
+        return row;
+    }
+
+    /**
+     * Appends a transformed record as a new row.
+     *
+     * @param record Record to copy
+     * @return Index of the new row
+     */
+    public int append(XbondQuoteRecord record) {
+        int row = addRow();
+        exchProductId.set(row, record.getExchProductId());
+        productType.set(row, record.getProductType());
+        exchange.set(row, record.getExchange());
+        source.set(row, record.getSource());
+        settleSpeed.set(row, record.getSettleSpeed());
+        level.set(row, record.getLevel());
+        status.set(row, record.getStatus());
+        preClosePrice.set(row, record.getPreClosePrice());
+        preSettlePrice.set(row, record.getPreSettlePrice());
+        preInterest.set(row, record.getPreInterest());
+        openPrice.set(row, record.getOpenPrice());
+        highPrice.set(row, record.getHighPrice());
+        lowPrice.set(row, record.getLowPrice());
+        closePrice.set(row, record.getClosePrice());
+        settlePrice.set(row, record.getSettlePrice());
+        upperLimit.set(row, record.getUpperLimit());
+        lowerLimit.set(row, record.getLowerLimit());
+        totalVolume.set(row, record.getTotalVolume());
+        totalTurnover.set(row, record.getTotalTurnover());
+        openInterest.set(row, record.getOpenInterest());
+        setBid(row, 0, record.getBid0Price(), record.getBid0Yield(), record.getBid0YieldType(), record.getBid0TradableVolume(), record.getBid0Volume());
+        setOffer(row, 0, record.getOffer0Price(), record.getOffer0Yield(), record.getOffer0YieldType(), record.getOffer0TradableVolume(), record.getOffer0Volume());
+        setBid(row, 1, record.getBid1Price(), record.getBid1Yield(), record.getBid1YieldType(), record.getBid1TradableVolume(), record.getBid1Volume());
+        setOffer(row, 1, record.getOffer1Price(), record.getOffer1Yield(), record.getOffer1YieldType(), record.getOffer1TradableVolume(), record.getOffer1Volume());
+        setBid(row, 2, record.getBid2Price(), record.getBid2Yield(), record.getBid2YieldType(), record.getBid2TradableVolume(), record.getBid2Volume());
+        setOffer(row, 2, record.getOffer2Price(), record.getOffer2Yield(), record.getOffer2YieldType(), record.getOffer2TradableVolume(), record.getOffer2Volume());
+        setBid(row, 3, record.getBid3Price(), record.getBid3Yield(), record.getBid3YieldType(), record.getBid3TradableVolume(), record.getBid3Volume());
+        setOffer(row, 3, record.getOffer3Price(), record.getOffer3Yield(), record.getOffer3YieldType(), record.getOffer3TradableVolume(), record.getOffer3Volume());
+        setBid(row, 4, record.getBid4Price(), record.getBid4Yield(), record.getBid4YieldType(), record.getBid4TradableVolume(), record.getBid4Volume());
+        setOffer(row, 4, record.getOffer4Price(), record.getOffer4Yield(), record.getOffer4YieldType(), record.getOffer4TradableVolume(), record.getOffer4Volume());
+        setBid(row, 5, record.getBid5Price(), record.getBid5Yield(), record.getBid5YieldType(), record.getBid5TradableVolume(), record.getBid5Volume());
+        setOffer(row, 5, record.getOffer5Price(), record.getOffer5Yield(), record.getOffer5YieldType(), record.getOffer5TradableVolume(), record.getOffer5Volume());
+        setTimestamp(eventTime, row, record.getEventTime());
+        setTimestamp(receiveTime, row, record.getReceiveTime());
+        return row;
+    }
+
+    /**
+     * Writes one bid depth level of a row.
+     *
+     * @param row Row index
+     * @param level Depth level, 0 to {@link #LEVELS} - 1
+     */
+    public void setBid(int row, int level, Double price, Double yield, String yieldType, Long tradableVolume, Long volume) {
+        bidPrice[level].set(row, price);
+        bidYield[level].set(row, yield);
+        bidYieldType[level].set(row, yieldType);
+        bidTradableVolume[level].set(row, tradableVolume);
+        bidVolume[level].set(row, volume);
+    }
+
+    /**
+     * Writes one offer depth level of a row.
+     *
+     * @param row Row index
+     * @param level Depth level, 0 to {@link #LEVELS} - 1
+     */
+    public void setOffer(int row, int level, Double price, Double yield, String yieldType, Long tradableVolume, Long volume) {
+        offerPrice[level].set(row, price);
+        offerYield[level].set(row, yield);
+        offerYieldType[level].set(row, yieldType);
+        offerTradableVolume[level].set(row, tradableVolume);
+        offerVolume[level].set(row, volume);
+    }
+
+    public SymbolColumn getExchProductId() {
+        return exchProductId;
+    }
+
+    public SymbolColumn getProductType() {
+        return productType;
+    }
+
+    public SymbolColumn getExchange() {
+        return exchange;
+    }
+
+    public SymbolColumn getSource() {
+        return source;
+    }
+
+    public IntColumn getSettleSpeed() {
+        return settleSpeed;
+    }
+
+    public SymbolColumn getLevel() {
+        return level;
+    }
+
+    public SymbolColumn getStatus() {
+        return status;
+    }
+
+    public DoubleColumn getPreClosePrice() {
+        return preClosePrice;
+    }
+
+    public DoubleColumn getPreSettlePrice() {
+        return preSettlePrice;
+    }
+
+    public DoubleColumn getPreInterest() {
+        return preInterest;
+    }
+
+    public DoubleColumn getOpenPrice() {
+        return openPrice;
+    }
+
+    public DoubleColumn getHighPrice() {
+        return highPrice;
+    }
+
+    public DoubleColumn getLowPrice() {
+        return lowPrice;
+    }
+
+    public DoubleColumn getClosePrice() {
+        return closePrice;
+    }
+
+    public DoubleColumn getSettlePrice() {
+        return settlePrice;
+    }
+
+    public DoubleColumn getUpperLimit() {
+        return upperLimit;
+    }
+
+    public DoubleColumn getLowerLimit() {
+        return lowerLimit;
+    }
+
+    public LongColumn getTotalVolume() {
+        return totalVolume;
+    }
+
+    public DoubleColumn getTotalTurnover() {
+        return totalTurnover;
+    }
+
+    public LongColumn getOpenInterest() {
+        return openInterest;
+    }
+
+    public DoubleColumn getBidPrice(int level) {
+        return bidPrice[level];
+    }
+
+    public DoubleColumn getBidYield(int level) {
+        return bidYield[level];
+    }
+
+    public SymbolColumn getBidYieldType(int level) {
+        return bidYieldType[level];
+    }
+
+    public LongColumn getBidTradableVolume(int level) {
+        return bidTradableVolume[level];
+    }
+
+    public LongColumn getBidVolume(int level) {
+        return bidVolume[level];
+    }
+
+    public DoubleColumn getOfferPrice(int level) {
+        return offerPrice[level];
+    }
+
+    public DoubleColumn getOfferYield(int level) {
+        return offerYield[level];
+    }
+
+    public SymbolColumn getOfferYieldType(int level) {
+        return offerYieldType[level];
+    }
+
+    public LongColumn getOfferTradableVolume(int level) {
+        return offerTradableVolume[level];
+    }
+
+    public LongColumn getOfferVolume(int level) {
+        return offerVolume[level];
+    }
+
+    public LongColumn getEventTime() {
+        return eventTime;
+    }
+
+    public LongColumn getReceiveTime() {
+        return receiveTime;
+    }
+
+    private static void setTimestamp(LongColumn column, int row, Timestamp value) {
+        if (value == null) {
+            column.setNull(row);
+        } else {
+            column.set(row, value.getTime());
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.histdata.etl.model.batch;
+
+import com.histdata.etl.model.XbondTradeRecord;
+
+import java.sql.Timestamp;
+
+/**
+ * Columnar batch of XBond Trade rows for the xbond_trade_stream_temp table.
+ * Holds primitive columns instead of boxed {@link XbondTradeRecord} fields.
+ */
+public class XbondTradeBatch extends ColumnBatch {
+
+    private final SymbolColumn exchProductId;
+    private final SymbolColumn productType;
+    private final SymbolColumn exchange;
+    private final SymbolColumn source;
+    private final IntColumn settleSpeed;
+    private final DoubleColumn lastTradePrice;
+    private final DoubleColumn lastTradeYield;
+    private final SymbolColumn lastTradeYieldType;
+    private final LongColumn lastTradeVolume;
+    private final DoubleColumn lastTradeTurnover;
+    private final DoubleColumn lastTradeInterest;
+    private final SymbolColumn lastTradeSide;
+    private final LongColumn eventTime;
+    private final LongColumn receiveTime;
+
+    public XbondTradeBatch(int capacity) {
+        this(capacity, new SymbolDictionary());
+    }
+
+    /**
+     * Creates a batch whose SYMBOL columns encode values with the given dictionary.
+     *
+     * @param capacity Maximum number of rows
+     * @param symbols Dictionary shared by the batches of a job
+     */
+    public XbondTradeBatch(int capacity, SymbolDictionary symbols) {
+        super(capacity, symbols);
+        exchProductId = symbolColumn("exchProductId");
+        productType = symbolColumn("productType");
+        exchange = symbolColumn("exchange");
+        source = symbolColumn("source");
+        settleSpeed = intColumn("settleSpeed");
+        lastTradePrice = doubleColumn("lastTradePrice");
+        lastTradeYield = doubleColumn("lastTradeYield");
+        lastTradeYieldType = symbolColumn("lastTradeYieldType");
+        lastTradeVolume = longColumn("lastTradeVolume");
+        lastTradeTurnover = doubleColumn("lastTradeTurnover");
+        lastTradeInterest = doubleColumn("lastTradeInterest");
+        lastTradeSide = symbolColumn("lastTradeSide");
+        eventTime = longColumn("eventTime");
+        receiveTime = longColumn("receiveTime");
+    }
+
+    /**
+     * Appends a row for the given product with the same defaults as {@link XbondTradeRecord}.
+     *
+     * @param exchProductId Exchange product ID
+     * @return Index of the new row
+     */
+    public int addRow(String exchProductId) {
+        int row = addRow();
+        this.exchProductId.set(row, exchProductId);
+        productType.set(row, XbondTradeRecord.DEFAULT_PRODUCT_TYPE);
+        exchange.set(row, XbondTradeRecord.DEFAULT_EXCHANGE);
+        source.set(row, XbondTradeRecord.DEFAULT_SOURCE);
+        settleSpeed.set(row, 0);
+        return row;
+    }
+
+    /**
+     * Appends a transformed record as a new row.
+     *
+     * @param record Record to copy
+     * @return Index of the new row
+     */
+    public int append(XbondTradeRecord record) {
+        int row = addRow();
+        exchProductId.set(row, record.getExchProductId());
+        productType.set(row, record.getProductType());
+        exchange.set(row, record.getExchange());
+        source.set(row, record.getSource());
+        settleSpeed.set(row, record.getSettleSpeed());
+        lastTradePrice.set(row, record.getLastTradePrice());
+        lastTradeYield.set(row, record.getLastTradeYield());
+        lastTradeYieldType.set(row, record.getLastTradeYieldType());
+        lastTradeVolume.set(row, record.getLastTradeVolume());
+        lastTradeTurnover.set(row, record.getLastTradeTurnover());
+        lastTradeInterest.set(row, record.getLastTradeInterest());
+        lastTradeSide.set(row, record.getLastTradeSide());
+        setTimestamp(eventTime, row, record.getEventTime());
+        setTimestamp(receiveTime, row, record.getReceiveTime());
+        return row;
+    }
+
+    public SymbolColumn getExchProductId() {
+        return exchProductId;
+    }
+
+    public SymbolColumn getProductType() {
+        return productType;
+    }
+
+    public SymbolColumn getExchange() {
+        return exchange;
+    }
+
+    public SymbolColumn getSource() {
+        return source;
+    }
+
+    public IntColumn getSettleSpeed() {
+        return settleSpeed;
+    }
+
+    public DoubleColumn getLastTradePrice() {
+        return lastTradePrice;
+    }
+
+    public DoubleColumn getLastTradeYield() {
+        return lastTradeYield;
+    }
+
+    public SymbolColumn getLastTradeYieldType() {
+        return lastTradeYieldType;
+    }
+
+    public LongColumn getLastTradeVolume() {
+        return lastTradeVolume;
+    }
+
+    public DoubleColumn getLastTradeTurnover() {
+        return lastTradeTurnover;
+    }
+
+    public DoubleColumn getLastTradeInterest() {
+        return lastTradeInterest;
+    }
+
+    public SymbolColumn getLastTradeSide() {
+        return lastTradeSide;
+    }
+
+    public LongColumn getEventTime() {
+        return eventTime;
+    }
+
+    public LongColumn getReceiveTime() {
+        return receiveTime;
+    }
+
+    private static void setTimestamp(LongColumn column, int row, Timestamp value) {
+        if (value == null) {
+            column.setNull(row);
+        } else {
+            column.set(row, value.getTime());
+        }
+    }
+}
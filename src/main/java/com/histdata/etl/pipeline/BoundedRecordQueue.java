@@ -0,0 +1,143 @@
+package com.histdata.etl.pipeline;
+
+import com.histdata.etl.exception.ExtractionException;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Bounded hand-off queue between two pipeline stages.
+ * The producer blocks once the queue is full, which keeps memory flat regardless of day size.
+ * End of stream and producer failures are signalled in-band so the consumer sees them in order.
+ */
+public class BoundedRecordQueue<T> implements RecordSink<T> {
+
+    private static final Object END = new Object();
+
+    private final String name;
+    private final BlockingQueue<Object> queue;
+    private volatile Throwable failure;
+    private boolean finished;
+
+    /**
+     * Creates a queue with the given capacity.
+     *
+     * @param name Stage name used in error messages
+     * @param capacity Maximum number of buffered records
+     */
+    public BoundedRecordQueue(String name, int capacity) {
+        this.name = name;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Enqueues a record, blocking while the queue is full.
+     */
+    @Override
+    public void accept(T record) throws InterruptedException {
+        queue.put(record);
+    }
+
+    /**
+     * Signals that the producer has emitted all records.
+     */
+    public void close() throws InterruptedException {
+        queue.put(END);
+    }
+
+    /**
+     * Signals that the producer failed. The consumer rethrows the cause once it reaches the end marker.
+     *
+     * @param cause Producer failure
+     */
+    public void fail(Throwable cause) {
+        failure = cause;
+        if (!queue.offer(END)) {
+            // The day is failing anyway; drop buffered records so the end marker never blocks.
+            queue.clear();
+            queue.offer(END);
+        }
+    }
+
+    /**
+     * Takes the next record, blocking until one is available.
+     *
+     * @return Next record, or null once the producer has finished
+     * @throws ExtractionException if the producer failed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    @SuppressWarnings("unchecked")
+    public T take() throws InterruptedException {
+        if (finished) {
+            return null;
+        }
+        Object item = queue.take();
+        if (item == END) {
+            finished = true;
+            checkFailure();
+            return null;
+        }
+        return (T) item;
+    }
+
+    /**
+     * Returns a blocking iterator over the remaining records.
+     * Producer failures and interrupts surface as {@link ExtractionException}.
+     *
+     * @return Iterator that ends when the producer closes the queue
+     */
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private T next;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null && !finished) {
+                    try {
+                        next = take();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new ExtractionException("Interrupted while reading pipeline stage '" + name + "'", e);
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                T record = next;
+                next = null;
+                return record;
+            }
+        };
+    }
+
+    /**
+     * Returns true once the consumer has reached the end of the stream.
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Returns the number of records currently buffered.
+     */
+    public int size() {
+        return queue.size();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private void checkFailure() {
+        if (failure != null) {
+            throw new ExtractionException("Pipeline stage '" + name + "' failed: " + failure.getMessage(), failure);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.histdata.etl.pipeline;
+
+import com.histdata.etl.util.MemoryBudget;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToLongFunction;
+
+/**
+ * Runs the business days of a job with bounded concurrency.
+ * Days are admitted in date order once a worker is free and the day's memory estimate fits the budget.
+ * Estimates are made per day just before admission, so they can reflect the size of each day's sources.
+ * After the first failure no further day is admitted; days already running are allowed to finish
+ * and the first failure is rethrown.
+ */
+public class DayScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(DayScheduler.class);
+
+    /**
+     * Processing of one business day.
+     */
+    public interface DayTask {
+        void process(LocalDate businessDate) throws Exception;
+    }
+
+    private final int parallelDays;
+    private final MemoryBudget budget;
+    private final ToLongFunction<LocalDate> dayEstimator;
+
+    /**
+     * Creates a scheduler reserving the same estimate for every day.
+     *
+     * @param parallelDays Maximum number of days processed at once
+     * @param budget Memory budget shared by running days
+     * @param dayBytes Estimated heap needed by one day
+     */
+    public DayScheduler(int parallelDays, MemoryBudget budget, long dayBytes) {
+        this(parallelDays, budget, date -> dayBytes);
+    }
+
+    /**
+     * Creates a scheduler.
+     *
+     * @param parallelDays Maximum number of days processed at once
+     * @param budget Memory budget shared by running days
+     * @param dayEstimator Estimated heap needed by a day, called once per day before it is admitted
+     */
+    public DayScheduler(int parallelDays, MemoryBudget budget, ToLongFunction<LocalDate> dayEstimator) {
+        if (parallelDays < 1) {
+            throw new IllegalArgumentException("parallelDays must be positive: " + parallelDays);
+        }
+        this.parallelDays = parallelDays;
+        this.budget = budget;
+        this.dayEstimator = dayEstimator;
+    }
+
+    /**
+     * Processes the given days. With a single worker the days run on the calling thread.
+     *
+     * @param dates Business dates in processing order
+     * @param task Processing of one day
+     * @throws Exception the first failure of any day
+     */
+    public void run(List<LocalDate> dates, DayTask task) throws Exception {
+        if (parallelDays == 1) {
+            for (LocalDate date : dates) {
+                long reserved = budget.acquire(dayEstimator.applyAsLong(date));
+                try {
+                    task.process(date);
+                } finally {
+                    budget.release(reserved);
+                }
+            }
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelDays, new DayThreadFactory());
+        Semaphore workers = new Semaphore(parallelDays);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        try {
+            for (LocalDate date : dates) {
+                workers.acquire();
+                long reserved;
+                try {
+                    reserved = failure.get() == null ? budget.acquire(dayEstimator.applyAsLong(date)) : -1;
+                } catch (InterruptedException e) {
+                    workers.release();
+                    throw e;
+                }
+                if (reserved < 0 || failure.get() != null) {
+                    if (reserved >= 0) {
+                        budget.release(reserved);
+                    }
+                    workers.release();
+                    logger.warn("Not starting {} and later days after a failure", date);
+                    break;
+                }
+
+                logger.debug("Admitted {} ({} of {} MB memory budget reserved)", date,
+                        budget.getReservedBytes() / 1024 / 1024, budget.getCapacityBytes() / 1024 / 1024);
+                executor.execute(() -> {
+                    try {
+                        task.process(date);
+                    } catch (Throwable t) {
+                        if (!failure.compareAndSet(null, t)) {
+                            failure.get().addSuppressed(t);
+                        }
+                        logger.error("Processing of {} failed: {}", date, t.getMessage());
+                    } finally {
+                        budget.release(reserved);
+                        workers.release();
+                    }
+                });
+            }
+
+            executor.shutdown();
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                logger.debug("Waiting for running days to finish");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Throwable t = failure.get();
+        if (t instanceof Exception) {
+            throw (Exception) t;
+        } else if (t instanceof Error) {
+            throw (Error) t;
+        }
+    }
+
+    private static final class DayThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            return new Thread(r, "etl-day-" + counter.incrementAndGet());
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.histdata.etl.pipeline;
+
+import com.histdata.etl.metrics.Counter;
+import com.histdata.etl.metrics.EtlMetrics;
+import com.histdata.etl.metrics.Histogram;
+import com.histdata.etl.model.TimestampedRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Sorts the records of one source by receive time, spilling sorted runs to disk when the heap fills up.
+ * Records are buffered until the buffer holds {@code maxRunRecords} records or, once it holds at least
+ * {@link #MIN_RUN_RECORDS}, the heap is under pressure. The buffer is then
+ * sorted and written to a run file through the source's {@link RecordCodec}. {@link #sorted} merges the runs
+ * and the records still buffered with a {@link SortedRunMerger}, reading each run sequentially, so a source of
+ * any size is sorted with a bounded heap. The sort is stable, so the order is the same as sorting all records
+ * in memory. Without a spill directory nothing is spilled. Records are accepted from one thread at a time.
+ *
+ * @param <T> Record type
+ */
+public class ExternalSorter<T extends TimestampedRecord> implements RecordSink<T>, Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(ExternalSorter.class);
+
+    static final int MAX_RUN_RECORDS = 2_000_000;
+    static final int MIN_RUN_RECORDS = 50_000;
+    private static final int PRESSURE_CHECK_INTERVAL = 4096;
+    private static final int IO_BUFFER_SIZE = 1 << 16;
+    private static final Comparator<TimestampedRecord> BY_RECEIVE_TIME =
+            Comparator.comparingLong(TimestampedRecord::receiveTimeMillis);
+    private static final Histogram.Child MEMORY_SORT_SECONDS = EtlMetrics.SORT_SECONDS.labels("memory");
+    private static final Histogram.Child SPILL_SECONDS = EtlMetrics.SORT_SECONDS.labels("spill");
+    private static final Counter.Child SPILLED_RECORDS = EtlMetrics.SPILLED_RECORDS.labels();
+
+    private final String name;
+    private final RecordCodec<T> codec;
+    private final Path directory;
+    private final int maxRunRecords;
+    private final BooleanSupplier memoryPressure;
+    private final List<SpilledRun> runs = new ArrayList<>();
+    private final List<RunReader> readers = new ArrayList<>();
+    private List<T> buffer = new ArrayList<>();
+    private long size;
+
+    /**
+     * Creates a sorter that keeps every record in memory.
+     *
+     * @param name Source name, used in logs and run file names
+     */
+    public ExternalSorter(String name) {
+        this(name, null, null, Integer.MAX_VALUE, () -> false);
+    }
+
+    /**
+     * Creates a sorter that spills runs to a directory when the heap fills up.
+     *
+     * @param name Source name, used in logs and run file names
+     * @param codec Binary form of the records
+     * @param directory Directory of the run files
+     * @param memoryPressure Returns true while the heap is under pressure
+     */
+    public ExternalSorter(String name, RecordCodec<T> codec, Path directory, BooleanSupplier memoryPressure) {
+        this(name, codec, directory, MAX_RUN_RECORDS, memoryPressure);
+    }
+
+    ExternalSorter(String name, RecordCodec<T> codec, Path directory, int maxRunRecords, BooleanSupplier memoryPressure) {
+        this.name = name;
+        this.codec = codec;
+        this.directory = directory;
+        this.maxRunRecords = maxRunRecords;
+        this.memoryPressure = memoryPressure;
+    }
+
+    @Override
+    public void accept(T record) throws IOException {
+        buffer.add(record);
+        size++;
+        if (directory == null) {
+            return;
+        }
+        int buffered = buffer.size();
+        if (buffered >= maxRunRecords
+                || (buffered >= MIN_RUN_RECORDS && buffered % PRESSURE_CHECK_INTERVAL == 0 && memoryPressure.getAsBoolean())) {
+            spill();
+        }
+    }
+
+    /**
+     * Returns the number of records accepted.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of runs spilled to disk.
+     */
+    public int getSpilledRuns() {
+        return runs.size();
+    }
+
+    /**
+     * Returns the accepted records in receive-time order. Run files are read as the iterator advances and
+     * stay open until the sorter is closed.
+     *
+     * @throws IOException if a run cannot be opened
+     */
+    public Iterator<T> sorted() throws IOException {
+        long started = System.nanoTime();
+        buffer.sort(BY_RECEIVE_TIME);
+        MEMORY_SORT_SECONDS.observeSince(started);
+        if (runs.isEmpty()) {
+            return buffer.iterator();
+        }
+        List<Iterator<T>> sources = new ArrayList<>(runs.size() + 1);
+        for (SpilledRun run : runs) {
+            RunReader reader = new RunReader(run);
+            readers.add(reader);
+            sources.add(reader);
+        }
+        // The buffered records came last, so merging them as the last run keeps the sort stable
+        sources.add(buffer.iterator());
+        return new SortedRunMerger<>(sources, TimestampedRecord::receiveTimeMillis);
+    }
+
+    /**
+     * Closes the open runs and deletes the run files.
+     */
+    @Override
+    public void close() {
+        for (RunReader reader : readers) {
+            reader.close();
+        }
+        readers.clear();
+        for (SpilledRun run : runs) {
+            try {
+                Files.deleteIfExists(run.file);
+            } catch (IOException e) {
+                logger.warn("Failed to delete spilled run {}: {}", run.file, e.getMessage());
+            }
+        }
+        runs.clear();
+        buffer = new ArrayList<>();
+    }
+
+    private void spill() throws IOException {
+        buffer.sort(BY_RECEIVE_TIME);
+        Path file = Files.createTempFile(directory, name + "-", ".run");
+        long start = System.nanoTime();
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(file), IO_BUFFER_SIZE))) {
+            for (T record : buffer) {
+                codec.write(out, record);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        runs.add(new SpilledRun(file, buffer.size()));
+        SPILL_SECONDS.observeSince(start);
+        SPILLED_RECORDS.inc(buffer.size());
+        logger.info("Spilled {} {} records to {} in {} ms", buffer.size(), name, file,
+                (System.nanoTime() - start) / 1_000_000);
+        // A new list lets the old backing array be collected along with the records
+        buffer = new ArrayList<>();
+    }
+
+    private static final class SpilledRun {
+        private final Path file;
+        private final int records;
+
+        SpilledRun(Path file, int records) {
+            this.file = file;
+            this.records = records;
+        }
+    }
+
+    private final class RunReader implements Iterator<T> {
+        private final DataInputStream in;
+        private int remaining;
+
+        RunReader(SpilledRun run) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run.file), IO_BUFFER_SIZE));
+            this.remaining = run.records;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public T next() {
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            try {
+                T record = codec.read(in);
+                if (--remaining == 0) {
+                    close();
+                }
+                return record;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read spilled " + name + " run", e);
+            }
+        }
+
+        void close() {
+            try {
+                in.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close spilled {} run: {}", name, e.getMessage());
+            }
+        }
+    }
+}
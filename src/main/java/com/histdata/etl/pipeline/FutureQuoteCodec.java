@@ -0,0 +1,133 @@
+package com.histdata.etl.pipeline;
+
+import com.histdata.etl.model.FutureQuoteRecord;
+import com.histdata.etl.model.batch.SymbolDictionary;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Spill form of {@link FutureQuoteRecord}: every field in declaration order, depth levels included.
+ */
+public class FutureQuoteCodec extends RecordCodec<FutureQuoteRecord> {
+
+    public FutureQuoteCodec(SymbolDictionary symbols) {
+        super(symbols);
+    }
+
+    @Override
+    public void write(DataOutput out, FutureQuoteRecord record) throws IOException {
+        writeDate(out, record.getBusinessDate());
+        writeString(out, record.getExchProductId());
+        writeString(out, record.getProductType());
+        writeString(out, record.getExchange());
+        writeString(out, record.getSource());
+        out.writeInt(record.getSettleSpeed());
+        writeString(out, record.getLevel());
+        writeString(out, record.getStatus());
+        writeDouble(out, record.getPreClosePrice());
+        writeDouble(out, record.getPreSettlePrice());
+        writeLong(out, record.getPreInterest());
+        writeDouble(out, record.getOpenPrice());
+        writeDouble(out, record.getHighPrice());
+        writeDouble(out, record.getLowPrice());
+        writeDouble(out, record.getClosePrice());
+        writeDouble(out, record.getSettlePrice());
+        writeDouble(out, record.getUpperLimit());
+        writeDouble(out, record.getLowerLimit());
+        writeLong(out, record.getTotalVolume());
+        writeDouble(out, record.getTotalTurnover());
+        writeLong(out, record.getOpenInterest());
+        writeDouble(out, record.getBid0Price());
+        writeLong(out, record.getBid0TradableVolume());
+        writeLong(out, record.getBid0Volume());
+        writeDouble(out, record.getBid1Price());
+        writeLong(out, record.getBid1TradableVolume());
+        writeLong(out, record.getBid1Volume());
+        writeDouble(out, record.getBid2Price());
+        writeLong(out, record.getBid2TradableVolume());
+        writeLong(out, record.getBid2Volume());
+        writeDouble(out, record.getBid3Price());
+        writeLong(out, record.getBid3TradableVolume());
+        writeLong(out, record.getBid3Volume());
+        writeDouble(out, record.getBid4Price());
+        writeLong(out, record.getBid4TradableVolume());
+        writeLong(out, record.getBid4Volume());
+        writeDouble(out, record.getOffer0Price());
+        writeLong(out, record.getOffer0TradableVolume());
+        writeLong(out, record.getOffer0Volume());
+        writeDouble(out, record.getOffer1Price());
+        writeLong(out, record.getOffer1TradableVolume());
+        writeLong(out, record.getOffer1Volume());
+        writeDouble(out, record.getOffer2Price());
+        writeLong(out, record.getOffer2TradableVolume());
+        writeLong(out, record.getOffer2Volume());
+        writeDouble(out, record.getOffer3Price());
+        writeLong(out, record.getOffer3TradableVolume());
+        writeLong(out, record.getOffer3Volume());
+        writeDouble(out, record.getOffer4Price());
+        writeLong(out, record.getOffer4TradableVolume());
+        writeLong(out, record.getOffer4Volume());
+        writeTimestamp(out, record.getEventTime());
+        writeTimestamp(out, record.getReceiveTime());
+    }
+
+    @Override
+    public FutureQuoteRecord read(DataInput in) throws IOException {
+        FutureQuoteRecord record = new FutureQuoteRecord(readDate(in), readString(in));
+        record.setProductType(readString(in));
+        record.setExchange(readString(in));
+        record.setSource(readString(in));
+        record.setSettleSpeed(in.readInt());
+        record.setLevel(readString(in));
+        record.setStatus(readString(in));
+        record.setPreClosePrice(readDouble(in));
+        record.setPreSettlePrice(readDouble(in));
+        record.setPreInterest(readLong(in));
+        record.setOpenPrice(readDouble(in));
+        record.setHighPrice(readDouble(in));
+        record.setLowPrice(readDouble(in));
+        record.setClosePrice(readDouble(in));
+        record.setSettlePrice(readDouble(in));
+        record.setUpperLimit(readDouble(in));
+        record.setLowerLimit(readDouble(in));
+        record.setTotalVolume(readLong(in));
+        record.setTotalTurnover(readDouble(in));
+        record.setOpenInterest(readLong(in));
+        record.setBid0Price(readDouble(in));
+        record.setBid0TradableVolume(readLong(in));
+        record.setBid0Volume(readLong(in));
+        record.setBid1Price(readDouble(in));
+        record.setBid1TradableVolume(readLong(in));
+        record.setBid1Volume(readLong(in));
+        record.setBid2Price(readDouble(in));
+        record.setBid2TradableVolume(readLong(in));
+        record.setBid2Volume(readLong(in));
+        record.setBid3Price(readDouble(in));
+        record.setBid3TradableVolume(readLong(in));
+        record.setBid3Volume(readLong(in));
+        record.setBid4Price(readDouble(in));
+        record.setBid4TradableVolume(readLong(in));
+        record.setBid4Volume(readLong(in));
+        record.setOffer0Price(readDouble(in));
+        record.setOffer0TradableVolume(readLong(in));
+        record.setOffer0Volume(readLong(in));
+        record.setOffer1Price(readDouble(in));
+        record.setOffer1TradableVolume(readLong(in));
+        record.setOffer1Volume(readLong(in));
+        record.setOffer2Price(readDouble(in));
+        record.setOffer2TradableVolume(readLong(in));
+        record.setOffer2Volume(readLong(in));
+        record.setOffer3Price(readDouble(in));
+        record.setOffer3TradableVolume(readLong(in));
+        record.setOffer3Volume(readLong(in));
+        record.setOffer4Price(readDouble(in));
+        record.setOffer4TradableVolume(readLong(in));
+        record.setOffer4Volume(readLong(in));
+        record.setEventTime(readTimestamp(in));
+        // Setters that only accept a listed value are skipped for null, which is already the field's value
+        record.setReceiveTime(readTimestamp(in));
+        return record;
+    }
+}
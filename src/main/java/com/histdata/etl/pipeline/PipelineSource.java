@@ -0,0 +1,101 @@
+package com.histdata.etl.pipeline;
+
+import com.histdata.etl.datasource.DataSourceExtractor;
+import com.histdata.etl.transformer.DataTransformer;
+import com.histdata.etl.transformer.RejectSink;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One extract-and-transform stage of the streaming pipeline.
+ * Raw records are transformed as soon as the extractor emits them; rows that fail to
+ * transform are reported to the reject sink and skipped, matching the in-memory path. Once the stream ends the
+ * transformer is asked for any record it was still assembling.
+ */
+public class PipelineSource<R> {
+    private static final Logger logger = LoggerFactory.getLogger(PipelineSource.class);
+
+    private final String name;
+    private final DataSourceExtractor<R> extractor;
+    private final DataTransformer<?> transformer;
+    private final RejectSink rejects;
+
+    private LongAdder progress = new LongAdder();
+    private long transformed;
+    private long rejected;
+
+    public PipelineSource(String name, DataSourceExtractor<R> extractor, DataTransformer<?> transformer) {
+        this(name, extractor, transformer, RejectSink.LOGGING);
+    }
+
+    public PipelineSource(String name, DataSourceExtractor<R> extractor, DataTransformer<?> transformer, RejectSink rejects) {
+        this.name = name;
+        this.extractor = extractor;
+        this.transformer = transformer;
+        this.rejects = rejects;
+        transformer.setRejectSink(rejects);
+    }
+
+    /**
+     * Extracts and transforms all records for the business date into the sink.
+     * The extractor is closed when the stream ends.
+     *
+     * @param businessDate Business date to process
+     * @param sink Downstream stage
+     * @return Number of transformed records emitted
+     * @throws Exception if extraction fails
+     */
+    public long produce(LocalDate businessDate, RecordSink<Object> sink) throws Exception {
+        try {
+            extractor.stream(businessDate, raw -> {
+                Object record;
+                try {
+                    record = transformer.transform(raw, businessDate);
+                } catch (Exception e) {
+                    rejected++;
+                    rejects.reject(name, RejectSink.reason(e), raw);
+                    return;
+                }
+                if (record != null) {
+                    transformed++;
+                    progress.increment();
+                    sink.accept(record);
+                }
+            });
+        } finally {
+            extractor.close();
+        }
+        Object last = transformer.finish(businessDate);
+        if (last != null) {
+            transformed++;
+            progress.increment();
+            sink.accept(last);
+        }
+        logger.info("Streamed {} {} records ({} rejected)", transformed, name, rejected);
+        return transformed;
+    }
+
+    /**
+     * Sets a counter incremented for every transformed record, which progress reporting reads concurrently.
+     *
+     * @param progress Counter shared with the progress reporter
+     */
+    public void setProgressCounter(LongAdder progress) {
+        this.progress = progress;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getTransformed() {
+        return transformed;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+}
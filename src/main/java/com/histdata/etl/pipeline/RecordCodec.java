@@ -0,0 +1,109 @@
+package com.histdata.etl.pipeline;
+
+import com.histdata.etl.model.batch.SymbolDictionary;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.sql.Date;
+import java.sql.Timestamp;
+
+/**
+ * Binary form of a transformed record in a spilled run of an {@link ExternalSorter}.
+ * Strings are written as codes of the job's {@link SymbolDictionary}, so a record costs a few bytes per
+ * symbol and records read back share the dictionary's String instances. A nullable number is a presence
+ * byte followed by the value when present.
+ *
+ * @param <T> Record type
+ */
+public abstract class RecordCodec<T> {
+
+    private static final int NULL_STRING = -1;
+
+    private final SymbolDictionary symbols;
+
+    protected RecordCodec(SymbolDictionary symbols) {
+        this.symbols = symbols;
+    }
+
+    /**
+     * Writes a record.
+     *
+     * @param out Run being written
+     * @param record Record to write
+     * @throws IOException if the run cannot be written
+     */
+    public abstract void write(DataOutput out, T record) throws IOException;
+
+    /**
+     * Reads a record written by {@link #write}.
+     *
+     * @param in Run being read
+     * @return Record read
+     * @throws IOException if the run cannot be read
+     */
+    public abstract T read(DataInput in) throws IOException;
+
+    protected void writeString(DataOutput out, String value) throws IOException {
+        // Code 0 of the dictionary stands for both null and the empty string, so null gets its own code
+        out.writeInt(value == null ? NULL_STRING : symbols.encode(value));
+    }
+
+    protected String readString(DataInput in) throws IOException {
+        int code = in.readInt();
+        if (code == NULL_STRING) {
+            return null;
+        }
+        return code == 0 ? "" : symbols.decode(code);
+    }
+
+    protected static void writeDouble(DataOutput out, Double value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeDouble(value);
+        }
+    }
+
+    protected static Double readDouble(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readDouble() : null;
+    }
+
+    protected static void writeLong(DataOutput out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    protected static Long readLong(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    protected static void writeDate(DataOutput out, Date value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.getTime());
+        }
+    }
+
+    protected static Date readDate(DataInput in) throws IOException {
+        return in.readBoolean() ? new Date(in.readLong()) : null;
+    }
+
+    protected static void writeTimestamp(DataOutput out, Timestamp value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.getTime());
+            out.writeInt(value.getNanos());
+        }
+    }
+
+    protected static Timestamp readTimestamp(DataInput in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        Timestamp value = new Timestamp(in.readLong());
+        value.setNanos(in.readInt());
+        return value;
+    }
+}
@@ -0,0 +1,16 @@
+package com.histdata.etl.pipeline;
+
+/**
+ * Receives records one at a time from an upstream pipeline stage.
+ * Implementations may block to apply backpressure to the producer.
+ */
+@FunctionalInterface
+public interface RecordSink<T> {
+    /**
+     * Accepts the next record from the upstream stage.
+     *
+     * @param record record to accept
+     * @throws Exception if the record cannot be accepted
+     */
+    void accept(T record) throws Exception;
+}
@@ -0,0 +1,99 @@
+package com.histdata.etl.pipeline;
+
+import java.util.PriorityQueue;
+import java.util.function.ToLongFunction;
+
+/**
+ * Restores the key order of a stream that arrives nearly sorted, such as the rows of a day spread over several
+ * COS files, or fut_tick rows read in action_time order and merged by receive time.
+ * Up to {@code window} records are held in a min-heap and the smallest is released each time it overflows, so
+ * a record displaced by fewer than {@code window} positions is emitted in order. Records with equal keys keep
+ * their arrival order, like the stable sort of the in-memory path. A record whose key is below one already
+ * released is passed on at once and counted as late.
+ */
+public class ReorderBuffer<T> implements RecordSink<T> {
+
+    private final RecordSink<? super T> downstream;
+    private final ToLongFunction<? super T> keyFunction;
+    private final int window;
+    private final PriorityQueue<Entry<T>> heap;
+    private long sequence;
+    private long released = Long.MIN_VALUE;
+    private long late;
+
+    /**
+     * Creates a buffer.
+     *
+     * @param downstream Stage receiving the reordered records
+     * @param keyFunction Extracts the sort key from a record
+     * @param window Maximum number of records held back; 0 passes records through unchanged
+     */
+    public ReorderBuffer(RecordSink<? super T> downstream, ToLongFunction<? super T> keyFunction, int window) {
+        if (window < 0) {
+            throw new IllegalArgumentException("Reorder window must not be negative: " + window);
+        }
+        this.downstream = downstream;
+        this.keyFunction = keyFunction;
+        this.window = window;
+        this.heap = new PriorityQueue<>(Math.max(1, Math.min(window, 1024) + 1));
+    }
+
+    /**
+     * Buffers a record, releasing the smallest buffered one downstream once more than {@code window} are held.
+     */
+    @Override
+    public void accept(T record) throws Exception {
+        long key = keyFunction.applyAsLong(record);
+        if (key < released) {
+            late++;
+            downstream.accept(record);
+            return;
+        }
+        heap.add(new Entry<>(record, key, sequence++));
+        if (heap.size() > window) {
+            release(heap.poll());
+        }
+    }
+
+    /**
+     * Releases every buffered record in key order. Called once the upstream stream has ended.
+     *
+     * @throws Exception if the downstream stage fails
+     */
+    public void flush() throws Exception {
+        Entry<T> entry;
+        while ((entry = heap.poll()) != null) {
+            release(entry);
+        }
+    }
+
+    /**
+     * Returns the number of records that arrived too late to be put in order.
+     */
+    public long getLate() {
+        return late;
+    }
+
+    private void release(Entry<T> entry) throws Exception {
+        released = entry.key;
+        downstream.accept(entry.record);
+    }
+
+    private static final class Entry<T> implements Comparable<Entry<T>> {
+        private final T record;
+        private final long key;
+        private final long sequence;
+
+        Entry(T record, long key, long sequence) {
+            this.record = record;
+            this.key = key;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Entry<T> other) {
+            int cmp = Long.compare(key, other.key);
+            return cmp != 0 ? cmp : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.histdata.etl.pipeline;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.function.ToLongFunction;
+
+/**
+ * Streaming k-way merge of runs that are each sorted by a long key.
+ * Produces the global order in O(N log k) using a min-heap holding one head per run,
+ * so consumers can start on the first records before later runs are fully read.
+ * Ties are broken by run index, which keeps the merge stable.
+ */
+public class SortedRunMerger<T> implements Iterator<T> {
+
+    private final PriorityQueue<Cursor<T>> heap;
+    private final ToLongFunction<? super T> keyFunction;
+
+    /**
+     * Creates a merger over the given runs.
+     *
+     * @param runs Runs sorted ascending by key
+     * @param keyFunction Extracts the sort key from a record
+     */
+    public SortedRunMerger(List<? extends Iterator<? extends T>> runs, ToLongFunction<? super T> keyFunction) {
+        this.keyFunction = keyFunction;
+        this.heap = new PriorityQueue<>(Math.max(1, runs.size()));
+        for (int i = 0; i < runs.size(); i++) {
+            Cursor<T> cursor = new Cursor<>(runs.get(i), i);
+            if (cursor.advance(keyFunction)) {
+                heap.add(cursor);
+            }
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !heap.isEmpty();
+    }
+
+    @Override
+    public T next() {
+        Cursor<T> cursor = heap.poll();
+        if (cursor == null) {
+            throw new NoSuchElementException();
+        }
+        T record = cursor.head;
+        if (cursor.advance(keyFunction)) {
+            heap.add(cursor);
+        }
+        return record;
+    }
+
+    private static final class Cursor<T> implements Comparable<Cursor<T>> {
+        private final Iterator<? extends T> run;
+        private final int index;
+        private T head;
+        private long key;
+
+        Cursor(Iterator<? extends T> run, int index) {
+            this.run = run;
+            this.index = index;
+        }
+
+        boolean advance(ToLongFunction<? super T> keyFunction) {
+            if (!run.hasNext()) {
+                head = null;
+                return false;
+            }
+            head = run.next();
+            key = keyFunction.applyAsLong(head);
+            return true;
+        }
+
+        @Override
+        public int compareTo(Cursor<T> other) {
+            int cmp = Long.compare(key, other.key);
+            return cmp != 0 ? cmp : Integer.compare(index, other.index);
+        }
+    }
+}
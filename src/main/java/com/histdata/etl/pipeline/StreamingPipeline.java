@@ -0,0 +1,154 @@
+package com.histdata.etl.pipeline;
+
+import com.histdata.etl.loader.DataLoader;
+import com.histdata.etl.loader.LoadCheckpoint;
+import com.histdata.etl.metrics.EtlMetrics;
+import com.histdata.etl.model.TimestampedRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bounded, backpressured extract-transform-load pipeline for a single business date.
+ * Each source runs on its own thread and feeds a bounded queue; the calling thread merges
+ * the queues by receive time and hands fixed-size batches to the loader while extraction is still running.
+ * Peak memory is bounded by the queue capacities, the reorder windows and the batch size rather than by day volume.
+ * Sources emit records only nearly in receive-time order, so each one passes a {@link ReorderBuffer} before its
+ * queue and is then merged as one sorted run. The load order matches the in-memory path as long as no record of a
+ * source is displaced by more than the reorder window; records displaced further are loaded late and counted.
+ */
+public class StreamingPipeline {
+    private static final Logger logger = LoggerFactory.getLogger(StreamingPipeline.class);
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 50000;
+    public static final int DEFAULT_BATCH_SIZE = 10000;
+    public static final int DEFAULT_REORDER_WINDOW = 50000;
+
+    private final List<PipelineSource<?>> sources = new ArrayList<>();
+    private final DataLoader loader;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final int reorderWindow;
+    private final ToLongFunction<Object> orderKey;
+
+    public StreamingPipeline(DataLoader loader) {
+        this(loader, DEFAULT_QUEUE_CAPACITY, DEFAULT_BATCH_SIZE, TimestampedRecord::receiveTimeMillis);
+    }
+
+    public StreamingPipeline(DataLoader loader, int queueCapacity, int batchSize, ToLongFunction<Object> orderKey) {
+        this(loader, queueCapacity, batchSize, DEFAULT_REORDER_WINDOW, orderKey);
+    }
+
+    /**
+     * Creates a pipeline.
+     *
+     * @param loader Initialized loader receiving the merged batches
+     * @param queueCapacity Capacity of each per-source queue
+     * @param batchSize Maximum records per load call
+     * @param reorderWindow Records each source may hold back to restore key order, 0 to keep emission order
+     * @param orderKey Merge key extracted from transformed records
+     */
+    public StreamingPipeline(DataLoader loader, int queueCapacity, int batchSize, int reorderWindow,
+                             ToLongFunction<Object> orderKey) {
+        this.loader = loader;
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        this.reorderWindow = reorderWindow;
+        this.orderKey = orderKey;
+    }
+
+    /**
+     * Registers a source stage.
+     *
+     * @param source Source stage
+     * @return this pipeline
+     */
+    public StreamingPipeline addSource(PipelineSource<?> source) {
+        sources.add(source);
+        return this;
+    }
+
+    /**
+     * Runs all source stages for the business date and loads their output.
+     * The loader must already be initialized.
+     *
+     * @param businessDate Business date to process
+     * @return Number of records loaded
+     * @throws Exception if any stage fails; remaining stages are cancelled
+     */
+    public long run(LocalDate businessDate) throws Exception {
+        return run(businessDate, null);
+    }
+
+    /**
+     * Runs all source stages for the business date and loads their output, skipping the records
+     * the checkpoint reports as loaded and advancing it as batches are acknowledged.
+     *
+     * @param businessDate Business date to process
+     * @param checkpoint Load progress of the day's merged stream, or null to load everything
+     * @return Number of records loaded by this run
+     * @throws Exception if any stage fails; remaining stages are cancelled
+     */
+    public long run(LocalDate businessDate, LoadCheckpoint checkpoint) throws Exception {
+        List<BoundedRecordQueue<Object>> queues = new ArrayList<>(sources.size());
+        List<LongSupplier> depths = new ArrayList<>(sources.size());
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, sources.size()));
+
+        try {
+            for (PipelineSource<?> source : sources) {
+                BoundedRecordQueue<Object> queue = new BoundedRecordQueue<>(source.getName(), queueCapacity);
+                queues.add(queue);
+                // Depths are read when metrics are scraped, not maintained per record
+                LongSupplier depth = queue::size;
+                depths.add(depth);
+                EtlMetrics.QUEUE_DEPTH.labels(source.getName()).track(depth);
+                executor.submit(() -> {
+                    try {
+                        ReorderBuffer<Object> reordered = new ReorderBuffer<>(queue, orderKey, reorderWindow);
+                        source.produce(businessDate, reordered);
+                        reordered.flush();
+                        if (reordered.getLate() > 0) {
+                            logger.warn("{} {} records arrived more than {} records late and were loaded out of order",
+                                    reordered.getLate(), source.getName(), reorderWindow);
+                            EtlMetrics.LATE_RECORDS.labels(source.getName()).inc(reordered.getLate());
+                        }
+                        queue.close();
+                    } catch (InterruptedException e) {
+                        queue.fail(e);
+                        Thread.currentThread().interrupt();
+                    } catch (Throwable t) {
+                        queue.fail(t);
+                    }
+                });
+            }
+            executor.shutdown();
+
+            return drain(queues, checkpoint);
+        } finally {
+            executor.shutdownNow();
+            for (int i = 0; i < depths.size(); i++) {
+                EtlMetrics.QUEUE_DEPTH.labels(queues.get(i).getName()).untrack(depths.get(i));
+            }
+        }
+    }
+
+    private long drain(List<BoundedRecordQueue<Object>> queues, LoadCheckpoint checkpoint) throws Exception {
+        List<Iterator<Object>> runs = new ArrayList<>(queues.size());
+        for (BoundedRecordQueue<Object> queue : queues) {
+            runs.add(queue.iterator());
+        }
+
+        SortedRunMerger<Object> merged = new SortedRunMerger<>(runs, orderKey);
+        long loaded = checkpoint == null ? loader.load(merged, batchSize) : loader.load(merged, batchSize, checkpoint);
+        logger.info("Streaming pipeline loaded {} records", loaded);
+        return loaded;
+    }
+}
@@ -0,0 +1,229 @@
+package com.histdata.etl.pipeline;
+
+import com.histdata.etl.model.XbondQuoteRecord;
+import com.histdata.etl.model.batch.SymbolDictionary;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Spill form of {@link XbondQuoteRecord}: every field in declaration order, depth levels included.
+ */
+public class XbondQuoteCodec extends RecordCodec<XbondQuoteRecord> {
+
+    public XbondQuoteCodec(SymbolDictionary symbols) {
+        super(symbols);
+    }
+
+    @Override
+    public void write(DataOutput out, XbondQuoteRecord record) throws IOException {
+        writeDate(out, record.getBusinessDate());
+        writeString(out, record.getExchProductId());
+        writeString(out, record.getProductType());
+        writeString(out, record.getExchange());
+        writeString(out, record.getSource());
+        out.writeInt(record.getSettleSpeed());
+        writeString(out, record.getLevel());
+        writeString(out, record.getStatus());
+        writeDouble(out, record.getPreClosePrice());
+        writeDouble(out, record.getPreSettlePrice());
+        writeDouble(out, record.getPreInterest());
+        writeDouble(out, record.getOpenPrice());
+        writeDouble(out, record.getHighPrice());
+        writeDouble(out, record.getLowPrice());
+        writeDouble(out, record.getClosePrice());
+        writeDouble(out, record.getSettlePrice());
+        writeDouble(out, record.getUpperLimit());
+        writeDouble(out, record.getLowerLimit());
+        writeLong(out, record.getTotalVolume());
+        writeDouble(out, record.getTotalTurnover());
+        writeLong(out, record.getOpenInterest());
+        writeDouble(out, record.getBid0Price());
+        writeDouble(out, record.getBid0Yield());
+        writeString(out, record.getBid0YieldType());
+        writeLong(out, record.getBid0TradableVolume());
+        writeLong(out, record.getBid0Volume());
+        writeDouble(out, record.getOffer0Price());
+        writeDouble(out, record.getOffer0Yield());
+        writeString(out, record.getOffer0YieldType());
+        writeLong(out, record.getOffer0TradableVolume());
+        writeLong(out, record.getOffer0Volume());
+        writeDouble(out, record.getBid1Price());
+        writeDouble(out, record.getBid1Yield());
+        writeString(out, record.getBid1YieldType());
+        writeLong(out, record.getBid1TradableVolume());
+        writeLong(out, record.getBid1Volume());
+        writeDouble(out, record.getBid2Price());
+        writeDouble(out, record.getBid2Yield());
+        writeString(out, record.getBid2YieldType());
+        writeLong(out, record.getBid2TradableVolume());
+        writeLong(out, record.getBid2Volume());
+        writeDouble(out, record.getBid3Price());
+        writeDouble(out, record.getBid3Yield());
+        writeString(out, record.getBid3YieldType());
+        writeLong(out, record.getBid3TradableVolume());
+        writeLong(out, record.getBid3Volume());
+        writeDouble(out, record.getBid4Price());
+        writeDouble(out, record.getBid4Yield());
+        writeString(out, record.getBid4YieldType());
+        writeLong(out, record.getBid4TradableVolume());
+        writeLong(out, record.getBid4Volume());
+        writeDouble(out, record.getBid5Price());
+        writeDouble(out, record.getBid5Yield());
+        writeString(out, record.getBid5YieldType());
+        writeLong(out, record.getBid5TradableVolume());
+        writeLong(out, record.getBid5Volume());
+        writeDouble(out, record.getOffer1Price());
+        writeDouble(out, record.getOffer1Yield());
+        writeString(out, record.getOffer1YieldType());
+        writeLong(out, record.getOffer1TradableVolume());
+        writeLong(out, record.getOffer1Volume());
+        writeDouble(out, record.getOffer2Price());
+        writeDouble(out, record.getOffer2Yield());
+        writeString(out, record.getOffer2YieldType());
+        writeLong(out, record.getOffer2TradableVolume());
+        writeLong(out, record.getOffer2Volume());
+        writeDouble(out, record.getOffer3Price());
+        writeDouble(out, record.getOffer3Yield());
+        writeString(out, record.getOffer3YieldType());
+        writeLong(out, record.getOffer3TradableVolume());
+        writeLong(out, record.getOffer3Volume());
+        writeDouble(out, record.getOffer4Price());
+        writeDouble(out, record.getOffer4Yield());
+        writeString(out, record.getOffer4YieldType());
+        writeLong(out, record.getOffer4TradableVolume());
+        writeLong(out, record.getOffer4Volume());
+        writeDouble(out, record.getOffer5Price());
+        writeDouble(out, record.getOffer5Yield());
+        writeString(out, record.getOffer5YieldType());
+        writeLong(out, record.getOffer5TradableVolume());
+        writeLong(out, record.getOffer5Volume());
+        writeTimestamp(out, record.getEventTime());
+        writeTimestamp(out, record.getReceiveTime());
+    }
+
+    @Override
+    public XbondQuoteRecord read(DataInput in) throws IOException {
+        XbondQuoteRecord record = new XbondQuoteRecord(readDate(in), readString(in));
+        record.setProductType(readString(in));
+        record.setExchange(readString(in));
+        record.setSource(readString(in));
+        record.setSettleSpeed(in.readInt());
+        record.setLevel(readString(in));
+        record.setStatus(readString(in));
+        record.setPreClosePrice(readDouble(in));
+        record.setPreSettlePrice(readDouble(in));
+        record.setPreInterest(readDouble(in));
+        record.setOpenPrice(readDouble(in));
+        record.setHighPrice(readDouble(in));
+        record.setLowPrice(readDouble(in));
+        record.setClosePrice(readDouble(in));
+        record.setSettlePrice(readDouble(in));
+        record.setUpperLimit(readDouble(in));
+        record.setLowerLimit(readDouble(in));
+        record.setTotalVolume(readLong(in));
+        record.setTotalTurnover(readDouble(in));
+        record.setOpenInterest(readLong(in));
+        record.setBid0Price(readDouble(in));
+        record.setBid0Yield(readDouble(in));
+        // Setters that only accept a listed value are skipped for null, which is already the field's value
+        String symbol = readString(in);
+        if (symbol != null) {
+            record.setBid0YieldType(symbol);
+        }
+        record.setBid0TradableVolume(readLong(in));
+        record.setBid0Volume(readLong(in));
+        record.setOffer0Price(readDouble(in));
+        record.setOffer0Yield(readDouble(in));
+        symbol = readString(in);
+        if (symbol != null) {
+            record.setOffer0YieldType(symbol);
+        }
+        record.setOffer0TradableVolume(readLong(in));
+        record.setOffer0Volume(readLong(in));
+        record.setBid1Price(readDouble(in));
+        record.setBid1Yield(readDouble(in));
+        symbol = readString(in);
+        if (symbol != null) {
+            record.setBid1YieldType(symbol);
+        }
+        record.setBid1TradableVolume(readLong(in));
+        record.setBid1Volume(readLong(in));
+        record.setBid2Price(readDouble(in));
+        record.setBid2Yield(readDouble(in));
+        symbol = readString(in);
+        if (symbol != null) {
+            record.setBid2YieldType(symbol);
+        }
+        record.setBid2TradableVolume(readLong(in));
+        record.setBid2Volume(readLong(in));
+        record.setBid3Price(readDouble(in));
+        record.setBid3Yield(readDouble(in));
+        symbol = readString(in);
+        if (symbol != null) {
+            record.setBid3YieldType(symbol);
+        }
+        record.setBid3TradableVolume(readLong(in));
+        record.setBid3Volume(readLong(in));
+        record.setBid4Price(readDouble(in));
+        record.setBid4Yield(readDouble(in));
+        symbol = readString(in);
+        if (symbol != null) {
+            record.setBid4YieldType(symbol);
+        }
+        record.setBid4TradableVolume(readLong(in));
+        record.setBid4Volume(readLong(in));
+        record.setBid5Price(readDouble(in));
+        record.setBid5Yield(readDouble(in));
+        symbol = readString(in);
+        if (symbol != null) {
+            record.setBid5YieldType(symbol);
+        }
+        record.setBid5TradableVolume(readLong(in));
+        record.setBid5Volume(readLong(in));
+        record.setOffer1Price(readDouble(in));
+        record.setOffer1Yield(readDouble(in));
+        symbol = readString(in);
+        if (symbol != null) {
+            record.setOffer1YieldType(symbol);
+        }
+        record.setOffer1TradableVolume(readLong(in));
+        record.setOffer1Volume(readLong(in));
+        record.setOffer2Price(readDouble(in));
+        record.setOffer2Yield(readDouble(in));
+        symbol = readString(in);
+        if (symbol != null) {
+            record.setOffer2YieldType(symbol);
+        }
+        record.setOffer2TradableVolume(readLong(in));
+        record.setOffer2Volume(readLong(in));
+        record.setOffer3Price(readDouble(in));
+        record.setOffer3Yield(readDouble(in));
+        symbol = readString(in);
+        if (symbol != null) {
+            record.setOffer3YieldType(symbol);
+        }
+        record.setOffer3TradableVolume(readLong(in));
+        record.setOffer3Volume(readLong(in));
+        record.setOffer4Price(readDouble(in));
+        record.setOffer4Yield(readDouble(in));
+        symbol = readString(in);
+        if (symbol != null) {
+            record.setOffer4YieldType(symbol);
+        }
+        record.setOffer4TradableVolume(readLong(in));
+        record.setOffer4Volume(readLong(in));
+        record.setOffer5Price(readDouble(in));
+        record.setOffer5Yield(readDouble(in));
+        symbol = readString(in);
+        if (symbol != null) {
+            record.setOffer5YieldType(symbol);
+        }
+        record.setOffer5TradableVolume(readLong(in));
+        record.setOffer5Volume(readLong(in));
+        record.setEventTime(readTimestamp(in));
+        record.setReceiveTime(readTimestamp(in));
+        return record;
+    }
+}
@@ -0,0 +1,63 @@
+package com.histdata.etl.pipeline;
+
+import com.histdata.etl.model.XbondTradeRecord;
+import com.histdata.etl.model.batch.SymbolDictionary;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Spill form of {@link XbondTradeRecord}: every field in declaration order.
+ */
+public class XbondTradeCodec extends RecordCodec<XbondTradeRecord> {
+
+    public XbondTradeCodec(SymbolDictionary symbols) {
+        super(symbols);
+    }
+
+    @Override
+    public void write(DataOutput out, XbondTradeRecord record) throws IOException {
+        writeDate(out, record.getBusinessDate());
+        writeString(out, record.getExchProductId());
+        writeString(out, record.getProductType());
+        writeString(out, record.getExchange());
+        writeString(out, record.getSource());
+        out.writeInt(record.getSettleSpeed());
+        writeDouble(out, record.getLastTradePrice());
+        writeDouble(out, record.getLastTradeYield());
+        writeString(out, record.getLastTradeYieldType());
+        writeLong(out, record.getLastTradeVolume());
+        writeDouble(out, record.getLastTradeTurnover());
+        writeDouble(out, record.getLastTradeInterest());
+        writeString(out, record.getLastTradeSide());
+        writeTimestamp(out, record.getEventTime());
+        writeTimestamp(out, record.getReceiveTime());
+    }
+
+    @Override
+    public XbondTradeRecord read(DataInput in) throws IOException {
+        XbondTradeRecord record = new XbondTradeRecord(readDate(in), readString(in));
+        record.setProductType(readString(in));
+        record.setExchange(readString(in));
+        record.setSource(readString(in));
+        record.setSettleSpeed(in.readInt());
+        record.setLastTradePrice(readDouble(in));
+        record.setLastTradeYield(readDouble(in));
+        // Setters that only accept a listed value are skipped for null, which is already the field's value
+        String symbol = readString(in);
+        if (symbol != null) {
+            record.setLastTradeYieldType(symbol);
+        }
+        record.setLastTradeVolume(readLong(in));
+        record.setLastTradeTurnover(readDouble(in));
+        record.setLastTradeInterest(readDouble(in));
+        symbol = readString(in);
+        if (symbol != null) {
+            record.setLastTradeSide(symbol);
+        }
+        record.setEventTime(readTimestamp(in));
+        record.setReceiveTime(readTimestamp(in));
+        return record;
+    }
+}
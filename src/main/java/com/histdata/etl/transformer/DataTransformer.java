@@ -1,5 +1,7 @@
 package com.histdata.etl.transformer;
 
+import com.histdata.etl.model.batch.SymbolDictionary;
+
 import java.time.LocalDate;
 
 /**
@@ -16,4 +18,34 @@ public interface DataTransformer<T> {
      * @throws TransformationException if transformation fails
      */
     T transform(Object rawRecord, LocalDate businessDate) throws Exception;
+
+    /**
+     * Signals the end of the raw record stream. Transformers that assemble one record from several
+     * raw records return the record still being assembled; the default has nothing buffered.
+     *
+     * @param businessDate business date for this ETL job
+     * @return last transformed domain record, or null if none is pending
+     * @throws Exception if the pending record cannot be completed
+     */
+    default T finish(LocalDate businessDate) throws Exception {
+        return null;
+    }
+
+    /**
+     * Sets where rows that cannot be used, and values that had to be substituted, are reported.
+     * Transformers that report nothing ignore the sink.
+     *
+     * @param rejects sink receiving the reports
+     */
+    default void setRejectSink(RejectSink rejects) {
+    }
+
+    /**
+     * Sets the job's symbol dictionary, which interns repetitive string fields such as exchProductId so that
+     * records share one String per distinct value. Transformers without such fields ignore it.
+     *
+     * @param symbols dictionary shared by the transformers and loaders of a job
+     */
+    default void setSymbolDictionary(SymbolDictionary symbols) {
+    }
 }
@@ -1,13 +1,15 @@
 package com.histdata.etl.transformer;
 
+import com.histdata.etl.datasource.FutTickColumns;
 import com.histdata.etl.model.FutureQuoteRecord;
-import com.histdata.etl.util.DateUtils;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.histdata.etl.model.batch.FutureQuoteBatch;
+import com.histdata.etl.model.batch.SymbolDictionary;
+import com.histdata.etl.util.TimestampParser;
 
 import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Timestamp;
-import java.text.ParseException;
 import java.time.LocalDate;
 import java.util.Map;
 
@@ -16,7 +18,22 @@ import java.util.Map;
  * One source record produces one FutureQuoteRecord.
  */
 public class FutureQuoteTransformer implements DataTransformer<Object> {
-    private static final Logger logger = LoggerFactory.getLogger(FutureQuoteTransformer.class);
+    private static final String SOURCE = "future";
+    private static final String NO_RECEIVE_TIME = "receive_time is null, using action time";
+    private static final long NO_EVENT_TIME = Long.MIN_VALUE;
+
+    private RejectSink rejects = RejectSink.LOGGING;
+    private SymbolDictionary symbols = new SymbolDictionary();
+
+    @Override
+    public void setRejectSink(RejectSink rejects) {
+        this.rejects = rejects;
+    }
+
+    @Override
+    public void setSymbolDictionary(SymbolDictionary symbols) {
+        this.symbols = symbols;
+    }
 
     @Override
     public FutureQuoteRecord transform(Object rawRecord, LocalDate businessDate) throws Exception {
@@ -27,10 +44,14 @@ public class FutureQuoteTransformer implements DataTransformer<Object> {
         @SuppressWarnings("unchecked")
         Map<String, Object> record = (Map<String, Object>) rawRecord;
 
+        long eventTimeMillis = eventTime(record);
+        if (eventTimeMillis == NO_EVENT_TIME) {
+            return null;
+        }
         String code = (String) record.get("code");
         java.sql.Date businessDateSql = new java.sql.Date(java.sql.Date.valueOf(businessDate).getTime());
 
-        String exchProductId = code;
+        String exchProductId = symbols.intern(code);
         FutureQuoteRecord result = new FutureQuoteRecord(businessDateSql, exchProductId);
 
         result.setPreClosePrice(getDouble(record, "pre_close"));
@@ -69,9 +90,7 @@ public class FutureQuoteTransformer implements DataTransformer<Object> {
             }
         }
 
-        int actionDate = getInteger(record, "action_date");
-        int actionTime = getInteger(record, "action_time");
-        java.sql.Timestamp eventTime = buildTimestamp(actionDate, actionTime);
+        java.sql.Timestamp eventTime = new java.sql.Timestamp(eventTimeMillis);
         result.setEventTime(eventTime);
 
         String receiveTimeStr = (String) record.get("receive_time");
@@ -80,13 +99,123 @@ public class FutureQuoteTransformer implements DataTransformer<Object> {
             receiveTime = Timestamp.valueOf(receiveTimeStr);
         } else {
             receiveTime = eventTime;
-            logger.warn("receive_time is null for future {}, falling back to event_time", code);
+            rejects.fallback(SOURCE, NO_RECEIVE_TIME);
         }
         result.setReceiveTime(receiveTime);
 
         return result;
     }
 
+    /**
+     * Transforms the current row of a {@link FutTickColumns} projection, reading values by index.
+     *
+     * @param row Result set positioned on a fut_tick row
+     * @param businessDate Business date
+     * @return Transformed record, or null if the row was rejected
+     * @throws SQLException if a column cannot be read
+     */
+    public FutureQuoteRecord transform(ResultSet row, LocalDate businessDate) throws SQLException {
+        long eventTime = eventTime(row);
+        if (eventTime == NO_EVENT_TIME) {
+            return null;
+        }
+        String code = symbols.intern(row.getString(FutTickColumns.CODE));
+        FutureQuoteRecord result = new FutureQuoteRecord(Date.valueOf(businessDate), code);
+
+        result.setPreClosePrice(nullableDouble(row, FutTickColumns.PRE_CLOSE));
+        result.setPreSettlePrice(nullableDouble(row, FutTickColumns.PRE_SETTLE));
+        result.setPreInterest(nullableLong(row, FutTickColumns.PRE_INTEREST));
+        result.setOpenPrice(nullableDouble(row, FutTickColumns.OPEN));
+        result.setHighPrice(nullableDouble(row, FutTickColumns.HIGH));
+        result.setLowPrice(nullableDouble(row, FutTickColumns.LOW));
+        result.setClosePrice(nullableDouble(row, FutTickColumns.PRICE));
+        result.setSettlePrice(nullableDouble(row, FutTickColumns.SETTLE_PRICE));
+        result.setUpperLimit(nullableDouble(row, FutTickColumns.UPPER_LIMIT));
+        result.setLowerLimit(nullableDouble(row, FutTickColumns.LOWER_LIMIT));
+        result.setTotalVolume(nullableLong(row, FutTickColumns.TOTAL_VOLUME));
+        result.setTotalTurnover(nullableDouble(row, FutTickColumns.TOTAL_TURNOVER));
+        result.setOpenInterest(nullableLong(row, FutTickColumns.OPEN_INTEREST));
+
+        Object bidPricesObj = row.getObject(FutTickColumns.BID_PRICES);
+        Object bidQtyObj = row.getObject(FutTickColumns.BID_QTY);
+        Object askPricesObj = row.getObject(FutTickColumns.ASK_PRICES);
+        Object askQtyObj = row.getObject(FutTickColumns.ASK_QTY);
+
+        if (bidPricesObj instanceof double[] && bidQtyObj instanceof long[]
+                && askPricesObj instanceof double[] && askQtyObj instanceof long[]) {
+            double[] bidPrices = (double[]) bidPricesObj;
+            long[] bidQty = (long[]) bidQtyObj;
+            double[] askPrices = (double[]) askPricesObj;
+            long[] askQty = (long[]) askQtyObj;
+
+            for (int i = 0; i < FutureQuoteBatch.LEVELS; i++) {
+                if (i < bidPrices.length) {
+                    setBidField(result, i, bidPrices[i], bidQty[i]);
+                }
+                if (i < askPrices.length) {
+                    setOfferField(result, i, askPrices[i], askQty[i]);
+                }
+            }
+        }
+
+        result.setEventTime(new Timestamp(eventTime));
+        result.setReceiveTime(new Timestamp(receiveTime(row, eventTime)));
+        return result;
+    }
+
+    /**
+     * Returns the event time of the row, or {@link #NO_EVENT_TIME} after rejecting a row without one.
+     */
+    private long eventTime(ResultSet row) throws SQLException {
+        int actionDate = row.getInt(FutTickColumns.ACTION_DATE);
+        if (row.wasNull()) {
+            rejects.reject(SOURCE, "action_date is null", row);
+            return NO_EVENT_TIME;
+        }
+        int actionTime = row.getInt(FutTickColumns.ACTION_TIME);
+        if (row.wasNull()) {
+            rejects.reject(SOURCE, "action_time is null", row);
+            return NO_EVENT_TIME;
+        }
+        return TimestampParser.fromActionDateTime(actionDate, actionTime);
+    }
+
+    private long eventTime(Map<String, Object> record) {
+        Integer actionDate = getInteger(record, "action_date");
+        if (actionDate == null) {
+            rejects.reject(SOURCE, "action_date is null", record);
+            return NO_EVENT_TIME;
+        }
+        Integer actionTime = getInteger(record, "action_time");
+        if (actionTime == null) {
+            rejects.reject(SOURCE, "action_time is null", record);
+            return NO_EVENT_TIME;
+        }
+        return TimestampParser.fromActionDateTime(actionDate, actionTime);
+    }
+
+    private long receiveTime(ResultSet row, long eventTime) throws SQLException {
+        String receiveTimeStr = row.getString(FutTickColumns.RECEIVE_TIME);
+        if (receiveTimeStr == null || receiveTimeStr.isEmpty()) {
+            rejects.fallback(SOURCE, NO_RECEIVE_TIME);
+            return eventTime;
+        }
+        if (receiveTimeStr.length() == TimestampParser.LENGTH) {
+            return TimestampParser.parseMillis(receiveTimeStr);
+        }
+        return Timestamp.valueOf(receiveTimeStr).getTime();
+    }
+
+    private static Double nullableDouble(ResultSet row, int column) throws SQLException {
+        double value = row.getDouble(column);
+        return row.wasNull() ? null : value;
+    }
+
+    private static Long nullableLong(ResultSet row, int column) throws SQLException {
+        long value = row.getLong(column);
+        return row.wasNull() ? null : value;
+    }
+
     private void setBidField(FutureQuoteRecord record, int level, double price, long volume) {
         switch (level) {
             case 0:
@@ -178,20 +307,4 @@ public class FutureQuoteTransformer implements DataTransformer<Object> {
         }
         return Integer.parseInt(value.toString());
     }
-
-    private java.sql.Timestamp buildTimestamp(int actionDate, int actionTime) throws ParseException {
-        String actionDateStr = String.format("%08d", actionDate);
-        String actionTimeStr = String.format("%09d", actionTime);
-
-        String eventTimeStr = String.format("%s-%s-%s %s:%s:%s.%s",
-                actionDateStr.substring(0, 4),  // 年
-                actionDateStr.substring(4, 6),  // 月
-                actionDateStr.substring(6, 8),  // 日
-                actionTimeStr.substring(0, 2),  // 小时
-                actionTimeStr.substring(2, 4),  // 分钟
-                actionTimeStr.substring(4, 6),  // 秒
-                actionTimeStr.substring(6));    // 毫秒
-
-        return new java.sql.Timestamp(DateUtils.parseTimestamp(eventTimeStr, "yyyy-MM-dd HH:mm:ss.SSS").getTime());
-    }
 }
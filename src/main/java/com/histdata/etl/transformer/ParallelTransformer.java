@@ -0,0 +1,203 @@
+package com.histdata.etl.transformer;
+
+import com.histdata.etl.metrics.EtlMetrics;
+import com.histdata.etl.metrics.Histogram;
+import com.histdata.etl.model.batch.SymbolDictionary;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import java.util.function.Supplier;
+
+/**
+ * Transforms an extracted day of raw records on a fork-join pool.
+ * The rows are cut into chunks of about {@code chunkSize} rows; a cut is moved forward until it falls between two
+ * groups, so rows that a transformer assembles into one record always land in the same chunk. Each chunk gets its
+ * own transformer from the supplier, which keeps stateful transformers safe. The supplied transformers must
+ * produce records of type {@code T}. Chunk results are joined in input
+ * order, so the output order matches a sequential pass.
+ * <p>
+ * Rows that fail to transform are reported to the {@link RejectSink} and skipped, as on the sequential path.
+ *
+ * @param <R> Raw record type
+ * @param <T> Transformed record type
+ */
+public class ParallelTransformer<R, T> {
+    public static final int DEFAULT_CHUNK_SIZE = 8192;
+
+    private final String name;
+    private final ForkJoinPool pool;
+    private final Supplier<? extends DataTransformer<?>> transformers;
+    private final BiPredicate<? super R, ? super R> sameGroup;
+    private final int chunkSize;
+    private final AtomicLong rejected = new AtomicLong();
+    private final Histogram.Child transformSeconds;
+
+    private RejectSink rejects = RejectSink.LOGGING;
+    private SymbolDictionary symbols;
+
+    /**
+     * Creates a transformer whose rows are independent of each other.
+     *
+     * @param name Source name used in log messages
+     * @param pool Pool running the chunks
+     * @param transformers Creates one transformer per chunk
+     */
+    public ParallelTransformer(String name, ForkJoinPool pool, Supplier<? extends DataTransformer<?>> transformers) {
+        this(name, pool, transformers, null, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Creates a transformer whose chunks are aligned to groups of rows.
+     *
+     * @param name Source name used in log messages
+     * @param pool Pool running the chunks
+     * @param transformers Creates one transformer per chunk
+     * @param sameGroup Tells whether two adjacent rows belong to the same group, or null if every row stands alone
+     * @param chunkSize Target number of rows per chunk
+     */
+    public ParallelTransformer(String name, ForkJoinPool pool, Supplier<? extends DataTransformer<?>> transformers,
+                               BiPredicate<? super R, ? super R> sameGroup, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+        this.name = name;
+        this.transformSeconds = EtlMetrics.TRANSFORM_SECONDS.labels(name);
+        this.pool = pool;
+        this.transformers = transformers;
+        this.sameGroup = sameGroup;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Transforms all rows of the business date.
+     *
+     * @param rows Raw rows in source order
+     * @param businessDate Business date to process
+     * @return Transformed records in source order
+     */
+    public List<T> transform(List<R> rows, LocalDate businessDate) {
+        int[] bounds = chunkBounds(rows);
+        return pool.invoke(new ChunkTask(rows, bounds, 0, bounds.length - 1, businessDate));
+    }
+
+    /**
+     * Sets the sink receiving rejected rows; it is also handed to every chunk's transformer.
+     */
+    public void setRejectSink(RejectSink rejects) {
+        this.rejects = rejects;
+    }
+
+    /**
+     * Sets the symbol dictionary handed to every chunk's transformer.
+     */
+    public void setSymbolDictionary(SymbolDictionary symbols) {
+        this.symbols = symbols;
+    }
+
+    /**
+     * Returns the number of rows that failed with an exception so far.
+     */
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /**
+     * Returns the chunk start offsets followed by the row count; chunk i covers [bounds[i], bounds[i + 1]).
+     */
+    int[] chunkBounds(List<R> rows) {
+        int size = rows.size();
+        List<Integer> starts = new ArrayList<>();
+        starts.add(0);
+        int next = chunkSize;
+        while (next < size) {
+            if (sameGroup != null) {
+                while (next < size && sameGroup.test(rows.get(next - 1), rows.get(next))) {
+                    next++;
+                }
+            }
+            if (next < size) {
+                starts.add(next);
+            }
+            next += chunkSize;
+        }
+        int[] bounds = new int[starts.size() + 1];
+        for (int i = 0; i < starts.size(); i++) {
+            bounds[i] = starts.get(i);
+        }
+        bounds[starts.size()] = size;
+        return bounds;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<T> transformChunk(List<R> rows, LocalDate businessDate) {
+        DataTransformer<?> transformer = transformers.get();
+        transformer.setRejectSink(rejects);
+        if (symbols != null) {
+            transformer.setSymbolDictionary(symbols);
+        }
+        long started = System.nanoTime();
+        List<T> records = new ArrayList<>(rows.size());
+        for (R row : rows) {
+            try {
+                T record = (T) transformer.transform(row, businessDate);
+                if (record != null) {
+                    records.add(record);
+                }
+            } catch (Exception e) {
+                rejected.incrementAndGet();
+                rejects.reject(name, RejectSink.reason(e), row);
+            }
+        }
+        try {
+            T last = (T) transformer.finish(businessDate);
+            if (last != null) {
+                records.add(last);
+            }
+        } catch (Exception e) {
+            rejected.incrementAndGet();
+            rejects.reject(name, RejectSink.reason(e), null);
+        }
+        transformSeconds.observeSince(started);
+        return records;
+    }
+
+    /**
+     * Transforms chunks [from, to) by splitting the range in half until a single chunk is left.
+     */
+    private class ChunkTask extends RecursiveTask<List<T>> {
+        private final List<R> rows;
+        private final int[] bounds;
+        private final int from;
+        private final int to;
+        private final LocalDate businessDate;
+
+        ChunkTask(List<R> rows, int[] bounds, int from, int to, LocalDate businessDate) {
+            this.rows = rows;
+            this.bounds = bounds;
+            this.from = from;
+            this.to = to;
+            this.businessDate = businessDate;
+        }
+
+        @Override
+        protected List<T> compute() {
+            if (to - from <= 1) {
+                return transformChunk(rows.subList(bounds[from], bounds[to]), businessDate);
+            }
+            int middle = (from + to) >>> 1;
+            ChunkTask right = new ChunkTask(rows, bounds, middle, to, businessDate);
+            right.fork();
+            List<T> left = new ChunkTask(rows, bounds, from, middle, businessDate).compute();
+            List<T> rightRecords = right.join();
+            List<T> joined = new ArrayList<>(left.size() + rightRecords.size());
+            joined.addAll(left);
+            joined.addAll(rightRecords);
+            return joined;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.histdata.etl.transformer;
+
+import com.histdata.etl.datasource.MappedCsvReader;
+import com.histdata.etl.metrics.EtlMetrics;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the rejects and fallbacks of one business day.
+ * Rejected raw rows are appended to {@code rejects_YYYYMMDD.csv} in the reject directory; the file is only
+ * created once the first row is rejected. Reports are counted per source and reason, and each reason is
+ * logged for its first few occurrences and then at most once per sampling interval. The totals are logged
+ * when the log is closed. Safe for use by several sources at once.
+ */
+public class RejectLog implements RejectSink, Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(RejectLog.class);
+
+    public static final String DEFAULT_DIRECTORY = "rejects";
+    static final int FREE_SAMPLES = 3;
+    static final long SAMPLE_INTERVAL_MILLIS = 10_000;
+
+    private final Path file;
+    private final Map<String, Reason> rejects = new ConcurrentHashMap<>();
+    private final Map<String, Reason> fallbacks = new ConcurrentHashMap<>();
+
+    private BufferedWriter writer;
+
+    /**
+     * Creates the reject log of a business day.
+     *
+     * @param directory Directory receiving the reject file
+     * @param businessDate Business date
+     */
+    public RejectLog(Path directory, LocalDate businessDate) {
+        this.file = directory.resolve("rejects_" + businessDate.format(DateTimeFormatter.BASIC_ISO_DATE) + ".csv");
+    }
+
+    @Override
+    public void reject(String source, String reason, Object rawRecord) {
+        String row = render(rawRecord);
+        Reason counter = rejects.computeIfAbsent(source + ": " + reason, k -> new Reason());
+        counter.count.increment();
+        EtlMetrics.REJECTED_ROWS.labels(source).inc();
+        write(CSVFormat.DEFAULT.format(source, reason, row));
+        if (counter.sample(System.currentTimeMillis())) {
+            logger.warn("Rejected {} record ({}, {} so far): {}", source, reason, counter.count.sum(), row);
+        }
+    }
+
+    @Override
+    public void fallback(String source, String reason) {
+        Reason counter = fallbacks.computeIfAbsent(source + ": " + reason, k -> new Reason());
+        counter.count.increment();
+        if (counter.sample(System.currentTimeMillis())) {
+            logger.warn("{} record: {} ({} so far)", source, reason, counter.count.sum());
+        }
+    }
+
+    /**
+     * Returns the number of rejected rows of all sources.
+     */
+    public long getRejected() {
+        return total(rejects);
+    }
+
+    /**
+     * Returns the number of rows kept with a substituted value.
+     */
+    public long getFallbacks() {
+        return total(fallbacks);
+    }
+
+    /**
+     * Returns the reject counts keyed by "source: reason", in key order.
+     */
+    public Map<String, Long> getRejectCounts() {
+        return counts(rejects);
+    }
+
+    /**
+     * Returns the fallback counts keyed by "source: reason", in key order.
+     */
+    public Map<String, Long> getFallbackCounts() {
+        return counts(fallbacks);
+    }
+
+    /**
+     * Returns the reject file of the day, which exists only if a row was rejected.
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Closes the reject file and logs the day's totals.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+        if (!rejects.isEmpty()) {
+            logger.warn("Rejected {} records {}, rows written to {}", getRejected(), getRejectCounts(), file);
+        }
+        if (!fallbacks.isEmpty()) {
+            logger.info("Substituted values in {} records {}", getFallbacks(), getFallbackCounts());
+        }
+    }
+
+    private synchronized void write(String line) {
+        try {
+            if (writer == null) {
+                Files.createDirectories(file.toAbsolutePath().getParent());
+                writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+                writer.write("source,reason,row");
+                writer.newLine();
+            }
+            writer.write(line);
+            writer.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write reject file " + file, e);
+        }
+    }
+
+    /**
+     * Renders a raw row as one CSV line of its field values.
+     */
+    static String render(Object rawRecord) {
+        try {
+            if (rawRecord instanceof CSVRecord) {
+                return CSVFormat.DEFAULT.format((Object[]) ((CSVRecord) rawRecord).values());
+            }
+            if (rawRecord instanceof MappedCsvReader) {
+                MappedCsvReader reader = (MappedCsvReader) rawRecord;
+                Object[] fields = new Object[reader.getFieldCount()];
+                for (int i = 0; i < fields.length; i++) {
+                    fields[i] = reader.getString(i);
+                }
+                return CSVFormat.DEFAULT.format(fields);
+            }
+            if (rawRecord instanceof ResultSet) {
+                ResultSet row = (ResultSet) rawRecord;
+                Object[] fields = new Object[row.getMetaData().getColumnCount()];
+                for (int i = 0; i < fields.length; i++) {
+                    fields[i] = row.getString(i + 1);
+                }
+                return CSVFormat.DEFAULT.format(fields);
+            }
+            if (rawRecord instanceof Map) {
+                return CSVFormat.DEFAULT.format(((Map<?, ?>) rawRecord).values().toArray());
+            }
+        } catch (SQLException | RuntimeException e) {
+            return "<unreadable row: " + e.getMessage() + ">";
+        }
+        return String.valueOf(rawRecord);
+    }
+
+    private static long total(Map<String, Reason> reasons) {
+        long total = 0;
+        for (Reason reason : reasons.values()) {
+            total += reason.count.sum();
+        }
+        return total;
+    }
+
+    private static Map<String, Long> counts(Map<String, Reason> reasons) {
+        Map<String, Long> counts = new TreeMap<>();
+        for (Map.Entry<String, Reason> entry : reasons.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().count.sum());
+        }
+        return counts;
+    }
+
+    /**
+     * Count and sampling state of one source and reason.
+     */
+    private static final class Reason {
+        private final LongAdder count = new LongAdder();
+        private final AtomicInteger samples = new AtomicInteger();
+        private final AtomicLong nextSampleAt = new AtomicLong();
+
+        boolean sample(long now) {
+            long next = nextSampleAt.get();
+            if (now < next) {
+                return false;
+            }
+            long delay = samples.incrementAndGet() < FREE_SAMPLES ? 0 : SAMPLE_INTERVAL_MILLIS;
+            return nextSampleAt.compareAndSet(next, now + delay);
+        }
+    }
+}
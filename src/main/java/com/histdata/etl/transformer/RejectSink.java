@@ -0,0 +1,53 @@
+package com.histdata.etl.transformer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Receives the rows a transformer could not use and the values it had to substitute.
+ * Transformers report data problems here and carry on instead of throwing or logging each row,
+ * so a bad file costs a counter increment per row rather than a stack unwind and a log write.
+ */
+public interface RejectSink {
+
+    /**
+     * Logs every report at WARN, for transformers used without a per-day {@link RejectLog}.
+     */
+    RejectSink LOGGING = new RejectSink() {
+        private final Logger logger = LoggerFactory.getLogger(RejectSink.class);
+
+        @Override
+        public void reject(String source, String reason, Object rawRecord) {
+            logger.warn("Rejected {} record ({}): {}", source, reason, rawRecord);
+        }
+
+        @Override
+        public void fallback(String source, String reason) {
+            logger.warn("{} record: {}", source, reason);
+        }
+    };
+
+    /**
+     * Reports a row that produced no record.
+     *
+     * @param source Source name, e.g. "trade"
+     * @param reason Short, low-cardinality reason used to aggregate rejects
+     * @param rawRecord Raw row; it is rendered before this call returns, so readers may be reused
+     */
+    void reject(String source, String reason, Object rawRecord);
+
+    /**
+     * Reports a row that was kept with a substituted value, such as receive time falling back to event time.
+     *
+     * @param source Source name
+     * @param reason Short, low-cardinality description of the substitution
+     */
+    void fallback(String source, String reason);
+
+    /**
+     * Returns the aggregation reason for an unexpected transformation failure.
+     */
+    static String reason(Throwable e) {
+        return e.getClass().getSimpleName();
+    }
+}
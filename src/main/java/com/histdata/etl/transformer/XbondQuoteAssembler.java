@@ -0,0 +1,181 @@
+package com.histdata.etl.transformer;
+
+import com.histdata.etl.datasource.MappedCsvReader;
+import com.histdata.etl.model.XbondQuoteRecord;
+import com.histdata.etl.model.batch.SymbolDictionary;
+import org.apache.commons.csv.CSVRecord;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+/**
+ * Assembles AllPriceDepth rows into depth books in a single pass over the file.
+ * Rows of one snapshot are contiguous and share an mq_offset and security, so a change of either closes the
+ * current book. Each row is written straight into the slot of its level and side, which needs no grouping
+ * map and no sort; memory is one book regardless of file size.
+ * <p>
+ * A snapshot without a receive time or with a row that cannot be parsed is dropped as a whole and reported to the
+ * {@link RejectSink}.
+ */
+public class XbondQuoteAssembler {
+    static final String SOURCE = "quote";
+
+    private final Date businessDate;
+    private final RejectSink rejects;
+    private final SymbolDictionary symbols;
+
+    private String currentOffset;
+    private String currentSecurity;
+    private XbondQuoteRecord book;
+    private XbondQuoteTransformer.QuoteColumns columns;
+
+    private long assembled;
+    private long rejected;
+
+    public XbondQuoteAssembler(LocalDate businessDate) {
+        this(businessDate, RejectSink.LOGGING);
+    }
+
+    public XbondQuoteAssembler(LocalDate businessDate, RejectSink rejects) {
+        this(businessDate, rejects, new SymbolDictionary());
+    }
+
+    public XbondQuoteAssembler(LocalDate businessDate, RejectSink rejects, SymbolDictionary symbols) {
+        this.businessDate = Date.valueOf(businessDate);
+        this.rejects = rejects;
+        this.symbols = symbols;
+    }
+
+    /**
+     * Adds the next row in file order.
+     *
+     * @param row AllPriceDepth row
+     * @return The book completed by this row starting a new snapshot, or null
+     */
+    public XbondQuoteRecord add(CSVRecord row) {
+        String offset = row.get("mq_offset");
+        String security = row.get("underlying_security_id");
+
+        XbondQuoteRecord completed = null;
+        if (!equals(offset, currentOffset) || !equals(security, currentSecurity)) {
+            completed = complete();
+            currentOffset = offset;
+            currentSecurity = security;
+            try {
+                book = XbondQuoteTransformer.openBook(row, businessDate, rejects, symbols);
+                if (book == null) {
+                    rejected++;
+                }
+            } catch (Exception e) {
+                reject(e, row);
+            }
+        }
+
+        if (book != null) {
+            try {
+                XbondQuoteTransformer.applyLevel(book, row);
+            } catch (RuntimeException e) {
+                reject(e, row);
+            }
+        }
+        return completed;
+    }
+
+    /**
+     * Adds the current row of a memory-mapped file in file order. Offsets and security ids are compared in
+     * place, so only the first row of a snapshot creates Strings for them.
+     *
+     * @param row Reader positioned on an AllPriceDepth row
+     * @return The book completed by this row starting a new snapshot, or null
+     */
+    public XbondQuoteRecord add(MappedCsvReader row) {
+        XbondQuoteTransformer.QuoteColumns columns = bind(row);
+
+        XbondQuoteRecord completed = null;
+        if (currentOffset == null || !row.fieldEquals(columns.mqOffset, currentOffset)
+                || !row.fieldEquals(columns.securityId, currentSecurity)) {
+            String offset = row.getString(columns.mqOffset);
+            String security = row.getString(columns.securityId);
+            completed = complete();
+            currentOffset = offset;
+            currentSecurity = security;
+            try {
+                book = XbondQuoteTransformer.openBook(row, columns, businessDate, rejects, symbols);
+                if (book == null) {
+                    rejected++;
+                }
+            } catch (RuntimeException e) {
+                reject(e, row);
+            }
+        }
+
+        if (book != null) {
+            try {
+                XbondQuoteTransformer.applyLevel(book, row, columns);
+            } catch (RuntimeException e) {
+                reject(e, row);
+            }
+        }
+        return completed;
+    }
+
+    /**
+     * Closes the last snapshot at the end of the input.
+     *
+     * @return The last book, or null if there is none
+     */
+    public XbondQuoteRecord finish() {
+        XbondQuoteRecord completed = complete();
+        currentOffset = null;
+        currentSecurity = null;
+        return completed;
+    }
+
+    /**
+     * Returns the number of books completed so far.
+     */
+    public long getAssembled() {
+        return assembled;
+    }
+
+    /**
+     * Returns the number of snapshots dropped.
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Tells whether two adjacent rows belong to the same snapshot.
+     */
+    public static boolean sameSnapshot(CSVRecord previous, CSVRecord next) {
+        return equals(previous.get("mq_offset"), next.get("mq_offset"))
+                && equals(previous.get("underlying_security_id"), next.get("underlying_security_id"));
+    }
+
+    private XbondQuoteRecord complete() {
+        XbondQuoteRecord completed = book;
+        book = null;
+        if (completed != null) {
+            assembled++;
+        }
+        return completed;
+    }
+
+    private XbondQuoteTransformer.QuoteColumns bind(MappedCsvReader row) {
+        if (columns == null || columns.reader != row) {
+            columns = new XbondQuoteTransformer.QuoteColumns(row);
+        }
+        return columns;
+    }
+
+    private void reject(Exception e, Object row) {
+        rejected++;
+        book = null;
+        rejects.reject(SOURCE, RejectSink.reason(e), row);
+    }
+
+    private static boolean equals(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
@@ -1,30 +1,52 @@
 package com.histdata.etl.transformer;
 
+import com.histdata.etl.datasource.MappedCsvReader;
 import com.histdata.etl.model.XbondQuoteRecord;
+import com.histdata.etl.model.batch.SymbolDictionary;
 import com.histdata.etl.util.DateUtils;
 import org.apache.commons.csv.CSVRecord;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import java.sql.Date;
 import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.text.ParseException;
-import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * Transforms AllPriceDepth CSV records into XbondQuoteRecord objects.
- * Groups records by mq_offset and underlying_security_id, then creates one XbondQuoteRecord per group.
+ * Accepts either a map of rows already grouped by mq_offset and underlying_security_id, producing one
+ * XbondQuoteRecord per group, or single rows in file order, as CSVRecords or as the current row of a
+ * {@link MappedCsvReader}. Single rows are assembled by an {@link XbondQuoteAssembler}: each call returns the
+ * book completed by that row, and {@link #finish} returns the last one. An instance therefore serves one
+ * stream of rows at a time.
  */
 public class XbondQuoteTransformer implements DataTransformer<Object> {
-    private static final Logger logger = LoggerFactory.getLogger(XbondQuoteTransformer.class);
+    private XbondQuoteAssembler assembler;
+    private RejectSink rejects = RejectSink.LOGGING;
+    private SymbolDictionary symbols = new SymbolDictionary();
+
+    @Override
+    public void setRejectSink(RejectSink rejects) {
+        this.rejects = rejects;
+    }
+
+    @Override
+    public void setSymbolDictionary(SymbolDictionary symbols) {
+        this.symbols = symbols;
+    }
 
     @Override
     public XbondQuoteRecord transform(Object rawRecord, LocalDate businessDate) throws Exception {
+        if (rawRecord instanceof MappedCsvReader) {
+            return transform((MappedCsvReader) rawRecord, businessDate);
+        }
+        if (rawRecord instanceof CSVRecord) {
+            if (assembler == null) {
+                assembler = new XbondQuoteAssembler(businessDate, rejects, symbols);
+            }
+            return assembler.add((CSVRecord) rawRecord);
+        }
         if (!(rawRecord instanceof Map)) {
             throw new IllegalArgumentException("Expected Map of CSVRecords, got: " + rawRecord.getClass());
         }
@@ -36,60 +58,137 @@ public class XbondQuoteTransformer implements DataTransformer<Object> {
             return null;
         }
 
-        Date businessDateSql = new Date(java.sql.Date.valueOf(businessDate).getTime());
+        Date businessDateSql = Date.valueOf(businessDate);
         XbondQuoteRecord result = null;
 
         for (Map.Entry<String, List<CSVRecord>> entry : groupedRecords.entrySet()) {
             List<CSVRecord> records = entry.getValue();
-            CSVRecord firstRecord = records.get(0);
+            result = openBook(records.get(0), businessDateSql, rejects, symbols);
+            if (result == null) {
+                return null;
+            }
+            for (CSVRecord record : records) {
+                applyLevel(result, record);
+            }
+        }
 
-            String securityId = firstRecord.get("underlying_security_id") + ".IB";
+        return result;
+    }
 
-            result = new XbondQuoteRecord(businessDateSql, securityId);
+    /**
+     * Adds the current row of a memory-mapped AllPriceDepth file to the book being assembled, parsing numbers
+     * and timestamps from the bytes. Rows that cannot be parsed drop their snapshot and are reported to the
+     * reject sink.
+     *
+     * @param row Reader positioned on an AllPriceDepth row
+     * @param businessDate Business date
+     * @return The book completed by this row starting a new snapshot, or null
+     */
+    public XbondQuoteRecord transform(MappedCsvReader row, LocalDate businessDate) {
+        if (assembler == null) {
+            assembler = new XbondQuoteAssembler(businessDate, rejects, symbols);
+        }
+        return assembler.add(row);
+    }
 
-            int settleSpeedRaw = Integer.parseInt(firstRecord.get("underlying_settlement_type"));
-            result.setSettleSpeed(settleSpeedRaw == 1 ? 0 : 1);
+    /**
+     * Returns the book still being assembled from single rows once the stream has ended.
+     */
+    @Override
+    public XbondQuoteRecord finish(LocalDate businessDate) {
+        if (assembler == null) {
+            return null;
+        }
+        XbondQuoteRecord last = assembler.finish();
+        assembler = null;
+        return last;
+    }
 
-            result.setEventTime(parseTimestamp(firstRecord.get("transact_time")));
+    /**
+     * Starts a book from the first row of a snapshot, or returns null after rejecting a snapshot without receive time.
+     */
+    static XbondQuoteRecord openBook(CSVRecord firstRecord, Date businessDate, RejectSink rejects,
+                                     SymbolDictionary symbols) throws ParseException {
+        String securityId = symbols.intern(firstRecord.get("underlying_security_id") + ".IB");
 
-            String recvTimeStr = firstRecord.get("recv_time");
-            if (recvTimeStr == null || recvTimeStr.isEmpty()) {
-                logger.warn("receive_time is null for security {}, skipping record", securityId);
-                return null;
-            }
-            result.setReceiveTime(parseTimestamp(recvTimeStr));
-
-            List<CSVRecord> sortedRecords = new ArrayList<>(records);
-            sortedRecords.sort(Comparator
-                    .comparing((CSVRecord r) -> Integer.parseInt(r.get("underlying_md_price_level")))
-                    .thenComparing(r -> Integer.parseInt(r.get("underlying_md_entry_type"))));
-
-            for (CSVRecord record : sortedRecords) {
-                int entryType = Integer.parseInt(record.get("underlying_md_entry_type"));
-                int level = Integer.parseInt(record.get("underlying_md_price_level"));
-                double price = Double.parseDouble(record.get("underlying_md_entry_px"));
-                Double yield = record.isSet("underlying_md_yield") && !record.get("underlying_md_yield").isEmpty()
-                        ? Double.parseDouble(record.get("underlying_md_yield")) : null;
-                String yieldType = record.isSet("underlying_md_yield_type") ? record.get("underlying_md_yield_type") : null;
-                long volume = Long.parseLong(record.get("underlying_md_entry_size"));
-
-                if (entryType == 0) {
-                    setBidField(result, level, price, yield, yieldType, volume);
-                } else if (entryType == 1) {
-                    setOfferField(result, level, price, yield, yieldType, volume);
-                }
-            }
+        XbondQuoteRecord result = new XbondQuoteRecord(businessDate, securityId);
+
+        int settleSpeedRaw = Integer.parseInt(firstRecord.get("underlying_settlement_type"));
+        result.setSettleSpeed(settleSpeedRaw == 1 ? 0 : 1);
+
+        result.setEventTime(parseTimestamp(firstRecord.get("transact_time")));
+
+        String recvTimeStr = firstRecord.get("recv_time");
+        if (recvTimeStr == null || recvTimeStr.isEmpty()) {
+            rejects.reject(XbondQuoteAssembler.SOURCE, "recv_time is null", firstRecord);
+            return null;
+        }
+        result.setReceiveTime(parseTimestamp(recvTimeStr));
+        return result;
+    }
+
+    /**
+     * Writes one depth row into the slot of its side and level. Slots are fixed, so rows may come in any order.
+     */
+    static void applyLevel(XbondQuoteRecord book, CSVRecord record) {
+        int entryType = Integer.parseInt(record.get("underlying_md_entry_type"));
+        int level = Integer.parseInt(record.get("underlying_md_price_level"));
+        double price = Double.parseDouble(record.get("underlying_md_entry_px"));
+        Double yield = record.isSet("underlying_md_yield") && !record.get("underlying_md_yield").isEmpty()
+                ? Double.parseDouble(record.get("underlying_md_yield")) : null;
+        String yieldType = record.isSet("underlying_md_yield_type") ? record.get("underlying_md_yield_type") : null;
+        long volume = Long.parseLong(record.get("underlying_md_entry_size"));
+
+        if (entryType == 0) {
+            setBidField(book, level, price, yield, yieldType, volume);
+        } else if (entryType == 1) {
+            setOfferField(book, level, price, yield, yieldType, volume);
         }
+    }
+
+    /**
+     * Starts a book from the current row of a memory-mapped file, like {@link #openBook(CSVRecord, Date, RejectSink, SymbolDictionary)}.
+     */
+    static XbondQuoteRecord openBook(MappedCsvReader row, QuoteColumns columns, Date businessDate, RejectSink rejects,
+                                     SymbolDictionary symbols) {
+        String securityId = symbols.intern(row.getString(columns.securityId) + ".IB");
 
+        XbondQuoteRecord result = new XbondQuoteRecord(businessDate, securityId);
+        result.setSettleSpeed(row.getInt(columns.settlementType) == 1 ? 0 : 1);
+        result.setEventTime(new Timestamp(row.getTimestampMillis(columns.transactTime)));
+
+        if (row.isEmpty(columns.recvTime)) {
+            rejects.reject(XbondQuoteAssembler.SOURCE, "recv_time is null", row);
+            return null;
+        }
+        result.setReceiveTime(new Timestamp(row.getTimestampMillis(columns.recvTime)));
         return result;
     }
 
-    private Timestamp parseTimestamp(String timestampStr) throws ParseException {
-        java.util.Date date = DateUtils.parseTimestamp(timestampStr, "yyyy-MM-dd HH:mm:ss.SSS");
-        return new Timestamp(date.getTime());
+    /**
+     * Writes the current row of a memory-mapped file into the slot of its side and level.
+     */
+    static void applyLevel(XbondQuoteRecord book, MappedCsvReader row, QuoteColumns columns) {
+        int entryType = row.getInt(columns.entryType);
+        int level = row.getInt(columns.priceLevel);
+        double price = row.getDouble(columns.entryPx);
+        Double yield = row.isEmpty(columns.yield) ? null : row.getDouble(columns.yield);
+        String yieldType = columns.yieldType >= 0 && columns.yieldType < row.getFieldCount()
+                ? row.getString(columns.yieldType) : null;
+        long volume = row.getLong(columns.entrySize);
+
+        if (entryType == 0) {
+            setBidField(book, level, price, yield, yieldType, volume);
+        } else if (entryType == 1) {
+            setOfferField(book, level, price, yield, yieldType, volume);
+        }
     }
 
-    private void setBidField(XbondQuoteRecord record, int level, double price, Double yield, String yieldType, long volume) {
+    private static Timestamp parseTimestamp(String timestampStr) throws ParseException {
+        return new Timestamp(DateUtils.parseTimestampMillis(timestampStr));
+    }
+
+    private static void setBidField(XbondQuoteRecord record, int level, double price, Double yield, String yieldType, long volume) {
         switch (level) {
             case 1:
                 record.setBid0Price(price);
@@ -136,7 +235,7 @@ public class XbondQuoteTransformer implements DataTransformer<Object> {
         }
     }
 
-    private void setOfferField(XbondQuoteRecord record, int level, double price, Double yield, String yieldType, long volume) {
+    private static void setOfferField(XbondQuoteRecord record, int level, double price, Double yield, String yieldType, long volume) {
         switch (level) {
             case 1:
                 record.setOffer0Price(price);
@@ -182,4 +281,37 @@ public class XbondQuoteTransformer implements DataTransformer<Object> {
                 break;
         }
     }
+
+    /**
+     * Column indices resolved once per file header. The yield columns are optional.
+     */
+    static final class QuoteColumns {
+        final MappedCsvReader reader;
+        final int mqOffset;
+        final int securityId;
+        final int settlementType;
+        final int transactTime;
+        final int recvTime;
+        final int entryType;
+        final int priceLevel;
+        final int entryPx;
+        final int yield;
+        final int yieldType;
+        final int entrySize;
+
+        QuoteColumns(MappedCsvReader reader) {
+            this.reader = reader;
+            this.mqOffset = reader.requireColumn("mq_offset");
+            this.securityId = reader.requireColumn("underlying_security_id");
+            this.settlementType = reader.requireColumn("underlying_settlement_type");
+            this.transactTime = reader.requireColumn("transact_time");
+            this.recvTime = reader.requireColumn("recv_time");
+            this.entryType = reader.requireColumn("underlying_md_entry_type");
+            this.priceLevel = reader.requireColumn("underlying_md_price_level");
+            this.entryPx = reader.requireColumn("underlying_md_entry_px");
+            this.yield = reader.columnIndex("underlying_md_yield");
+            this.yieldType = reader.columnIndex("underlying_md_yield_type");
+            this.entrySize = reader.requireColumn("underlying_md_entry_size");
+        }
+    }
 }
@@ -1,10 +1,10 @@
 package com.histdata.etl.transformer;
 
+import com.histdata.etl.datasource.MappedCsvReader;
 import com.histdata.etl.model.XbondTradeRecord;
+import com.histdata.etl.model.batch.SymbolDictionary;
 import com.histdata.etl.util.DateUtils;
 import org.apache.commons.csv.CSVRecord;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import java.sql.Date;
 import java.sql.Timestamp;
@@ -12,20 +12,44 @@ import java.time.LocalDate;
 
 /**
  * Transforms XbondCfetsDeal CSV records into XbondTradeRecord objects.
- * One source record produces one XbondTradeRecord.
+ * One source record, a CSVRecord or the current row of a {@link MappedCsvReader}, produces one XbondTradeRecord.
  */
 public class XbondTradeTransformer implements DataTransformer<Object> {
-    private static final Logger logger = LoggerFactory.getLogger(XbondTradeTransformer.class);
+
+    private static final String SOURCE = "trade";
+
+    private RowColumns rowColumns;
+    private RejectSink rejects = RejectSink.LOGGING;
+    private SymbolDictionary symbols = new SymbolDictionary();
+
+    @Override
+    public void setRejectSink(RejectSink rejects) {
+        this.rejects = rejects;
+    }
+
+    @Override
+    public void setSymbolDictionary(SymbolDictionary symbols) {
+        this.symbols = symbols;
+    }
 
     @Override
     public XbondTradeRecord transform(Object rawRecord, LocalDate businessDate) throws Exception {
+        if (rawRecord instanceof MappedCsvReader) {
+            return transform((MappedCsvReader) rawRecord, businessDate);
+        }
         if (!(rawRecord instanceof CSVRecord)) {
             throw new IllegalArgumentException("Expected CSVRecord, got: " + rawRecord.getClass());
         }
 
         CSVRecord record = (CSVRecord) rawRecord;
 
-        String securityId = record.get("bond_key");
+        String lastTradeSide = mapSide(record.get("side"));
+        if (lastTradeSide == null) {
+            rejects.reject(SOURCE, "unknown side", record);
+            return null;
+        }
+
+        String securityId = symbols.intern(record.get("bond_key"));
         java.sql.Date businessDateSql = new java.sql.Date(java.sql.Date.valueOf(businessDate).getTime());
 
         XbondTradeRecord result = new XbondTradeRecord(businessDateSql, securityId);
@@ -52,27 +76,141 @@ public class XbondTradeTransformer implements DataTransformer<Object> {
         long dealSize = Long.parseLong(record.get("deal_size"));
         result.setLastTradeVolume(dealSize);
 
-        String side = record.get("side");
-        String lastTradeSide = mapSide(side);
         result.setLastTradeSide(lastTradeSide);
 
         String dealTimeStr = record.get("deal_time");
-        java.sql.Timestamp eventTime = new java.sql.Timestamp(DateUtils.parseTimestamp(dealTimeStr, "yyyy-MM-dd HH:mm:ss.SSS").getTime());
+        java.sql.Timestamp eventTime = new java.sql.Timestamp(DateUtils.parseTimestampMillis(dealTimeStr));
         result.setEventTime(eventTime);
 
         String recvTimeStr = record.get("recv_time");
         Timestamp receiveTime;
         if (recvTimeStr != null && !recvTimeStr.isEmpty()) {
-            receiveTime = new java.sql.Timestamp(DateUtils.parseTimestamp(recvTimeStr, "yyyy-MM-dd HH:mm:ss.SSS").getTime());
+            receiveTime = new java.sql.Timestamp(DateUtils.parseTimestampMillis(recvTimeStr));
         } else {
             receiveTime = eventTime;
-            logger.warn("recv_time is null for trade {}, falling back to event_time", securityId);
+            rejects.fallback(SOURCE, "recv_time is null, using deal_time");
         }
         result.setReceiveTime(receiveTime);
 
         return result;
     }
 
+    /**
+     * Transforms the current row of a memory-mapped CSV file, parsing numbers and timestamps from the bytes.
+     *
+     * @param row Reader positioned on an XbondCfetsDeal row
+     * @param businessDate Business date
+     * @return Transformed record, or null if the row was rejected
+     */
+    public XbondTradeRecord transform(MappedCsvReader row, LocalDate businessDate) {
+        RowColumns columns = bind(row);
+        String side = mapSide(row, columns.side);
+        if (side == null || !accept(row, columns)) {
+            return null;
+        }
+        String securityId = symbols.intern(row.getString(columns.bondKey));
+        XbondTradeRecord result = new XbondTradeRecord(Date.valueOf(businessDate), securityId);
+
+        result.setLastTradePrice(row.getDouble(columns.netPrice));
+        result.setSettleSpeed(row.fieldEquals(columns.setDays, "T+0") ? 0 : 1);
+        if (!row.isEmpty(columns.yield)) {
+            result.setLastTradeYield(row.getDouble(columns.yield));
+        }
+        if (!row.isEmpty(columns.yieldType)) {
+            result.setLastTradeYieldType(row.getInt(columns.yieldType) == 0 ? "MATURITY" : "EXERCISE");
+        }
+        result.setLastTradeVolume(row.getLong(columns.dealSize));
+        result.setLastTradeSide(side);
+
+        long eventTime = row.getTimestampMillis(columns.dealTime);
+        result.setEventTime(new Timestamp(eventTime));
+        result.setReceiveTime(new Timestamp(receiveTime(row, columns, eventTime)));
+        return result;
+    }
+
+    private long receiveTime(MappedCsvReader row, RowColumns columns, long eventTime) {
+        if (!row.isEmpty(columns.recvTime)) {
+            return row.getTimestampMillis(columns.recvTime);
+        }
+        rejects.fallback(SOURCE, "recv_time is null, using deal_time");
+        return eventTime;
+    }
+
+    /**
+     * Rejects rows with an unknown side or a missing mandatory field without parsing them.
+     * Rows passing this check can only fail on malformed numbers or timestamps.
+     */
+    private boolean accept(MappedCsvReader row, RowColumns columns) {
+        if (row.isEmpty(columns.netPrice)) {
+            rejects.reject(SOURCE, "net_price is empty", row);
+            return false;
+        }
+        if (row.isEmpty(columns.dealSize)) {
+            rejects.reject(SOURCE, "deal_size is empty", row);
+            return false;
+        }
+        if (row.isEmpty(columns.dealTime)) {
+            rejects.reject(SOURCE, "deal_time is empty", row);
+            return false;
+        }
+        return true;
+    }
+
+    private RowColumns bind(MappedCsvReader row) {
+        RowColumns columns = rowColumns;
+        if (columns == null || columns.reader != row) {
+            columns = new RowColumns(row);
+            rowColumns = columns;
+        }
+        return columns;
+    }
+
+    private String mapSide(MappedCsvReader row, int column) {
+        if (row.fieldEquals(column, "X")) {
+            return "TKN";
+        }
+        if (row.fieldEquals(column, "Y")) {
+            return "GVN";
+        }
+        if (row.fieldEquals(column, "Z")) {
+            return "TRD";
+        }
+        if (row.fieldEquals(column, "D")) {
+            return "DONE";
+        }
+        rejects.reject(SOURCE, "unknown side", row);
+        return null;
+    }
+
+    /**
+     * Column indices resolved once per file header.
+     */
+    private static final class RowColumns {
+        private final MappedCsvReader reader;
+        private final int bondKey;
+        private final int netPrice;
+        private final int setDays;
+        private final int yield;
+        private final int yieldType;
+        private final int dealSize;
+        private final int side;
+        private final int dealTime;
+        private final int recvTime;
+
+        RowColumns(MappedCsvReader reader) {
+            this.reader = reader;
+            this.bondKey = reader.requireColumn("bond_key");
+            this.netPrice = reader.requireColumn("net_price");
+            this.setDays = reader.requireColumn("set_days");
+            this.yield = reader.requireColumn("yield");
+            this.yieldType = reader.requireColumn("yield_type");
+            this.dealSize = reader.requireColumn("deal_size");
+            this.side = reader.requireColumn("side");
+            this.dealTime = reader.requireColumn("deal_time");
+            this.recvTime = reader.requireColumn("recv_time");
+        }
+    }
+
     private String mapSide(String side) {
         switch (side) {
             case "X":
@@ -84,7 +222,7 @@ public class XbondTradeTransformer implements DataTransformer<Object> {
             case "D":
                 return "DONE";
             default:
-                throw new IllegalArgumentException("Unknown side value: " + side);
+                return null;
         }
     }
 }
@@ -0,0 +1,208 @@
+package com.histdata.etl.util;
+
+import com.histdata.etl.loader.LoadCheckpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Durable record of the progress of a backfill, kept next to the lock file so an interrupted run can be resumed.
+ * Each line is appended and forced to disk before the call returns:
+ * <pre>
+ * 20250101 SOURCE quote 51234
+ * 20250101 LOADED 40000
+ * 20250101 RESTART
+ * 20250101 DONE 312345
+ * </pre>
+ * SOURCE records the rows a source produced for the day, LOADED the number of records of the day's merged
+ * stream acknowledged by DolphinDB, RESTART a day whose rows were cleared to be loaded again from its start,
+ * and DONE a completed day. A line torn by a crash is ignored when read back.
+ * Safe for use by days processed in parallel.
+ */
+public class CheckpointJournal implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(CheckpointJournal.class);
+
+    static final String JOURNAL_FILE_NAME = ".etl-tool.journal";
+
+    private final File file;
+    private final Map<LocalDate, DayProgress> days = new HashMap<>();
+    private final FileOutputStream out;
+
+    private CheckpointJournal(File file, boolean resume) throws IOException {
+        this.file = file;
+        if (resume && file.exists()) {
+            read();
+        }
+        this.out = new FileOutputStream(file, resume);
+    }
+
+    /**
+     * Opens the journal.
+     *
+     * @param file Journal file
+     * @param resume If true the progress recorded by earlier runs is kept; otherwise the journal starts empty
+     * @return Open journal
+     * @throws IOException if the journal cannot be read or opened
+     */
+    public static CheckpointJournal open(File file, boolean resume) throws IOException {
+        return new CheckpointJournal(file, resume);
+    }
+
+    /**
+     * Returns the journal file in the directory of the lock file.
+     */
+    public static File nextTo(File lockFile) {
+        return new File(lockFile.getAbsoluteFile().getParentFile(), JOURNAL_FILE_NAME);
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Returns true if an earlier run completed the day.
+     */
+    public synchronized boolean isDayComplete(LocalDate businessDate) {
+        DayProgress day = days.get(businessDate);
+        return day != null && day.complete;
+    }
+
+    /**
+     * Returns the number of records of the day's merged stream already loaded.
+     */
+    public synchronized long getLoadedRecords(LocalDate businessDate) {
+        DayProgress day = days.get(businessDate);
+        return day == null ? 0 : day.loaded;
+    }
+
+    /**
+     * Returns the rows each source produced for the day, in the order they were recorded.
+     */
+    public synchronized Map<String, Long> getSourceRows(LocalDate businessDate) {
+        DayProgress day = days.get(businessDate);
+        return day == null ? Collections.emptyMap() : new LinkedHashMap<>(day.sources);
+    }
+
+    /**
+     * Records the rows a source produced for the day.
+     */
+    public synchronized void recordSource(LocalDate businessDate, String source, long rows) throws IOException {
+        append(businessDate, "SOURCE " + source + " " + rows);
+        day(businessDate).sources.put(source, rows);
+    }
+
+    /**
+     * Records that the first {@code records} records of the day's merged stream are loaded.
+     */
+    public synchronized void recordLoaded(LocalDate businessDate, long records) throws IOException {
+        append(businessDate, "LOADED " + records);
+        day(businessDate).loaded = records;
+    }
+
+    /**
+     * Records that the day is loaded again from its first record, discarding its sources and loaded records.
+     */
+    public synchronized void restartDay(LocalDate businessDate) throws IOException {
+        append(businessDate, "RESTART");
+        days.remove(businessDate);
+    }
+
+    /**
+     * Records a completed day.
+     */
+    public synchronized void recordDayComplete(LocalDate businessDate, long records) throws IOException {
+        append(businessDate, "DONE " + records);
+        DayProgress day = day(businessDate);
+        day.loaded = records;
+        day.complete = true;
+    }
+
+    /**
+     * Returns the load checkpoint of a day's merged stream.
+     */
+    public LoadCheckpoint checkpoint(LocalDate businessDate) {
+        return new LoadCheckpoint() {
+            @Override
+            public long getLoadedRecords() {
+                return CheckpointJournal.this.getLoadedRecords(businessDate);
+            }
+
+            @Override
+            public void recordLoaded(long loadedRecords) throws IOException {
+                CheckpointJournal.this.recordLoaded(businessDate, loadedRecords);
+            }
+        };
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+
+    private void append(LocalDate businessDate, String entry) throws IOException {
+        String line = businessDate.format(DateTimeFormatter.BASIC_ISO_DATE) + " " + entry + "\n";
+        out.write(line.getBytes(StandardCharsets.UTF_8));
+        out.getChannel().force(false);
+    }
+
+    private DayProgress day(LocalDate businessDate) {
+        return days.computeIfAbsent(businessDate, d -> new DayProgress());
+    }
+
+    private void read() throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.trim().split(" ");
+                try {
+                    apply(fields);
+                } catch (DateTimeParseException | IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                    logger.warn("Ignoring unreadable checkpoint journal line: {}", line);
+                }
+            }
+        }
+    }
+
+    private void apply(String[] fields) {
+        LocalDate businessDate = LocalDate.parse(fields[0], DateTimeFormatter.BASIC_ISO_DATE);
+        switch (fields[1]) {
+            case "SOURCE":
+                long rows = Long.parseLong(fields[3]);
+                day(businessDate).sources.put(fields[2], rows);
+                break;
+            case "LOADED":
+                day(businessDate).loaded = Long.parseLong(fields[2]);
+                break;
+            case "RESTART":
+                days.remove(businessDate);
+                break;
+            case "DONE":
+                DayProgress day = day(businessDate);
+                day.loaded = Long.parseLong(fields[2]);
+                day.complete = true;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown entry " + fields[1]);
+        }
+    }
+
+    private static final class DayProgress {
+        private final Map<String, Long> sources = new LinkedHashMap<>();
+        private long loaded;
+        private boolean complete;
+    }
+}
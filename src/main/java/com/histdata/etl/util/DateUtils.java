@@ -63,9 +63,29 @@ public class DateUtils {
      * @throws ParseException if the timestamp string is invalid
      */
     public static Date parseTimestamp(String timestampStr) throws ParseException {
+        return new Date(parseTimestampMillis(timestampStr));
+    }
+
+    /**
+     * Parses a timestamp string in yyyy-MM-dd HH:mm:ss.SSS format to epoch milliseconds.
+     * Full-length values go through the allocation-free {@link TimestampParser}; anything it rejects,
+     * such as a shortened fraction, falls back to SimpleDateFormat so accepted input is unchanged.
+     *
+     * @param timestampStr Timestamp string
+     * @return Epoch milliseconds
+     * @throws ParseException if the timestamp string is invalid
+     */
+    public static long parseTimestampMillis(String timestampStr) throws ParseException {
+        if (timestampStr != null && timestampStr.length() == TimestampParser.LENGTH) {
+            try {
+                return TimestampParser.parseMillis(timestampStr);
+            } catch (IllegalArgumentException e) {
+                // Fall through to the lenient-width SimpleDateFormat path below
+            }
+        }
         SimpleDateFormat sdf = new SimpleDateFormat(TIMESTAMP_FORMAT);
         sdf.setLenient(false);
-        return sdf.parse(timestampStr);
+        return sdf.parse(timestampStr).getTime();
     }
 
     /**
@@ -77,6 +97,9 @@ public class DateUtils {
      * @throws ParseException if the timestamp string is invalid
      */
     public static Date parseTimestamp(String timestampStr, String format) throws ParseException {
+        if (TIMESTAMP_FORMAT.equals(format)) {
+            return parseTimestamp(timestampStr);
+        }
         SimpleDateFormat sdf = new SimpleDateFormat(format);
         sdf.setLenient(false);
         return sdf.parse(timestampStr);
@@ -110,6 +110,13 @@ public class FileLock {
         }
     }
 
+    /**
+     * Returns the lock file, whose directory also holds the checkpoint journal.
+     */
+    public File getLockFile() {
+        return lockFile;
+    }
+
     /**
      * Checks if the existing lock file is stale (process not running).
      *
@@ -0,0 +1,141 @@
+package com.histdata.etl.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Admits business days by their estimated heap footprint and watches the live heap while they run.
+ * <p>
+ * A day is estimated from the size of its COS objects and the number of its {@code fut_tick} rows, and
+ * reserves that much of a {@link MemoryBudget} before it starts. The live heap is tracked through
+ * collection-usage thresholds set at {@link #PRESSURE_FRACTION} of the heap pools that support them (the
+ * tenured generation). They compare the usage measured right after a collection, so a pool full of garbage that
+ * has not been collected yet does not count; a pool without collection thresholds falls back to a plain usage
+ * threshold. While a threshold is exceeded the heap is under pressure: the budget admits no further
+ * day until a running one ends, and spilling sorters write their buffers to disk. Close the controller to
+ * clear the thresholds and remove their listener.
+ */
+public class MemoryAdmissionController implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(MemoryAdmissionController.class);
+
+    static final double PRESSURE_FRACTION = 0.75;
+
+    // Rough heap per source byte or row of a materialized day, erring high: a quote book is assembled from
+    // several depth rows, and every record holds boxed fields
+    static final double QUOTE_HEAP_PER_CSV_BYTE = 1.5;
+    static final double TRADE_HEAP_PER_CSV_BYTE = 2.0;
+    static final long FUTURE_HEAP_PER_ROW = 1024;
+    static final long DAY_OVERHEAD_BYTES = 64L * 1024 * 1024;
+
+    private final MemoryBudget budget;
+    private final List<MemoryPoolMXBean> pools = new ArrayList<>();
+    private final NotificationEmitter emitter;
+    private final NotificationListener listener = this::onThresholdExceeded;
+
+    /**
+     * Creates a controller and sets the pressure thresholds on the heap pools.
+     *
+     * @param capacityBytes Heap the running days may reserve at once
+     */
+    public MemoryAdmissionController(long capacityBytes) {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() != MemoryType.HEAP || !pool.isUsageThresholdSupported()) {
+                continue;
+            }
+            long max = pool.getUsage().getMax();
+            long threshold = (long) ((max > 0 ? max : Runtime.getRuntime().maxMemory()) * PRESSURE_FRACTION);
+            if (pool.isCollectionUsageThresholdSupported()) {
+                pool.setCollectionUsageThreshold(threshold);
+            } else {
+                pool.setUsageThreshold(threshold);
+            }
+            pools.add(pool);
+            logger.debug("Heap pressure threshold of {} set at {} MB", pool.getName(), threshold / 1024 / 1024);
+        }
+        this.emitter = (NotificationEmitter) ManagementFactory.getMemoryMXBean();
+        emitter.addNotificationListener(listener, null, null);
+        this.budget = new MemoryBudget(capacityBytes, this::isUnderPressure);
+    }
+
+    /**
+     * Returns the budget days reserve their estimates from; it holds back new days while under pressure.
+     */
+    public MemoryBudget getBudget() {
+        return budget;
+    }
+
+    /**
+     * Returns true while a tenured heap pool was above its threshold after the last collection, or, for a pool
+     * without collection thresholds, is above it now. Without threshold support the used fraction of the whole
+     * heap is compared instead.
+     */
+    public boolean isUnderPressure() {
+        if (pools.isEmpty()) {
+            Runtime runtime = Runtime.getRuntime();
+            return runtime.totalMemory() - runtime.freeMemory() > runtime.maxMemory() * PRESSURE_FRACTION;
+        }
+        for (MemoryPoolMXBean pool : pools) {
+            if (pool.isCollectionUsageThresholdSupported()
+                    ? pool.isCollectionUsageThresholdExceeded() : pool.isUsageThresholdExceeded()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Estimates the heap a materialized day needs from the size of its sources.
+     *
+     * @param quoteBytes Total size of the day's quote objects
+     * @param tradeBytes Total size of the day's trade objects
+     * @param futureRows Number of the day's fut_tick rows
+     * @return Estimated bytes
+     */
+    public static long estimateDayBytes(long quoteBytes, long tradeBytes, long futureRows) {
+        return DAY_OVERHEAD_BYTES
+                + (long) (quoteBytes * QUOTE_HEAP_PER_CSV_BYTE)
+                + (long) (tradeBytes * TRADE_HEAP_PER_CSV_BYTE)
+                + futureRows * FUTURE_HEAP_PER_ROW;
+    }
+
+    @Override
+    public void close() {
+        try {
+            emitter.removeNotificationListener(listener);
+        } catch (ListenerNotFoundException e) {
+            // Already removed
+        }
+        // A threshold of zero disables it again
+        for (MemoryPoolMXBean pool : pools) {
+            if (pool.isCollectionUsageThresholdSupported()) {
+                pool.setCollectionUsageThreshold(0);
+            } else {
+                pool.setUsageThreshold(0);
+            }
+        }
+    }
+
+    private void onThresholdExceeded(Notification notification, Object handback) {
+        String type = notification.getType();
+        if (!MemoryNotificationInfo.MEMORY_THRESHOLD_EXCEEDED.equals(type)
+                && !MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(type)) {
+            return;
+        }
+        MemoryNotificationInfo info = MemoryNotificationInfo.from((CompositeData) notification.getUserData());
+        logger.warn("Heap under pressure: {} at {} MB of {} MB{}", info.getPoolName(),
+                info.getUsage().getUsed() / 1024 / 1024, info.getUsage().getMax() / 1024 / 1024,
+                MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(type) ? " after collection" : "");
+    }
+}
@@ -0,0 +1,88 @@
+package com.histdata.etl.util;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Heap budget shared by concurrently processed business days.
+ * A day reserves its estimated footprint before it starts and releases it when it ends;
+ * reservations wait while the budget is exhausted. With a pressure signal, reservations also wait while
+ * the heap is under pressure and another day is still running, so days are throttled by the live heap
+ * rather than by the estimates alone.
+ */
+public class MemoryBudget {
+
+    private static final long PRESSURE_POLL_MILLIS = 100;
+
+    private final long capacityBytes;
+    private final BooleanSupplier pressure;
+    private long reservedBytes;
+    private int reservations;
+
+    /**
+     * Creates a budget.
+     *
+     * @param capacityBytes Total bytes that may be reserved at once
+     */
+    public MemoryBudget(long capacityBytes) {
+        this(capacityBytes, () -> false);
+    }
+
+    /**
+     * Creates a budget that also waits for heap pressure to clear.
+     *
+     * @param capacityBytes Total bytes that may be reserved at once
+     * @param pressure Returns true while the heap is under pressure
+     */
+    public MemoryBudget(long capacityBytes, BooleanSupplier pressure) {
+        if (capacityBytes < 0) {
+            throw new IllegalArgumentException("Memory budget must not be negative: " + capacityBytes);
+        }
+        this.capacityBytes = capacityBytes;
+        this.pressure = pressure;
+    }
+
+    /**
+     * Reserves bytes, waiting until enough of the budget is free and, if another reservation is held,
+     * the heap is not under pressure.
+     * A request larger than the whole budget is capped to it, so it runs once nothing else is reserved.
+     *
+     * @param bytes Estimated bytes
+     * @return Bytes actually reserved, to be passed to {@link #release}
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public synchronized long acquire(long bytes) throws InterruptedException {
+        long granted = Math.min(Math.max(bytes, 0), capacityBytes);
+        while (reservedBytes + granted > capacityBytes) {
+            wait();
+        }
+        // Pressure is not signalled, so it is polled; with nothing running the reservation is always granted
+        while (reservations > 0 && pressure.getAsBoolean()) {
+            wait(PRESSURE_POLL_MILLIS);
+            while (reservedBytes + granted > capacityBytes) {
+                wait();
+            }
+        }
+        reservedBytes += granted;
+        reservations++;
+        return granted;
+    }
+
+    /**
+     * Returns bytes reserved by {@link #acquire}.
+     *
+     * @param bytes Bytes returned by acquire
+     */
+    public synchronized void release(long bytes) {
+        reservedBytes -= bytes;
+        reservations--;
+        notifyAll();
+    }
+
+    public long getCapacityBytes() {
+        return capacityBytes;
+    }
+
+    public synchronized long getReservedBytes() {
+        return reservedBytes;
+    }
+}
@@ -1,39 +1,59 @@
 package com.histdata.etl.util;
 
+import com.histdata.etl.loader.LoadCheckpoint;
 import com.histdata.etl.model.EtlJobContext;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Utility class for monitoring and displaying ETL progress to console.
- * Provides real-time status updates with completion percentages.
+ * Tracks ETL progress across concurrently processed days and reports it from a background thread.
+ * <p>
+ * The pipeline threads only add to {@link LongAdder} counters: records produced per source, records
+ * acknowledged by DolphinDB, and days started and completed. They never format or log. Once {@link #start}ed,
+ * a single reporter thread logs every {@link #REPORT_INTERVAL_MS} ms the loaded rows per second, the records of
+ * each source and the ETA of the whole date range. The rate is smoothed with an exponentially weighted moving
+ * average, and the ETA assumes the pending days average as many rows as the completed ones.
  */
-public class ProgressMonitor {
+public class ProgressMonitor implements AutoCloseable {
 
     private static final Logger logger = LoggerFactory.getLogger(ProgressMonitor.class);
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
-    private final LocalDate businessDate;
-    private final int totalDays;
+    /** Source names, matching the names the pipeline and the checkpoint journal use. */
+    public static final String QUOTE = "quote";
+    public static final String TRADE = "trade";
+    public static final String FUTURE = "future";
+
+    static final long REPORT_INTERVAL_MS = 5000;
+    // Weight of the latest interval in the smoothed rate; about the last five reports dominate it
+    static final double RATE_SMOOTHING = 0.3;
 
-    private int currentDayNumber = 0;
-    private long startTime;
-    private long lastUpdate = 0;
-    private long recordsProcessed = 0;
-    private long totalRecords = 0;
+    private final int totalDays;
+    private final Map<String, LongAdder> sources;
+    private final LongAdder loadedRecords = new LongAdder();
+    private final LongAdder completedDayRecords = new LongAdder();
+    private final LongAdder startedDays = new LongAdder();
+    private final LongAdder completedDays = new LongAdder();
 
-    // Data source progress tracking
-    private long quoteRecords = 0;
-    private long tradeRecords = 0;
-    private long futureRecords = 0;
+    private volatile int pendingDays;
+    private volatile long startTime;
+    private ScheduledExecutorService reporter;
 
-    // Progress update frequency: update every 10,000 records or 5 seconds
-    private static final long RECORD_UPDATE_INTERVAL = 10000;
-    private static final long TIME_UPDATE_INTERVAL_MS = 5000; // 5 seconds
+    // Owned by the reporter thread
+    private long lastReportNanos;
+    private long lastLoaded;
+    private double smoothedRate = Double.NaN;
 
     /**
      * Creates a ProgressMonitor for the specified date range.
@@ -42,10 +62,14 @@ public class ProgressMonitor {
      * @param endDate End date
      */
     public ProgressMonitor(LocalDate startDate, LocalDate endDate) {
-        this.businessDate = startDate;
         this.totalDays = calculateTotalDays(startDate, endDate);
+        this.pendingDays = totalDays;
         this.startTime = System.currentTimeMillis();
-        this.lastUpdate = startTime;
+        Map<String, LongAdder> counters = new LinkedHashMap<>();
+        counters.put(QUOTE, new LongAdder());
+        counters.put(TRADE, new LongAdder());
+        counters.put(FUTURE, new LongAdder());
+        this.sources = Collections.unmodifiableMap(counters);
 
         logger.info("Starting ETL for date range: {} - {} ({})",
                 startDate, endDate, totalDays);
@@ -68,151 +92,171 @@ public class ProgressMonitor {
     }
 
     /**
-     * Starts processing a new business day.
+     * Starts the reporter thread.
      *
-     * @param date Business date being processed
+     * @param days Days this run will process, excluding those completed by an earlier run
      */
-    public void startDay(LocalDate date) {
-        currentDayNumber++;
-        quoteRecords = 0;
-        tradeRecords = 0;
-        futureRecords = 0;
-        recordsProcessed = 0;
-
-        String dayInfo = String.format("[%s] Processing business date: %s",
-                LocalDateTime.now().format(TIME_FORMATTER), date);
-        System.out.println(dayInfo);
-        logger.info(dayInfo);
+    public synchronized void start(int days) {
+        if (reporter != null) {
+            return;
+        }
+        pendingDays = days;
+        startTime = System.currentTimeMillis();
+        lastReportNanos = System.nanoTime();
+        lastLoaded = loadedRecords.sum();
+        reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "etl-progress");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reporter.scheduleAtFixedRate(this::logProgress, REPORT_INTERVAL_MS, REPORT_INTERVAL_MS, TimeUnit.MILLISECONDS);
     }
 
     /**
-     * Updates progress for XBond Market Quote data source.
-     *
-     * @param recordsCount Number of records extracted
-     * @param complete Whether extraction is complete
+     * Stops the reporter thread.
      */
-    public void updateQuoteProgress(long recordsCount, boolean complete) {
-        quoteRecords = recordsCount;
-        updateProgress("XBond Market Quote", recordsCount, complete);
+    @Override
+    public synchronized void close() {
+        if (reporter == null) {
+            return;
+        }
+        reporter.shutdownNow();
+        try {
+            reporter.awaitTermination(REPORT_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        reporter = null;
     }
 
     /**
-     * Updates progress for XBond Trade data source.
+     * Returns the counter of the records a source has produced, to be incremented once per record.
      *
-     * @param recordsCount Number of records extracted
-     * @param complete Whether extraction is complete
+     * @param source One of {@link #QUOTE}, {@link #TRADE} or {@link #FUTURE}
      */
-    public void updateTradeProgress(long recordsCount, boolean complete) {
-        tradeRecords = recordsCount;
-        updateProgress("XBond Trade", recordsCount, complete);
+    public LongAdder counter(String source) {
+        LongAdder counter = sources.get(source);
+        if (counter == null) {
+            throw new IllegalArgumentException("Unknown source: " + source);
+        }
+        return counter;
     }
 
     /**
-     * Updates progress for Bond Future L2 Quote data source.
+     * Returns a checkpoint that also counts the records DolphinDB acknowledges. Records an earlier run
+     * loaded are not counted.
      *
-     * @param recordsCount Number of records extracted
-     * @param complete Whether extraction is complete
+     * @param checkpoint Checkpoint of a day's merged stream
      */
-    public void updateFutureProgress(long recordsCount, boolean complete) {
-        futureRecords = recordsCount;
-        updateProgress("Bond Future L2 Quote", recordsCount, complete);
+    public LoadCheckpoint tracking(LoadCheckpoint checkpoint) {
+        return new LoadCheckpoint() {
+            private long reported = checkpoint.getLoadedRecords();
+
+            @Override
+            public long getLoadedRecords() {
+                return checkpoint.getLoadedRecords();
+            }
+
+            @Override
+            public synchronized void recordLoaded(long loaded) throws Exception {
+                checkpoint.recordLoaded(loaded);
+                loadedRecords.add(loaded - reported);
+                reported = loaded;
+            }
+        };
     }
 
     /**
-     * Updates progress for a data source with visual bar.
+     * Starts processing a new business day.
      *
-     * @param sourceName Name of data source
-     * @param currentRecords Current record count
-     * @param complete Whether extraction is complete
+     * @param date Business date being processed
      */
-    private void updateProgress(String sourceName, long currentRecords, boolean complete) {
-        long now = System.currentTimeMillis();
-        boolean shouldUpdate = complete ||
-                (currentRecords > 0 && (currentRecords - recordsProcessed >= RECORD_UPDATE_INTERVAL)) ||
-                (now - lastUpdate >= TIME_UPDATE_INTERVAL_MS);
-
-        if (shouldUpdate) {
-            recordsProcessed = currentRecords;
-            lastUpdate = now;
-
-            int percentage = totalRecords > 0 ? (int) ((currentRecords * 100) / totalRecords) : 100;
-            String bar = createProgressBar(percentage);
-
-            System.out.printf("Extracting %s... %s %d%%%n",
-                    sourceName, bar, percentage);
-        }
+    public void startDay(LocalDate date) {
+        startedDays.increment();
     }
 
     /**
-     * Creates a visual progress bar (50 characters wide).
+     * Completes a business day.
      *
-     * @param percentage Completion percentage (0-100)
-     * @return Progress bar string
+     * @param date Business date processed
+     * @param records Records loaded for the day
      */
-    private String createProgressBar(int percentage) {
-        int filled = (percentage * 50) / 100;
-        StringBuilder bar = new StringBuilder(50);
-        for (int i = 0; i < filled; i++) {
-            bar.append("=");
-        }
-        for (int i = filled; i < 50; i++) {
-            bar.append(" ");
-        }
-        return bar.toString();
+    public void completeDay(LocalDate date, long records) {
+        completedDayRecords.add(records);
+        completedDays.increment();
     }
 
     /**
-     * Reports sorting phase.
+     * Returns the records DolphinDB has acknowledged in this run.
      */
-    public void reportSorting() {
-        System.out.println("Sorting records by receive_time...");
-        logger.info("Sorting records by receive_time");
+    public long getLoadedRecords() {
+        return loadedRecords.sum();
     }
 
     /**
-     * Reports loading phase with total record count.
-     *
-     * @param totalRecords Total records to load
+     * Returns the days completed in this run.
      */
-    public void reportLoading(long totalRecords) {
-        this.totalRecords = totalRecords;
-        this.recordsProcessed = 0;
-        String message = String.format("Loading %,d records into DolphinDB...", totalRecords);
-        System.out.println(message);
-        logger.info(message);
+    public long getCompletedDays() {
+        return completedDays.sum();
+    }
+
+    private void logProgress() {
+        try {
+            logger.info(report(System.nanoTime()));
+        } catch (RuntimeException e) {
+            // An exception would cancel the schedule
+            logger.warn("Failed to report progress: {}", e.getMessage());
+        }
     }
 
     /**
-     * Reports loading progress during batch inserts.
+     * Samples the counters and formats a progress line. Called from the reporter thread only.
      *
-     * @param recordsLoaded Number of records loaded so far
+     * @param nowNanos Current {@link System#nanoTime}
      */
-    public void reportLoadingProgress(long recordsLoaded) {
-        long now = System.currentTimeMillis();
-        boolean shouldUpdate = (recordsLoaded - recordsProcessed >= RECORD_UPDATE_INTERVAL) ||
-                (now - lastUpdate >= TIME_UPDATE_INTERVAL_MS);
-
-        if (shouldUpdate) {
-            recordsProcessed = recordsLoaded;
-            lastUpdate = now;
-            int percentage = (int) ((recordsLoaded * 100) / totalRecords);
-            String bar = createProgressBar(percentage);
-            System.out.printf("Loading... %s %d%%%n", bar, percentage);
+    String report(long nowNanos) {
+        long loaded = loadedRecords.sum();
+        double seconds = (nowNanos - lastReportNanos) / 1e9;
+        if (seconds > 0) {
+            double rate = (loaded - lastLoaded) / seconds;
+            smoothedRate = Double.isNaN(smoothedRate) ? rate : RATE_SMOOTHING * rate + (1 - RATE_SMOOTHING) * smoothedRate;
+            lastReportNanos = nowNanos;
+            lastLoaded = loaded;
+        }
+        double rate = Double.isNaN(smoothedRate) ? 0 : smoothedRate;
+
+        long completed = completedDays.sum();
+        long running = startedDays.sum() - completed;
+        StringBuilder line = new StringBuilder(160);
+        line.append(String.format("Progress: %d/%d days done, %d running; loaded %,d rows at %,.0f rows/s;",
+                completed, pendingDays, running, loaded, rate));
+        for (Map.Entry<String, LongAdder> source : sources.entrySet()) {
+            line.append(String.format(" %s %,d", source.getKey(), source.getValue().sum()));
         }
+        line.append("; ETA ").append(formatEta(estimateRemainingSeconds(loaded, completed, rate)));
+        return line.toString();
     }
 
     /**
-     * Reports successful completion of ETL for current day.
+     * Estimates the seconds left from the smoothed rate and the rows of the completed days, or -1 before a day
+     * has completed.
      */
-    public void reportDayComplete() {
-        long elapsed = System.currentTimeMillis() - startTime;
-        long elapsedSeconds = elapsed / 1000;
-        String message = String.format(
-                "Completed day %d/%d. Records: quotes=%d, trades=%d, futures=%d (elapsed: %ds)",
-                currentDayNumber, totalDays, quoteRecords, tradeRecords, futureRecords, elapsedSeconds
-        );
-        System.out.println(message);
-        logger.info(message);
+    long estimateRemainingSeconds(long loaded, long completed, double rate) {
+        if (completed == 0 || rate <= 0) {
+            return -1;
+        }
+        double expectedRecords = (double) completedDayRecords.sum() / completed * pendingDays;
+        return (long) Math.ceil(Math.max(0, expectedRecords - loaded) / rate);
+    }
+
+    static String formatEta(long seconds) {
+        if (seconds < 0) {
+            return "unknown";
+        }
+        if (seconds >= 3600) {
+            return String.format("%dh %dm", seconds / 3600, seconds % 3600 / 60);
+        }
+        return String.format("%dm %ds", seconds / 60, seconds % 60);
     }
 
     /**
@@ -271,11 +315,14 @@ public class ProgressMonitor {
         long elapsedSeconds = elapsed / 1000;
         long minutes = elapsedSeconds / 60;
         long seconds = elapsedSeconds % 60;
+        long quotes = sources.get(QUOTE).sum();
+        long trades = sources.get(TRADE).sum();
+        long futures = sources.get(FUTURE).sum();
 
         String message = String.format(
-                "ETL Summary - Records: quotes=%d, trades=%d, futures=%d, total=%d (elapsed: %dm %ds)",
-                quoteRecords, tradeRecords, futureRecords,
-                quoteRecords + tradeRecords + futureRecords, minutes, seconds
+                "ETL Summary - Days: %d, Records: quotes=%d, trades=%d, futures=%d, total=%d, loaded=%d (elapsed: %dm %ds)",
+                completedDays.sum(), quotes, trades, futures, quotes + trades + futures, loadedRecords.sum(),
+                minutes, seconds
         );
         System.out.println(message);
         logger.info(message);
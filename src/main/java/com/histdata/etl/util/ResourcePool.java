@@ -0,0 +1,230 @@
+package com.histdata.etl.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Bounded pool of reusable connections or clients.
+ * Resources are created lazily up to the maximum size; when all are in use, borrow() waits for a release.
+ * An optional validator health-checks idle resources before they are handed out; a resource that fails
+ * the check is disposed and replaced by a newly created one, so dropped sessions reconnect transparently.
+ *
+ * @param <T> Pooled resource type
+ */
+public class ResourcePool<T> implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ResourcePool.class);
+
+    /**
+     * Creates a new pooled resource.
+     */
+    public interface Factory<T> {
+        T create() throws Exception;
+    }
+
+    /**
+     * Releases the underlying resource when the pool is closed.
+     */
+    public interface Disposer<T> {
+        void dispose(T resource) throws Exception;
+    }
+
+    /**
+     * Checks that an idle resource is still usable.
+     */
+    public interface Validator<T> {
+        boolean isValid(T resource) throws Exception;
+    }
+
+    private final String name;
+    private final int maxSize;
+    private final Factory<T> factory;
+    private final Disposer<T> disposer;
+    private final Validator<T> validator;
+
+    private final Deque<T> idle = new ArrayDeque<>();
+    private final List<T> created = new ArrayList<>();
+    private int reserved;
+    private boolean closed;
+
+    /**
+     * Creates an empty pool.
+     *
+     * @param name Pool name used in log messages
+     * @param maxSize Maximum number of resources
+     * @param factory Creates a resource when none is idle
+     * @param disposer Releases a resource when the pool is closed
+     */
+    public ResourcePool(String name, int maxSize, Factory<T> factory, Disposer<T> disposer) {
+        this(name, maxSize, factory, disposer, null);
+    }
+
+    /**
+     * Creates an empty pool that validates idle resources on borrow.
+     *
+     * @param name Pool name used in log messages
+     * @param maxSize Maximum number of resources
+     * @param factory Creates a resource when none is idle
+     * @param disposer Releases a resource when the pool is closed or it fails validation
+     * @param validator Health check run on an idle resource before it is handed out, or null
+     */
+    public ResourcePool(String name, int maxSize, Factory<T> factory, Disposer<T> disposer, Validator<T> validator) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be positive: " + maxSize);
+        }
+        this.name = name;
+        this.maxSize = maxSize;
+        this.factory = factory;
+        this.disposer = disposer;
+        this.validator = validator;
+    }
+
+    /**
+     * Takes an idle resource, creates one if the pool is not full, or waits for a release.
+     *
+     * @return Resource that must be handed back with {@link #release}
+     * @throws Exception if creating the resource fails or the pool is closed
+     */
+    public T borrow() throws Exception {
+        while (true) {
+            T resource = takeIdle();
+            if (resource == null) {
+                return create();
+            }
+            if (isValid(resource)) {
+                return resource;
+            }
+            logger.warn("Discarding broken {} pool resource, reconnecting", name);
+            invalidate(resource);
+        }
+    }
+
+    /**
+     * Disposes a borrowed resource that turned out to be broken instead of handing it back,
+     * freeing its slot for a new one.
+     *
+     * @param resource Resource returned by {@link #borrow}
+     */
+    public void invalidate(T resource) {
+        if (resource == null) {
+            return;
+        }
+        synchronized (this) {
+            if (!created.remove(resource)) {
+                return;
+            }
+            notifyAll();
+        }
+        dispose(resource);
+    }
+
+    /**
+     * Pops an idle resource, or reserves a slot and returns null when a new resource may be created.
+     */
+    private synchronized T takeIdle() throws InterruptedException {
+        while (true) {
+            if (closed) {
+                throw new IllegalStateException("Pool " + name + " is closed");
+            }
+            if (!idle.isEmpty()) {
+                return idle.pop();
+            }
+            if (created.size() + reserved < maxSize) {
+                reserved++;
+                return null;
+            }
+            wait();
+        }
+    }
+
+    private boolean isValid(T resource) {
+        if (validator == null) {
+            return true;
+        }
+        try {
+            return validator.isValid(resource);
+        } catch (Exception e) {
+            logger.debug("Validation of {} pool resource failed: {}", name, e.getMessage());
+            return false;
+        }
+    }
+
+    private T create() throws Exception {
+        T resource;
+        try {
+            resource = factory.create();
+        } catch (Exception e) {
+            synchronized (this) {
+                reserved--;
+                notifyAll();
+            }
+            throw e;
+        }
+        synchronized (this) {
+            reserved--;
+            created.add(resource);
+        }
+        logger.debug("Created {} pool resource {}/{}", name, created.size(), maxSize);
+        return resource;
+    }
+
+    /**
+     * Hands a borrowed resource back to the pool.
+     *
+     * @param resource Resource returned by {@link #borrow}
+     */
+    public synchronized void release(T resource) {
+        if (resource == null) {
+            return;
+        }
+        idle.push(resource);
+        notifyAll();
+    }
+
+    /**
+     * Returns the maximum number of resources.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the number of resources created so far.
+     */
+    public synchronized int size() {
+        return created.size();
+    }
+
+    /**
+     * Disposes every resource created by the pool, including ones not yet released.
+     */
+    @Override
+    public void close() {
+        List<T> resources;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            resources = new ArrayList<>(created);
+            created.clear();
+            idle.clear();
+            notifyAll();
+        }
+        for (T resource : resources) {
+            dispose(resource);
+        }
+    }
+
+    private void dispose(T resource) {
+        try {
+            disposer.dispose(resource);
+        } catch (Exception e) {
+            logger.warn("Failed to close {} pool resource: {}", name, e.getMessage());
+        }
+    }
+}
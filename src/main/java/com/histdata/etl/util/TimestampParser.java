@@ -0,0 +1,183 @@
+package com.histdata.etl.util;
+
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Allocation-free parser for the fixed "yyyy-MM-dd HH:mm:ss.SSS" timestamp layout used by the source files
+ * and for the integer action_date/action_time pair of fut_tick.
+ * Produces epoch milliseconds in the default time zone, like SimpleDateFormat, but reads the digits directly
+ * and adds the time of day to a cached start-of-day epoch. Start-of-day epochs are cached per date in a small
+ * table, so days parsed concurrently with {@code --parallel-days} do not evict each other.
+ */
+public final class TimestampParser {
+
+    /** Length of a "yyyy-MM-dd HH:mm:ss.SSS" timestamp. */
+    public static final int LENGTH = 23;
+
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    // Direct-mapped by date; entries are immutable, so a racing read sees either a complete entry or a miss
+    private static final int DAY_CACHE_SIZE = 64;
+    private static final DayEpoch[] DAY_CACHE = new DayEpoch[DAY_CACHE_SIZE];
+
+    private TimestampParser() {
+    }
+
+    /**
+     * Parses a timestamp stored as ASCII bytes.
+     *
+     * @param buffer Buffer holding the bytes, read with absolute gets
+     * @param offset Offset of the first byte
+     * @param length Number of bytes
+     * @return Epoch milliseconds
+     * @throws IllegalArgumentException if the bytes are not a valid timestamp
+     */
+    public static long parseMillis(ByteBuffer buffer, int offset, int length) {
+        if (length != LENGTH
+                || buffer.get(offset + 4) != '-' || buffer.get(offset + 7) != '-' || buffer.get(offset + 10) != ' '
+                || buffer.get(offset + 13) != ':' || buffer.get(offset + 16) != ':' || buffer.get(offset + 19) != '.') {
+            throw new IllegalArgumentException("Unparseable timestamp at offset " + offset);
+        }
+        return toEpochMillis(
+                digits(buffer, offset, 4),
+                digits(buffer, offset + 5, 2),
+                digits(buffer, offset + 8, 2),
+                digits(buffer, offset + 11, 2),
+                digits(buffer, offset + 14, 2),
+                digits(buffer, offset + 17, 2),
+                digits(buffer, offset + 20, 3));
+    }
+
+    /**
+     * Parses a "yyyy-MM-dd HH:mm:ss.SSS" string.
+     *
+     * @param text Timestamp text
+     * @return Epoch milliseconds
+     * @throws IllegalArgumentException if the text is not a valid timestamp
+     */
+    public static long parseMillis(CharSequence text) {
+        if (text.length() != LENGTH
+                || text.charAt(4) != '-' || text.charAt(7) != '-' || text.charAt(10) != ' '
+                || text.charAt(13) != ':' || text.charAt(16) != ':' || text.charAt(19) != '.') {
+            throw new IllegalArgumentException("Unparseable timestamp: \"" + text + "\"");
+        }
+        return toEpochMillis(
+                digits(text, 0, 4),
+                digits(text, 5, 2),
+                digits(text, 8, 2),
+                digits(text, 11, 2),
+                digits(text, 14, 2),
+                digits(text, 17, 2),
+                digits(text, 20, 3));
+    }
+
+    /**
+     * Converts a fut_tick action_date/action_time pair, e.g. 20250107 and 93050090 for 2025-01-07 09:30:50.090.
+     *
+     * @param actionDate Date as yyyyMMdd
+     * @param actionTime Time of day as HHmmssSSS
+     * @return Epoch milliseconds
+     * @throws IllegalArgumentException if either value is out of range
+     */
+    public static long fromActionDateTime(int actionDate, int actionTime) {
+        if (actionDate <= 0 || actionTime < 0) {
+            throw new IllegalArgumentException("Invalid action_date/action_time: " + actionDate + "/" + actionTime);
+        }
+        return toEpochMillis(
+                actionDate / 10000,
+                actionDate / 100 % 100,
+                actionDate % 100,
+                actionTime / 10000000,
+                actionTime / 100000 % 100,
+                actionTime / 1000 % 100,
+                actionTime % 1000);
+    }
+
+    /**
+     * Converts local date-time fields to epoch milliseconds in the default time zone.
+     *
+     * @throws IllegalArgumentException if a field is out of range
+     */
+    private static long toEpochMillis(int year, int month, int day, int hour, int minute, int second, int millis) {
+        if (hour > 23 || minute > 59 || second > 59) {
+            throw new IllegalArgumentException(String.format("Invalid time %02d:%02d:%02d", hour, minute, second));
+        }
+
+        int dayKey = year * 10000 + month * 100 + day;
+        int slot = dayKey & (DAY_CACHE_SIZE - 1);
+        DayEpoch cached = DAY_CACHE[slot];
+        if (cached == null || cached.dayKey != dayKey) {
+            cached = DayEpoch.of(year, month, day);
+            DAY_CACHE[slot] = cached;
+        }
+
+        long millisOfDay = ((hour * 60L + minute) * 60 + second) * 1000 + millis;
+        if (cached.uniform) {
+            return cached.startMillis + millisOfDay;
+        }
+        // Day with a time zone transition: resolve the local time through the zone rules
+        return LocalDateTime.of(year, month, day, hour, minute, second, millis * 1_000_000)
+                .atZone(cached.zone).toInstant().toEpochMilli();
+    }
+
+    private static int digits(CharSequence text, int offset, int count) {
+        int value = 0;
+        for (int i = 0; i < count; i++) {
+            int d = text.charAt(offset + i) - '0';
+            if (d < 0 || d > 9) {
+                throw new IllegalArgumentException("Unparseable timestamp: \"" + text + "\"");
+            }
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    private static int digits(ByteBuffer buffer, int offset, int count) {
+        int value = 0;
+        for (int i = 0; i < count; i++) {
+            int d = buffer.get(offset + i) - '0';
+            if (d < 0 || d > 9) {
+                throw new IllegalArgumentException("Unparseable timestamp at offset " + offset);
+            }
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    /**
+     * Epoch of local midnight for one day; uniform when the day is exactly 24 hours with a single offset.
+     */
+    private static final class DayEpoch {
+        private final int dayKey;
+        private final long startMillis;
+        private final boolean uniform;
+        private final ZoneId zone;
+
+        DayEpoch(int dayKey, long startMillis, boolean uniform, ZoneId zone) {
+            this.dayKey = dayKey;
+            this.startMillis = startMillis;
+            this.uniform = uniform;
+            this.zone = zone;
+        }
+
+        static DayEpoch of(int year, int month, int day) {
+            LocalDate date;
+            try {
+                date = LocalDate.of(year, month, day);
+            } catch (DateTimeException e) {
+                throw new IllegalArgumentException("Invalid date " + year + "-" + month + "-" + day, e);
+            }
+            ZoneId zone = ZoneId.systemDefault();
+            long start = date.atStartOfDay(zone).toInstant().toEpochMilli();
+            long next = date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+            boolean uniform = next - start == MILLIS_PER_DAY
+                    && zone.getRules().getOffset(date.atStartOfDay()).equals(
+                            zone.getRules().getOffset(date.atTime(23, 59, 59, 999_000_000)));
+            return new DayEpoch(year * 10000 + month * 100 + day, start, uniform, zone);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.histdata.etl.cli;
+
+import org.junit.Test;
+
+import java.nio.file.Paths;
+import java.time.LocalDate;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for CliOptions.
+ */
+public class CliOptionsTest {
+
+    @Test
+    public void testPositionalArguments() {
+        CliOptions options = CliOptions.parse(new String[]{"20250101", "20250103", "config.ini"});
+        assertEquals(LocalDate.of(2025, 1, 1), options.getStartDate());
+        assertEquals(LocalDate.of(2025, 1, 3), options.getEndDate());
+        assertEquals("config.ini", options.getConfigPath());
+        assertFalse(options.isStreaming());
+    }
+
+    @Test
+    public void testConfigPathOptional() {
+        CliOptions options = CliOptions.parse(new String[]{"20250101", "20250101"});
+        assertNull(options.getConfigPath());
+    }
+
+    @Test
+    public void testStreamingOptionAnyPosition() {
+        CliOptions options = CliOptions.parse(new String[]{"--streaming", "20250101", "20250101", "config.ini"});
+        assertTrue(options.isStreaming());
+        assertEquals("config.ini", options.getConfigPath());
+    }
+
+    @Test
+    public void testCacheOnlyOption() {
+        CliOptions options = CliOptions.parse(new String[]{"20250101", "20250101", "--cache-only"});
+        assertTrue(options.isCacheOnly());
+        assertFalse(options.isStreaming());
+    }
+
+    @Test
+    public void testParallelDaysOption() {
+        CliOptions options = CliOptions.parse(new String[]{"20250101", "20250131", "--parallel-days", "4", "config.ini"});
+        assertEquals(4, options.getParallelDays());
+        assertEquals("config.ini", options.getConfigPath());
+
+        assertEquals(1, CliOptions.parse(new String[]{"20250101", "20250131"}).getParallelDays());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParallelDaysRequiresPositiveValue() {
+        CliOptions.parse(new String[]{"20250101", "20250131", "--parallel-days", "0"});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParallelDaysMissingValue() {
+        CliOptions.parse(new String[]{"20250101", "20250131", "--parallel-days"});
+    }
+
+    @Test
+    public void testTransformThreadsOption() {
+        CliOptions options = CliOptions.parse(new String[]{"20250101", "20250131", "--transform-threads", "8"});
+        assertEquals(8, options.getTransformThreads());
+
+        assertEquals(1, CliOptions.parse(new String[]{"20250101", "20250131"}).getTransformThreads());
+    }
+
+    @Test
+    public void testResumeOption() {
+        assertTrue(CliOptions.parse(new String[]{"20250101", "20250131", "--resume"}).isResume());
+        assertFalse(CliOptions.parse(new String[]{"20250101", "20250131"}).isResume());
+    }
+
+    @Test
+    public void testSpillDirOption() {
+        CliOptions options = CliOptions.parse(new String[]{"20250101", "20250131", "--spill-dir", "/tmp/etl-spill"});
+        assertEquals(Paths.get("/tmp/etl-spill"), options.getSpillDir());
+
+        assertNull(CliOptions.parse(new String[]{"20250101", "20250131"}).getSpillDir());
+    }
+
+    @Test
+    public void testMetricsPortOption() {
+        CliOptions options = CliOptions.parse(new String[]{"20250101", "20250131", "--metrics-port", "9464"});
+        assertEquals(9464, options.getMetricsPort());
+
+        assertEquals(0, CliOptions.parse(new String[]{"20250101", "20250131"}).getMetricsPort());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMetricsPortOutOfRange() {
+        CliOptions.parse(new String[]{"20250101", "20250131", "--metrics-port", "70000"});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownOption() {
+        CliOptions.parse(new String[]{"20250101", "20250101", "--bogus"});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingEndDate() {
+        CliOptions.parse(new String[]{"20250101", "--streaming"});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testStartAfterEnd() {
+        CliOptions.parse(new String[]{"20250102", "20250101"});
+    }
+}
@@ -1,16 +1,51 @@
 package com.histdata.etl.cli;
 
 import com.histdata.etl.config.Config;
+import com.histdata.etl.config.DolphinDbConfig;
+import com.histdata.etl.loader.AsyncBatchWriter;
+import com.histdata.etl.loader.DolphinDbLoader;
+import com.histdata.etl.model.FutureQuoteRecord;
 import com.histdata.etl.model.JobStatus;
+import com.histdata.etl.model.XbondQuoteRecord;
+import com.histdata.etl.model.XbondTradeRecord;
+import com.histdata.etl.util.CheckpointJournal;
+import com.xxdb.DBConnection;
+import com.xxdb.data.BasicTable;
+import com.xxdb.data.Vector;
+import org.junit.Rule;
 import org.junit.Test;
 import org.junit.Before;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.stubbing.Answer;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 /**
  * Unit tests for EtlCli.
  */
 public class EtlCliTest {
+    private static final LocalDate DAY = LocalDate.of(2025, 1, 1);
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
     private EtlCli cli;
 
     @Before
@@ -52,4 +87,93 @@ public class EtlCliTest {
     public void testMissingEndDate() throws Exception {
         cli.run(new String[]{"20250101"});
     }
+
+    @Test
+    public void testResumedDayAcknowledgedOutOfOrderIsNotDuplicated() throws Exception {
+        // Rows in the target tables by table name, as exchProductId values
+        Map<String, List<String>> target = new ConcurrentHashMap<>();
+        List<Object> records = Arrays.asList(new XbondQuoteRecord(Date.valueOf(DAY), "Q1"),
+                new XbondTradeRecord(Date.valueOf(DAY), "T1"), new FutureQuoteRecord(Date.valueOf(DAY), "F1"));
+        File journalFile = new File(tempFolder.getRoot(), "journal");
+
+        // The trade batch fails once the future batch after it has been acknowledged
+        CountDownLatch futureInserted = new CountDownLatch(1);
+        DolphinDbLoader interrupted = newLoader(target, (table, rows) -> {
+            if (table.startsWith("xbond_trade")) {
+                futureInserted.await(10, TimeUnit.SECONDS);
+                throw new IllegalStateException("connection lost");
+            }
+            target.computeIfAbsent(table, t -> Collections.synchronizedList(new ArrayList<>())).addAll(rows);
+            if (table.startsWith("fut_")) {
+                futureInserted.countDown();
+            }
+        });
+        try (CheckpointJournal journal = CheckpointJournal.open(journalFile, false)) {
+            interrupted.load(records.iterator(), 1, journal.checkpoint(DAY));
+            fail("Expected the trade insert to fail");
+        } catch (Exception e) {
+            // The run dies with the future row loaded past the acknowledged prefix
+        }
+        assertEquals(Collections.singletonList("F1"), target.get("fut_market_price_stream_temp"));
+
+        DolphinDbLoader resumed = newLoader(target, (table, rows) ->
+                target.computeIfAbsent(table, t -> Collections.synchronizedList(new ArrayList<>())).addAll(rows));
+        try (CheckpointJournal journal = CheckpointJournal.open(journalFile, true)) {
+            assertEquals(1, journal.getLoadedRecords(DAY));
+            EtlCli.restartDay(DAY, journal, resumed);
+            resumed.load(records.iterator(), 1, journal.checkpoint(DAY));
+            assertEquals(3, journal.getLoadedRecords(DAY));
+        }
+
+        assertEquals(Collections.singletonList("Q1"), target.get("xbond_quote_stream_temp"));
+        assertEquals(Collections.singletonList("T1"), target.get("xbond_trade_stream_temp"));
+        assertEquals(Collections.singletonList("F1"), target.get("fut_market_price_stream_temp"));
+    }
+
+    private interface Insert {
+        void insert(String table, List<String> rows) throws Exception;
+    }
+
+    /**
+     * Returns a temporary-table loader whose background inserts go to the given insert and whose deletes
+     * clear the target.
+     */
+    private static DolphinDbLoader newLoader(Map<String, List<String>> target, Insert insert) throws Exception {
+        DBConnection connection = mock(DBConnection.class);
+        when(connection.run(anyString())).thenAnswer(invocation -> {
+            String script = invocation.getArgument(0);
+            if (script.startsWith("delete from ")) {
+                target.remove(script.split(" ")[2]);
+            }
+            return null;
+        });
+        Answer<Object> tableInsert = invocation -> {
+            String script = invocation.getArgument(0);
+            BasicTable table = (BasicTable) ((List<?>) invocation.getArgument(1)).get(0);
+            Vector ids = table.getColumn("exchProductId");
+            List<String> rows = new ArrayList<>();
+            for (int i = 0; i < ids.rows(); i++) {
+                rows.add(ids.getString(i));
+            }
+            insert.insert(script.substring("tableInsert{".length(), script.length() - 1), rows);
+            return null;
+        };
+        List<DBConnection> lanes = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            DBConnection lane = mock(DBConnection.class);
+            when(lane.run(anyString(), any(List.class))).thenAnswer(tableInsert);
+            lanes.add(lane);
+        }
+
+        DolphinDbLoader loader = new DolphinDbLoader(mock(DolphinDbConfig.class));
+        setField(loader, "connection", connection);
+        setField(loader, "writer", new AsyncBatchWriter(lanes, 4));
+        return loader;
+    }
+
+    private static void setField(Object target, String name, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
 }
@@ -0,0 +1,137 @@
+package com.histdata.etl.datasource;
+
+import com.qcloud.cos.model.COSObjectSummary;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for CosObjectCache.
+ */
+public class CosObjectCacheTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 1, 7);
+    private static final String SOURCE = "AllPriceDepth";
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private CosObjectCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new CosObjectCache(tempFolder.getRoot().toPath(), 10);
+    }
+
+    @Test
+    public void testCommitAndLookup_LaidOutByDateAndSource() throws Exception {
+        COSObjectSummary object = summary("AllPriceDepth/20250107/a.csv", 4, "etag-1");
+        Path file = put(object, "abcd");
+
+        assertEquals(tempFolder.getRoot().toPath().resolve("20250107").resolve(SOURCE).resolve("a.csv"), file);
+        assertEquals(file, cache.lookup(DATE, SOURCE, object));
+        assertFalse(Files.exists(cache.partFile(DATE, SOURCE, object)));
+    }
+
+    @Test
+    public void testLookup_ChangedETagOrSizeIsStale() throws Exception {
+        put(summary("AllPriceDepth/20250107/a.csv", 4, "etag-1"), "abcd");
+
+        assertNull(cache.lookup(DATE, SOURCE, summary("AllPriceDepth/20250107/a.csv", 4, "etag-2")));
+        assertNull(cache.lookup(DATE, SOURCE, summary("AllPriceDepth/20250107/a.csv", 5, "etag-1")));
+        assertNull(cache.lookup(DATE, SOURCE, summary("AllPriceDepth/20250107/b.csv", 4, "etag-1")));
+    }
+
+    @Test
+    public void testListCached_ReturnsCommittedEntriesOnly() throws Exception {
+        put(summary("AllPriceDepth/20250107/b.csv", 2, "e2"), "bb");
+        put(summary("AllPriceDepth/20250107/a.csv", 1, "e1"), "a");
+        Files.write(cache.directory(DATE, SOURCE).resolve("c.csv.part"), new byte[3]);
+
+        List<COSObjectSummary> cached = cache.listCached(DATE, SOURCE);
+
+        assertEquals(2, cached.size());
+        assertEquals("AllPriceDepth/20250107/a.csv", cached.get(0).getKey());
+        assertEquals("e2", cached.get(1).getETag());
+        assertTrue(cache.listCached(DATE.plusDays(1), SOURCE).isEmpty());
+    }
+
+    @Test
+    public void testEvict_RemovesLeastRecentlyUsedUntilWithinBound() throws Exception {
+        Path oldest = put(summary("AllPriceDepth/20250107/a.csv", 4, "e1"), "aaaa");
+        Path middle = put(summary("AllPriceDepth/20250107/b.csv", 4, "e2"), "bbbb");
+        Path newest = put(summary("AllPriceDepth/20250107/c.csv", 4, "e3"), "cccc");
+        Files.setLastModifiedTime(oldest, FileTime.fromMillis(1000));
+        Files.setLastModifiedTime(middle, FileTime.fromMillis(2000));
+        Files.setLastModifiedTime(newest, FileTime.fromMillis(3000));
+
+        cache.evict(Collections.emptySet());
+
+        assertFalse(Files.exists(oldest));
+        assertTrue(Files.exists(middle));
+        assertTrue(Files.exists(newest));
+    }
+
+    @Test
+    public void testEvict_KeepsPinnedFiles() throws Exception {
+        Path oldest = put(summary("AllPriceDepth/20250107/a.csv", 8, "e1"), "aaaaaaaa");
+        Path newest = put(summary("AllPriceDepth/20250107/b.csv", 8, "e2"), "bbbbbbbb");
+        Files.setLastModifiedTime(oldest, FileTime.fromMillis(1000));
+        Files.setLastModifiedTime(newest, FileTime.fromMillis(2000));
+
+        cache.evict(Collections.singleton(oldest));
+
+        assertTrue(Files.exists(oldest));
+        assertFalse(Files.exists(newest));
+    }
+
+    @Test
+    public void testEvict_KeepsFilesInUseByAnotherRun() throws Exception {
+        Path oldest = put(summary("AllPriceDepth/20250107/a.csv", 8, "e1"), "aaaaaaaa");
+        Path newest = put(summary("AllPriceDepth/20250107/b.csv", 8, "e2"), "bbbbbbbb");
+        Files.setLastModifiedTime(oldest, FileTime.fromMillis(1000));
+        Files.setLastModifiedTime(newest, FileTime.fromMillis(2000));
+
+        Path inUse = cache.lookup(DATE, SOURCE, summary("AllPriceDepth/20250107/a.csv", 8, "e1"));
+        Files.setLastModifiedTime(oldest, FileTime.fromMillis(1000));
+        cache.evict(Collections.emptySet());
+
+        assertEquals(oldest, inUse);
+        assertTrue(Files.exists(oldest));
+        assertFalse(Files.exists(newest));
+
+        cache.unpin(Collections.singleton(inUse));
+        put(summary("AllPriceDepth/20250107/c.csv", 8, "e3"), "cccccccc");
+        cache.evict(Collections.emptySet());
+
+        assertFalse(Files.exists(oldest));
+    }
+
+    private Path put(COSObjectSummary object, String content) throws IOException {
+        Path part = cache.partFile(DATE, SOURCE, object);
+        Files.createDirectories(part.getParent());
+        Files.write(part, content.getBytes("UTF-8"));
+        Path file = cache.commit(DATE, SOURCE, object, part);
+        cache.unpin(Collections.singleton(file));
+        return file;
+    }
+
+    private static COSObjectSummary summary(String key, long size, String eTag) {
+        COSObjectSummary summary = new COSObjectSummary();
+        summary.setKey(key);
+        summary.setSize(size);
+        summary.setETag(eTag);
+        return summary;
+    }
+}
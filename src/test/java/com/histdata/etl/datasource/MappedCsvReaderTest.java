@@ -0,0 +1,184 @@
+package com.histdata.etl.datasource;
+
+import com.histdata.etl.util.DateUtils;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for MappedCsvReader.
+ */
+public class MappedCsvReaderTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testTokenize_MatchesCommonsCsv() throws Exception {
+        String content = "ID, Name ,note\r\n"
+                + "1,alpha, plain \r\n"
+                + "\r\n"
+                + "2,\"quoted, with comma\",\"say \"\"hi\"\"\"\n"
+                + "3,,\n"
+                + "4,last,no newline";
+        Path file = write(content);
+
+        List<CSVRecord> expected = parseWithCommonsCsv(file);
+        try (MappedCsvReader reader = MappedCsvReader.open(file)) {
+            assertEquals(1, reader.columnIndex("name"));
+            assertEquals(-1, reader.columnIndex("missing"));
+
+            for (CSVRecord record : expected) {
+                assertTrue(reader.next());
+                assertEquals(record.size(), reader.getFieldCount());
+                for (int i = 0; i < record.size(); i++) {
+                    assertEquals(record.get(i), reader.getString(i));
+                }
+            }
+            assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    public void testNext_RemapsRowsAcrossWindowBoundaries() throws Exception {
+        StringBuilder content = new StringBuilder("id,price,time\n");
+        for (int i = 0; i < 500; i++) {
+            content.append(i).append(",\"").append(i * 0.25).append("\",2025-01-07 09:30:0").append(i % 10).append(".123\r\n");
+        }
+        Path file = write(content.toString());
+
+        try (MappedCsvReader reader = new MappedCsvReader(file, 64)) {
+            int row = 0;
+            while (reader.next()) {
+                assertEquals(row, reader.getLong(0));
+                assertEquals(row * 0.25, reader.getDouble(1), 0.0);
+                assertEquals(row + 1, reader.getRowNumber());
+                row++;
+            }
+            assertEquals(500, row);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testNext_RowLongerThanWindowFails() throws Exception {
+        Path file = write("id\n" + "12345678901234567890\n");
+        try (MappedCsvReader reader = new MappedCsvReader(file, 8)) {
+            reader.next();
+        }
+    }
+
+    @Test
+    public void testGetDouble_MatchesDoubleParseDouble() throws Exception {
+        Random random = new Random(7);
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            values.add(String.format("%.6f", (random.nextDouble() - 0.5) * 1000));
+            values.add(String.valueOf(random.nextInt(100000) / 100.0));
+        }
+        values.add("1e-3");
+        values.add("-0.0");
+        values.add("12345678901234567890.5");
+        values.add(".5");
+
+        StringBuilder content = new StringBuilder("v\n");
+        for (String value : values) {
+            content.append(value).append('\n');
+        }
+
+        try (MappedCsvReader reader = MappedCsvReader.open(write(content.toString()))) {
+            for (String value : values) {
+                assertTrue(reader.next());
+                assertEquals(value, Double.doubleToLongBits(Double.parseDouble(value)),
+                        Double.doubleToLongBits(reader.getDouble(0)));
+            }
+        }
+    }
+
+    @Test
+    public void testGetLongAndInt() throws Exception {
+        try (MappedCsvReader reader = MappedCsvReader.open(write("v\n-9223372036854775808\n+42\n9223372036854775808\nabc\n"))) {
+            reader.next();
+            assertEquals(Long.MIN_VALUE, reader.getLong(0));
+            reader.next();
+            assertEquals(42, reader.getInt(0));
+            reader.next();
+            try {
+                reader.getLong(0);
+                fail("Expected NumberFormatException on overflow");
+            } catch (NumberFormatException expected) {
+                // expected
+            }
+            reader.next();
+            try {
+                reader.getInt(0);
+                fail("Expected NumberFormatException");
+            } catch (NumberFormatException expected) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testGetTimestampMillis_MatchesDateUtils() throws Exception {
+        String[] timestamps = {"2025-01-07 09:30:50.090", "2024-12-31 23:59:59.999", "2024-02-29 00:00:00.000"};
+        StringBuilder content = new StringBuilder("t\n");
+        for (String timestamp : timestamps) {
+            content.append(timestamp).append('\n');
+        }
+        content.append("2025-02-30 00:00:00.000\n");
+
+        try (MappedCsvReader reader = MappedCsvReader.open(write(content.toString()))) {
+            for (String timestamp : timestamps) {
+                assertTrue(reader.next());
+                assertEquals(DateUtils.parseTimestamp(timestamp, "yyyy-MM-dd HH:mm:ss.SSS").getTime(),
+                        reader.getTimestampMillis(0));
+            }
+            assertTrue(reader.next());
+            try {
+                reader.getTimestampMillis(0);
+                fail("Expected IllegalArgumentException for invalid date");
+            } catch (IllegalArgumentException expected) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testFieldEqualsAndEmpty() throws Exception {
+        try (MappedCsvReader reader = MappedCsvReader.open(write("a,b,c\nT+0, ,x\n"))) {
+            reader.next();
+            assertTrue(reader.fieldEquals(0, "T+0"));
+            assertFalse(reader.fieldEquals(0, "T+1"));
+            assertTrue(reader.isEmpty(1));
+            assertFalse(reader.isEmpty(2));
+            assertTrue(reader.isEmpty(5));
+        }
+    }
+
+    private Path write(String content) throws IOException {
+        Path file = tempFolder.newFile().toPath();
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static List<CSVRecord> parseWithCommonsCsv(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+             CSVParser parser = CSVFormat.DEFAULT.withHeader().withIgnoreHeaderCase().withTrim().parse(reader)) {
+            return parser.getRecords();
+        }
+    }
+}
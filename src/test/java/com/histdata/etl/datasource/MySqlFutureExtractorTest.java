@@ -1,6 +1,7 @@
 package com.histdata.etl.datasource;
 
 import com.histdata.etl.config.MySqlConfig;
+import com.histdata.etl.util.ResourcePool;
 import org.junit.Test;
 import org.junit.Before;
 import org.junit.runner.RunWith;
@@ -11,8 +12,14 @@ import org.mockito.junit.MockitoJUnitRunner;
 
 import java.sql.*;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.anyInt;
@@ -69,7 +76,7 @@ public class MySqlFutureExtractorTest {
     public void testInitialize() throws SQLException {
         // Mock DriverManager.getConnection
         try (MockedStatic<DriverManager> mockedDriverManager = mockStatic(DriverManager.class)) {
-            String expectedUrl = "jdbc:mysql://localhost:3306/bond?useSSL=false&serverTimezone=UTC";
+            String expectedUrl = "jdbc:mysql://localhost:3306/bond?useSSL=false&serverTimezone=UTC&useCursorFetch=true";
             when(DriverManager.getConnection(eq(expectedUrl), eq("testuser"), eq("testpass")))
                     .thenReturn(mockConnection);
 
@@ -108,6 +115,180 @@ public class MySqlFutureExtractorTest {
         assertEquals(100.5, firstRecord.get("price"));
     }
 
+    @Test
+    public void testStreamUsesCursorFetch() throws Exception {
+        when(mockConfig.getFetchSize()).thenReturn(500);
+        when(mockResultSet.next()).thenReturn(true, true, true, false);
+        when(mockResultSet.getMetaData()).thenReturn(mockMetaData);
+        when(mockMetaData.getColumnCount()).thenReturn(1);
+        when(mockMetaData.getColumnName(1)).thenReturn("code");
+        when(mockResultSet.getObject(1)).thenReturn("T2503", "TF2503", "TS2503");
+
+        List<Object> codes = new ArrayList<>();
+        long count = extractor.stream(LocalDate.of(2025, 1, 7), record -> codes.add(record.get("code")));
+
+        assertEquals(3, count);
+        assertEquals(Arrays.asList("T2503", "TF2503", "TS2503"), codes);
+        verify(mockPreparedStatement).setFetchSize(500);
+        verify(mockMetaData, times(1)).getColumnName(1);
+        verify(mockResultSet).close();
+    }
+
+    @Test
+    public void testStreamRowsSelectsProjectedColumns() throws Exception {
+        when(mockConfig.getTieBreaker()).thenReturn("code");
+        when(mockResultSet.next()).thenReturn(true, true, false);
+
+        List<ResultSet> rows = new ArrayList<>();
+        long count = extractor.streamRows(LocalDate.of(2025, 1, 7), rows::add);
+
+        assertEquals(2, count);
+        assertSame(mockResultSet, rows.get(0));
+        verify(mockConnection).prepareStatement(
+                "SELECT " + FutTickColumns.SELECT_LIST + " FROM bond.fut_tick WHERE action_date = ? ORDER BY action_time, code");
+        verify(mockResultSet, never()).getMetaData();
+    }
+
+    @Test
+    public void testWindowBoundsSplitRangeEvenly() {
+        // 09:00:00.000 to 10:59:59.999 in four 30-minute windows
+        int[] bounds = MySqlFutureExtractor.windowBounds(90000000, 105959999, 4);
+
+        assertArrayEquals(new int[]{90000000, 93000000, 100000000, 103000000, 110000000}, bounds);
+    }
+
+    @Test
+    public void testWindowBoundsDropEmptyWindows() {
+        int[] bounds = MySqlFutureExtractor.windowBounds(93000000, 93000001, 8);
+
+        assertArrayEquals(new int[]{93000000, 93000001, 93000002}, bounds);
+    }
+
+    @Test
+    public void testStreamMappedMergesWindowsInActionTimeOrder() throws Exception {
+        int[] actionTimes = {91500000, 91500500, 93000000, 101500250, 101500250, 111000000, 112959999, 130000000};
+        when(mockConfig.getPartitions()).thenReturn(3);
+        when(mockConfig.getFetchSize()).thenReturn(2);
+        ResourcePool<Connection> pool = new ResourcePool<>("mysql", 3, () -> fakeConnection(actionTimes), c -> { });
+        MySqlFutureExtractor partitioned = new MySqlFutureExtractor(mockConfig, pool);
+
+        List<Integer> rows = new ArrayList<>();
+        long count = partitioned.streamMapped(LocalDate.of(2025, 1, 7), row -> row.getInt(1), rows::add);
+
+        assertEquals(actionTimes.length, count);
+        List<Integer> expected = new ArrayList<>();
+        for (int actionTime : actionTimes) {
+            expected.add(actionTime);
+        }
+        assertEquals(expected, rows);
+        assertTrue(pool.size() <= 3);
+    }
+
+    @Test
+    public void testMappedRowsViewStreamsMappedWindows() throws Exception {
+        int[] actionTimes = {91500000, 93000000, 101500250, 130000000};
+        when(mockConfig.getPartitions()).thenReturn(2);
+        when(mockConfig.getFetchSize()).thenReturn(2);
+        ResourcePool<Connection> pool = new ResourcePool<>("mysql", 2, () -> fakeConnection(actionTimes), c -> { });
+        DataSourceExtractor<Integer> rows = new MySqlFutureExtractor(mockConfig, pool).mappedRows(row -> row.getInt(1));
+
+        List<Integer> streamed = new ArrayList<>();
+        long count = rows.stream(LocalDate.of(2025, 1, 7), streamed::add);
+        rows.close();
+
+        assertEquals(4, count);
+        assertEquals(Arrays.asList(91500000, 93000000, 101500250, 130000000), streamed);
+    }
+
+    @Test
+    public void testRerunWithEqualActionTimesKeepsOrder() throws Exception {
+        // {action_time, code}: several contracts tick in the same millisecond, across window bounds
+        int[][] ticks = {{91500000, 3}, {91500000, 1}, {91500000, 2}, {93000000, 2}, {93000000, 1},
+                {101500250, 5}, {101500250, 4}, {101500250, 6}, {130000000, 2}, {130000000, 1}};
+        List<String> expected = Arrays.asList("91500000:1", "91500000:2", "91500000:3", "93000000:1",
+                "93000000:2", "101500250:4", "101500250:5", "101500250:6", "130000000:1", "130000000:2");
+        when(mockConfig.getTieBreaker()).thenReturn("code");
+        when(mockConfig.getFetchSize()).thenReturn(2);
+
+        for (int partitions : new int[]{1, 3}) {
+            when(mockConfig.getPartitions()).thenReturn(partitions);
+            ResourcePool<Connection> pool = new ResourcePool<>("mysql", 3, () -> fakeConnection(ticks), c -> { });
+            MySqlFutureExtractor partitioned = new MySqlFutureExtractor(mockConfig, pool);
+            for (int run = 0; run < 2; run++) {
+                List<String> rows = new ArrayList<>();
+                partitioned.streamMapped(LocalDate.of(2025, 1, 7), row -> row.getInt(1) + ":" + row.getInt(2), rows::add);
+                assertEquals("partitions=" + partitions + ", run " + run, expected, rows);
+            }
+        }
+    }
+
+    private static Connection fakeConnection(int[] actionTimes) throws SQLException {
+        int[][] ticks = new int[actionTimes.length][];
+        for (int i = 0; i < actionTimes.length; i++) {
+            ticks[i] = new int[]{actionTimes[i], 0};
+        }
+        return fakeConnection(ticks);
+    }
+
+    /**
+     * Fakes fut_tick for one day: answers the MIN/MAX query and action_time window queries with
+     * action_time and code columns. Like a server without a usable index order, rows of equal action_time
+     * come back in a different order on each query unless the ORDER BY names code as the tie-breaker.
+     */
+    private static Connection fakeConnection(int[][] ticks) throws SQLException {
+        AtomicInteger queries = new AtomicInteger();
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenAnswer(prepare -> {
+            String sql = prepare.getArgument(0);
+            int[] params = {0, Integer.MIN_VALUE, Integer.MAX_VALUE};
+            PreparedStatement stmt = mock(PreparedStatement.class);
+            doAnswer(set -> {
+                params[(int) set.getArgument(0) - 1] = set.getArgument(1);
+                return null;
+            }).when(stmt).setInt(anyInt(), anyInt());
+            when(stmt.executeQuery()).thenAnswer(execute -> {
+                List<int[]> rows = new ArrayList<>();
+                if (sql.startsWith("SELECT MIN")) {
+                    rows.add(new int[]{ticks[0][0], ticks[ticks.length - 1][0]});
+                } else {
+                    for (int[] tick : ticks) {
+                        if (tick[0] >= params[1] && tick[0] < params[2]) {
+                            rows.add(tick);
+                        }
+                    }
+                    Collections.shuffle(rows, new Random(queries.incrementAndGet()));
+                    Comparator<int[]> order = Comparator.comparingInt(row -> row[0]);
+                    if (sql.endsWith("ORDER BY action_time, code")) {
+                        order = order.thenComparingInt(row -> row[1]);
+                    }
+                    rows.sort(order);
+                }
+                return fakeResultSet(rows);
+            });
+            return stmt;
+        });
+        return connection;
+    }
+
+    private static ResultSet fakeResultSet(List<int[]> rows) throws SQLException {
+        int[] position = {-1};
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.next()).thenAnswer(invocation -> ++position[0] < rows.size());
+        when(rs.getInt(anyInt())).thenAnswer(invocation -> rows.get(position[0])[(int) invocation.getArgument(0) - 1]);
+        when(rs.findColumn("action_time")).thenReturn(1);
+        return rs;
+    }
+
+    @Test
+    public void testCountRows() throws Exception {
+        when(mockResultSet.next()).thenReturn(true);
+        when(mockResultSet.getLong(1)).thenReturn(25_000_000L);
+
+        assertEquals(25_000_000L, extractor.countRows(LocalDate.of(2025, 1, 7)));
+        verify(mockConnection).prepareStatement("SELECT COUNT(*) FROM bond.fut_tick WHERE action_date = ?");
+        verify(mockPreparedStatement).setInt(1, 20250107);
+    }
+
     @Test
     public void testExtractNoRecords() throws Exception {
         LocalDate testDate = LocalDate.of(2025, 1, 7);
@@ -0,0 +1,158 @@
+package com.histdata.etl.datasource;
+
+import com.qcloud.cos.model.COSObjectSummary;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for ParallelCosDownloader, using a LocalCosObjectStore as the bucket.
+ */
+public class ParallelCosDownloaderTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private Path bucket;
+    private LocalCosObjectStore store;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() throws IOException {
+        bucket = tempFolder.newFolder("bucket").toPath();
+        store = new LocalCosObjectStore(bucket);
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testDownload_SplitsIntoRangesAndReassembles() throws Exception {
+        byte[] content = new byte[10_000];
+        new Random(42).nextBytes(content);
+        writeObject("AllPriceDepth/20250107/a.csv", content);
+
+        COSObjectSummary object = store.listObjects("AllPriceDepth/20250107/").get(0);
+        Path target = tempFolder.getRoot().toPath().resolve("out/a.csv");
+
+        Path result = new ParallelCosDownloader(store, executor, 1024).download(object, target).get();
+
+        assertEquals(target, result);
+        assertArrayEquals(content, Files.readAllBytes(target));
+    }
+
+    @Test
+    public void testDownload_EmptyObject() throws Exception {
+        writeObject("AllPriceDepth/20250107/empty.csv", new byte[0]);
+
+        COSObjectSummary object = store.listObjects("AllPriceDepth/").get(0);
+        Path target = tempFolder.getRoot().toPath().resolve("out/empty.csv");
+
+        new ParallelCosDownloader(store, executor, 1024).download(object, target).get();
+
+        assertEquals(0, Files.size(target));
+    }
+
+    @Test
+    public void testDownload_MissingObjectFails() throws Exception {
+        COSObjectSummary object = new COSObjectSummary();
+        object.setKey("AllPriceDepth/20250107/missing.csv");
+        object.setSize(10);
+
+        try {
+            new ParallelCosDownloader(store, executor, 4)
+                    .download(object, tempFolder.getRoot().toPath().resolve("out/missing.csv")).get();
+            fail("Expected ExecutionException");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause().getMessage().contains("missing.csv"));
+        }
+    }
+
+    @Test
+    public void testCancel_StopsQueuedParts() throws Exception {
+        writeObject("AllPriceDepth/20250107/a.csv", new byte[10_000]);
+        AtomicInteger requests = new AtomicInteger();
+        CosObjectStore countingStore = new LocalCosObjectStore(bucket) {
+            @Override
+            public InputStream getObject(String key, long start, long end) throws IOException {
+                requests.incrementAndGet();
+                return super.getObject(key, start, end);
+            }
+        };
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        try {
+            // Hold the only worker so every part is still queued when the download is cancelled
+            CountDownLatch release = new CountDownLatch(1);
+            single.submit(() -> {
+                release.await();
+                return null;
+            });
+            ParallelCosDownloader downloader = new ParallelCosDownloader(countingStore, single, 1024);
+            CompletableFuture<Path> download = downloader.download(
+                    countingStore.listObjects("AllPriceDepth/").get(0), tempFolder.getRoot().toPath().resolve("out/a.csv"));
+
+            Thread canceller = new Thread(downloader::cancel);
+            canceller.start();
+            // The canceller parks once it has raised the flag and waits for the queued parts
+            while (canceller.getState() != Thread.State.WAITING) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+            canceller.join(5000);
+
+            assertFalse("cancel() should return once the parts stopped", canceller.isAlive());
+            assertEquals(0, requests.get());
+            try {
+                download.get(5, TimeUnit.SECONDS);
+                fail("Expected ExecutionException");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof CancellationException);
+            }
+        } finally {
+            single.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testListObjects_FiltersByPrefixAndSortsByKey() throws Exception {
+        writeObject("AllPriceDepth/20250107/b.csv", new byte[3]);
+        writeObject("AllPriceDepth/20250107/a.csv", new byte[5]);
+        writeObject("AllPriceDepth/20250108/c.csv", new byte[1]);
+
+        List<COSObjectSummary> objects = store.listObjects("AllPriceDepth/20250107/");
+
+        assertEquals(2, objects.size());
+        assertEquals("AllPriceDepth/20250107/a.csv", objects.get(0).getKey());
+        assertEquals(5, objects.get(0).getSize());
+        assertEquals("AllPriceDepth/20250107/b.csv", objects.get(1).getKey());
+        assertNotNull(objects.get(1).getETag());
+    }
+
+    private void writeObject(String key, byte[] content) throws IOException {
+        Path path = bucket.resolve(key);
+        Files.createDirectories(path.getParent());
+        Files.write(path, content);
+    }
+}
@@ -1,15 +1,27 @@
 package com.histdata.etl.datasource;
 
 import com.histdata.etl.config.CosConfig;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.Rule;
 import org.junit.Test;
 import org.junit.Before;
+import org.junit.rules.TemporaryFolder;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.Assert.*;
 
 public class XbondQuoteExtractorTest {
 
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
     private CosConfig mockConfig;
     private XbondQuoteExtractor extractor;
 
@@ -43,4 +55,93 @@ public class XbondQuoteExtractorTest {
         assertTrue("Should always return true for filtered directory",
             extractor.matchesBusinessDate(null, LocalDate.of(2025, 1, 7)));
     }
+
+    @Test
+    public void testExtract_ReadsAllObjectsOfTheDayInKeyOrder() throws Exception {
+        Path bucket = tempFolder.newFolder("bucket").toPath();
+        writeCsv(bucket.resolve("AllPriceDepth/20250107/part-2.csv"), "id\n3\n");
+        writeCsv(bucket.resolve("AllPriceDepth/20250107/part-1.csv"), "id\n1\n2\n");
+        writeCsv(bucket.resolve("AllPriceDepth/20250107/readme.txt"), "id\n99\n");
+        writeCsv(bucket.resolve("AllPriceDepth/20250108/part-1.csv"), "id\n4\n");
+
+        mockConfig.setPartSizeMb(1);
+        XbondQuoteExtractor localExtractor = new XbondQuoteExtractor(mockConfig, new LocalCosObjectStore(bucket));
+        try {
+            List<CSVRecord> records = localExtractor.extract(LocalDate.of(2025, 1, 7));
+
+            assertEquals(3, records.size());
+            assertEquals("1", records.get(0).get("id"));
+            assertEquals("2", records.get(1).get("id"));
+            assertEquals("3", records.get(2).get("id"));
+        } finally {
+            localExtractor.close();
+        }
+    }
+
+    @Test
+    public void testMappedRows_StreamsRowsInKeyOrder() throws Exception {
+        Path bucket = tempFolder.newFolder("bucket").toPath();
+        writeCsv(bucket.resolve("AllPriceDepth/20250107/part-2.csv"), "id\n3\n");
+        writeCsv(bucket.resolve("AllPriceDepth/20250107/part-1.csv"), "id\n1\n2\n");
+
+        DataSourceExtractor<MappedCsvReader> rows =
+                new XbondQuoteExtractor(mockConfig, new LocalCosObjectStore(bucket)).mappedRows();
+        List<Long> ids = new ArrayList<>();
+        try {
+            long count = rows.stream(LocalDate.of(2025, 1, 7), row -> ids.add(row.getLong(row.requireColumn("id"))));
+
+            assertEquals(3, count);
+            assertEquals(Arrays.asList(1L, 2L, 3L), ids);
+        } finally {
+            rows.close();
+        }
+    }
+
+    @Test
+    public void testExtract_CacheOnlyReadsPreviouslyDownloadedObjects() throws Exception {
+        Path bucket = tempFolder.newFolder("bucket").toPath();
+        writeCsv(bucket.resolve("AllPriceDepth/20250107/part-1.csv"), "id\n1\n2\n");
+        mockConfig.setCacheDir(tempFolder.newFolder("cache").getPath());
+
+        XbondQuoteExtractor online = new XbondQuoteExtractor(mockConfig, new LocalCosObjectStore(bucket));
+        try {
+            assertEquals(2, online.extract(LocalDate.of(2025, 1, 7)).size());
+        } finally {
+            online.close();
+        }
+        assertTrue(Files.exists(tempFolder.getRoot().toPath()
+                .resolve("cache/20250107/AllPriceDepth/part-1.csv")));
+
+        Files.delete(bucket.resolve("AllPriceDepth/20250107/part-1.csv"));
+        mockConfig.setCacheOnly(true);
+        XbondQuoteExtractor offline = new XbondQuoteExtractor(mockConfig);
+        try {
+            List<CSVRecord> records = offline.extract(LocalDate.of(2025, 1, 7));
+            assertEquals(2, records.size());
+            assertEquals("2", records.get(1).get("id"));
+        } finally {
+            offline.close();
+        }
+    }
+
+    @Test
+    public void testListedBytes_SumsMatchingObjectsWithoutDownloading() throws Exception {
+        Path bucket = tempFolder.newFolder("bucket").toPath();
+        writeCsv(bucket.resolve("AllPriceDepth/20250107/part-0.csv"), "id\n3\n");
+        writeCsv(bucket.resolve("AllPriceDepth/20250107/part-1.csv"), "id\n1\n2\n");
+        writeCsv(bucket.resolve("AllPriceDepth/20250107/readme.txt"), "id\n99\n");
+        writeCsv(bucket.resolve("AllPriceDepth/20250108/part-1.csv"), "id\n4\n");
+
+        XbondQuoteExtractor localExtractor = new XbondQuoteExtractor(mockConfig, new LocalCosObjectStore(bucket));
+        try {
+            assertEquals(5 + 7, localExtractor.listedBytes(LocalDate.of(2025, 1, 7)));
+        } finally {
+            localExtractor.close();
+        }
+    }
+
+    private static void writeCsv(Path path, String content) throws Exception {
+        Files.createDirectories(path.getParent());
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+    }
 }
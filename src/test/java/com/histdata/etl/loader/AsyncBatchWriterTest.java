@@ -0,0 +1,172 @@
+package com.histdata.etl.loader;
+
+import com.histdata.etl.exception.LoadingException;
+import com.xxdb.DBConnection;
+import com.xxdb.data.BasicIntVector;
+import com.xxdb.data.BasicTable;
+import com.xxdb.data.Vector;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AsyncBatchWriter.
+ */
+public class AsyncBatchWriterTest {
+
+    private AsyncBatchWriter writer;
+
+    @After
+    public void tearDown() {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    @Test
+    public void testBatchesOfOneTableAreInsertedInOrder() throws Exception {
+        List<Integer> inserted = Collections.synchronizedList(new ArrayList<>());
+        DBConnection first = recordingConnection(inserted);
+        DBConnection second = recordingConnection(inserted);
+        writer = new AsyncBatchWriter(Arrays.asList(first, second), 4);
+
+        for (int i = 0; i < 20; i++) {
+            writer.write("t", table(i));
+        }
+        writer.flush();
+
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            expected.add(i);
+        }
+        assertEquals(expected, inserted);
+        assertEquals(20, writer.getBatchCount());
+        assertEquals(20, writer.getRowCount());
+    }
+
+    @Test
+    public void testTablesAreSpreadOverConnections() throws Exception {
+        DBConnection first = recordingConnection(Collections.synchronizedList(new ArrayList<>()));
+        DBConnection second = recordingConnection(Collections.synchronizedList(new ArrayList<>()));
+        writer = new AsyncBatchWriter(Arrays.asList(first, second), 4);
+
+        writer.write("a", table(1));
+        writer.write("b", table(2));
+        writer.flush();
+
+        verify(first).run(eq("tableInsert{a}"), anyList());
+        verify(second).run(eq("tableInsert{b}"), anyList());
+    }
+
+    @Test
+    public void testWriteBlocksAtInFlightLimit() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger started = new AtomicInteger();
+        DBConnection connection = mock(DBConnection.class);
+        when(connection.run(anyString(), anyList())).thenAnswer(invocation -> {
+            started.incrementAndGet();
+            release.await();
+            return null;
+        });
+        writer = new AsyncBatchWriter(Collections.singletonList(connection), 2);
+        writer.write("t", table(1));
+        writer.write("t", table(2));
+
+        Thread producer = new Thread(() -> {
+            try {
+                writer.write("t", table(3));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        producer.join(200);
+        assertTrue("Third write should wait for a free slot", producer.isAlive());
+
+        release.countDown();
+        producer.join(TimeUnit.SECONDS.toMillis(5));
+        assertFalse(producer.isAlive());
+        writer.flush();
+        assertEquals(3, started.get());
+    }
+
+    @Test
+    public void testFailureIsReportedOnFlush() throws Exception {
+        DBConnection connection = mock(DBConnection.class);
+        when(connection.run(anyString(), anyList())).thenThrow(new IOException("table not found"));
+        writer = new AsyncBatchWriter(Collections.singletonList(connection), 2);
+        writer.write("t", table(1));
+
+        try {
+            writer.flush();
+            fail("Expected LoadingException");
+        } catch (LoadingException e) {
+            assertTrue(e.getMessage().contains("table not found"));
+        }
+        try {
+            writer.write("t", table(2));
+            fail("Expected LoadingException");
+        } catch (LoadingException e) {
+            assertTrue(e.getMessage().contains("table not found"));
+        }
+    }
+
+    @Test
+    public void testCallbackRunsOnlyAfterSuccessfulInsert() throws Exception {
+        DBConnection connection = mock(DBConnection.class);
+        when(connection.run(anyString(), anyList())).thenReturn(null).thenThrow(new IOException("table not found"));
+        writer = new AsyncBatchWriter(Collections.singletonList(connection), 2);
+        AtomicInteger acknowledged = new AtomicInteger();
+
+        writer.write("t", table(1), acknowledged::incrementAndGet);
+        writer.write("t", table(2), acknowledged::incrementAndGet);
+        try {
+            writer.flush();
+            fail("Expected LoadingException");
+        } catch (LoadingException e) {
+            assertEquals(1, acknowledged.get());
+        }
+    }
+
+    @Test
+    public void testCloseClosesConnections() {
+        DBConnection connection = mock(DBConnection.class);
+        writer = new AsyncBatchWriter(Collections.singletonList(connection), 1);
+        writer.close();
+        writer = null;
+
+        verify(connection).close();
+    }
+
+    private static DBConnection recordingConnection(List<Integer> inserted) throws IOException {
+        DBConnection connection = mock(DBConnection.class);
+        when(connection.run(anyString(), anyList())).thenAnswer(invocation -> {
+            List<?> args = invocation.getArgument(1);
+            BasicTable table = (BasicTable) args.get(0);
+            inserted.add(((BasicIntVector) table.getColumn(0)).getInt(0));
+            return null;
+        });
+        return connection;
+    }
+
+    private static BasicTable table(int value) {
+        List<Vector> columns = new ArrayList<>();
+        columns.add(new BasicIntVector(new int[]{value}));
+        return new BasicTable(Collections.singletonList("v"), columns);
+    }
+}
@@ -0,0 +1,138 @@
+package com.histdata.etl.loader;
+
+import com.histdata.etl.exception.LoadingException;
+import com.xxdb.DBConnectionPool;
+import com.xxdb.data.BasicIntVector;
+import com.xxdb.data.BasicTable;
+import com.xxdb.data.Vector;
+import com.xxdb.route.PartitionedTableAppender;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DfsAppender.
+ */
+public class DfsAppenderTest {
+
+    @Test
+    public void testAppenderIsResolvedOncePerTable() throws Exception {
+        DBConnectionPool pool = mock(DBConnectionPool.class);
+        PartitionedTableAppender quotes = mock(PartitionedTableAppender.class);
+        PartitionedTableAppender trades = mock(PartitionedTableAppender.class);
+        List<String> resolved = new ArrayList<>();
+        DfsAppender appender = new DfsAppender(pool, "dfs://Zing_MDS", "exchProductId", 2) {
+            @Override
+            PartitionedTableAppender newAppender(String tableName) {
+                resolved.add(tableName);
+                return "xbond_quote".equals(tableName) ? quotes : trades;
+            }
+        };
+        BasicTable table = table(3);
+        when(quotes.append(table)).thenReturn(3);
+        when(trades.append(table)).thenReturn(3);
+
+        assertEquals(3, appender.append("xbond_quote", table));
+        assertEquals(3, appender.append("xbond_quote", table));
+        assertEquals(3, appender.append("xbond_trade", table));
+
+        assertEquals(Arrays.asList("xbond_quote", "xbond_trade"), resolved);
+        verify(quotes, times(2)).append(table);
+        verify(trades).append(table);
+    }
+
+    @Test
+    public void testWriteAppendsInBackgroundInTableOrder() throws Exception {
+        PartitionedTableAppender quotes = mock(PartitionedTableAppender.class);
+        PartitionedTableAppender trades = mock(PartitionedTableAppender.class);
+        DfsAppender appender = appender(quotes, trades, 4);
+        CountDownLatch release = new CountDownLatch(1);
+        List<BasicTable> appended = Collections.synchronizedList(new ArrayList<>());
+        when(quotes.append(any(BasicTable.class))).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            appended.add(invocation.getArgument(0));
+            return 1;
+        });
+        CountDownLatch tradeAppended = new CountDownLatch(1);
+        when(trades.append(any(BasicTable.class))).thenAnswer(invocation -> {
+            tradeAppended.countDown();
+            return 1;
+        });
+        BasicTable first = table(1);
+        BasicTable second = table(1);
+        List<String> callbacks = Collections.synchronizedList(new ArrayList<>());
+
+        try {
+            appender.write("xbond_quote", first, () -> callbacks.add("quote"));
+            appender.write("xbond_quote", second, () -> callbacks.add("quote"));
+            appender.write("xbond_trade", table(1), () -> callbacks.add("trade"));
+
+            // The trade table is not held up by the blocked quote appends
+            assertTrue(tradeAppended.await(5, TimeUnit.SECONDS));
+            assertTrue(appended.isEmpty());
+            release.countDown();
+            appender.flush();
+
+            assertEquals(Arrays.asList(first, second), appended);
+            assertEquals(3, callbacks.size());
+        } finally {
+            appender.close();
+        }
+    }
+
+    @Test
+    public void testFailedAppendIsReportedByFlush() throws Exception {
+        PartitionedTableAppender quotes = mock(PartitionedTableAppender.class);
+        DfsAppender appender = appender(quotes, null, 2);
+        when(quotes.append(any(BasicTable.class))).thenThrow(new IOException("partition unavailable"));
+        Runnable callback = mock(Runnable.class);
+
+        try {
+            appender.write("xbond_quote", table(1), callback);
+            try {
+                appender.flush();
+                fail("Expected the failed append to be reported");
+            } catch (LoadingException e) {
+                assertTrue(e.getMessage(), e.getMessage().contains("partition unavailable"));
+            }
+            assertFalse(appender.isHealthy());
+            verify(callback, never()).run();
+        } finally {
+            appender.close();
+        }
+    }
+
+    @Test
+    public void testCloseShutsDownPool() {
+        DBConnectionPool pool = mock(DBConnectionPool.class);
+        new DfsAppender(pool, "dfs://Zing_MDS", "exchProductId", 2).close();
+
+        verify(pool).shutdown();
+    }
+
+    private static DfsAppender appender(PartitionedTableAppender quotes, PartitionedTableAppender trades,
+                                        int maxInFlight) {
+        return new DfsAppender(mock(DBConnectionPool.class), "dfs://Zing_MDS", "exchProductId", maxInFlight) {
+            @Override
+            PartitionedTableAppender newAppender(String tableName) {
+                return "xbond_quote".equals(tableName) ? quotes : trades;
+            }
+        };
+    }
+
+    private static BasicTable table(int rows) {
+        List<Vector> columns = new ArrayList<>();
+        columns.add(new BasicIntVector(new int[rows]));
+        return new BasicTable(Collections.singletonList("v"), columns);
+    }
+}
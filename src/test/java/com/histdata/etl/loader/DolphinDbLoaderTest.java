@@ -4,26 +4,37 @@ import com.histdata.etl.config.DolphinDbConfig;
 import com.histdata.etl.model.FutureQuoteRecord;
 import com.histdata.etl.model.XbondQuoteRecord;
 import com.histdata.etl.model.XbondTradeRecord;
+import com.histdata.etl.model.batch.SymbolDictionary;
+import com.histdata.etl.model.batch.XbondTradeBatch;
 import com.xxdb.DBConnection;
+import com.xxdb.data.BasicDateVector;
 import com.xxdb.data.BasicTable;
 import com.xxdb.data.Entity;
+import com.xxdb.io.LittleEndianDataOutputStream;
 import org.junit.Test;
 import org.junit.Before;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.io.ByteArrayOutputStream;
 import java.sql.Date;
 import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.Mockito.*;
 
 /**
@@ -82,6 +93,19 @@ public class DolphinDbLoaderTest {
         verify(mockConnection, atLeast(4)).run(anyString());
     }
 
+    @Test
+    public void testCreateTemporaryTablesDropsLeftoversOfCrashedRun() throws Exception {
+        when(mockConnection.run(anyString())).thenReturn(null);
+
+        loader.createTemporaryTables(false);
+
+        InOrder inOrder = inOrder(mockConnection);
+        inOrder.verify(mockConnection).run("if (defined(`xbond_quote_stream_temp, SHARED)) undef(`xbond_quote_stream_temp, SHARED)");
+        inOrder.verify(mockConnection).run("drop table if exists xbond_quote_stream_temp_local");
+        inOrder.verify(mockConnection).run(startsWith("create table xbond_quote_stream_temp_local "));
+        inOrder.verify(mockConnection).run("share xbond_quote_stream_temp_local as xbond_quote_stream_temp");
+    }
+
     @Test
     public void testLoadEmptyList() throws Exception {
         // Should handle empty list gracefully
@@ -109,6 +133,126 @@ public class DolphinDbLoaderTest {
         verify(mockConnection, atLeast(1)).run(anyString(), any(List.class));
     }
 
+    @Test
+    public void testCheckpointedLoadSkipsLoadedRecords() throws Exception {
+        List<Object> records = Arrays.asList(createSampleXbondQuoteRecord(), createSampleXbondTradeRecord(),
+                createSampleFutureQuoteRecord(), createSampleXbondTradeRecord());
+        List<Long> recorded = new ArrayList<>();
+        LoadCheckpoint checkpoint = new LoadCheckpoint() {
+            @Override
+            public long getLoadedRecords() {
+                return 1;
+            }
+
+            @Override
+            public void recordLoaded(long loadedRecords) {
+                recorded.add(loadedRecords);
+            }
+        };
+        when(mockConnection.run(anyString(), any(List.class))).thenReturn(null);
+
+        long loaded = loader.load(records.iterator(), 2, checkpoint);
+
+        assertEquals(3, loaded);
+        assertEquals(Arrays.asList(3L, 4L), recorded);
+        verify(mockConnection, never()).run(eq("tableInsert{xbond_quote_stream_temp}"), any(List.class));
+        verify(mockConnection, times(2)).run(eq("tableInsert{xbond_trade_stream_temp}"), any(List.class));
+        verify(mockConnection, times(1)).run(eq("tableInsert{fut_market_price_stream_temp}"), any(List.class));
+    }
+
+    @Test
+    public void testDatedTableStartsWithBusinessDate() {
+        List<Object> trades = Arrays.asList(createSampleXbondTradeRecord(), createSampleXbondTradeRecord());
+        XbondTradeBatch batch = new XbondTradeBatch(trades.size());
+        for (Object trade : trades) {
+            batch.append((XbondTradeRecord) trade);
+        }
+
+        BasicTable table = DolphinDbLoader.toDatedTable(batch, trades);
+
+        assertEquals(batch.getColumns().size() + 1, table.columns());
+        assertEquals("businessDate", table.getColumnName(0));
+        assertEquals("exchProductId", table.getColumnName(1));
+        BasicDateVector dates = (BasicDateVector) table.getColumn(0);
+        assertEquals(LocalDate.of(2025, 1, 1), dates.getDate(0));
+        assertEquals(LocalDate.of(2025, 1, 1), dates.getDate(1));
+    }
+
+    @Test
+    public void testTemporaryInsertsMatchTableColumns() throws Exception {
+        when(mockConnection.run(anyString())).thenReturn(null);
+        when(mockConnection.run(anyString(), any(List.class))).thenReturn(null);
+        loader.createTemporaryTables(false);
+        ArgumentCaptor<String> scripts = ArgumentCaptor.forClass(String.class);
+        verify(mockConnection, atLeast(1)).run(scripts.capture());
+        Map<String, List<String>> tableColumns = new HashMap<>();
+        for (String script : scripts.getAllValues()) {
+            if (script.startsWith("create table ")) {
+                String tableName = script.split(" ")[2].replace("_local", "");
+                List<String> columns = new ArrayList<>();
+                for (String column : script.substring(script.indexOf('(') + 1, script.lastIndexOf(')')).split(",")) {
+                    columns.add(column.trim().split(" ")[0]);
+                }
+                tableColumns.put(tableName, columns);
+            }
+        }
+
+        loader.load(Arrays.asList(createSampleXbondQuoteRecord(), createSampleXbondTradeRecord(),
+                createSampleFutureQuoteRecord()).iterator(), 10);
+
+        ArgumentCaptor<String> inserts = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<List> args = ArgumentCaptor.forClass(List.class);
+        verify(mockConnection, times(3)).run(inserts.capture(), args.capture());
+        for (int i = 0; i < inserts.getAllValues().size(); i++) {
+            String tableName = inserts.getAllValues().get(i).replace("tableInsert{", "").replace("}", "");
+            BasicTable table = (BasicTable) args.getAllValues().get(i).get(0);
+            List<String> sent = new ArrayList<>();
+            for (int column = 0; column < table.columns(); column++) {
+                sent.add(table.getColumnName(column));
+            }
+            assertEquals(tableName, tableColumns.get(tableName), sent);
+        }
+    }
+
+    @Test
+    public void testSymbolBaseHoldsOnlyValuesOfTheBatch() throws Exception {
+        SymbolDictionary jobSymbols = new SymbolDictionary();
+        for (int i = 0; i < 10000; i++) {
+            jobSymbols.encode("24" + i + ".IB");
+        }
+
+        // A job that has seen many securities ships the same bytes as one that has only seen this batch's
+        byte[] withLargeDictionary = serialize(DolphinDbLoader.toTable(tradeBatch(jobSymbols)));
+        byte[] withBatchValuesOnly = serialize(DolphinDbLoader.toTable(tradeBatch(new SymbolDictionary())));
+
+        assertEquals(withBatchValuesOnly.length, withLargeDictionary.length);
+    }
+
+    private XbondTradeBatch tradeBatch(SymbolDictionary symbols) {
+        XbondTradeBatch batch = new XbondTradeBatch(2, symbols);
+        batch.append(createSampleXbondTradeRecord());
+        batch.append(createSampleXbondTradeRecord());
+        return batch;
+    }
+
+    private static byte[] serialize(BasicTable table) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        table.write(new LittleEndianDataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+
+    @Test
+    public void testDeleteDayFromDfsTables() throws Exception {
+        when(mockConfig.isDfsLoad()).thenReturn(true);
+        when(mockConfig.getDatabase()).thenReturn("dfs://Zing_MDS");
+
+        loader.deleteDay(LocalDate.of(2025, 1, 7));
+
+        verify(mockConnection).run("delete from loadTable(\"dfs://Zing_MDS\", `xbond_quote) where businessDate = 2025.01.07");
+        verify(mockConnection).run("delete from loadTable(\"dfs://Zing_MDS\", `xbond_trade) where businessDate = 2025.01.07");
+        verify(mockConnection).run("delete from loadTable(\"dfs://Zing_MDS\", `fut_market_price) where businessDate = 2025.01.07");
+    }
+
     @Test
     public void testCleanup() throws Exception {
         // Mock connection.run() for drop table scripts
@@ -0,0 +1,158 @@
+package com.histdata.etl.loader;
+
+import com.histdata.etl.config.DolphinDbConfig;
+import com.histdata.etl.exception.LoadingException;
+import com.xxdb.comm.ErrorCodeInfo;
+import com.xxdb.data.BasicDate;
+import com.xxdb.data.BasicDateVector;
+import com.xxdb.data.BasicDouble;
+import com.xxdb.data.BasicDoubleVector;
+import com.xxdb.data.BasicStringVector;
+import com.xxdb.data.BasicTable;
+import com.xxdb.data.Entity;
+import com.xxdb.data.Scalar;
+import com.xxdb.data.Vector;
+import com.xxdb.multithreadedtablewriter.MultithreadedTableWriter;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for MultithreadedBatchWriter.
+ */
+public class MultithreadedBatchWriterTest {
+
+    @Test
+    public void testRowsAreEnqueuedAndCallbacksRunOnFlush() throws Exception {
+        MultithreadedTableWriter tableWriter = mock(MultithreadedTableWriter.class);
+        List<List<Entity>> inserted = new ArrayList<>();
+        when(tableWriter.insertUnwrittenData(anyList())).thenAnswer(invocation -> {
+            inserted.addAll(invocation.getArgument(0));
+            return new ErrorCodeInfo();
+        });
+        when(tableWriter.getStatus()).thenReturn(status(0, 0), status(0, 1), status(0, 2));
+        MultithreadedBatchWriter writer = writer(tableWriter, new DolphinDbConfig());
+        AtomicInteger acknowledged = new AtomicInteger();
+
+        writer.write("xbond_trade_stream_temp", table(), acknowledged::incrementAndGet);
+        assertEquals(0, acknowledged.get());
+        writer.flush();
+
+        assertEquals(1, acknowledged.get());
+        assertEquals(2, inserted.size());
+        assertEquals(LocalDate.of(2025, 1, 2), ((BasicDate) inserted.get(0).get(0)).getDate());
+        assertEquals("210210.IB", inserted.get(0).get(1).getString());
+        assertEquals(100.5, ((BasicDouble) inserted.get(0).get(2)).getDouble(), 0.0);
+        assertEquals("210215.IB", inserted.get(1).get(1).getString());
+        assertTrue(((Scalar) inserted.get(1).get(2)).isNull());
+    }
+
+    @Test
+    public void testCallbacksOfSentBatchesRunOnNextWrite() throws Exception {
+        MultithreadedTableWriter tableWriter = mock(MultithreadedTableWriter.class);
+        when(tableWriter.insertUnwrittenData(anyList())).thenReturn(new ErrorCodeInfo());
+        // Four sender threads progress independently, so only a table with every row sent proves a batch sent
+        when(tableWriter.getStatus()).thenReturn(status(0, 0), status(1, 1), status(0, 4));
+        MultithreadedBatchWriter writer = writer(tableWriter, new DolphinDbConfig());
+        List<String> acknowledged = new ArrayList<>();
+
+        writer.write("xbond_trade_stream_temp", table(), () -> acknowledged.add("first"));
+        writer.write("xbond_trade_stream_temp", table(), () -> acknowledged.add("second"));
+        assertEquals(Collections.emptyList(), acknowledged);
+        writer.write("xbond_trade_stream_temp", table(), () -> acknowledged.add("third"));
+
+        assertEquals(Arrays.asList("first", "second"), acknowledged);
+    }
+
+    @Test
+    public void testSingleSenderRunsCallbacksUpToSentRow() throws Exception {
+        MultithreadedTableWriter tableWriter = mock(MultithreadedTableWriter.class);
+        when(tableWriter.insertUnwrittenData(anyList())).thenReturn(new ErrorCodeInfo());
+        when(tableWriter.getStatus()).thenReturn(status(0, 0), status(2, 2));
+        DolphinDbConfig config = new DolphinDbConfig();
+        config.setMtwThreads(1);
+        MultithreadedBatchWriter writer = writer(tableWriter, config);
+        List<String> acknowledged = new ArrayList<>();
+
+        writer.write("xbond_trade_stream_temp", table(), () -> acknowledged.add("first"));
+        writer.write("xbond_trade_stream_temp", table(), () -> acknowledged.add("second"));
+
+        assertEquals(Collections.singletonList("first"), acknowledged);
+    }
+
+    @Test
+    public void testStoppedWriterFailsFlush() throws Exception {
+        MultithreadedTableWriter tableWriter = mock(MultithreadedTableWriter.class);
+        when(tableWriter.insertUnwrittenData(anyList())).thenReturn(new ErrorCodeInfo());
+        MultithreadedTableWriter.Status stopped = status(2, 0);
+        stopped.isExiting = true;
+        when(tableWriter.getStatus()).thenReturn(status(0, 0), stopped);
+        MultithreadedBatchWriter writer = writer(tableWriter, new DolphinDbConfig());
+
+        writer.write("xbond_trade_stream_temp", table(), null);
+        try {
+            writer.flush();
+            fail("Expected LoadingException");
+        } catch (LoadingException e) {
+            assertTrue(e.getMessage().contains("stopped"));
+        }
+    }
+
+    @Test
+    public void testSendFailureIsReportedOnFlush() throws Exception {
+        MultithreadedTableWriter tableWriter = mock(MultithreadedTableWriter.class);
+        when(tableWriter.insertUnwrittenData(anyList())).thenReturn(new ErrorCodeInfo());
+        MultithreadedTableWriter.Status failed = status(0, 0);
+        failed.sendFailedRows = 2;
+        failed.setErrorCode("A5");
+        failed.setErrorInfo("column count mismatch");
+        when(tableWriter.getStatus()).thenReturn(status(0, 0), failed);
+        MultithreadedBatchWriter writer = writer(tableWriter, new DolphinDbConfig());
+        AtomicInteger acknowledged = new AtomicInteger();
+
+        writer.write("xbond_trade_stream_temp", table(), acknowledged::incrementAndGet);
+        try {
+            writer.flush();
+            fail("Expected LoadingException");
+        } catch (LoadingException e) {
+            assertTrue(e.getMessage().contains("column count mismatch"));
+        }
+        assertEquals(0, acknowledged.get());
+        assertFalse(writer.isHealthy());
+    }
+
+    private static MultithreadedBatchWriter writer(MultithreadedTableWriter tableWriter, DolphinDbConfig config) {
+        return new MultithreadedBatchWriter(config, "") {
+            @Override
+            MultithreadedTableWriter newWriter(String tableName) {
+                return tableWriter;
+            }
+        };
+    }
+
+    private static MultithreadedTableWriter.Status status(long unsentRows, long sentRows) {
+        MultithreadedTableWriter.Status status = new MultithreadedTableWriter.Status();
+        status.unsentRows = unsentRows;
+        status.sentRows = sentRows;
+        return status;
+    }
+
+    private static BasicTable table() {
+        BasicDateVector dates = new BasicDateVector(2);
+        dates.setDate(0, LocalDate.of(2025, 1, 2));
+        dates.setDate(1, LocalDate.of(2025, 1, 2));
+        BasicDoubleVector prices = new BasicDoubleVector(new double[]{100.5, 0});
+        prices.setNull(1);
+        List<Vector> columns = Arrays.asList(dates, new BasicStringVector(new String[]{"210210.IB", "210215.IB"}), prices);
+        return new BasicTable(Arrays.asList("businessDate", "exchProductId", "lastTradePrice"), columns);
+    }
+}
@@ -0,0 +1,118 @@
+package com.histdata.etl.metrics;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for MetricsRegistry and the metric types.
+ */
+public class MetricsRegistryTest {
+
+    @Test
+    public void testCounterExposition() {
+        MetricsRegistry registry = new MetricsRegistry();
+        Counter counter = registry.counter("etl_rows_parsed_total", "Rows parsed", "source");
+        counter.labels("AllPriceDepth").inc(3);
+        counter.labels("AllPriceDepth").inc();
+        counter.labels("fut_\"tick\"").inc(2);
+
+        assertEquals("# HELP etl_rows_parsed_total Rows parsed\n"
+                + "# TYPE etl_rows_parsed_total counter\n"
+                + "etl_rows_parsed_total{source=\"AllPriceDepth\"} 4\n"
+                + "etl_rows_parsed_total{source=\"fut_\\\"tick\\\"\"} 2\n", registry.scrape());
+    }
+
+    @Test
+    public void testHistogramBucketsAreCumulative() {
+        MetricsRegistry registry = new MetricsRegistry();
+        Histogram.Child batches = registry.histogram("etl_batch_rows", "Rows per insert",
+                new double[]{100, 1000}, "table").labels("xbond_trade");
+        batches.observe(50);
+        batches.observe(100);
+        batches.observe(500);
+        batches.observe(5000);
+
+        assertEquals(4, batches.getCount());
+        assertEquals("# HELP etl_batch_rows Rows per insert\n"
+                + "# TYPE etl_batch_rows histogram\n"
+                + "etl_batch_rows_bucket{table=\"xbond_trade\",le=\"100\"} 2\n"
+                + "etl_batch_rows_bucket{table=\"xbond_trade\",le=\"1000\"} 3\n"
+                + "etl_batch_rows_bucket{table=\"xbond_trade\",le=\"+Inf\"} 4\n"
+                + "etl_batch_rows_sum{table=\"xbond_trade\"} 5650\n"
+                + "etl_batch_rows_count{table=\"xbond_trade\"} 4\n", registry.scrape());
+    }
+
+    @Test
+    public void testTimerObservesSeconds() {
+        MetricsRegistry registry = new MetricsRegistry();
+        Histogram.Child timer = registry.timer("etl_insert_seconds", "Insert latency").labels();
+        timer.observe(0.002);
+
+        String scrape = registry.scrape();
+        assertTrue(scrape, scrape.contains("etl_insert_seconds_bucket{le=\"0.001\"} 0\n"));
+        assertTrue(scrape, scrape.contains("etl_insert_seconds_bucket{le=\"0.005\"} 1\n"));
+        assertTrue(scrape, scrape.contains("etl_insert_seconds_sum 0.002\n"));
+        assertTrue(scrape, scrape.contains("etl_insert_seconds_count 1\n"));
+    }
+
+    @Test
+    public void testGaugeSumsTrackedSuppliers() {
+        MetricsRegistry registry = new MetricsRegistry();
+        Gauge.Child depth = registry.gauge("etl_queue_depth", "Queue depth", "queue").labels("quote");
+        AtomicLong first = new AtomicLong(5);
+        LongSupplier second = () -> 7;
+        depth.track(first::get);
+        depth.track(second);
+        assertEquals(12, depth.get());
+
+        depth.untrack(second);
+        first.set(1);
+        assertEquals(1, depth.get());
+        assertTrue(registry.scrape().contains("etl_queue_depth{queue=\"quote\"} 1\n"));
+    }
+
+    @Test
+    public void testFamiliesAreSortedByName() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("b_total", "B").labels().inc();
+        registry.counter("a_total", "A").labels().inc();
+
+        String scrape = registry.scrape();
+        assertTrue(scrape, scrape.indexOf("a_total") < scrape.indexOf("b_total"));
+    }
+
+    @Test
+    public void testRegisteringTwiceReturnsTheSameMetric() {
+        MetricsRegistry registry = new MetricsRegistry();
+        Counter first = registry.counter("etl_rejected_rows_total", "Rejects", "source");
+        Counter second = registry.counter("etl_rejected_rows_total", "Rejects", "source");
+
+        assertSame(first, second);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConflictingRegistrationIsRejected() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("etl_queue_depth", "Queue depth", "queue");
+        registry.gauge("etl_queue_depth", "Queue depth", "queue");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongNumberOfLabelValuesIsRejected() {
+        new MetricsRegistry().counter("etl_rows_parsed_total", "Rows parsed", "source").labels();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidNameIsRejected() {
+        new MetricsRegistry().counter("etl-rows", "Rows");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCounterCannotDecrease() {
+        new MetricsRegistry().counter("etl_rows_parsed_total", "Rows parsed").labels().inc(-1);
+    }
+}
@@ -0,0 +1,62 @@
+package com.histdata.etl.metrics;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for MetricsServer.
+ */
+public class MetricsServerTest {
+
+    private static HttpURLConnection open(MetricsServer server, String path, String method) throws Exception {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + server.getPort() + path).openConnection();
+        connection.setRequestMethod(method);
+        connection.setConnectTimeout(5000);
+        connection.setReadTimeout(5000);
+        return connection;
+    }
+
+    private static String read(InputStream in) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int n;
+        while ((n = in.read(buffer)) > 0) {
+            out.write(buffer, 0, n);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testServesRegistryInPrometheusFormat() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("etl_cos_downloaded_bytes_total", "Bytes downloaded").labels().inc(1024);
+
+        try (MetricsServer server = new MetricsServer(registry, 0)) {
+            HttpURLConnection connection = open(server, MetricsServer.PATH, "GET");
+
+            assertEquals(200, connection.getResponseCode());
+            assertEquals(MetricsServer.CONTENT_TYPE, connection.getContentType());
+            String body;
+            try (InputStream in = connection.getInputStream()) {
+                body = read(in);
+            }
+            assertTrue(body, body.contains("# TYPE etl_cos_downloaded_bytes_total counter\n"));
+            assertTrue(body, body.contains("etl_cos_downloaded_bytes_total 1024\n"));
+        }
+    }
+
+    @Test
+    public void testRejectsOtherPathsAndMethods() throws Exception {
+        try (MetricsServer server = new MetricsServer(new MetricsRegistry(), 0)) {
+            assertEquals(404, open(server, MetricsServer.PATH + "/other", "GET").getResponseCode());
+            assertEquals(405, open(server, MetricsServer.PATH, "POST").getResponseCode());
+        }
+    }
+}
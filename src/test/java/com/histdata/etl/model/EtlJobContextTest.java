@@ -169,6 +169,25 @@ public class EtlJobContextTest {
         assertEquals("Status should be INITIALIZED", JobStatus.INITIALIZED, progress.getStatus());
     }
 
+    @Test
+    public void testLoadedRecordsAggregateConcurrentDays() throws Exception {
+        Thread[] days = new Thread[4];
+        for (int i = 0; i < days.length; i++) {
+            days[i] = new Thread(() -> {
+                for (int batch = 0; batch < 1000; batch++) {
+                    context.addLoadedRecords(10);
+                }
+            });
+            days[i].start();
+        }
+        for (Thread day : days) {
+            day.join();
+        }
+
+        assertEquals(40000, context.getLoadedRecords());
+        assertEquals(40000, context.getProgressStatus().getTotalRecords());
+    }
+
     @Test
     public void testCleanup() {
         // Cleanup should not throw
@@ -0,0 +1,95 @@
+package com.histdata.etl.model.batch;
+
+import com.histdata.etl.model.FutureQuoteRecord;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for FutureQuoteBatch.
+ */
+public class FutureQuoteBatchTest {
+
+    private FutureQuoteBatch batch;
+
+    @Before
+    public void setUp() {
+        batch = new FutureQuoteBatch(4);
+    }
+
+    @Test
+    public void testAddRow_SetsDefaultsAndLeavesOtherColumnsNull() {
+        int row = batch.addRow("TF2412");
+
+        assertEquals(0, row);
+        assertEquals(1, batch.size());
+        assertEquals("TF2412", batch.getExchProductId().get(row));
+        assertEquals(FutureQuoteRecord.DEFAULT_EXCHANGE, batch.getExchange().get(row));
+        assertTrue(batch.getClosePrice().isNull(row));
+        assertEquals(DoubleColumn.NULL_VALUE, batch.getClosePrice().toArray(1)[0], 0.0);
+        assertEquals(LongColumn.NULL_VALUE, batch.getTotalVolume().toArray(1)[0]);
+    }
+
+    @Test
+    public void testAppend_CopiesRecordFields() {
+        FutureQuoteRecord record = new FutureQuoteRecord(Date.valueOf("2025-01-07"), "TF2412");
+        record.setClosePrice(124.5);
+        record.setBid0Price(124.0);
+        record.setBid0TradableVolume(100L);
+        record.setEventTime(Timestamp.valueOf("2025-01-07 09:30:50.090"));
+
+        int row = batch.append(record);
+
+        assertEquals(124.5, batch.getClosePrice().get(row), 0.0);
+        assertEquals(124.0, batch.getBidPrice(0).get(row), 0.0);
+        assertEquals(100L, batch.getBidTradableVolume(0).get(row));
+        assertTrue(batch.getBidPrice(1).isNull(row));
+        assertEquals(Timestamp.valueOf("2025-01-07 09:30:50.090").getTime(), batch.getEventTime().get(row));
+        assertTrue(batch.getReceiveTime().isNull(row));
+    }
+
+    @Test
+    public void testToArray_TrimsToSizeOrReturnsBackingArray() {
+        batch.addRow("A");
+        batch.addRow("B");
+
+        assertEquals(2, batch.getExchProductId().toArray(batch.size()).length);
+
+        batch.addRow("C");
+        batch.addRow("D");
+        assertTrue(batch.isFull());
+        assertSame(batch.getExchProductId().toArray(4), batch.getExchProductId().toArray(batch.size()));
+    }
+
+    @Test
+    public void testDiscardLastRowAndClear_ResetValues() {
+        int row = batch.addRow("TF2412");
+        batch.getClosePrice().set(row, 124.5);
+        batch.discardLastRow();
+
+        assertTrue(batch.isEmpty());
+        row = batch.addRow("TF2503");
+        assertTrue(batch.getClosePrice().isNull(row));
+
+        batch.clear();
+        assertEquals(0, batch.size());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testAddRow_WhenFull_Throws() {
+        for (int i = 0; i <= batch.capacity(); i++) {
+            batch.addRow("TF" + i);
+        }
+    }
+
+    @Test
+    public void testColumnOrder_MatchesTableLayout() {
+        assertEquals("exchProductId", batch.getColumnNames().get(0));
+        assertEquals("receiveTime", batch.getColumnNames().get(batch.getColumnNames().size() - 1));
+        assertEquals(batch.getColumns().size(), batch.getColumnNames().size());
+    }
+}
@@ -0,0 +1,88 @@
+package com.histdata.etl.model.batch;
+
+import com.xxdb.data.BasicSymbolVector;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for SymbolDictionary, SymbolColumn and BatchSymbolBase.
+ */
+public class SymbolDictionaryTest {
+
+    @Test
+    public void testEncode_AssignsCodesInFirstSeenOrder() {
+        SymbolDictionary dictionary = new SymbolDictionary();
+
+        assertEquals(1, dictionary.encode("TF2412"));
+        assertEquals(2, dictionary.encode("T2503"));
+        assertEquals(1, dictionary.encode("TF2412"));
+        assertEquals(0, dictionary.encode(null));
+        assertEquals(0, dictionary.encode(""));
+        assertEquals(3, dictionary.size());
+        assertEquals("T2503", dictionary.decode(2));
+        assertNull(dictionary.decode(0));
+    }
+
+    @Test
+    public void testIntern_ReturnsOneInstancePerValue() {
+        SymbolDictionary dictionary = new SymbolDictionary();
+
+        String first = dictionary.intern(new String("240001.IB"));
+        String second = dictionary.intern(new String("240001.IB"));
+
+        assertSame(first, second);
+        assertNull(dictionary.intern(null));
+    }
+
+    @Test
+    public void testBatchSymbolBase_HoldsOnlyUsedValues() {
+        SymbolDictionary dictionary = new SymbolDictionary();
+        for (int i = 0; i < 1000; i++) {
+            dictionary.encode("2400" + i + ".IB");
+        }
+        SymbolColumn column = new SymbolColumn("exchProductId", 3, dictionary);
+        column.set(0, "TF2412");
+        column.set(1, "240099.IB");
+        column.set(2, "TF2412");
+
+        BatchSymbolBase base = new BatchSymbolBase(dictionary);
+        int[] indexes = base.remap(column, 3);
+
+        assertEquals(3, base.size());
+        assertArrayEquals(new int[]{1, 2, 1}, indexes);
+        assertEquals("TF2412", base.getSymbolBase().getSymbol(1));
+        assertEquals("240099.IB", base.getSymbolBase().getSymbol(2));
+    }
+
+    @Test
+    public void testSymbolColumn_ShipsAsSymbolVector() {
+        SymbolDictionary dictionary = new SymbolDictionary();
+        SymbolColumn column = new SymbolColumn("exchProductId", 4, dictionary);
+        column.set(0, "TF2412");
+        column.set(1, null);
+        column.set(2, "T2503");
+        column.set(3, "TF2412");
+
+        BatchSymbolBase base = new BatchSymbolBase(dictionary);
+        BasicSymbolVector vector = new BasicSymbolVector(base.getSymbolBase(), base.remap(column, 4), false);
+
+        assertEquals("TF2412", vector.getString(0));
+        assertTrue(vector.isNull(1));
+        assertEquals("T2503", vector.getString(2));
+        assertEquals("TF2412", vector.getString(3));
+        assertNull(column.get(1));
+    }
+
+    @Test
+    public void testBatchesShareDictionary() {
+        SymbolDictionary dictionary = new SymbolDictionary();
+        FutureQuoteBatch futures = new FutureQuoteBatch(2, dictionary);
+        XbondTradeBatch trades = new XbondTradeBatch(2, dictionary);
+
+        futures.addRow("TF2412");
+
+        assertSame(dictionary, trades.getExchProductId().getDictionary());
+        assertEquals(1, dictionary.encode("TF2412"));
+    }
+}
@@ -0,0 +1,127 @@
+package com.histdata.etl.pipeline;
+
+import com.histdata.etl.util.MemoryBudget;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for DayScheduler.
+ */
+public class DaySchedulerTest {
+
+    @Test
+    public void testRunsEveryDayWithBoundedConcurrency() throws Exception {
+        List<LocalDate> dates = dates(8);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<LocalDate> processed = Collections.synchronizedList(new ArrayList<>());
+
+        new DayScheduler(3, new MemoryBudget(Long.MAX_VALUE), 0).run(dates, date -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            processed.add(date);
+            running.decrementAndGet();
+        });
+
+        assertEquals(8, processed.size());
+        assertTrue(processed.containsAll(dates));
+        assertTrue("at most 3 days at once, was " + maxRunning.get(), maxRunning.get() <= 3);
+        assertTrue(maxRunning.get() > 1);
+    }
+
+    @Test
+    public void testMemoryBudgetLimitsConcurrency() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        MemoryBudget budget = new MemoryBudget(250);
+
+        new DayScheduler(4, budget, 100).run(dates(6), date -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            running.decrementAndGet();
+        });
+
+        assertEquals(2, maxRunning.get());
+        assertEquals(0, budget.getReservedBytes());
+    }
+
+    @Test
+    public void testFailureStopsAdmissionAndIsRethrown() throws Exception {
+        List<LocalDate> processed = Collections.synchronizedList(new ArrayList<>());
+        List<LocalDate> dates = dates(10);
+
+        try {
+            new DayScheduler(2, new MemoryBudget(Long.MAX_VALUE), 0).run(dates, date -> {
+                if (date.equals(dates.get(1))) {
+                    throw new IllegalStateException("boom");
+                }
+                Thread.sleep(50);
+                processed.add(date);
+            });
+            fail("Expected the day failure to be rethrown");
+        } catch (IllegalStateException e) {
+            assertEquals("boom", e.getMessage());
+        }
+        assertTrue(processed.size() < dates.size() - 1);
+    }
+
+    @Test
+    public void testSingleDayAtATimeRunsInOrderOnCallingThread() throws Exception {
+        List<LocalDate> processed = new ArrayList<>();
+        Thread caller = Thread.currentThread();
+
+        new DayScheduler(1, new MemoryBudget(100), 500).run(dates(3), date -> {
+            assertSame(caller, Thread.currentThread());
+            processed.add(date);
+        });
+
+        assertEquals(dates(3), processed);
+    }
+
+    @Test
+    public void testDayEstimatesAreReservedPerDay() throws Exception {
+        List<LocalDate> dates = dates(4);
+        MemoryBudget budget = new MemoryBudget(300);
+        List<Long> reserved = Collections.synchronizedList(new ArrayList<>());
+
+        // Only the first day is large; it must run alone while the small days may share the budget
+        new DayScheduler(4, budget, date -> date.equals(dates.get(0)) ? 250L : 100L).run(dates, date -> {
+            reserved.add(budget.getReservedBytes());
+            Thread.sleep(20);
+        });
+
+        assertEquals(4, reserved.size());
+        assertTrue(reserved.stream().allMatch(bytes -> bytes <= 300));
+        assertEquals(0, budget.getReservedBytes());
+    }
+
+    @Test
+    public void testPressureHoldsBackDaysWhileOneRuns() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        MemoryBudget budget = new MemoryBudget(Long.MAX_VALUE, () -> true);
+
+        new DayScheduler(3, budget, 0).run(dates(3), date -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            running.decrementAndGet();
+        });
+
+        assertEquals(1, maxRunning.get());
+    }
+
+    private static List<LocalDate> dates(int count) {
+        List<LocalDate> dates = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            dates.add(LocalDate.of(2025, 1, 1).plusDays(i));
+        }
+        return dates;
+    }
+}
@@ -0,0 +1,130 @@
+package com.histdata.etl.pipeline;
+
+import com.histdata.etl.model.XbondQuoteRecord;
+import com.histdata.etl.model.XbondTradeRecord;
+import com.histdata.etl.model.batch.SymbolDictionary;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for ExternalSorter and the record codecs.
+ */
+public class ExternalSorterTest {
+
+    private static final Date DAY = Date.valueOf("2025-01-02");
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private static XbondTradeRecord trade(String id, long receiveTime) {
+        XbondTradeRecord record = new XbondTradeRecord(DAY, id);
+        record.setReceiveTime(new Timestamp(receiveTime));
+        return record;
+    }
+
+    private static List<String> drain(Iterator<XbondTradeRecord> iterator) {
+        List<String> ids = new ArrayList<>();
+        while (iterator.hasNext()) {
+            ids.add(iterator.next().getExchProductId());
+        }
+        return ids;
+    }
+
+    private static long[] receiveTimes() {
+        return new long[]{50, 10, 40, 10, 30, 20, 60, 10, 5, 40};
+    }
+
+    @Test
+    public void testInMemorySortIsStable() throws Exception {
+        try (ExternalSorter<XbondTradeRecord> sorter = new ExternalSorter<>("trade")) {
+            long[] times = receiveTimes();
+            for (int i = 0; i < times.length; i++) {
+                sorter.accept(trade("T" + i, times[i]));
+            }
+
+            assertEquals(10, sorter.size());
+            assertEquals(0, sorter.getSpilledRuns());
+            assertEquals("[T8, T1, T3, T7, T5, T4, T2, T9, T0, T6]", drain(sorter.sorted()).toString());
+        }
+    }
+
+    @Test
+    public void testSpilledRunsMergeToInMemoryOrder() throws Exception {
+        Path directory = tempFolder.getRoot().toPath();
+        ExternalSorter<XbondTradeRecord> sorter = new ExternalSorter<>("trade",
+                new XbondTradeCodec(new SymbolDictionary()), directory, 3, () -> false);
+        try {
+            long[] times = receiveTimes();
+            for (int i = 0; i < times.length; i++) {
+                sorter.accept(trade("T" + i, times[i]));
+            }
+
+            assertEquals(3, sorter.getSpilledRuns());
+            assertEquals(3, tempFolder.getRoot().list().length);
+            assertEquals("[T8, T1, T3, T7, T5, T4, T2, T9, T0, T6]", drain(sorter.sorted()).toString());
+        } finally {
+            sorter.close();
+        }
+        assertEquals(0, tempFolder.getRoot().list().length);
+    }
+
+    @Test
+    public void testSpillsUnderMemoryPressure() throws Exception {
+        try (ExternalSorter<XbondTradeRecord> sorter = new ExternalSorter<>("trade",
+                new XbondTradeCodec(new SymbolDictionary()), tempFolder.getRoot().toPath(), Integer.MAX_VALUE, () -> true)) {
+            for (int i = 0; i < ExternalSorter.MIN_RUN_RECORDS - 1; i++) {
+                sorter.accept(trade("T", i));
+            }
+            assertEquals(0, sorter.getSpilledRuns());
+
+            for (int i = 0; i < 8192; i++) {
+                sorter.accept(trade("T", i));
+            }
+            assertEquals(1, sorter.getSpilledRuns());
+        }
+    }
+
+    @Test
+    public void testQuoteCodecRoundTrip() throws Exception {
+        XbondQuoteRecord record = new XbondQuoteRecord(DAY, "240001.IB");
+        record.setSettleSpeed(1);
+        record.setSource("");
+        record.setBid0Price(100.25);
+        record.setBid0YieldType("MATURITY");
+        record.setOffer5Volume(3_000_000L);
+        Timestamp receiveTime = Timestamp.valueOf("2025-01-02 09:30:00.123456789");
+        record.setReceiveTime(receiveTime);
+
+        XbondQuoteCodec codec = new XbondQuoteCodec(new SymbolDictionary());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        codec.write(new DataOutputStream(bytes), record);
+        XbondQuoteRecord read = codec.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(DAY, read.getBusinessDate());
+        assertEquals("240001.IB", read.getExchProductId());
+        assertEquals(1, read.getSettleSpeed());
+        assertEquals("", read.getSource());
+        assertEquals(record.getExchange(), read.getExchange());
+        assertEquals(100.25, read.getBid0Price(), 0.0);
+        assertEquals("MATURITY", read.getBid0YieldType());
+        assertNull(read.getBid0Yield());
+        assertNull(read.getOffer0YieldType());
+        assertEquals(Long.valueOf(3_000_000L), read.getOffer5Volume());
+        assertNull(read.getEventTime());
+        assertEquals(receiveTime, read.getReceiveTime());
+    }
+}
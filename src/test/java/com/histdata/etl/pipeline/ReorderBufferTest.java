@@ -0,0 +1,81 @@
+package com.histdata.etl.pipeline;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for ReorderBuffer.
+ */
+public class ReorderBufferTest {
+
+    private static long[] rec(long key, long id) {
+        return new long[]{key, id};
+    }
+
+    private static void push(ReorderBuffer<long[]> buffer, long[]... records) throws Exception {
+        for (long[] record : records) {
+            buffer.accept(record);
+        }
+        buffer.flush();
+    }
+
+    @Test
+    public void testRestoresOrderWithinWindow() throws Exception {
+        List<long[]> out = new ArrayList<>();
+        ReorderBuffer<long[]> buffer = new ReorderBuffer<>(out::add, r -> r[0], 2);
+
+        push(buffer, rec(2, 0), rec(1, 1), rec(4, 2), rec(3, 3), rec(6, 4), rec(5, 5));
+
+        long[] expected = {1, 2, 3, 4, 5, 6};
+        assertEquals(expected.length, out.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], out.get(i)[0]);
+        }
+        assertEquals(0, buffer.getLate());
+    }
+
+    @Test
+    public void testTiesKeepArrivalOrder() throws Exception {
+        List<long[]> out = new ArrayList<>();
+        ReorderBuffer<long[]> buffer = new ReorderBuffer<>(out::add, r -> r[0], 3);
+
+        push(buffer, rec(7, 0), rec(7, 1), rec(5, 2), rec(7, 3));
+
+        assertEquals(2, out.get(0)[1]);
+        assertEquals(0, out.get(1)[1]);
+        assertEquals(1, out.get(2)[1]);
+        assertEquals(3, out.get(3)[1]);
+    }
+
+    @Test
+    public void testRecordBeyondWindowIsPassedOnAndCounted() throws Exception {
+        List<long[]> out = new ArrayList<>();
+        ReorderBuffer<long[]> buffer = new ReorderBuffer<>(out::add, r -> r[0], 1);
+
+        push(buffer, rec(3, 0), rec(4, 1), rec(5, 2), rec(1, 3));
+
+        assertEquals(4, out.size());
+        assertEquals(1, buffer.getLate());
+        assertEquals(3, out.get(0)[0]);
+        assertEquals(4, out.get(1)[0]);
+        assertEquals(1, out.get(2)[0]);
+        assertEquals(5, out.get(3)[0]);
+    }
+
+    @Test
+    public void testZeroWindowPassesThrough() throws Exception {
+        List<long[]> out = new ArrayList<>();
+        ReorderBuffer<long[]> buffer = new ReorderBuffer<>(out::add, r -> r[0], 0);
+
+        buffer.accept(rec(2, 0));
+        assertEquals(1, out.size());
+        buffer.accept(rec(1, 1));
+
+        assertEquals(2, out.size());
+        assertEquals(1, buffer.getLate());
+    }
+}
@@ -0,0 +1,76 @@
+package com.histdata.etl.pipeline;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for SortedRunMerger.
+ */
+public class SortedRunMergerTest {
+
+    private static List<long[]> drain(SortedRunMerger<long[]> merger) {
+        List<long[]> result = new ArrayList<>();
+        while (merger.hasNext()) {
+            result.add(merger.next());
+        }
+        return result;
+    }
+
+    private static long[] rec(long key, long run) {
+        return new long[]{key, run};
+    }
+
+    @Test
+    public void testMergesRunsInKeyOrder() {
+        List<Iterator<long[]>> runs = Arrays.asList(
+                Arrays.asList(rec(1, 0), rec(4, 0), rec(9, 0)).iterator(),
+                Arrays.asList(rec(2, 1), rec(3, 1), rec(10, 1)).iterator(),
+                Arrays.asList(rec(5, 2)).iterator());
+
+        List<long[]> merged = drain(new SortedRunMerger<>(runs, r -> r[0]));
+
+        assertEquals(7, merged.size());
+        long[] expected = {1, 2, 3, 4, 5, 9, 10};
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], merged.get(i)[0]);
+        }
+    }
+
+    @Test
+    public void testTiesKeepRunOrder() {
+        List<Iterator<long[]>> runs = Arrays.asList(
+                Arrays.asList(rec(7, 0), rec(7, 0)).iterator(),
+                Arrays.asList(rec(7, 1)).iterator());
+
+        List<long[]> merged = drain(new SortedRunMerger<>(runs, r -> r[0]));
+
+        assertEquals(0, merged.get(0)[1]);
+        assertEquals(0, merged.get(1)[1]);
+        assertEquals(1, merged.get(2)[1]);
+    }
+
+    @Test
+    public void testEmptyRuns() {
+        List<Iterator<long[]>> runs = Arrays.asList(
+                Collections.<long[]>emptyIterator(),
+                Arrays.asList(rec(1, 1)).iterator(),
+                Collections.<long[]>emptyIterator());
+
+        List<long[]> merged = drain(new SortedRunMerger<>(runs, r -> r[0]));
+
+        assertEquals(1, merged.size());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testNextWhenExhausted() {
+        new SortedRunMerger<long[]>(Collections.<Iterator<long[]>>emptyList(), r -> r[0]).next();
+    }
+}
@@ -0,0 +1,146 @@
+package com.histdata.etl.pipeline;
+
+import com.histdata.etl.datasource.DataSourceExtractor;
+import com.histdata.etl.exception.ExtractionException;
+import com.histdata.etl.loader.DataLoader;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for StreamingPipeline.
+ */
+public class StreamingPipelineTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 1, 2);
+
+    private static long key(Object record) {
+        return ((Integer) record).longValue();
+    }
+
+    private static class RangeExtractor implements DataSourceExtractor<Integer> {
+        private final int count;
+        private boolean closed;
+
+        RangeExtractor(int count) {
+            this.count = count;
+        }
+
+        @Override
+        public List<Integer> extract(LocalDate businessDate) {
+            List<Integer> values = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                values.add(i);
+            }
+            return values;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    private static class RecordingLoader implements DataLoader {
+        final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        final List<Object> records = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void load(List<?> batch) {
+            batchSizes.add(batch.size());
+            records.addAll(batch);
+        }
+
+        @Override
+        public void initialize() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public void createTemporaryTables() {
+        }
+
+        @Override
+        public void cleanup() {
+        }
+    }
+
+    @Test
+    public void testLoadsAllSourcesInBoundedBatches() throws Exception {
+        RecordingLoader loader = new RecordingLoader();
+        RangeExtractor first = new RangeExtractor(2500);
+        RangeExtractor second = new RangeExtractor(1300);
+
+        long loaded = new StreamingPipeline(loader, 16, 1000, StreamingPipelineTest::key)
+                .addSource(new PipelineSource<>("first", first, (raw, date) -> raw))
+                .addSource(new PipelineSource<>("second", second, (raw, date) -> raw))
+                .run(DATE);
+
+        assertEquals(3800, loaded);
+        assertEquals(3800, loader.records.size());
+        for (int size : loader.batchSizes) {
+            assertTrue("Batch exceeded limit: " + size, size <= 1000);
+        }
+        assertTrue(first.closed);
+        assertTrue(second.closed);
+        for (int i = 1; i < loader.records.size(); i++) {
+            assertTrue("Records not merged in key order at " + i,
+                    key(loader.records.get(i - 1)) <= key(loader.records.get(i)));
+        }
+    }
+
+    @Test
+    public void testReordersNearlySortedSource() throws Exception {
+        RecordingLoader loader = new RecordingLoader();
+        // Pairs swapped, as in rows of overlapping files: 1, 0, 3, 2, ...
+        PipelineSource<Integer> swapped = new PipelineSource<>("swapped", new RangeExtractor(1000),
+                (raw, date) -> (Integer) raw ^ 1);
+
+        new StreamingPipeline(loader, 16, 100, 2, StreamingPipelineTest::key)
+                .addSource(swapped)
+                .addSource(new PipelineSource<>("sorted", new RangeExtractor(500), (raw, date) -> raw))
+                .run(DATE);
+
+        assertEquals(1500, loader.records.size());
+        for (int i = 1; i < loader.records.size(); i++) {
+            assertTrue("Records not loaded in key order at " + i,
+                    key(loader.records.get(i - 1)) <= key(loader.records.get(i)));
+        }
+    }
+
+    @Test
+    public void testSkipsRejectedRecords() throws Exception {
+        RecordingLoader loader = new RecordingLoader();
+        PipelineSource<Integer> source = new PipelineSource<>("odd", new RangeExtractor(10), (raw, date) -> {
+            int value = (Integer) raw;
+            if (value % 2 == 0) {
+                throw new IllegalArgumentException("even");
+            }
+            return value;
+        });
+
+        long loaded = new StreamingPipeline(loader, 4, 3, StreamingPipelineTest::key).addSource(source).run(DATE);
+
+        assertEquals(5, loaded);
+        assertEquals(5, source.getRejected());
+    }
+
+    @Test(expected = ExtractionException.class)
+    public void testPropagatesExtractorFailure() throws Exception {
+        DataSourceExtractor<Integer> failing = businessDate -> {
+            throw new IllegalStateException("source unavailable");
+        };
+
+        new StreamingPipeline(new RecordingLoader(), 4, 3, StreamingPipelineTest::key)
+                .addSource(new PipelineSource<>("failing", failing, (raw, date) -> raw))
+                .run(DATE);
+    }
+}
@@ -1,11 +1,19 @@
 package com.histdata.etl.transformer;
 
+import com.histdata.etl.datasource.FutTickColumns;
 import com.histdata.etl.model.FutureQuoteRecord;
 import org.junit.Test;
 import org.junit.Before;
 import org.junit.After;
+import org.junit.Rule;
+import org.junit.rules.TemporaryFolder;
 import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.util.HashMap;
@@ -16,6 +24,9 @@ import java.util.Map;
  */
 public class FutureQuoteTransformerTest {
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     private FutureQuoteTransformer transformer;
 
     @Before
@@ -211,4 +222,116 @@ public class FutureQuoteTransformerTest {
         assertEquals("Receive time should fall back to event time", 
                      expectedEventTime, result.getReceiveTime());
     }
+
+    @Test
+    public void testTransformResultSet_MatchesMapPath() throws Exception {
+        Map<String, Object> record = new HashMap<>();
+        record.put("action_date", 20250107);
+        record.put("action_time", 93050090);
+        record.put("code", "TF2412");
+        record.put("pre_interest", 1000L);
+        record.put("price", 124.50);
+        record.put("total_volume", 10000L);
+        record.put("bid_prices", new double[]{124.0, 123.9, 123.8, 123.7, 123.6});
+        record.put("bid_qty", new long[]{100, 200, 300, 400, 500});
+        record.put("ask_prices", new double[]{124.1, 124.0, 123.9, 123.8, 123.7});
+        record.put("ask_qty", new long[]{100, 200, 300, 400, 500});
+        record.put("receive_time", "2025-01-07 09:30:51.123");
+
+        LocalDate businessDate = LocalDate.of(2025, 1, 7);
+        FutureQuoteRecord expected = transformer.transform(record, businessDate);
+        FutureQuoteRecord actual = transformer.transform(projectedRow(record), businessDate);
+
+        assertEquals(expected.getExchProductId(), actual.getExchProductId());
+        assertEquals(expected.getClosePrice(), actual.getClosePrice());
+        assertEquals(expected.getPreInterest(), actual.getPreInterest());
+        assertNull(actual.getOpenPrice());
+        assertEquals(expected.getBid2Price(), actual.getBid2Price());
+        assertEquals(expected.getOffer4TradableVolume(), actual.getOffer4TradableVolume());
+        assertEquals(expected.getEventTime(), actual.getEventTime());
+        assertEquals(expected.getReceiveTime(), actual.getReceiveTime());
+    }
+
+    @Test
+    public void testTransformResultSet_KeepsNulls() throws Exception {
+        Map<String, Object> record = new HashMap<>();
+        record.put("action_date", 20250107);
+        record.put("action_time", 93050090);
+        record.put("code", "TF2412");
+        record.put("price", 124.50);
+        record.put("open_interest", 5000L);
+
+        FutureQuoteRecord result = transformer.transform(projectedRow(record), LocalDate.of(2025, 1, 7));
+
+        assertEquals("TF2412", result.getExchProductId());
+        assertEquals(Double.valueOf(124.50), result.getClosePrice());
+        assertEquals(Long.valueOf(5000L), result.getOpenInterest());
+        assertNull(result.getOpenPrice());
+        assertNull(result.getTotalVolume());
+        assertNull(result.getBid0Price());
+        assertEquals(Timestamp.valueOf("2025-01-07 09:30:50.090"), result.getReceiveTime());
+    }
+
+    @Test
+    public void testTransformResultSet_MissingActionTime_RejectsRow() throws Exception {
+        Map<String, Object> record = new HashMap<>();
+        record.put("action_date", 20250107);
+        record.put("code", "TF2412");
+        RejectLog rejects = new RejectLog(temporaryFolder.getRoot().toPath(), LocalDate.of(2025, 1, 7));
+        transformer.setRejectSink(rejects);
+
+        assertNull(transformer.transform(projectedRow(record), LocalDate.of(2025, 1, 7)));
+        rejects.close();
+
+        assertEquals(Long.valueOf(1), rejects.getRejectCounts().get("future: action_time is null"));
+    }
+
+    @Test
+    public void testTransformMap_MissingActionDate_RejectsRow() throws Exception {
+        Map<String, Object> record = new HashMap<>();
+        record.put("action_time", 93050090);
+        record.put("code", "TF2412");
+        RejectLog rejects = new RejectLog(temporaryFolder.getRoot().toPath(), LocalDate.of(2025, 1, 7));
+        transformer.setRejectSink(rejects);
+
+        assertNull(transformer.transform((Object) record, LocalDate.of(2025, 1, 7)));
+        rejects.close();
+
+        assertEquals(Long.valueOf(1), rejects.getRejectCounts().get("future: action_date is null"));
+    }
+
+    /**
+     * Mocks a result set positioned on a row of the FutTickColumns projection, with JDBC null semantics.
+     */
+    private static ResultSet projectedRow(Map<String, Object> record) throws SQLException {
+        String[] names = FutTickColumns.SELECT_LIST.split(",\\s*");
+        Object[] values = new Object[names.length + 1];
+        for (int i = 0; i < names.length; i++) {
+            values[i + 1] = record.get(names[i]);
+        }
+        boolean[] lastNull = new boolean[1];
+        ResultSet row = mock(ResultSet.class);
+        when(row.getObject(anyInt())).thenAnswer(invocation -> read(values, invocation.getArgument(0), lastNull));
+        when(row.getString(anyInt())).thenAnswer(invocation -> read(values, invocation.getArgument(0), lastNull));
+        when(row.getDouble(anyInt())).thenAnswer(invocation -> {
+            Object value = read(values, invocation.getArgument(0), lastNull);
+            return value == null ? 0.0 : ((Number) value).doubleValue();
+        });
+        when(row.getLong(anyInt())).thenAnswer(invocation -> {
+            Object value = read(values, invocation.getArgument(0), lastNull);
+            return value == null ? 0L : ((Number) value).longValue();
+        });
+        when(row.getInt(anyInt())).thenAnswer(invocation -> {
+            Object value = read(values, invocation.getArgument(0), lastNull);
+            return value == null ? 0 : ((Number) value).intValue();
+        });
+        when(row.wasNull()).thenAnswer(invocation -> lastNull[0]);
+        return row;
+    }
+
+    private static Object read(Object[] values, int column, boolean[] lastNull) {
+        Object value = values[column];
+        lastNull[0] = value == null;
+        return value;
+    }
 }
@@ -0,0 +1,133 @@
+package com.histdata.etl.transformer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for ParallelTransformer.
+ */
+public class ParallelTransformerTest {
+    private static final LocalDate DATE = LocalDate.of(2025, 1, 1);
+
+    private ForkJoinPool pool;
+
+    @Before
+    public void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void testOutputKeepsInputOrder() {
+        List<Integer> rows = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            rows.add(i);
+        }
+        ParallelTransformer<Integer, String> transformer = new ParallelTransformer<>("test", pool,
+                () -> (raw, date) -> "r" + raw, null, 7);
+
+        List<String> records = transformer.transform(rows, DATE);
+
+        assertEquals(1000, records.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("r" + i, records.get(i));
+        }
+    }
+
+    @Test
+    public void testChunksNeverSplitAGroup() {
+        // Rows are "group:value"; groups of uneven length straddle every nominal cut
+        List<String> rows = new ArrayList<>();
+        for (int group = 0; group < 50; group++) {
+            for (int value = 0; value <= group % 5; value++) {
+                rows.add(group + ":" + value);
+            }
+        }
+        ParallelTransformer<String, String> transformer = new ParallelTransformer<>("test", pool, GroupJoiner::new,
+                (a, b) -> group(a).equals(group(b)), 3);
+
+        List<String> records = transformer.transform(rows, DATE);
+
+        assertEquals(50, records.size());
+        for (int group = 0; group < 50; group++) {
+            assertEquals(group + "x" + (group % 5 + 1), records.get(group));
+        }
+    }
+
+    @Test
+    public void testChunkBoundsFollowGroups() {
+        List<String> rows = Arrays.asList("a", "a", "a", "b", "c", "c", "c", "c", "d");
+        ParallelTransformer<String, String> transformer = new ParallelTransformer<>("test", pool, GroupJoiner::new,
+                String::equals, 2);
+
+        assertArrayEquals(new int[]{0, 3, 8, 9}, transformer.chunkBounds(rows));
+        assertArrayEquals(new int[]{0, 0}, transformer.chunkBounds(new ArrayList<>()));
+    }
+
+    @Test
+    public void testFailedRowsAreSkipped() {
+        ParallelTransformer<Integer, Integer> transformer = new ParallelTransformer<>("test", pool,
+                () -> (raw, date) -> {
+                    if ((Integer) raw % 10 == 0) {
+                        throw new IllegalArgumentException("bad row " + raw);
+                    }
+                    return raw;
+                }, null, 4);
+        List<Integer> rows = new ArrayList<>();
+        for (int i = 1; i <= 30; i++) {
+            rows.add(i);
+        }
+
+        List<Integer> records = transformer.transform(rows, DATE);
+
+        assertEquals(27, records.size());
+        assertEquals(3, transformer.getRejected());
+        assertEquals(Integer.valueOf(11), records.get(9));
+    }
+
+    private static String group(Object row) {
+        String value = (String) row;
+        return value.substring(0, value.indexOf(':'));
+    }
+
+    /**
+     * Joins consecutive rows of a group into "group x count", like the quote assembler.
+     */
+    private static class GroupJoiner implements DataTransformer<String> {
+        private String current;
+        private int count;
+
+        @Override
+        public String transform(Object rawRecord, LocalDate businessDate) {
+            String group = group(rawRecord);
+            String completed = null;
+            if (!group.equals(current)) {
+                completed = finish(businessDate);
+                current = group;
+            }
+            count++;
+            return completed;
+        }
+
+        @Override
+        public String finish(LocalDate businessDate) {
+            String completed = current == null ? null : current + "x" + count;
+            current = null;
+            count = 0;
+            return completed;
+        }
+    }
+}
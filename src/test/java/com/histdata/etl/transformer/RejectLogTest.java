@@ -0,0 +1,81 @@
+package com.histdata.etl.transformer;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for RejectLog.
+ */
+public class RejectLogTest {
+    private static final LocalDate DATE = LocalDate.of(2025, 1, 2);
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testRejectedRowsAreWrittenToTheDayFile() throws Exception {
+        Path directory = temporaryFolder.getRoot().toPath().resolve("rejects");
+        RejectLog rejects = new RejectLog(directory, DATE);
+        CSVRecord row = CSVFormat.DEFAULT.withHeader().parse(new StringReader("bond_key,side\n210210,\"Q, q\"\n"))
+                .getRecords().get(0);
+
+        rejects.reject("trade", "unknown side", row);
+        rejects.reject("trade", "unknown side", row);
+        rejects.close();
+
+        Path file = directory.resolve("rejects_20250102.csv");
+        assertEquals(file, rejects.getFile());
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(Arrays.asList("source,reason,row", "trade,unknown side,\"210210,\"\"Q, q\"\"\"",
+                "trade,unknown side,\"210210,\"\"Q, q\"\"\""), lines);
+    }
+
+    @Test
+    public void testNoFileWithoutRejects() throws Exception {
+        RejectLog rejects = new RejectLog(temporaryFolder.getRoot().toPath(), DATE);
+
+        rejects.fallback("future", "receive_time is null, using action time");
+        rejects.close();
+
+        assertFalse(Files.exists(rejects.getFile()));
+        assertEquals(0, rejects.getRejected());
+        assertEquals(1, rejects.getFallbacks());
+    }
+
+    @Test
+    public void testCountsAreAggregatedBySourceAndReason() throws Exception {
+        RejectLog rejects = new RejectLog(temporaryFolder.getRoot().toPath(), DATE);
+        Map<String, Object> row = new HashMap<>();
+        row.put("code", "TF2412");
+
+        for (int i = 0; i < 1000; i++) {
+            rejects.reject("future", "action_time is null", row);
+        }
+        rejects.reject("quote", "NumberFormatException", row);
+        rejects.fallback("trade", "recv_time is null, using deal_time");
+        rejects.close();
+
+        assertEquals(1001, rejects.getRejected());
+        Map<String, Long> expected = new HashMap<>();
+        expected.put("future: action_time is null", 1000L);
+        expected.put("quote: NumberFormatException", 1L);
+        assertEquals(expected, rejects.getRejectCounts());
+        assertEquals(Collections.singletonMap("trade: recv_time is null, using deal_time", 1L), rejects.getFallbackCounts());
+    }
+}
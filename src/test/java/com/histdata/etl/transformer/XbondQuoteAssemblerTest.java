@@ -0,0 +1,185 @@
+package com.histdata.etl.transformer;
+
+import com.histdata.etl.datasource.MappedCsvReader;
+import com.histdata.etl.model.XbondQuoteRecord;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for XbondQuoteAssembler.
+ */
+public class XbondQuoteAssemblerTest {
+    private static final String HEADER = "mq_offset,underlying_security_id,underlying_settlement_type,transact_time,recv_time,"
+            + "underlying_md_entry_type,underlying_md_price_level,underlying_md_entry_px,underlying_md_yield,"
+            + "underlying_md_yield_type,underlying_md_entry_size\n";
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private XbondQuoteAssembler assembler;
+
+    @Before
+    public void setUp() {
+        assembler = new XbondQuoteAssembler(LocalDate.of(2025, 1, 1));
+    }
+
+    @Test
+    public void testBooksCloseOnOffsetChange() throws IOException {
+        List<XbondQuoteRecord> books = assemble(
+                "1,210210,1,2025-01-01 09:30:00.000,2025-01-01 09:30:00.100,0,1,100.1,2.5,MATURITY,1000\n"
+                + "1,210210,1,2025-01-01 09:30:00.000,2025-01-01 09:30:00.100,1,1,100.2,2.4,MATURITY,2000\n"
+                + "2,210210,2,2025-01-01 09:30:01.000,2025-01-01 09:30:01.100,0,1,100.0,2.6,MATURITY,3000\n"
+                + "3,210215,1,2025-01-01 09:30:02.000,2025-01-01 09:30:02.100,1,1,99.5,2.7,MATURITY,4000\n");
+
+        assertEquals(3, books.size());
+        assertEquals("210210.IB", books.get(0).getExchProductId());
+        assertEquals(Double.valueOf(100.1), books.get(0).getBid0Price());
+        assertEquals(Double.valueOf(100.2), books.get(0).getOffer0Price());
+        assertEquals(1, books.get(1).getSettleSpeed());
+        assertEquals(Long.valueOf(3000L), books.get(1).getBid0Volume());
+        assertEquals("210215.IB", books.get(2).getExchProductId());
+        assertEquals(3, assembler.getAssembled());
+        assertEquals(0, assembler.getRejected());
+    }
+
+    @Test
+    public void testLevelsGoToTheirSlotsInAnyOrder() throws IOException {
+        List<XbondQuoteRecord> books = assemble(
+                "7,210210,1,2025-01-01 09:30:00.000,2025-01-01 09:30:00.100,1,3,100.5,2.2,MATURITY,300\n"
+                + "7,210210,1,2025-01-01 09:30:00.000,2025-01-01 09:30:00.100,0,2,100.0,2.6,MATURITY,200\n"
+                + "7,210210,1,2025-01-01 09:30:00.000,2025-01-01 09:30:00.100,0,1,100.1,2.5,MATURITY,100\n");
+
+        assertEquals(1, books.size());
+        XbondQuoteRecord book = books.get(0);
+        assertEquals(Double.valueOf(100.1), book.getBid0Price());
+        assertEquals(Double.valueOf(100.0), book.getBid1Price());
+        assertEquals(Long.valueOf(200L), book.getBid1Volume());
+        assertEquals(Double.valueOf(100.5), book.getOffer2Price());
+        assertNull(book.getOffer0Price());
+    }
+
+    @Test
+    public void testUnparseableSnapshotIsDroppedWhole() throws IOException {
+        List<XbondQuoteRecord> books = assemble(
+                "1,210210,1,2025-01-01 09:30:00.000,2025-01-01 09:30:00.100,0,1,bad,2.5,MATURITY,1000\n"
+                + "1,210210,1,2025-01-01 09:30:00.000,2025-01-01 09:30:00.100,1,1,100.2,2.4,MATURITY,2000\n"
+                + "2,210210,1,2025-01-01 09:30:01.000,2025-01-01 09:30:01.100,0,1,100.0,2.6,MATURITY,3000\n");
+
+        assertEquals(1, books.size());
+        assertEquals(Long.valueOf(3000L), books.get(0).getBid0Volume());
+        assertEquals(1, assembler.getRejected());
+    }
+
+    @Test
+    public void testSnapshotWithoutReceiveTimeIsSkipped() throws IOException {
+        List<XbondQuoteRecord> books = assemble(
+                "1,210210,1,2025-01-01 09:30:00.000,,0,1,100.1,2.5,MATURITY,1000\n"
+                + "2,210210,1,2025-01-01 09:30:01.000,2025-01-01 09:30:01.100,0,1,100.0,2.6,MATURITY,3000\n");
+
+        assertEquals(1, books.size());
+        assertEquals(Double.valueOf(100.0), books.get(0).getBid0Price());
+        assertEquals(1, assembler.getRejected());
+    }
+
+    @Test
+    public void testTransformerAssemblesSingleRows() throws Exception {
+        XbondQuoteTransformer transformer = new XbondQuoteTransformer();
+        LocalDate date = LocalDate.of(2025, 1, 1);
+        List<XbondQuoteRecord> books = new ArrayList<>();
+        for (CSVRecord row : parse(
+                "1,210210,1,2025-01-01 09:30:00.000,2025-01-01 09:30:00.100,0,1,100.1,2.5,MATURITY,1000\n"
+                + "2,210210,1,2025-01-01 09:30:01.000,2025-01-01 09:30:01.100,0,1,100.0,2.6,MATURITY,3000\n")) {
+            XbondQuoteRecord book = transformer.transform(row, date);
+            if (book != null) {
+                books.add(book);
+            }
+        }
+        books.add(transformer.finish(date));
+
+        assertEquals(2, books.size());
+        assertNotNull(books.get(1));
+        assertNull(transformer.finish(date));
+    }
+
+    @Test
+    public void testMappedRowsMatchCsvRecords() throws IOException {
+        String rows = "1,210210,1,2025-01-01 09:30:00.000,2025-01-01 09:30:00.100,0,1,100.1,2.5,MATURITY,1000\n"
+                + "1,210210,1,2025-01-01 09:30:00.000,2025-01-01 09:30:00.100,1,2,100.2,,MATURITY,2000\n"
+                + "1,210215,2,2025-01-01 09:30:00.000,2025-01-01 09:30:00.200,1,1,99.5,2.7,MATURITY,4000\n"
+                + "2,210210,1,2025-01-01 09:30:01.000,2025-01-01 09:30:01.100,0,1,bad,2.5,MATURITY,1000\n"
+                + "2,210210,1,2025-01-01 09:30:01.000,2025-01-01 09:30:01.100,1,1,100.2,2.4,MATURITY,2000\n"
+                + "3,210210,1,2025-01-01 09:30:02.000,,0,1,100.1,2.5,MATURITY,1000\n"
+                + "4,210210,1,2025-01-01 09:30:03.000,2025-01-01 09:30:03.100,0,3,100.0,2.6,EXERCISE,3000\n";
+        List<XbondQuoteRecord> expected = assemble(rows);
+
+        Path file = tempFolder.newFile("depth.csv").toPath();
+        Files.write(file, (HEADER + rows).getBytes(StandardCharsets.UTF_8));
+        XbondQuoteAssembler mapped = new XbondQuoteAssembler(LocalDate.of(2025, 1, 1));
+        List<XbondQuoteRecord> books = new ArrayList<>();
+        try (MappedCsvReader row = MappedCsvReader.open(file)) {
+            while (row.next()) {
+                XbondQuoteRecord book = mapped.add(row);
+                if (book != null) {
+                    books.add(book);
+                }
+            }
+        }
+        books.add(mapped.finish());
+
+        assertEquals(3, expected.size());
+        assertEquals(expected.size(), books.size());
+        assertEquals(assembler.getRejected(), mapped.getRejected());
+        for (int i = 0; i < expected.size(); i++) {
+            XbondQuoteRecord want = expected.get(i);
+            XbondQuoteRecord got = books.get(i);
+            assertEquals(want.getExchProductId(), got.getExchProductId());
+            assertEquals(want.getSettleSpeed(), got.getSettleSpeed());
+            assertEquals(want.getEventTime(), got.getEventTime());
+            assertEquals(want.getReceiveTime(), got.getReceiveTime());
+            assertEquals(want.getBid0Price(), got.getBid0Price());
+            assertEquals(want.getBid0Yield(), got.getBid0Yield());
+            assertEquals(want.getBid0YieldType(), got.getBid0YieldType());
+            assertEquals(want.getOffer0Price(), got.getOffer0Price());
+            assertEquals(want.getOffer1Price(), got.getOffer1Price());
+            assertEquals(want.getOffer1Yield(), got.getOffer1Yield());
+            assertEquals(want.getOffer1YieldType(), got.getOffer1YieldType());
+            assertEquals(want.getOffer1Volume(), got.getOffer1Volume());
+            assertEquals(want.getBid2Price(), got.getBid2Price());
+            assertEquals(want.getBid2TradableVolume(), got.getBid2TradableVolume());
+        }
+    }
+
+    private List<XbondQuoteRecord> assemble(String rows) throws IOException {
+        List<XbondQuoteRecord> books = new ArrayList<>();
+        for (CSVRecord row : parse(rows)) {
+            XbondQuoteRecord book = assembler.add(row);
+            if (book != null) {
+                books.add(book);
+            }
+        }
+        XbondQuoteRecord last = assembler.finish();
+        if (last != null) {
+            books.add(last);
+        }
+        return books;
+    }
+
+    private static List<CSVRecord> parse(String rows) throws IOException {
+        return CSVFormat.DEFAULT.withHeader().parse(new StringReader(HEADER + rows)).getRecords();
+    }
+}
@@ -1,10 +1,20 @@
 package com.histdata.etl.transformer;
 
+import com.histdata.etl.datasource.MappedCsvReader;
 import com.histdata.etl.model.XbondTradeRecord;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
+import org.junit.Rule;
 import org.junit.Test;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.util.List;
 import org.junit.Before;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.junit.MockitoJUnitRunner;
 
@@ -16,6 +26,9 @@ import static org.mockito.Mockito.*;
  */
 @RunWith(MockitoJUnitRunner.class)
 public class XbondTradeTransformerTest {
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
     private XbondTradeTransformer transformer;
 
     @Before
@@ -181,4 +194,64 @@ public class XbondTradeTransformerTest {
         assertNotNull(result.getReceiveTime());
         assertEquals(result.getEventTime(), result.getReceiveTime());
     }
+
+    @Test
+    public void testTransformMappedRow_MatchesCsvRecordPath() throws Exception {
+        Path file = tempFolder.newFile("deal.csv").toPath();
+        Files.write(file, ("bond_key,net_price,set_days,yield,yield_type,deal_size,side,deal_time,recv_time\n"
+                + "210210,100.5,T+0,3.5,0,1000000,X,2025-01-01 09:30:00.000,2025-01-01 09:30:00.125\n"
+                + "210211,99.25,T+1,,,2000000,D,2025-01-01 10:15:30.500,\n").getBytes(StandardCharsets.UTF_8));
+        LocalDate businessDate = LocalDate.of(2025, 1, 1);
+
+        List<CSVRecord> records;
+        try (Reader reader = Files.newBufferedReader(file);
+             CSVParser parser = CSVFormat.DEFAULT.withHeader().withIgnoreHeaderCase().withTrim().parse(reader)) {
+            records = parser.getRecords();
+        }
+
+        try (MappedCsvReader row = MappedCsvReader.open(file)) {
+            for (CSVRecord record : records) {
+                assertTrue(row.next());
+                XbondTradeRecord expected = transformer.transform(record, businessDate);
+                XbondTradeRecord actual = transformer.transform(row, businessDate);
+
+                assertEquals(expected.getExchProductId(), actual.getExchProductId());
+                assertEquals(expected.getLastTradePrice(), actual.getLastTradePrice());
+                assertEquals(expected.getSettleSpeed(), actual.getSettleSpeed());
+                assertEquals(expected.getLastTradeYield(), actual.getLastTradeYield());
+                assertEquals(expected.getLastTradeYieldType(), actual.getLastTradeYieldType());
+                assertEquals(expected.getLastTradeVolume(), actual.getLastTradeVolume());
+                assertEquals(expected.getLastTradeSide(), actual.getLastTradeSide());
+                assertEquals(expected.getEventTime(), actual.getEventTime());
+                assertEquals(expected.getReceiveTime(), actual.getReceiveTime());
+            }
+        }
+    }
+
+    @Test
+    public void testTransformMappedRow_RejectsWithoutThrowing() throws Exception {
+        Path file = tempFolder.newFile("bad-deal.csv").toPath();
+        Files.write(file, ("bond_key,net_price,set_days,yield,yield_type,deal_size,side,deal_time,recv_time\n"
+                + "210210,100.5,T+0,3.5,0,1000000,Q,2025-01-01 09:30:00.000,2025-01-01 09:30:00.125\n"
+                + "210211,,T+1,,,2000000,D,2025-01-01 10:15:30.500,2025-01-01 10:15:30.600\n"
+                + "210212,99.25,T+1,,,2000000,D,2025-01-01 10:15:30.500,\n").getBytes(StandardCharsets.UTF_8));
+        LocalDate businessDate = LocalDate.of(2025, 1, 1);
+        RejectLog rejects = new RejectLog(tempFolder.getRoot().toPath(), businessDate);
+        transformer.setRejectSink(rejects);
+
+        try (MappedCsvReader row = MappedCsvReader.open(file)) {
+            assertTrue(row.next());
+            assertNull(transformer.transform(row, businessDate));
+            assertTrue(row.next());
+            assertNull(transformer.transform(row, businessDate));
+            assertTrue(row.next());
+            assertNotNull(transformer.transform(row, businessDate));
+        }
+        rejects.close();
+
+        assertEquals(Long.valueOf(1), rejects.getRejectCounts().get("trade: unknown side"));
+        assertEquals(Long.valueOf(1), rejects.getRejectCounts().get("trade: net_price is empty"));
+        assertEquals(1, rejects.getFallbacks());
+        assertEquals(3, Files.readAllLines(rejects.getFile(), StandardCharsets.UTF_8).size());
+    }
 }
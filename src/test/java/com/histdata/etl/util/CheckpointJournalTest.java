@@ -0,0 +1,104 @@
+package com.histdata.etl.util;
+
+import com.histdata.etl.loader.LoadCheckpoint;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for CheckpointJournal.
+ */
+public class CheckpointJournalTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 1, 2);
+    private static final LocalDate NEXT_DAY = LocalDate.of(2025, 1, 3);
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testResumeRestoresProgress() throws Exception {
+        File file = new File(tempFolder.getRoot(), CheckpointJournal.JOURNAL_FILE_NAME);
+        try (CheckpointJournal journal = CheckpointJournal.open(file, false)) {
+            journal.recordSource(DAY, "quote", 30);
+            journal.recordSource(DAY, "trade", 12);
+            journal.recordDayComplete(DAY, 42);
+            journal.recordSource(NEXT_DAY, "quote", 50);
+            LoadCheckpoint checkpoint = journal.checkpoint(NEXT_DAY);
+            checkpoint.recordLoaded(20);
+            checkpoint.recordLoaded(40);
+        }
+
+        try (CheckpointJournal journal = CheckpointJournal.open(file, true)) {
+            assertTrue(journal.isDayComplete(DAY));
+            assertEquals(42, journal.getLoadedRecords(DAY));
+            assertEquals(30L, (long) journal.getSourceRows(DAY).get("quote"));
+            assertEquals(12L, (long) journal.getSourceRows(DAY).get("trade"));
+            assertFalse(journal.isDayComplete(NEXT_DAY));
+            assertEquals(40, journal.checkpoint(NEXT_DAY).getLoadedRecords());
+        }
+    }
+
+    @Test
+    public void testTornLastLineIsIgnored() throws Exception {
+        File file = new File(tempFolder.getRoot(), CheckpointJournal.JOURNAL_FILE_NAME);
+        try (CheckpointJournal journal = CheckpointJournal.open(file, false)) {
+            journal.recordLoaded(DAY, 10);
+        }
+        Files.write(file.toPath(), "20250102 LOA".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        try (CheckpointJournal journal = CheckpointJournal.open(file, true)) {
+            assertEquals(10, journal.getLoadedRecords(DAY));
+            assertFalse(journal.isDayComplete(DAY));
+        }
+    }
+
+    @Test
+    public void testRestartDiscardsProgressOfTheDay() throws Exception {
+        File file = new File(tempFolder.getRoot(), CheckpointJournal.JOURNAL_FILE_NAME);
+        try (CheckpointJournal journal = CheckpointJournal.open(file, false)) {
+            journal.recordSource(DAY, "quote", 30);
+            journal.recordLoaded(DAY, 20);
+            journal.recordLoaded(NEXT_DAY, 10);
+            journal.restartDay(DAY);
+            assertEquals(0, journal.getLoadedRecords(DAY));
+            journal.recordLoaded(DAY, 5);
+        }
+
+        try (CheckpointJournal journal = CheckpointJournal.open(file, true)) {
+            assertEquals(5, journal.getLoadedRecords(DAY));
+            assertEquals(Collections.emptyMap(), journal.getSourceRows(DAY));
+            assertEquals(10, journal.getLoadedRecords(NEXT_DAY));
+        }
+    }
+
+    @Test
+    public void testFreshRunStartsEmpty() throws Exception {
+        File file = new File(tempFolder.getRoot(), CheckpointJournal.JOURNAL_FILE_NAME);
+        try (CheckpointJournal journal = CheckpointJournal.open(file, false)) {
+            journal.recordDayComplete(DAY, 42);
+        }
+
+        try (CheckpointJournal journal = CheckpointJournal.open(file, false)) {
+            assertFalse(journal.isDayComplete(DAY));
+            assertEquals(0, journal.getLoadedRecords(DAY));
+            assertEquals(Collections.emptyMap(), journal.getSourceRows(DAY));
+        }
+        assertEquals(0, file.length());
+    }
+
+    @Test
+    public void testJournalIsNextToLockFile() {
+        File lockFile = new File(tempFolder.getRoot(), ".etl-tool.pid");
+        assertEquals(new File(tempFolder.getRoot(), ".etl-tool.journal"), CheckpointJournal.nextTo(lockFile));
+    }
+}
@@ -0,0 +1,54 @@
+package com.histdata.etl.util;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for MemoryAdmissionController.
+ */
+public class MemoryAdmissionControllerTest {
+
+    private static final long MB = 1024 * 1024;
+
+    @Test
+    public void testEstimateGrowsWithSources() {
+        long empty = MemoryAdmissionController.estimateDayBytes(0, 0, 0);
+        long day = MemoryAdmissionController.estimateDayBytes(400 * MB, 50 * MB, 1_000_000);
+
+        assertEquals(MemoryAdmissionController.DAY_OVERHEAD_BYTES, empty);
+        assertEquals(empty + 600 * MB + 100 * MB + 1_000_000L * MemoryAdmissionController.FUTURE_HEAP_PER_ROW, day);
+    }
+
+    @Test
+    public void testBudgetUsesCapacity() {
+        try (MemoryAdmissionController controller = new MemoryAdmissionController(256 * MB)) {
+            assertEquals(256 * MB, controller.getBudget().getCapacityBytes());
+            assertEquals(0, controller.getBudget().getReservedBytes());
+        }
+    }
+
+    @Test
+    public void testPressureIsMeasuredAfterCollection() {
+        try (MemoryAdmissionController controller = new MemoryAdmissionController(256 * MB)) {
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() != MemoryType.HEAP || !pool.isCollectionUsageThresholdSupported()
+                        || !pool.isUsageThresholdSupported()) {
+                    continue;
+                }
+                // Usage before a collection includes garbage, so only the collection threshold is armed
+                assertTrue(pool.getName(), pool.getCollectionUsageThreshold() > 0);
+                assertEquals(pool.getName(), 0, pool.getUsageThreshold());
+            }
+        }
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported()) {
+                assertEquals(pool.getName(), 0, pool.getCollectionUsageThreshold());
+            }
+        }
+    }
+}
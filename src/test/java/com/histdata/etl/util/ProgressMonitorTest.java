@@ -1,9 +1,13 @@
 package com.histdata.etl.util;
 
+import com.histdata.etl.loader.LoadCheckpoint;
 import org.junit.Test;
-import org.junit.Before;
 
 import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
 
@@ -12,116 +16,138 @@ import static org.junit.Assert.*;
  */
 public class ProgressMonitorTest {
 
-    @Test
-    public void testConstructorWithDateRange() {
-        LocalDate start = LocalDate.of(2025, 1, 1);
-        LocalDate end = LocalDate.of(2025, 1, 3);
-        ProgressMonitor monitor = new ProgressMonitor(start, end);
-        // Should not throw
-        assertNotNull(monitor);
-    }
+    private static final long SECOND = 1_000_000_000L;
 
-    @Test
-    public void testCalculateTotalDays() {
-        // Indirectly test via constructor
-        LocalDate start = LocalDate.of(2025, 1, 1);
-        LocalDate end = LocalDate.of(2025, 1, 1);
-        ProgressMonitor monitor = new ProgressMonitor(start, end);
-        // No assertion, just ensure no exception
+    private static ProgressMonitor monitor() {
+        return new ProgressMonitor(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 4));
     }
 
-    @Test
-    public void testStartDay() {
-        LocalDate start = LocalDate.of(2025, 1, 1);
-        LocalDate end = LocalDate.of(2025, 1, 3);
-        ProgressMonitor monitor = new ProgressMonitor(start, end);
-        monitor.startDay(LocalDate.of(2025, 1, 2));
-        // Should not throw
+    private static class RecordingCheckpoint implements LoadCheckpoint {
+        private long loaded;
+
+        RecordingCheckpoint(long loaded) {
+            this.loaded = loaded;
+        }
+
+        @Override
+        public long getLoadedRecords() {
+            return loaded;
+        }
+
+        @Override
+        public void recordLoaded(long loadedRecords) {
+            loaded = loadedRecords;
+        }
     }
 
     @Test
-    public void testUpdateQuoteProgress() {
-        LocalDate start = LocalDate.of(2025, 1, 1);
-        LocalDate end = LocalDate.of(2025, 1, 1);
-        ProgressMonitor monitor = new ProgressMonitor(start, end);
-        monitor.updateQuoteProgress(1000, false);
-        monitor.updateQuoteProgress(2000, true);
-        // Should not throw
+    public void testCountersAreSafeAcrossThreads() throws Exception {
+        ProgressMonitor monitor = monitor();
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        CountDownLatch start = new CountDownLatch(1);
+        for (String source : new String[]{ProgressMonitor.QUOTE, ProgressMonitor.TRADE, ProgressMonitor.FUTURE}) {
+            for (int t = 0; t < 2; t++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < 100_000; i++) {
+                        monitor.counter(source).increment();
+                    }
+                });
+            }
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(200_000, monitor.counter(ProgressMonitor.QUOTE).sum());
+        assertEquals(200_000, monitor.counter(ProgressMonitor.TRADE).sum());
+        assertEquals(200_000, monitor.counter(ProgressMonitor.FUTURE).sum());
     }
 
-    @Test
-    public void testUpdateTradeProgress() {
-        LocalDate start = LocalDate.of(2025, 1, 1);
-        LocalDate end = LocalDate.of(2025, 1, 1);
-        ProgressMonitor monitor = new ProgressMonitor(start, end);
-        monitor.updateTradeProgress(500, false);
-        monitor.updateTradeProgress(1000, true);
-        // Should not throw
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownSourceIsRejected() {
+        monitor().counter("bond");
     }
 
     @Test
-    public void testUpdateFutureProgress() {
-        LocalDate start = LocalDate.of(2025, 1, 1);
-        LocalDate end = LocalDate.of(2025, 1, 1);
-        ProgressMonitor monitor = new ProgressMonitor(start, end);
-        monitor.updateFutureProgress(10000, false);
-        monitor.updateFutureProgress(20000, true);
-        // Should not throw
+    public void testTrackingCountsOnlyRecordsLoadedInThisRun() throws Exception {
+        ProgressMonitor monitor = monitor();
+        RecordingCheckpoint checkpoint = new RecordingCheckpoint(1000);
+        LoadCheckpoint tracking = monitor.tracking(checkpoint);
+
+        assertEquals(1000, tracking.getLoadedRecords());
+        tracking.recordLoaded(1500);
+        tracking.recordLoaded(1800);
+
+        assertEquals(1800, checkpoint.getLoadedRecords());
+        assertEquals(800, monitor.getLoadedRecords());
     }
 
     @Test
-    public void testReportSorting() {
-        LocalDate start = LocalDate.of(2025, 1, 1);
-        LocalDate end = LocalDate.of(2025, 1, 1);
-        ProgressMonitor monitor = new ProgressMonitor(start, end);
-        monitor.reportSorting();
-        // Should not throw
+    public void testReportSmoothsRateAndEstimatesRemainingDays() throws Exception {
+        ProgressMonitor monitor = monitor();
+        LoadCheckpoint tracking = monitor.tracking(new RecordingCheckpoint(0));
+        monitor.report(0);
+
+        monitor.startDay(LocalDate.of(2025, 1, 1));
+        tracking.recordLoaded(10_000);
+        monitor.completeDay(LocalDate.of(2025, 1, 1), 10_000);
+        String first = monitor.report(SECOND);
+
+        assertTrue(first, first.contains("1/4 days done, 0 running"));
+        assertTrue(first, first.contains("10,000 rows/s"));
+        // 40,000 expected rows, 30,000 left at 10,000 rows/s
+        assertTrue(first, first.endsWith("ETA 0m 3s"));
+
+        tracking.recordLoaded(15_000);
+        String second = monitor.report(2 * SECOND);
+
+        // 0.3 * 5,000 + 0.7 * 10,000
+        assertTrue(second, second.contains("8,500 rows/s"));
     }
 
     @Test
-    public void testReportLoading() {
-        LocalDate start = LocalDate.of(2025, 1, 1);
-        LocalDate end = LocalDate.of(2025, 1, 1);
-        ProgressMonitor monitor = new ProgressMonitor(start, end);
-        monitor.reportLoading(50000);
-        // Should not throw
+    public void testEtaIsUnknownUntilADayCompletes() {
+        ProgressMonitor monitor = monitor();
+        monitor.report(0);
+        monitor.counter(ProgressMonitor.QUOTE).add(42);
+
+        String line = monitor.report(SECOND);
+
+        assertTrue(line, line.contains("quote 42 trade 0 future 0"));
+        assertTrue(line, line.endsWith("ETA unknown"));
     }
 
     @Test
-    public void testReportLoadingProgress() {
-        LocalDate start = LocalDate.of(2025, 1, 1);
-        LocalDate end = LocalDate.of(2025, 1, 1);
-        ProgressMonitor monitor = new ProgressMonitor(start, end);
-        monitor.reportLoading(100000);
-        monitor.reportLoadingProgress(50000);
-        monitor.reportLoadingProgress(100000);
-        // Should not throw
+    public void testFormatEta() {
+        assertEquals("unknown", ProgressMonitor.formatEta(-1));
+        assertEquals("2m 5s", ProgressMonitor.formatEta(125));
+        assertEquals("3h 20m", ProgressMonitor.formatEta(12_000));
     }
 
     @Test
-    public void testReportDayComplete() {
-        LocalDate start = LocalDate.of(2025, 1, 1);
-        LocalDate end = LocalDate.of(2025, 1, 1);
-        ProgressMonitor monitor = new ProgressMonitor(start, end);
-        monitor.reportDayComplete();
-        // Should not throw
+    public void testStartAndCloseReporter() {
+        ProgressMonitor monitor = monitor();
+        monitor.start(4);
+        monitor.start(4);
+        monitor.close();
+        monitor.close();
+        monitor.displaySummary();
     }
 
     @Test
     public void testReportComplete() {
-        LocalDate start = LocalDate.of(2025, 1, 1);
-        LocalDate end = LocalDate.of(2025, 1, 1);
-        ProgressMonitor monitor = new ProgressMonitor(start, end);
-        monitor.reportComplete(150000);
+        monitor().reportComplete(150000);
         // Should not throw
     }
 
     @Test
     public void testReportNoData() {
-        LocalDate start = LocalDate.of(2025, 1, 1);
-        LocalDate end = LocalDate.of(2025, 1, 1);
-        ProgressMonitor monitor = new ProgressMonitor(start, end);
-        monitor.reportNoData(LocalDate.of(2025, 1, 2));
+        monitor().reportNoData(LocalDate.of(2025, 1, 2));
         // Should not throw
     }
-}
\ No newline at end of file
+}
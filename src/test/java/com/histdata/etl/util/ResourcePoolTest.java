@@ -0,0 +1,94 @@
+package com.histdata.etl.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for ResourcePool.
+ */
+public class ResourcePoolTest {
+
+    @Test
+    public void testBorrowReusesReleasedResource() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        ResourcePool<Integer> pool = new ResourcePool<>("test", 2, created::incrementAndGet, r -> { });
+
+        Integer first = pool.borrow();
+        pool.release(first);
+
+        assertSame(first, pool.borrow());
+        assertEquals(1, created.get());
+    }
+
+    @Test
+    public void testBrokenIdleResourceIsReplaced() throws Exception {
+        List<Integer> disposed = new ArrayList<>();
+        AtomicInteger created = new AtomicInteger();
+        List<Integer> broken = new ArrayList<>();
+        ResourcePool<Integer> pool = new ResourcePool<>("test", 1, created::incrementAndGet, disposed::add,
+                r -> !broken.contains(r));
+
+        Integer first = pool.borrow();
+        pool.release(first);
+        broken.add(first);
+
+        Integer second = pool.borrow();
+
+        assertEquals(Integer.valueOf(2), second);
+        assertEquals(1, disposed.size());
+        assertEquals(first, disposed.get(0));
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    public void testValidatorExceptionCountsAsBroken() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        ResourcePool<Integer> pool = new ResourcePool<>("test", 1, created::incrementAndGet, r -> { }, r -> {
+            if (r == 1) {
+                throw new IllegalStateException("connection reset");
+            }
+            return true;
+        });
+
+        pool.release(pool.borrow());
+
+        assertEquals(Integer.valueOf(2), pool.borrow());
+    }
+
+    @Test
+    public void testInvalidateFreesSlot() throws Exception {
+        List<Integer> disposed = new ArrayList<>();
+        AtomicInteger created = new AtomicInteger();
+        ResourcePool<Integer> pool = new ResourcePool<>("test", 1, created::incrementAndGet, disposed::add);
+
+        Integer first = pool.borrow();
+        pool.invalidate(first);
+
+        assertEquals(Integer.valueOf(2), pool.borrow());
+        assertEquals(1, disposed.size());
+    }
+
+    @Test
+    public void testCloseDisposesAllResources() throws Exception {
+        List<Integer> disposed = new ArrayList<>();
+        AtomicInteger created = new AtomicInteger();
+        ResourcePool<Integer> pool = new ResourcePool<>("test", 2, created::incrementAndGet, disposed::add);
+
+        pool.borrow();
+        pool.release(pool.borrow());
+        pool.close();
+
+        assertEquals(2, disposed.size());
+        try {
+            pool.borrow();
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains("closed"));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.histdata.etl.util;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for TimestampParser.
+ */
+public class TimestampParserTest {
+
+    @Test
+    public void testParseMillis_MatchesSimpleDateFormat() throws Exception {
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+        sdf.setLenient(false);
+        Random random = new Random(3);
+
+        for (int i = 0; i < 5000; i++) {
+            String text = String.format("%04d-%02d-%02d %02d:%02d:%02d.%03d",
+                    2000 + random.nextInt(40), 1 + random.nextInt(12), 1 + random.nextInt(28),
+                    random.nextInt(24), random.nextInt(60), random.nextInt(60), random.nextInt(1000));
+            long expected = sdf.parse(text).getTime();
+
+            assertEquals(text, expected, TimestampParser.parseMillis(text));
+            ByteBuffer bytes = ByteBuffer.wrap(("x," + text).getBytes(StandardCharsets.US_ASCII));
+            assertEquals(text, expected, TimestampParser.parseMillis(bytes, 2, TimestampParser.LENGTH));
+        }
+    }
+
+    @Test
+    public void testFromActionDateTime() throws Exception {
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+
+        assertEquals(sdf.parse("2025-01-07 09:30:50.090").getTime(), TimestampParser.fromActionDateTime(20250107, 93050090));
+        assertEquals(sdf.parse("2024-12-31 23:59:59.999").getTime(), TimestampParser.fromActionDateTime(20241231, 235959999));
+        assertEquals(sdf.parse("2025-01-01 00:00:00.000").getTime(), TimestampParser.fromActionDateTime(20250101, 0));
+    }
+
+    @Test
+    public void testConcurrentDaysParseCorrectly() throws Exception {
+        String[] days = {"2025-01-06", "2025-01-07", "2025-02-10", "2025-03-31"};
+        long[] expected = new long[days.length];
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+        for (int i = 0; i < days.length; i++) {
+            expected[i] = sdf.parse(days[i] + " 09:30:50.090").getTime();
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(days.length);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < days.length; i++) {
+                String text = days[i] + " 09:30:50.090";
+                long millis = expected[i];
+                results.add(executor.submit(() -> {
+                    for (int n = 0; n < 100000; n++) {
+                        if (TimestampParser.parseMillis(text) != millis) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testInvalidValuesAreRejected() {
+        String[] invalid = {"2025-02-30 00:00:00.000", "2025-13-01 00:00:00.000", "2025-01-01 24:00:00.000",
+                "2025-01-01 12:60:00.000", "2025-01-01T12:00:00.000", "2025-01-01 12:00:0x.000", "2025-01-01 12:00:00"};
+        for (String text : invalid) {
+            try {
+                TimestampParser.parseMillis(text);
+                fail("Expected IllegalArgumentException for " + text);
+            } catch (IllegalArgumentException expected) {
+                // expected
+            }
+        }
+
+        try {
+            TimestampParser.fromActionDateTime(20250107, 250000000);
+            fail("Expected IllegalArgumentException for hour 25");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testDateUtilsFallsBackForShortFraction() throws Exception {
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+
+        assertEquals(sdf.parse("2025-01-07 09:30:50.5").getTime(), DateUtils.parseTimestampMillis("2025-01-07 09:30:50.5"));
+        assertEquals(sdf.parse("2025-01-07 09:30:50.090").getTime(), DateUtils.parseTimestampMillis("2025-01-07 09:30:50.090"));
+    }
+}